@@ -0,0 +1,260 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Микробенчмарки JMH для ядер сортировки вставками.
+ *
+ * Запуск:
+ * <pre>
+ * mvn -Pbenchmarks package
+ * java -jar target/benchmarks.jar -prof gc
+ * </pre>
+ * Профилировщик gc добавляет к результату скорость выделения памяти (gc.alloc.rate.norm, байт/операцию).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SortBenchmark {
+    private static final AutoSortAlgorithm AUTO = new AutoSortAlgorithm();
+
+    @Param({"1000", "10000", "50000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "FEW_UNIQUE", "NEARLY_SORTED"})
+    public ArrayShape shape;
+
+    private int[] source;
+    private int[] work;
+    private ParallelSort parallel;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        ArrayGenerator generator = new ArrayGenerator(shape, size, 42);
+        generator.setThreads(1);
+        source = generator.generate(size);
+        work = new int[size];
+    }
+
+    /**
+     * Один пул параллельной сортировки на весь прогон: создание пула и потоков не входит во время вызова
+     */
+    @Setup(Level.Trial)
+    public void createParallelSort() {
+        parallel = new ParallelSort(Runtime.getRuntime().availableProcessors(), ParallelSort.DEFAULT_THRESHOLD);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeParallelSort() {
+        parallel.close();
+    }
+
+    /**
+     * Восстановление исходного массива в начале каждого вызова сортировки. Копирование выполняется внутри
+     * бенчмарка, а не в {@code @Setup(Level.Invocation)}: на вызовах в микросекунды накладные расходы JMH
+     * на такой Setup сравнимы с самим замером. Время копирования без выделений памяти дает {@link #copyOnly()},
+     * его нужно вычесть из времени сортировки.
+     */
+    private int[] fresh() {
+        System.arraycopy(source, 0, work, 0, size);
+        return work;
+    }
+
+    /**
+     * Только копирование исходного массива: поправка, вычитаемая из времени остальных бенчмарков сортировки
+     */
+    @Benchmark
+    public int[] copyOnly() {
+        return fresh();
+    }
+
+    @Benchmark
+    public SortResult insertionSort() {
+        return InsertionSorts.insertionSort(fresh());
+    }
+
+    @Benchmark
+    public SortResult binaryInsertionSort() {
+        return InsertionSorts.binaryInsertionSort(fresh());
+    }
+
+    @Benchmark
+    public void insertionSortUninstrumented(Blackhole bh) {
+        int[] work = fresh();
+        InsertionSorts.insertionSort(work, Metrics.NONE);
+        bh.consume(work);
+    }
+
+    @Benchmark
+    public void binaryInsertionSortUninstrumented(Blackhole bh) {
+        int[] work = fresh();
+        InsertionSorts.binaryInsertionSort(work, Metrics.NONE);
+        bh.consume(work);
+    }
+
+    @Benchmark
+    public void blockMoveInsertionSortUninstrumented(Blackhole bh) {
+        int[] work = fresh();
+        InsertionSorts.blockMoveInsertionSort(work, Metrics.NONE);
+        bh.consume(work);
+    }
+
+    @Benchmark
+    public void batchedInsertionSortUninstrumented(Blackhole bh) {
+        int[] work = fresh();
+        InsertionSorts.batchedInsertionSort(work, InsertionSorts.defaultGroupSize(work.length), Metrics.NONE);
+        bh.consume(work);
+    }
+
+    @Benchmark
+    public void hybridSortUninstrumented(Blackhole bh) {
+        int[] work = fresh();
+        HybridSort.sort(work, Metrics.NONE);
+        bh.consume(work);
+    }
+
+    @Benchmark
+    public void lsdRadixSort8Uninstrumented(Blackhole bh) {
+        int[] work = fresh();
+        RadixSorts.lsdRadixSort(work, 8, Metrics.NONE);
+        bh.consume(work);
+    }
+
+    @Benchmark
+    public void lsdRadixSort11Uninstrumented(Blackhole bh) {
+        int[] work = fresh();
+        RadixSorts.lsdRadixSort(work, 11, Metrics.NONE);
+        bh.consume(work);
+    }
+
+    @Benchmark
+    public void lsdRadixSort16Uninstrumented(Blackhole bh) {
+        int[] work = fresh();
+        RadixSorts.lsdRadixSort(work, 16, Metrics.NONE);
+        bh.consume(work);
+    }
+
+    @Benchmark
+    public void msdRadixSortUninstrumented(Blackhole bh) {
+        int[] work = fresh();
+        RadixSorts.msdRadixSort(work, RadixSorts.DEFAULT_MSD_CUTOFF, Metrics.NONE);
+        bh.consume(work);
+    }
+
+    @Benchmark
+    public void countingSortUninstrumented(Blackhole bh) {
+        int[] work = fresh();
+        RadixSorts.countingSort(work, Metrics.NONE);
+        bh.consume(work);
+    }
+
+    @Benchmark
+    public void parallelSortUninstrumented(Blackhole bh) {
+        int[] work = fresh();
+        parallel.sort(work, Metrics.NONE);
+        bh.consume(work);
+    }
+
+    @Benchmark
+    public void autoSortUninstrumented(Blackhole bh) {
+        int[] work = fresh();
+        AUTO.sort(work, Metrics.NONE);
+        bh.consume(work);
+    }
+
+    /**
+     * Только предварительный проход автоматического выбора: его доля во времени autoSortUninstrumented.
+     * Проход не меняет массив, поэтому копирование не нужно.
+     */
+    @Benchmark
+    public ArrayProfile autoPrepass() {
+        return ArrayProfile.of(source);
+    }
+
+    /**
+     * Точный анализ упорядоченности (инверсии, Rem, Osc) в одном потоке: сравнение с дешевой оценкой autoPrepass.
+     * Анализ не меняет массив.
+     */
+    @Benchmark
+    public Presortedness presortedness() {
+        return Presortedness.analyze(source, 1);
+    }
+
+    /**
+     * Рукописная копия ядра без приемника статистики: время должно совпадать с insertionSortUninstrumented
+     */
+    @Benchmark
+    public void insertionSortBaseline(Blackhole bh) {
+        int[] work = fresh();
+        plainInsertionSort(work);
+        bh.consume(work);
+    }
+
+    /**
+     * Рукописная копия ядра без приемника статистики: время должно совпадать с binaryInsertionSortUninstrumented
+     */
+    @Benchmark
+    public void binaryInsertionSortBaseline(Blackhole bh) {
+        int[] work = fresh();
+        plainBinaryInsertionSort(work);
+        bh.consume(work);
+    }
+
+    /**
+     * Базовая линия: сортировка простыми вставками без счетчиков
+     */
+    private static void plainInsertionSort(int[] arr) {
+        for (int i = 1; i < arr.length; i++) {
+            int current = arr[i];
+            int j = i - 1;
+            while (j >= 0 && arr[j] > current) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = current;
+        }
+    }
+
+    /**
+     * Базовая линия: сортировка бинарными вставками без счетчиков
+     */
+    private static void plainBinaryInsertionSort(int[] arr) {
+        for (int i = 1; i < arr.length; i++) {
+            int current = arr[i];
+            int left = 0;
+            int right = i - 1;
+            while (left <= right) {
+                int mid = (left + right) / 2;
+                if (current < arr[mid]) {
+                    right = mid - 1;
+                } else {
+                    left = mid + 1;
+                }
+            }
+            int j = i - 1;
+            while (j >= left) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[left] = current;
+        }
+    }
+}
@@ -1,12 +1,12 @@
 package org.example;
 
-import java.io.FileWriter;
+import java.io.File;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.util.Random;
 
 /**
- * Утилитарный класс для генерации файлов с тестовыми массивами
+ * Утилита командной строки для генерации файлов с тестовыми массивами.
+ * Формат выбирается по расширению: {@code .txt} — текст через пробел, иначе двоичный формат ({@link BinaryArrayHeader}).
  */
 public class ArrayFileGenerator {
 
@@ -17,18 +17,18 @@ public class ArrayFileGenerator {
      * @param maxValue максимальное значение элементов
      */
     public static void generateRandomArrayFile(String filename, int size, int maxValue) throws IOException {
-        Random rand = new Random();
-        PrintWriter writer = new PrintWriter(new FileWriter(filename));
-
-        for (int i = 0; i < size; i++) {
-            writer.print(rand.nextInt(maxValue));
-            if (i < size - 1) {
-                writer.print(" ");
-            }
-        }
+        generateRandomArrayFile(filename, size, maxValue, new Random().nextLong());
+    }
 
-        writer.close();
-        System.out.println("Файл " + filename + " успешно создан");
+    /**
+     * Создает файл с случайным массивом заданного размера
+     * @param filename имя файла
+     * @param size размер массива
+     * @param maxValue максимальное значение элементов
+     * @param seed зерно генератора (записывается в заголовок двоичного файла)
+     */
+    public static void generateRandomArrayFile(String filename, int size, int maxValue, long seed) throws IOException {
+        generateArrayFile(filename, size, new ArrayGenerator(ArrayShape.RANDOM, maxValue, seed));
     }
 
     /**
@@ -37,17 +37,7 @@ public class ArrayFileGenerator {
      * @param size размер массива
      */
     public static void generateSortedArrayFile(String filename, int size) throws IOException {
-        PrintWriter writer = new PrintWriter(new FileWriter(filename));
-
-        for (int i = 0; i < size; i++) {
-            writer.print(i);
-            if (i < size - 1) {
-                writer.print(" ");
-            }
-        }
-
-        writer.close();
-        System.out.println("Файл " + filename + " успешно создан");
+        generateArrayFile(filename, size, new ArrayGenerator(ArrayShape.SORTED, Math.max(1, size), 0));
     }
 
     /**
@@ -56,37 +46,147 @@ public class ArrayFileGenerator {
      * @param size размер массива
      */
     public static void generateReversedArrayFile(String filename, int size) throws IOException {
-        PrintWriter writer = new PrintWriter(new FileWriter(filename));
-
-        for (int i = size - 1; i >= 0; i--) {
-            writer.print(i);
-            if (i > 0) {
-                writer.print(" ");
-            }
-        }
+        generateArrayFile(filename, size, new ArrayGenerator(ArrayShape.REVERSED, Math.max(1, size), 0));
+    }
 
-        writer.close();
+    /**
+     * Создает файл с массивом, заполненным генератором
+     * @param filename имя файла
+     * @param size размер массива
+     * @param generator генератор с заданными формой, диапазоном и зерном
+     */
+    public static void generateArrayFile(String filename, int size, ArrayGenerator generator) throws IOException {
+        int[] array = generator.generate(size);
+        ArrayFileWriter.writeArray(new File(filename), array, generator.getShape(), generator.getSeed());
         System.out.println("Файл " + filename + " успешно создан");
     }
 
     /**
-     * Основной метод для генерации тестовых файлов
+     * Генерация файла по параметрам командной строки.
+     * <pre>
+     * --size N            размер массива (обязательный)
+     * --max M             максимальное значение элементов, не включительно (по умолчанию равно размеру)
+     * --distribution D    uniform, sorted, reversed, nearly-sorted, sawtooth, organ-pipe, few-unique, zipf
+     * --param K           параметр распределения: перестановки (nearly-sorted), зубцы (sawtooth),
+     *                     различные значения (few-unique); 0 — по умолчанию
+     * --zipf-exponent S   показатель распределения Ципфа (по умолчанию 1.0)
+     * --seed S            зерно генератора (по умолчанию случайное)
+     * --threads T         количество потоков (по умолчанию — количество процессоров)
+     * --format F          text или binary (по умолчанию по расширению выходного файла)
+     * --output PATH       выходной файл (обязательный)
+     * </pre>
+     * Без аргументов выводит справку.
      */
     public static void main(String[] args) {
+        if (args.length == 0 || "--help".equals(args[0]) || "-h".equals(args[0])) {
+            printUsage();
+            return;
+        }
+
+        int size = -1;
+        int maxValue = -1;
+        ArrayShape shape = ArrayShape.RANDOM;
+        int parameter = 0;
+        double zipfExponent = 1.0;
+        long seed = new Random().nextLong();
+        int threads = Runtime.getRuntime().availableProcessors();
+        String format = null;
+        String output = null;
+
         try {
-            // Генерация случайных массивов разных размеров
-            generateRandomArrayFile("random_500.txt", 500, 1000);
-            generateRandomArrayFile("random_1000.txt", 1000, 1000);
-            generateRandomArrayFile("random_5000.txt", 5000, 1000);
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Не указано значение параметра " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--size":
+                        size = Integer.parseInt(value);
+                        break;
+                    case "--max":
+                        maxValue = Integer.parseInt(value);
+                        break;
+                    case "--distribution":
+                        shape = ArrayShape.fromOptionName(value);
+                        break;
+                    case "--param":
+                        parameter = Integer.parseInt(value);
+                        break;
+                    case "--zipf-exponent":
+                        zipfExponent = Double.parseDouble(value);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "--format":
+                        if (!"text".equals(value) && !"binary".equals(value)) {
+                            throw new IllegalArgumentException("Неизвестный формат: " + value);
+                        }
+                        format = value;
+                        break;
+                    case "--output":
+                        output = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Неизвестный параметр: " + option);
+                }
+            }
+            if (size < 0) {
+                throw new IllegalArgumentException("Не указан размер массива (--size)");
+            }
+            if (output == null) {
+                throw new IllegalArgumentException("Не указан выходной файл (--output)");
+            }
+            if (maxValue < 0) {
+                maxValue = Math.max(1, size);
+            }
 
-            // Генерация отсортированных массивов
-            generateSortedArrayFile("sorted_1000.txt", 1000);
+            ArrayGenerator generator = new ArrayGenerator(shape, maxValue, seed);
+            generator.setParameter(parameter);
+            generator.setZipfExponent(zipfExponent);
+            generator.setThreads(threads);
 
-            // Генерация обратно отсортированных массивов (худший случай)
-            generateReversedArrayFile("reversed_1000.txt", 1000);
+            long startTime = System.nanoTime();
+            int[] array = generator.generate(size);
+            long generateTime = (System.nanoTime() - startTime) / 1000000;
 
+            File file = new File(output);
+            boolean text = format != null ? "text".equals(format) : ArrayFileWriter.isTextFile(file);
+            startTime = System.nanoTime();
+            if (text) {
+                ArrayFileWriter.writeTextArray(file, array);
+            } else {
+                ArrayFileWriter.writeBinaryArray(file, array, shape, seed);
+            }
+            long writeTime = (System.nanoTime() - startTime) / 1000000;
+
+            System.out.println("Файл " + output + " успешно создан: " + size + " элементов, распределение "
+                    + shape.getOptionName() + ", зерно " + seed + ", формат " + (text ? "text" : "binary"));
+            System.out.println("Генерация: " + generateTime + " мс, запись: " + writeTime + " мс");
+        } catch (IllegalArgumentException e) {
+            System.err.println("Ошибка: " + e.getMessage());
+            printUsage();
+            System.exit(2);
         } catch (IOException e) {
             System.err.println("Ошибка при создании файла: " + e.getMessage());
+            System.exit(1);
         }
     }
-}
\ No newline at end of file
+
+    private static void printUsage() {
+        System.out.println("Использование: ArrayFileGenerator --size N --output PATH [параметры]");
+        System.out.println("  --max M             максимальное значение (не включительно), по умолчанию N");
+        System.out.println("  --distribution D    uniform | sorted | reversed | nearly-sorted | sawtooth |");
+        System.out.println("                      organ-pipe | few-unique | zipf (по умолчанию uniform)");
+        System.out.println("  --param K           перестановки (nearly-sorted), зубцы (sawtooth),");
+        System.out.println("                      различные значения (few-unique); 0 — по умолчанию");
+        System.out.println("  --zipf-exponent S   показатель распределения Ципфа (по умолчанию 1.0)");
+        System.out.println("  --seed S            зерно генератора (по умолчанию случайное)");
+        System.out.println("  --threads T         количество потоков (по умолчанию — количество процессоров)");
+        System.out.println("  --format F          text | binary (по умолчанию по расширению: .txt — text)");
+    }
+}
@@ -0,0 +1,219 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Чтение массивов из файлов.
+ * Двоичные файлы ({@link BinaryArrayHeader}) отображаются в память и копируются в массив целиком.
+ * Текстовые файлы читаются блоками через {@link FileChannel}, числа разбираются прямо из байтов
+ * без создания строк, поэтому расход памяти близок к 4 байтам на элемент.
+ */
+public final class ArrayFileReader {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    /**
+     * Количество элементов в одном отображаемом в память фрагменте (1 ГБ)
+     */
+    private static final int MAP_CHUNK_ELEMENTS = 1 << 28;
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private ArrayFileReader() {
+    }
+
+    /**
+     * Чтение массива из файла с автоматическим определением формата по сигнатуре
+     * @param file двоичный или текстовый файл массива
+     * @return прочитанный массив
+     * @throws IOException при ошибке чтения или некорректном содержимом файла
+     */
+    public static int[] readArray(File file) throws IOException {
+        return readHeader(file) != null ? readBinaryArray(file) : readTextArray(file);
+    }
+
+    /**
+     * Чтение заголовка двоичного файла
+     * @param file файл массива
+     * @return заголовок или null, если файл не в двоичном формате
+     * @throws IOException при ошибке чтения или неподдерживаемой версии формата
+     */
+    public static BinaryArrayHeader readHeader(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BinaryArrayHeader.SIZE);
+            while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                // Читаем заголовок целиком
+            }
+            buffer.flip();
+            if (!BinaryArrayHeader.hasMagic(buffer)) {
+                return null;
+            }
+            return BinaryArrayHeader.read(buffer);
+        }
+    }
+
+    /**
+     * Чтение массива из двоичного файла через {@link MappedByteBuffer}
+     * @param file двоичный файл массива
+     * @return прочитанный массив
+     * @throws IOException при ошибке чтения или если размер файла не соответствует заголовку
+     */
+    public static int[] readBinaryArray(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer headerBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    Math.min(BinaryArrayHeader.SIZE, channel.size()));
+            BinaryArrayHeader header = BinaryArrayHeader.read(headerBuffer);
+
+            long count = header.getCount();
+            if (count > MAX_ARRAY_LENGTH) {
+                throw new IOException("Массив из " + count + " элементов не помещается в int[]");
+            }
+            long expectedSize = BinaryArrayHeader.SIZE + count * Integer.BYTES;
+            if (channel.size() != expectedSize) {
+                throw new IOException("Размер файла " + channel.size() + " байт не соответствует заголовку ("
+                        + expectedSize + " байт)");
+            }
+
+            int[] result = new int[(int) count];
+            for (int offset = 0; offset < result.length; offset += MAP_CHUNK_ELEMENTS) {
+                int length = Math.min(MAP_CHUNK_ELEMENTS, result.length - offset);
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY,
+                        BinaryArrayHeader.SIZE + (long) offset * Integer.BYTES, (long) length * Integer.BYTES);
+                chunk.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(result, offset, length);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Чтение массива из текстового файла.
+     * Числа могут быть разделены любыми пробельными символами, включая переводы строк.
+     * @param file текстовый файл с целыми числами
+     * @return прочитанный массив
+     * @throws IOException при ошибке чтения или если файл содержит некорректное число
+     *                     (в сообщении указываются строка и столбец)
+     */
+    public static int[] readTextArray(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            byte[] bytes = buffer.array();
+
+            int[] result = new int[INITIAL_CAPACITY];
+            int count = 0;
+
+            // Состояние разбора текущего числа (может продолжаться в следующем блоке)
+            boolean inToken = false;
+            boolean negative = false;
+            boolean hasDigits = false;
+            boolean invalid = false;
+            long value = 0;
+            long line = 1;
+            long column = 0;
+            long tokenLine = 0;
+            long tokenColumn = 0;
+            StringBuilder token = new StringBuilder();
+
+            int read;
+            boolean first = true;
+            while ((read = channel.read(buffer)) != -1) {
+                int start = 0;
+                // Пропускаем метку порядка байтов UTF-8 в начале файла
+                if (first && read >= 3 && (bytes[0] & 0xFF) == 0xEF
+                        && (bytes[1] & 0xFF) == 0xBB && (bytes[2] & 0xFF) == 0xBF) {
+                    start = 3;
+                }
+                first = false;
+
+                for (int i = start; i < read; i++) {
+                    byte b = bytes[i];
+                    column++;
+
+                    if (b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0x0B) {
+                        if (inToken) {
+                            if (invalid || !hasDigits) {
+                                throw badToken(token, tokenLine, tokenColumn);
+                            }
+                            if (count == result.length) {
+                                result = Arrays.copyOf(result, grow(count));
+                            }
+                            result[count++] = (int) (negative ? -value : value);
+                            inToken = false;
+                        }
+                        if (b == '\n') {
+                            line++;
+                            column = 0;
+                        }
+                        continue;
+                    }
+
+                    if (!inToken) {
+                        inToken = true;
+                        negative = false;
+                        hasDigits = false;
+                        invalid = false;
+                        value = 0;
+                        tokenLine = line;
+                        tokenColumn = column;
+                        token.setLength(0);
+                        if (b == '-' || b == '+') {
+                            negative = b == '-';
+                            token.append((char) b);
+                            continue;
+                        }
+                    }
+
+                    // Текст токена нужен только для сообщения об ошибке
+                    if (token.length() < 32) {
+                        token.append((char) (b & 0xFF));
+                    }
+
+                    if (b >= '0' && b <= '9' && !invalid) {
+                        hasDigits = true;
+                        value = value * 10 + (b - '0');
+                        if (value > (negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE)) {
+                            invalid = true;
+                        }
+                    } else {
+                        invalid = true;
+                    }
+                }
+                buffer.clear();
+            }
+
+            if (inToken) {
+                if (invalid || !hasDigits) {
+                    throw badToken(token, tokenLine, tokenColumn);
+                }
+                if (count == result.length) {
+                    result = Arrays.copyOf(result, count + 1);
+                }
+                result[count++] = (int) (negative ? -value : value);
+            }
+
+            return count == result.length ? result : Arrays.copyOf(result, count);
+        }
+    }
+
+    /**
+     * Новая емкость массива при заполнении (рост в 1,5 раза)
+     */
+    private static int grow(int capacity) {
+        int newCapacity = capacity + (capacity >> 1);
+        if (newCapacity < 0 || newCapacity > MAX_ARRAY_LENGTH) {
+            if (capacity == MAX_ARRAY_LENGTH) {
+                throw new OutOfMemoryError("Слишком много элементов в файле");
+            }
+            newCapacity = MAX_ARRAY_LENGTH;
+        }
+        return newCapacity;
+    }
+
+    private static IOException badToken(CharSequence token, long line, long column) {
+        return new IOException("Некорректное число \"" + token + "\" в строке " + line + ", столбце " + column);
+    }
+}
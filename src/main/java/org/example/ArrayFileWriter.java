@@ -0,0 +1,124 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Запись массивов в файлы: двоичный формат ({@link BinaryArrayHeader}) и текст через пробел.
+ */
+public final class ArrayFileWriter {
+    /**
+     * Расширение текстовых файлов; остальные файлы записываются в двоичном формате
+     */
+    public static final String TEXT_EXTENSION = ".txt";
+
+    private static final int MAP_CHUNK_ELEMENTS = 1 << 28;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private ArrayFileWriter() {
+    }
+
+    /**
+     * Запись массива в формате, выбранном по расширению файла ({@value #TEXT_EXTENSION} — текст, иначе двоичный)
+     * @param file файл
+     * @param array массив
+     * @param shape форма массива (записывается только в двоичный формат)
+     * @param seed зерно генератора (записывается только в двоичный формат)
+     */
+    public static void writeArray(File file, int[] array, ArrayShape shape, long seed) throws IOException {
+        if (isTextFile(file)) {
+            writeTextArray(file, array);
+        } else {
+            writeBinaryArray(file, array, shape, seed);
+        }
+    }
+
+    /**
+     * @param file файл
+     * @return true, если файл будет записан в текстовом формате
+     */
+    public static boolean isTextFile(File file) {
+        return file.getName().toLowerCase().endsWith(TEXT_EXTENSION);
+    }
+
+    /**
+     * Запись массива в двоичный файл через {@link MappedByteBuffer}
+     * @param file файл
+     * @param array массив
+     * @param shape форма массива
+     * @param seed зерно генератора (0, если массив не сгенерирован)
+     */
+    public static void writeBinaryArray(File file, int[] array, ArrayShape shape, long seed) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer headerBuffer = ByteBuffer.allocate(BinaryArrayHeader.SIZE);
+            new BinaryArrayHeader(array.length, shape, seed).write(headerBuffer);
+            headerBuffer.flip();
+            while (headerBuffer.hasRemaining()) {
+                channel.write(headerBuffer);
+            }
+
+            for (int offset = 0; offset < array.length; offset += MAP_CHUNK_ELEMENTS) {
+                int length = Math.min(MAP_CHUNK_ELEMENTS, array.length - offset);
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_WRITE,
+                        BinaryArrayHeader.SIZE + (long) offset * Integer.BYTES, (long) length * Integer.BYTES);
+                chunk.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().put(array, offset, length);
+            }
+        }
+    }
+
+    /**
+     * Запись массива в текстовый файл (числа через пробел в одну строку).
+     * Числа форматируются прямо в байтовый буфер и записываются блоками через {@link FileChannel}.
+     * @param file файл
+     * @param array массив
+     */
+    public static void writeTextArray(File file, int[] array) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            byte[] bytes = buffer.array();
+            byte[] digits = new byte[11];
+            int position = 0;
+
+            for (int i = 0; i < array.length; i++) {
+                // Самое длинное число вместе с пробелом занимает 12 байт
+                if (position > BUFFER_SIZE - 12) {
+                    flush(channel, buffer, position);
+                    position = 0;
+                }
+                if (i > 0) {
+                    bytes[position++] = ' ';
+                }
+
+                long value = array[i];
+                if (value < 0) {
+                    bytes[position++] = '-';
+                    value = -value;
+                }
+                int length = 0;
+                do {
+                    digits[length++] = (byte) ('0' + value % 10);
+                    value /= 10;
+                } while (value != 0);
+                while (length > 0) {
+                    bytes[position++] = digits[--length];
+                }
+            }
+            flush(channel, buffer, position);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer, int length) throws IOException {
+        buffer.position(0).limit(length);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
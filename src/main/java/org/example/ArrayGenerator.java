@@ -0,0 +1,273 @@
+package org.example;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Параллельный генератор массивов с воспроизводимым результатом.
+ * Массив делится на фрагменты фиксированного размера {@link #CHUNK_SIZE}; каждый фрагмент
+ * заполняется собственным {@link SplittableRandom}, полученным из зерна последовательным split().
+ * Разбиение не зависит от количества потоков, поэтому при одном и том же зерне
+ * результат одинаков при любом количестве потоков.
+ */
+public final class ArrayGenerator {
+    /**
+     * Количество элементов во фрагменте, заполняемом одной задачей
+     */
+    public static final int CHUNK_SIZE = 1 << 16;
+
+    private final ArrayShape shape;
+    private final int maxValue;
+    private final long seed;
+    private int parameter;
+    private double zipfExponent = 1.0;
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * @param shape форма массива
+     * @param maxValue максимальное значение элементов (не включительно)
+     * @param seed зерно генератора
+     */
+    public ArrayGenerator(ArrayShape shape, int maxValue, long seed) {
+        if (shape == ArrayShape.UNKNOWN) {
+            throw new IllegalArgumentException("Не задано распределение");
+        }
+        if (maxValue <= 0) {
+            throw new IllegalArgumentException("Максимальное значение должно быть положительным: " + maxValue);
+        }
+        this.shape = shape;
+        this.maxValue = maxValue;
+        this.seed = seed;
+    }
+
+    /**
+     * Параметр распределения: количество перестановок для {@link ArrayShape#NEARLY_SORTED},
+     * количество зубцов для {@link ArrayShape#SAWTOOTH}, количество различных значений для
+     * {@link ArrayShape#FEW_UNIQUE}. Значение 0 выбирает параметр по умолчанию.
+     * @param parameter параметр распределения
+     */
+    public void setParameter(int parameter) {
+        if (parameter < 0) {
+            throw new IllegalArgumentException("Параметр распределения не может быть отрицательным: " + parameter);
+        }
+        this.parameter = parameter;
+    }
+
+    /**
+     * @param zipfExponent показатель степени распределения Ципфа (больше 0)
+     */
+    public void setZipfExponent(double zipfExponent) {
+        if (!(zipfExponent > 0)) {
+            throw new IllegalArgumentException("Показатель распределения Ципфа должен быть положительным: " + zipfExponent);
+        }
+        this.zipfExponent = zipfExponent;
+    }
+
+    /**
+     * @param threads количество потоков генерации
+     */
+    public void setThreads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Количество потоков должно быть положительным: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    public ArrayShape getShape() {
+        return shape;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Генерация массива
+     * @param size размер массива
+     * @return сгенерированный массив
+     */
+    public int[] generate(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Размер массива не может быть отрицательным: " + size);
+        }
+        int[] array = new int[size];
+        int chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        // Генераторы фрагментов создаются последовательно, чтобы не зависеть от порядка выполнения задач
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) {
+            randoms[c] = root.split();
+        }
+        ZipfSampler zipf = shape == ArrayShape.ZIPF ? new ZipfSampler(maxValue, zipfExponent) : null;
+
+        IntStream tasks = IntStream.range(0, chunks);
+        if (threads == 1) {
+            tasks.forEach(c -> fillChunk(array, c, randoms[c], zipf));
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                pool.submit(() -> tasks.parallel().forEach(c -> fillChunk(array, c, randoms[c], zipf))).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Генерация прервана", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Ошибка генерации массива", e.getCause());
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        if (shape == ArrayShape.NEARLY_SORTED) {
+            // Перестановки выполняются последовательно отдельным генератором
+            SplittableRandom swaps = root.split();
+            int count = parameter > 0 ? parameter : Math.max(1, size / 100);
+            for (int k = 0; k < count && size > 1; k++) {
+                int a = swaps.nextInt(size);
+                int b = swaps.nextInt(size);
+                int tmp = array[a];
+                array[a] = array[b];
+                array[b] = tmp;
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Заполнение одного фрагмента массива
+     */
+    private void fillChunk(int[] array, int chunk, SplittableRandom random, ZipfSampler zipf) {
+        int size = array.length;
+        int from = chunk * CHUNK_SIZE;
+        int to = Math.min(size, from + CHUNK_SIZE);
+        switch (shape) {
+            case RANDOM:
+                for (int i = from; i < to; i++) {
+                    array[i] = random.nextInt(maxValue);
+                }
+                break;
+            case SORTED:
+            case NEARLY_SORTED:
+                for (int i = from; i < to; i++) {
+                    array[i] = scale(i, size);
+                }
+                break;
+            case REVERSED:
+                for (int i = from; i < to; i++) {
+                    array[i] = scale(size - 1 - i, size);
+                }
+                break;
+            case SAWTOOTH: {
+                int teeth = parameter > 0 ? parameter : 10;
+                int period = Math.max(1, (int) (((long) size + teeth - 1) / teeth));
+                for (int i = from; i < to; i++) {
+                    array[i] = scale(i % period, period);
+                }
+                break;
+            }
+            case ORGAN_PIPE: {
+                int half = (size + 1) / 2;
+                for (int i = from; i < to; i++) {
+                    array[i] = scale(i < half ? i : size - 1 - i, half);
+                }
+                break;
+            }
+            case FEW_UNIQUE: {
+                int distinct = Math.min(maxValue, parameter > 0 ? parameter : 8);
+                for (int i = from; i < to; i++) {
+                    array[i] = scale(random.nextInt(distinct), distinct);
+                }
+                break;
+            }
+            case ZIPF:
+                for (int i = from; i < to; i++) {
+                    array[i] = zipf.sample(random) - 1;
+                }
+                break;
+            default:
+                throw new IllegalStateException("Неподдерживаемое распределение: " + shape);
+        }
+    }
+
+    /**
+     * Масштабирование индекса из [0, count) в диапазон значений [0, maxValue)
+     */
+    private int scale(int index, int count) {
+        return (int) ((long) index * maxValue / count);
+    }
+
+    /**
+     * Выборка из распределения Ципфа на [1, n] методом rejection-inversion (Hörmann, Derflinger).
+     * Не требует таблиц, поэтому работает при любом n за O(1) памяти.
+     */
+    private static final class ZipfSampler {
+        private final int n;
+        private final double exponent;
+        private final double hIntegralX1;
+        private final double hIntegralN;
+        private final double s;
+
+        ZipfSampler(int n, double exponent) {
+            this.n = n;
+            this.exponent = exponent;
+            this.hIntegralX1 = hIntegral(1.5) - 1.0;
+            this.hIntegralN = hIntegral(n + 0.5);
+            this.s = 2.0 - hIntegralInverse(hIntegral(2.5) - h(2.0));
+        }
+
+        int sample(SplittableRandom random) {
+            while (true) {
+                double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+                double x = hIntegralInverse(u);
+                int k = (int) (x + 0.5);
+                if (k < 1) {
+                    k = 1;
+                } else if (k > n) {
+                    k = n;
+                }
+                if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                    return k;
+                }
+            }
+        }
+
+        private double h(double x) {
+            return Math.exp(-exponent * Math.log(x));
+        }
+
+        private double hIntegral(double x) {
+            double logX = Math.log(x);
+            return helper2((1.0 - exponent) * logX) * logX;
+        }
+
+        private double hIntegralInverse(double x) {
+            double t = x * (1.0 - exponent);
+            if (t < -1.0) {
+                t = -1.0;
+            }
+            return Math.exp(helper1(t) * x);
+        }
+
+        /**
+         * log(1 + x) / x с устойчивым вычислением около нуля
+         */
+        private static double helper1(double x) {
+            if (Math.abs(x) > 1e-8) {
+                return Math.log1p(x) / x;
+            }
+            return 1.0 - x * (0.5 - x * (1.0 / 3.0 - 0.25 * x));
+        }
+
+        /**
+         * (exp(x) - 1) / x с устойчивым вычислением около нуля
+         */
+        private static double helper2(double x) {
+            if (Math.abs(x) > 1e-8) {
+                return Math.expm1(x) / x;
+            }
+            return 1.0 + x * 0.5 * (1.0 + x * (1.0 / 3.0) * (1.0 + 0.25 * x));
+        }
+    }
+}
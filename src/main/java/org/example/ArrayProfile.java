@@ -0,0 +1,205 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Дешевая оценка предварительной упорядоченности массива для автоматического выбора алгоритма:
+ * один линейный проход (минимум, максимум, спуски и подъемы соседних элементов)
+ * и выборка пар элементов на расстояниях 1, 2, 4, ... для оценки количества инверсий.
+ * <p>
+ * Для каждой полосы расстояний [d, 2d) доля инверсий оценивается по {@value #SAMPLES_PER_DISTANCE}
+ * парам на расстоянии d и умножается на количество пар в полосе, так что ближние перестановки
+ * (почти отсортированный массив) оцениваются так же точно, как дальние. На расстоянии 1 подсчет точный.
+ */
+public final class ArrayProfile {
+    // Пары на каждое расстояние при оценке инверсий
+    static final int SAMPLES_PER_DISTANCE = 128;
+    // Элементы выборки для оценки доли повторов при большом диапазоне значений
+    static final int DUPLICATE_SAMPLES = 1024;
+    // Диапазон значений (на элемент), при котором повторы считаются точно по битовой карте
+    private static final int EXACT_DUPLICATES_RANGE_PER_ELEMENT = 2;
+    // Зерно выборки: профиль одного массива всегда одинаков
+    private static final long SAMPLE_SEED = 0x5EEDL;
+
+    int size;
+    int runs;                    // Серии неубывания (спуски соседних элементов + 1)
+    long descents;               // Пары соседних элементов a[i] > a[i + 1]
+    long ascents;                // Пары соседних элементов a[i] < a[i + 1]
+    int min;
+    int max;
+    double inversions;           // Оценка количества инверсий (пар i < j, a[i] > a[j])
+    double ascendingPairs;       // Оценка количества пар i < j, a[i] < a[j] (инверсий после разворота)
+    double duplicateRatio;       // Доля элементов, повторяющих другой элемент (1 − различные / размер)
+    boolean exactDuplicates;     // Доля повторов подсчитана точно, а не по выборке
+
+    private ArrayProfile() {
+    }
+
+    /**
+     * Профиль массива
+     * @param arr массив (не изменяется)
+     * @return профиль; для пустого массива все оценки нулевые
+     */
+    public static ArrayProfile of(int[] arr) {
+        ArrayProfile profile = new ArrayProfile();
+        int n = arr.length;
+        profile.size = n;
+        profile.runs = n > 0 ? 1 : 0;
+        if (n == 0) {
+            return profile;
+        }
+
+        // Линейный проход: диапазон значений и соседние пары
+        int min = arr[0];
+        int max = arr[0];
+        long descents = 0;
+        long ascents = 0;
+        // Без ветвлений: на случайных данных переходы по сравнениям предсказываются плохо
+        for (int i = 1; i < n; i++) {
+            int previous = arr[i - 1];
+            int value = arr[i];
+            descents += value < previous ? 1 : 0;
+            ascents += value > previous ? 1 : 0;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        profile.min = min;
+        profile.max = max;
+        profile.descents = descents;
+        profile.ascents = ascents;
+        profile.runs = (int) (descents + 1);
+
+        estimatePairs(arr, profile);
+        estimateDuplicates(arr, profile);
+        return profile;
+    }
+
+    private static void estimatePairs(int[] arr, ArrayProfile profile) {
+        int n = arr.length;
+        double inversions = profile.descents;
+        double ascending = profile.ascents;
+        SplittableRandom random = new SplittableRandom(SAMPLE_SEED);
+        for (long d = 2; d < n; d *= 2) {
+            int distance = (int) d;
+            long end = Math.min(2 * d, n);
+            // Пары на расстояниях [d, end): (n − d) + (n − d − 1) + ... + (n − end + 1)
+            double pairs = (double) (end - d) * n - (double) (d + end - 1) * (end - d) / 2;
+            int positions = n - distance;
+            int samples = Math.min(SAMPLES_PER_DISTANCE, positions);
+            int inverted = 0;
+            int ascendingSamples = 0;
+            for (int s = 0; s < samples; s++) {
+                // Стратифицированная выборка: по одной позиции из каждой из samples равных частей
+                int i = (int) ((s + random.nextDouble()) * positions / samples);
+                int left = arr[i];
+                int right = arr[i + distance];
+                if (left > right) {
+                    inverted++;
+                } else if (left < right) {
+                    ascendingSamples++;
+                }
+            }
+            inversions += pairs * inverted / samples;
+            ascending += pairs * ascendingSamples / samples;
+        }
+        profile.inversions = inversions;
+        profile.ascendingPairs = ascending;
+    }
+
+    private static void estimateDuplicates(int[] arr, ArrayProfile profile) {
+        int n = arr.length;
+        long range = profile.getRange();
+        if (range <= (long) EXACT_DUPLICATES_RANGE_PER_ELEMENT * n) {
+            // Битовая карта диапазона занимает не больше двух бит на элемент
+            long[] seen = new long[(int) ((range + 63) >>> 6)];
+            int distinct = 0;
+            for (int value : arr) {
+                int key = value - profile.min;
+                long word = seen[key >>> 6];
+                long bit = 1L << key;
+                distinct += (word & bit) == 0 ? 1 : 0;
+                seen[key >>> 6] = word | bit;
+            }
+            profile.duplicateRatio = 1 - (double) distinct / n;
+            profile.exactDuplicates = true;
+            return;
+        }
+
+        int samples = Math.min(DUPLICATE_SAMPLES, n);
+        int[] sample = new int[samples];
+        SplittableRandom random = new SplittableRandom(SAMPLE_SEED);
+        for (int s = 0; s < samples; s++) {
+            sample[s] = arr[samples == n ? s : random.nextInt(n)];
+        }
+        Arrays.sort(sample);
+        int distinct = 1;
+        for (int s = 1; s < samples; s++) {
+            if (sample[s] != sample[s - 1]) {
+                distinct++;
+            }
+        }
+        profile.duplicateRatio = 1 - (double) distinct / samples;
+        profile.exactDuplicates = samples == n;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getRuns() {
+        return runs;
+    }
+
+    public long getDescents() {
+        return descents;
+    }
+
+    public long getAscents() {
+        return ascents;
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * @return количество различных возможных значений: max − min + 1
+     */
+    public long getRange() {
+        return size > 0 ? (long) max - min + 1 : 0;
+    }
+
+    public double getInversions() {
+        return inversions;
+    }
+
+    public double getAscendingPairs() {
+        return ascendingPairs;
+    }
+
+    public double getDuplicateRatio() {
+        return duplicateRatio;
+    }
+
+    public boolean isExactDuplicates() {
+        return exactDuplicates;
+    }
+
+    /**
+     * @return true, если массив уже упорядочен по неубыванию
+     */
+    public boolean isSorted() {
+        return descents == 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("серии: %d, инверсии ≈ %.3g, диапазон: %d, повторы: %s%.1f%%",
+                runs, inversions, getRange(), exactDuplicates ? "" : "≈", duplicateRatio * 100);
+    }
+}
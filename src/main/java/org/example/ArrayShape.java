@@ -0,0 +1,74 @@
+package org.example;
+
+/**
+ * Форма (распределение) сгенерированного массива.
+ * Код формы записывается в заголовок двоичного файла массива.
+ */
+public enum ArrayShape {
+    UNKNOWN(0, "Неизвестно"),
+    RANDOM(1, "Случайный"),
+    SORTED(2, "Отсортированный"),
+    REVERSED(3, "Обратно отсортированный"),
+    NEARLY_SORTED(4, "Почти отсортированный"),
+    SAWTOOTH(5, "Пила"),
+    ORGAN_PIPE(6, "Органные трубы"),
+    FEW_UNIQUE(7, "Мало уникальных"),
+    ZIPF(8, "Распределение Ципфа");
+
+    private final int code;
+    private final String displayName;
+
+    ArrayShape(int code, String displayName) {
+        this.code = code;
+        this.displayName = displayName;
+    }
+
+    /**
+     * @return код формы в заголовке двоичного файла
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * @return название формы для отображения в интерфейсе
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * @return название формы в командной строке (например, {@code nearly-sorted})
+     */
+    public String getOptionName() {
+        return this == RANDOM ? "uniform" : name().toLowerCase().replace('_', '-');
+    }
+
+    /**
+     * Разбор названия формы из командной строки
+     * @param name название формы ({@link #getOptionName()} или имя константы)
+     * @return форма
+     * @throws IllegalArgumentException если название неизвестно
+     */
+    public static ArrayShape fromOptionName(String name) {
+        for (ArrayShape shape : values()) {
+            if (shape != UNKNOWN && (shape.getOptionName().equalsIgnoreCase(name) || shape.name().equalsIgnoreCase(name))) {
+                return shape;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестное распределение: " + name);
+    }
+
+    /**
+     * @param code код формы из заголовка файла
+     * @return форма с указанным кодом или {@link #UNKNOWN}, если код неизвестен
+     */
+    public static ArrayShape fromCode(int code) {
+        for (ArrayShape shape : values()) {
+            if (shape.code == code) {
+                return shape;
+            }
+        }
+        return UNKNOWN;
+    }
+}
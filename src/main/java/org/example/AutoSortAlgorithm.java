@@ -0,0 +1,186 @@
+package org.example;
+
+/**
+ * Автоматический выбор алгоритма: дешевый предварительный проход ({@link ArrayProfile}) оценивает
+ * упорядоченность, диапазон значений и повторы, после чего массив сортируется подходящим
+ * зарегистрированным ядром:
+ * <ul>
+ *     <li>почти отсортированный (инверсий не больше {@code sort.auto.inversions} на элемент) — простые вставки,
+ *     время O(n + I);</li>
+ *     <li>почти обратно отсортированный — разворот и простые вставки;</li>
+ *     <li>диапазон значений не больше {@value #COUNTING_RANGE_PER_ELEMENT}·n или повторов не меньше
+ *     {@value #COUNTING_DUPLICATE_RATIO} — сортировка подсчетом (при большом диапазоне она сама переходит
+ *     на поразрядную, которой повторы тоже не мешают);</li>
+ *     <li>иначе — гибридная сортировка.</li>
+ * </ul>
+ * Оценка инверсий по выборке может сильно ошибаться (например, отсортированный массив с несколькими
+ * далекими перестановками), поэтому простые вставки выполняются с ограничением сдвигов
+ * {@code sort.auto.inversions}·n: если его не хватило, частично упорядоченный массив досортировывается
+ * гибридной сортировкой, и время остается O(n log n) независимо от точности оценки.
+ * <p>
+ * Выбранное ядро и время предварительного прохода передаются в {@link Metrics#strategy(String, long)}.
+ * Сравнения предварительного прохода не входят в счетчики: они показывают работу только выбранного ядра.
+ */
+public class AutoSortAlgorithm implements SortAlgorithm {
+    /**
+     * Допустимые инверсии на элемент для простых вставок по умолчанию
+     */
+    public static final int DEFAULT_INVERSIONS_PER_ELEMENT = 8;
+    /**
+     * Диапазон значений на элемент, при котором выбирается сортировка подсчетом
+     */
+    public static final int COUNTING_RANGE_PER_ELEMENT = 2;
+    /**
+     * Доля повторов, при которой выбирается сортировка подсчетом
+     */
+    public static final double COUNTING_DUPLICATE_RATIO = 0.5;
+
+    /**
+     * Стратегия сортировки: ядро и подготовка массива
+     */
+    public enum Strategy {
+        INSERTION("insertion", false, "почти отсортированный массив"),
+        REVERSE_INSERTION("insertion", true, "почти обратно отсортированный массив"),
+        COUNTING("counting", false, "малый диапазон значений или много повторов"),
+        HYBRID("hybrid", false, "общий случай");
+
+        private final String kernelId;
+        private final boolean reversed;
+        private final String reason;
+
+        Strategy(String kernelId, boolean reversed, String reason) {
+            this.kernelId = kernelId;
+            this.reversed = reversed;
+            this.reason = reason;
+        }
+
+        /**
+         * @return зарегистрированное ядро стратегии
+         */
+        public SortAlgorithm getKernel() {
+            return SortAlgorithms.get(kernelId);
+        }
+
+        /**
+         * @return true, если массив перед сортировкой разворачивается
+         */
+        public boolean isReversed() {
+            return reversed;
+        }
+
+        /**
+         * @return причина выбора стратегии для отображения
+         */
+        public String getReason() {
+            return reason;
+        }
+
+        /**
+         * @return название стратегии для отображения в результатах (например, «Разворот + Простые вставки»)
+         */
+        public String getDisplayName() {
+            return (reversed ? "Разворот + " : "") + getKernel().getName();
+        }
+    }
+
+    private final int inversionsPerElement;
+
+    public AutoSortAlgorithm() {
+        this(Integer.getInteger("sort.auto.inversions", DEFAULT_INVERSIONS_PER_ELEMENT));
+    }
+
+    /**
+     * @param inversionsPerElement оценка инверсий на элемент, до которой выбираются простые вставки
+     */
+    public AutoSortAlgorithm(int inversionsPerElement) {
+        if (inversionsPerElement < 0) {
+            throw new IllegalArgumentException("Количество инверсий на элемент не может быть отрицательным: "
+                    + inversionsPerElement);
+        }
+        this.inversionsPerElement = inversionsPerElement;
+    }
+
+    public int getInversionsPerElement() {
+        return inversionsPerElement;
+    }
+
+    /**
+     * Выбор стратегии по профилю массива
+     * @param profile профиль массива
+     * @return стратегия
+     */
+    public Strategy choose(ArrayProfile profile) {
+        double budget = (double) inversionsPerElement * profile.getSize();
+        if (profile.isSorted() || profile.getInversions() <= budget) {
+            return Strategy.INSERTION;
+        }
+        if (profile.getAscents() == 0 || profile.getAscendingPairs() <= budget) {
+            return Strategy.REVERSE_INSERTION;
+        }
+        if (profile.getRange() <= (long) COUNTING_RANGE_PER_ELEMENT * profile.getSize()
+                || profile.getDuplicateRatio() >= COUNTING_DUPLICATE_RATIO) {
+            return Strategy.COUNTING;
+        }
+        return Strategy.HYBRID;
+    }
+
+    @Override
+    public String getId() {
+        return "auto";
+    }
+
+    @Override
+    public String getName() {
+        return "Авто";
+    }
+
+    /**
+     * Разворот меняет порядок равных элементов, поэтому выбор в целом неустойчив
+     */
+    @Override
+    public boolean isStable() {
+        return false;
+    }
+
+    @Override
+    public String getComparisonsComplexity() {
+        return "O(n)…O(n log n)";
+    }
+
+    @Override
+    public String getMovesComplexity() {
+        return "O(n)…O(n log n)";
+    }
+
+    @Override
+    public void sort(int[] arr, Metrics metrics) {
+        long start = System.nanoTime();
+        Strategy strategy = choose(ArrayProfile.of(arr));
+        SortAlgorithm kernel = strategy.getKernel();
+        metrics.strategy(strategy.getDisplayName(), System.nanoTime() - start);
+
+        if (strategy.isReversed()) {
+            reverse(arr, metrics);
+        }
+        if (strategy == Strategy.INSERTION || strategy == Strategy.REVERSE_INSERTION) {
+            // Вставки выбраны по оценке инверсий; если она занижена, досортировка гибридной
+            if (!InsertionSorts.insertionSort(arr, (long) inversionsPerElement * arr.length, metrics)) {
+                SortAlgorithm fallback = Strategy.HYBRID.getKernel();
+                metrics.strategy(strategy.getDisplayName() + " → " + fallback.getName()
+                        + " (превышен лимит сдвигов)", 0);
+                fallback.sort(arr, metrics);
+            }
+            return;
+        }
+        kernel.sort(arr, metrics);
+    }
+
+    private static void reverse(int[] arr, Metrics metrics) {
+        metrics.moves((arr.length >>> 1) * 2L);
+        for (int lo = 0, hi = arr.length - 1; lo < hi; lo++, hi--) {
+            int tmp = arr[lo];
+            arr[lo] = arr[hi];
+            arr[hi] = tmp;
+        }
+    }
+}
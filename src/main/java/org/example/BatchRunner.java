@@ -0,0 +1,238 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Пакетный запуск экспериментов без графического интерфейса (для CI и серверов).
+ * Перебирает матрицу алгоритмы × размеры × распределения, в каждой ячейке выполняет
+ * прогревочные прогоны и несколько повторов и выводит медиану, p95, p99 и стандартное отклонение времени,
+ * а также выделенную за прогон память и количество сборок мусора.
+ * <pre>
+ * --algorithms A,B      идентификаторы алгоритмов из {@link SortAlgorithms} или all (по умолчанию all)
+ * --sizes N1,N2         размеры массивов (по умолчанию 1000,10000)
+ * --distributions D1,D2 распределения, как в ArrayFileGenerator (по умолчанию uniform)
+ * --warmup W            количество прогревочных прогонов (по умолчанию 1)
+ * --repetitions R       количество повторов замера времени (по умолчанию 5)
+ * --max M               максимальное значение элементов (по умолчанию равно размеру)
+ * --seed S              зерно генератора массивов (по умолчанию 42)
+ * --output PATH         файл результатов; формат — по расширению ({@link ResultExport}): .csv, .jsonl,
+ *                       .srtc (поколоночный), .txt (прежний формат кнопки "Сохранить файл")
+ * --samples PATH        файл с временем каждого повтора (в формате кнопки "Экспорт замеров")
+ * --store PATH          хранилище результатов ({@link ResultStore}), в которое добавляются результаты;
+ *                       default — хранилище приложения ({@link ResultStore#defaultFile()})
+ * </pre>
+ */
+public class BatchRunner {
+
+    /**
+     * Параметры пакетного запуска
+     */
+    static class Config {
+        List<SortAlgorithm> algorithms = new ArrayList<>(SortAlgorithms.getAll());
+        List<Integer> sizes = new ArrayList<>(List.of(1000, 10000));
+        List<ArrayShape> distributions = new ArrayList<>(List.of(ArrayShape.RANDOM));
+        int warmups = 1;
+        int repetitions = 5;
+        int maxValue = -1;
+        long seed = 42;
+        File output;
+        File samples;
+        File store;
+    }
+
+    /**
+     * Выполнение всей матрицы экспериментов
+     * @param config параметры запуска
+     * @return результаты по ячейкам в порядке выполнения
+     */
+    public static List<SortExperimentResult> run(Config config) {
+        List<SortExperimentResult> results = new ArrayList<>();
+        for (ArrayShape shape : config.distributions) {
+            for (int size : config.sizes) {
+                int maxValue = config.maxValue > 0 ? config.maxValue : Math.max(1, size);
+                int[] source = new ArrayGenerator(shape, maxValue, config.seed).generate(size);
+                int[] work = new int[size];
+                Presortedness presortedness = Presortedness.analyze(source);
+                System.out.println(String.format(Locale.ROOT, "%-24s   упорядоченность n=%d: %s (%.1f мс)",
+                        shape.getDisplayName(), size, presortedness, presortedness.getNanos() / 1e6));
+                for (SortAlgorithm algorithm : config.algorithms) {
+                    SortExperimentResult result = SortExperiment.measure(algorithm, shape.getDisplayName(),
+                            source, work, config.warmups, config.repetitions, null);
+                    result.seed = config.seed;
+                    SortExperiment.applyPresortedness(result, algorithm, presortedness);
+                    printRow(shape, result);
+                    results.add(result);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Главный метод пакетного режима
+     */
+    public static void main(String[] args) {
+        Config config;
+        try {
+            config = parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Ошибка: " + e.getMessage());
+            printUsage();
+            System.exit(2);
+            return;
+        }
+
+        printHeader();
+        List<SortExperimentResult> results = run(config);
+
+        if (config.output != null) {
+            try {
+                ResultExport.Format format = ResultExport.write(config.output, results);
+                System.out.println("Результаты сохранены в файл: " + config.output + " (" + format.getDisplayName() + ")");
+            } catch (IOException e) {
+                System.err.println("Ошибка при сохранении файла: " + e.getMessage());
+                System.exit(1);
+            }
+        }
+        if (config.samples != null) {
+            try {
+                ExperimentResultsFile.writeSamples(config.samples, results);
+                System.out.println("Замеры сохранены в файл: " + config.samples);
+            } catch (IOException e) {
+                System.err.println("Ошибка при сохранении файла: " + e.getMessage());
+                System.exit(1);
+            }
+        }
+        if (config.store != null) {
+            try (ResultStore store = new ResultStore(config.store)) {
+                int added = store.append(results);
+                System.out.println("В хранилище " + config.store + " добавлено записей: " + added
+                        + " (всего " + store.size() + ")");
+            } catch (IOException e) {
+                System.err.println("Ошибка записи в хранилище: " + e.getMessage());
+                System.exit(1);
+            }
+        }
+    }
+
+    static Config parseArgs(String[] args) {
+        Config config = new Config();
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if ("--help".equals(option) || "-h".equals(option)) {
+                printUsage();
+                System.exit(0);
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Не указано значение параметра " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--algorithms":
+                    config.algorithms.clear();
+                    for (String name : value.split(",")) {
+                        if ("all".equals(name.trim())) {
+                            config.algorithms.addAll(SortAlgorithms.getAll());
+                        } else {
+                            config.algorithms.add(SortAlgorithms.get(name.trim()));
+                        }
+                    }
+                    break;
+                case "--sizes":
+                    config.sizes.clear();
+                    for (String size : value.split(",")) {
+                        int n = Integer.parseInt(size.trim());
+                        if (n <= 0) {
+                            throw new IllegalArgumentException("Размер массива должен быть положительным: " + n);
+                        }
+                        config.sizes.add(n);
+                    }
+                    break;
+                case "--distributions":
+                    config.distributions.clear();
+                    for (String name : value.split(",")) {
+                        config.distributions.add(ArrayShape.fromOptionName(name.trim()));
+                    }
+                    break;
+                case "--warmup":
+                    config.warmups = Integer.parseInt(value);
+                    if (config.warmups < 0) {
+                        throw new IllegalArgumentException("Количество прогревочных прогонов не может быть отрицательным");
+                    }
+                    break;
+                case "--repetitions":
+                    config.repetitions = Integer.parseInt(value);
+                    if (config.repetitions <= 0) {
+                        throw new IllegalArgumentException("Количество повторов должно быть положительным");
+                    }
+                    break;
+                case "--max":
+                    config.maxValue = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    config.seed = Long.parseLong(value);
+                    break;
+                case "--output":
+                    config.output = new File(value);
+                    break;
+                case "--samples":
+                    config.samples = new File(value);
+                    break;
+                case "--store":
+                    config.store = "default".equals(value) ? ResultStore.defaultFile() : new File(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Неизвестный параметр: " + option);
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Заголовок таблицы, строки которой выводит {@link #run(Config)}
+     */
+    static void printHeader() {
+        System.out.println(String.format(Locale.ROOT, "%-24s %-16s %12s %16s %16s %12s %12s %12s %12s %16s %6s",
+                "Распределение", "Алгоритм", "Размер", "Сравнения", "Вставки",
+                "Медиана, мс", "p95, мс", "p99, мс", "Ст.откл, мс", "Выделено, байт", "GC"));
+    }
+
+    private static void printRow(ArrayShape shape, SortExperimentResult result) {
+        TimingStats timing = result.timing;
+        System.out.println(String.format(Locale.ROOT, "%-24s %-16s %12d %16d %16d %12.3f %12.3f %12.3f %12.3f %16d %6d",
+                shape.getDisplayName(), result.algorithm, result.arraySize, result.comparisons, result.swaps,
+                timing.getMedian() / 1e6, timing.getP95() / 1e6, timing.getP99() / 1e6, timing.getStddev() / 1e6,
+                result.allocatedBytes, result.gcCount));
+        if (result.strategy != null) {
+            System.out.println(String.format(Locale.ROOT, "%-24s   выбрано: %s, предварительный проход %.3f мс",
+                    "", result.strategy, result.prepassNanos / 1e6));
+        }
+        if (!result.isMovesAsExpected()) {
+            System.out.println(String.format(Locale.ROOT, "%-24s   ВНИМАНИЕ: вставок %d, по теории %d",
+                    "", result.swaps, result.expectedMoves));
+        }
+    }
+
+    private static void printUsage() {
+        System.out.println("Использование: BatchRunner [параметры]");
+        StringBuilder ids = new StringBuilder();
+        for (SortAlgorithm algorithm : SortAlgorithms.getAll()) {
+            ids.append(algorithm.getId()).append(" | ");
+        }
+        System.out.println("  --algorithms A,B      " + ids + "all (по умолчанию all)");
+        System.out.println("  --sizes N1,N2         размеры массивов (по умолчанию 1000,10000)");
+        System.out.println("  --distributions D1,D2 uniform | sorted | reversed | nearly-sorted | sawtooth |");
+        System.out.println("                        organ-pipe | few-unique | zipf (по умолчанию uniform)");
+        System.out.println("  --warmup W            прогревочные прогоны (по умолчанию 1)");
+        System.out.println("  --repetitions R       повторы замера времени (по умолчанию 5)");
+        System.out.println("  --max M               максимальное значение (по умолчанию равно размеру)");
+        System.out.println("  --seed S              зерно генератора массивов (по умолчанию 42)");
+        System.out.println("  --output PATH         файл результатов: .csv, .jsonl, .srtc или .txt");
+        System.out.println("  --samples PATH        файл с временем каждого повтора");
+        System.out.println("  --store PATH|default  хранилище результатов для истории и сравнения запусков");
+    }
+}
@@ -0,0 +1,70 @@
+package org.example;
+
+/**
+ * Групповые вставки: за проход вставляется отсортированная группа из k элементов.
+ * Размер группы задается системным свойством {@code sort.batched.group};
+ * по умолчанию (0) он выбирается по размеру массива ({@link InsertionSorts#defaultGroupSize(int)}).
+ */
+public class BatchedInsertionSortAlgorithm implements SortAlgorithm {
+    private final int groupSize;
+
+    public BatchedInsertionSortAlgorithm() {
+        this(Integer.getInteger("sort.batched.group", 0));
+    }
+
+    /**
+     * @param groupSize размер группы; 0 — выбирать по размеру массива
+     */
+    public BatchedInsertionSortAlgorithm(int groupSize) {
+        if (groupSize < 0) {
+            throw new IllegalArgumentException("Размер группы не может быть отрицательным: " + groupSize);
+        }
+        this.groupSize = groupSize;
+    }
+
+    public int getGroupSize() {
+        return groupSize;
+    }
+
+    @Override
+    public String getId() {
+        return "batched";
+    }
+
+    @Override
+    public String getName() {
+        return "Групповые вставки";
+    }
+
+    @Override
+    public boolean isStable() {
+        return true;
+    }
+
+    @Override
+    public String getComparisonsComplexity() {
+        return "O(n log n)";
+    }
+
+    @Override
+    public String getMovesComplexity() {
+        return "O(n√n)";
+    }
+
+    @Override
+    public void sort(int[] arr, Metrics metrics) {
+        int k = groupSize > 0 ? groupSize : InsertionSorts.defaultGroupSize(arr.length);
+        InsertionSorts.batchedInsertionSort(arr, k, metrics);
+    }
+
+    @Override
+    public boolean supportsOffHeap() {
+        return true;
+    }
+
+    @Override
+    public void sort(IntArrayAccess arr, Metrics metrics) {
+        int k = groupSize > 0 ? groupSize : InsertionSorts.defaultGroupSize(arr.length());
+        InsertionSorts.batchedInsertionSort(arr, k, metrics);
+    }
+}
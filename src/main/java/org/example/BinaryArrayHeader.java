@@ -0,0 +1,101 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Заголовок двоичного файла массива.
+ * <pre>
+ * смещение  размер  поле
+ *  0        4       сигнатура "SRTA"
+ *  4        2       версия формата
+ *  6        2       код формы массива ({@link ArrayShape})
+ *  8        8       количество элементов
+ * 16        8       зерно генератора
+ * 24        8       зарезервировано (нули)
+ * </pre>
+ * Все поля и следующие за заголовком элементы int32 записываются в порядке little-endian.
+ */
+public final class BinaryArrayHeader {
+    /**
+     * Сигнатура файла: байты 'S', 'R', 'T', 'A'
+     */
+    public static final int MAGIC = 0x41545253;
+    public static final short VERSION = 1;
+    public static final int SIZE = 32;
+
+    private final long count;
+    private final ArrayShape shape;
+    private final long seed;
+
+    /**
+     * @param count количество элементов
+     * @param shape форма массива
+     * @param seed зерно генератора (0, если массив не сгенерирован)
+     */
+    public BinaryArrayHeader(long count, ArrayShape shape, long seed) {
+        this.count = count;
+        this.shape = shape;
+        this.seed = seed;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public ArrayShape getShape() {
+        return shape;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @param buffer первые байты файла
+     * @return true, если буфер начинается с сигнатуры двоичного формата
+     */
+    static boolean hasMagic(ByteBuffer buffer) {
+        return buffer.remaining() >= 4 && buffer.order(ByteOrder.LITTLE_ENDIAN).getInt(buffer.position()) == MAGIC;
+    }
+
+    /**
+     * Чтение заголовка
+     * @param buffer буфер с {@link #SIZE} байтами заголовка
+     * @return заголовок
+     * @throws IOException если сигнатура или версия не поддерживаются
+     */
+    static BinaryArrayHeader read(ByteBuffer buffer) throws IOException {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Файл не является двоичным файлом массива");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Неподдерживаемая версия формата: " + version);
+        }
+        ArrayShape shape = ArrayShape.fromCode(buffer.getShort());
+        long count = buffer.getLong();
+        long seed = buffer.getLong();
+        buffer.getLong();
+        if (count < 0) {
+            throw new IOException("Некорректное количество элементов в заголовке: " + count);
+        }
+        return new BinaryArrayHeader(count, shape, seed);
+    }
+
+    /**
+     * Запись заголовка
+     * @param buffer буфер, в который записываются {@link #SIZE} байт
+     */
+    void write(ByteBuffer buffer) {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort((short) shape.getCode());
+        buffer.putLong(count);
+        buffer.putLong(seed);
+        buffer.putLong(0);
+    }
+}
@@ -0,0 +1,55 @@
+package org.example;
+
+/**
+ * Сортировка бинарными вставками со сдвигом через {@link System#arraycopy}
+ */
+public class BlockMoveInsertionSortAlgorithm implements SortAlgorithm {
+
+    @Override
+    public String getId() {
+        return "block";
+    }
+
+    @Override
+    public String getName() {
+        return "Бинарные вставки (блочный сдвиг)";
+    }
+
+    @Override
+    public boolean isStable() {
+        return true;
+    }
+
+    @Override
+    public String getComparisonsComplexity() {
+        return "O(n log n)";
+    }
+
+    @Override
+    public String getMovesComplexity() {
+        return "O(n²)";
+    }
+
+    @Override
+    public void sort(int[] arr, Metrics metrics) {
+        InsertionSorts.blockMoveInsertionSort(arr, metrics);
+    }
+
+    /**
+     * Каждый сдвиг устраняет ровно одну инверсию, поэтому перемещений столько же, сколько инверсий
+     */
+    @Override
+    public long expectedMoves(Presortedness presortedness) {
+        return presortedness.getInversions();
+    }
+
+    @Override
+    public boolean supportsOffHeap() {
+        return true;
+    }
+
+    @Override
+    public void sort(IntArrayAccess arr, Metrics metrics) {
+        InsertionSorts.blockMoveInsertionSort(arr, metrics);
+    }
+}
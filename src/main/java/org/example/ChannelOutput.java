@@ -0,0 +1,184 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Буферизованная запись в {@link FileChannel} для экспорта: числа и ASCII-строки пишутся в буфер
+ * напрямую, без промежуточных строк, кодировщиков и форматирования. Двоичные числа — little-endian.
+ */
+final class ChannelOutput implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 20;
+    // Наибольшая длина десятичной записи long со знаком
+    private static final int MAX_DECIMAL = 20;
+
+    // Пары десятичных цифр чисел 00..99
+    private static final byte[] DIGIT_PAIRS = new byte[200];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_PAIRS[2 * i] = (byte) ('0' + i / 10);
+            DIGIT_PAIRS[2 * i + 1] = (byte) ('0' + i % 10);
+        }
+    }
+
+    private final FileChannel channel;
+    // Данные накапливаются в массиве (без проверок ByteBuffer на каждый байт) и пишутся в канал через обертку
+    private final byte[] bytes = new byte[BUFFER_SIZE];
+    private final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    private int position;
+
+    /**
+     * @param file файл (перезаписывается)
+     */
+    ChannelOutput(File file) throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    void put(byte value) throws IOException {
+        if (position == bytes.length) {
+            flush();
+        }
+        bytes[position++] = value;
+    }
+
+    void put(byte[] source) throws IOException {
+        put(source, 0, source.length);
+    }
+
+    void put(byte[] source, int offset, int length) throws IOException {
+        if (length <= bytes.length - position) {
+            System.arraycopy(source, offset, bytes, position, length);
+            position += length;
+            return;
+        }
+        while (length > 0) {
+            if (position == bytes.length) {
+                flush();
+            }
+            int chunk = Math.min(length, bytes.length - position);
+            System.arraycopy(source, offset, bytes, position, chunk);
+            position += chunk;
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    /**
+     * Запись строки, состоящей только из символов ASCII (имена полей, разделители)
+     */
+    void putAscii(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            put((byte) text.charAt(i));
+        }
+    }
+
+    /**
+     * Запись целого числа десятичными цифрами
+     */
+    void putDecimal(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            putAscii(Long.toString(value));
+            return;
+        }
+        ensure(MAX_DECIMAL);
+        if (value < 0) {
+            bytes[position++] = '-';
+            value = -value;
+        }
+        int end = position + decimalLength(value);
+        int i = end;
+        // Старшие разряды делятся как long, остаток (меньше 2^31) — как int по две цифры за деление
+        while (value > Integer.MAX_VALUE) {
+            long quotient = value / 100;
+            int pair = (int) (value - quotient * 100) * 2;
+            bytes[--i] = DIGIT_PAIRS[pair + 1];
+            bytes[--i] = DIGIT_PAIRS[pair];
+            value = quotient;
+        }
+        int small = (int) value;
+        while (small >= 10) {
+            int quotient = small / 100;
+            int pair = (small - quotient * 100) * 2;
+            bytes[--i] = DIGIT_PAIRS[pair + 1];
+            bytes[--i] = DIGIT_PAIRS[pair];
+            small = quotient;
+        }
+        if (i > position) {
+            // Нечетное количество цифр: старшая цифра
+            bytes[--i] = (byte) ('0' + small);
+        }
+        position = end;
+    }
+
+    private static int decimalLength(long value) {
+        long bound = 10;
+        for (int length = 1; length < 19; length++, bound *= 10) {
+            if (value < bound) {
+                return length;
+            }
+        }
+        return 19;
+    }
+
+    /**
+     * Запись неотрицательного числа переменной длины (LEB128)
+     */
+    void putVarint(long value) throws IOException {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[position++] = (byte) value;
+    }
+
+    /**
+     * Запись числа со знаком переменной длины (zigzag, затем LEB128)
+     */
+    void putZigzag(long value) throws IOException {
+        putVarint((value << 1) ^ (value >> 63));
+    }
+
+    void putInt(int value) throws IOException {
+        ensure(Integer.BYTES);
+        for (int i = 0; i < Integer.BYTES; i++) {
+            bytes[position++] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    void putLong(long value) throws IOException {
+        ensure(Long.BYTES);
+        for (int i = 0; i < Long.BYTES; i++) {
+            bytes[position++] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    private void ensure(int length) throws IOException {
+        if (bytes.length - position < length) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.clear().limit(position);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        position = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
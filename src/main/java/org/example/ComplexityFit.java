@@ -0,0 +1,192 @@
+package org.example;
+
+import java.util.Locale;
+
+/**
+ * Подбор асимптотики по замерам на разных размерах массива.
+ * Степенной закон {@code y ≈ c·n^k} подбирается методом наименьших квадратов в логарифмическом масштабе,
+ * затем среди стандартных моделей (n, n·log n, n·log² n, n^1.5, n²) выбирается та, у которой
+ * наименьшая среднеквадратичная ошибка логарифмов при наилучшей константе.
+ * По выбранной модели экстраполируются значения для размеров, на которых замера не было.
+ */
+public final class ComplexityFit {
+
+    /**
+     * Стандартная модель роста
+     */
+    public enum Model {
+        LINEAR("n"),
+        LINEARITHMIC("n·log n"),
+        LINEARITHMIC_SQUARED("n·log² n"),
+        POWER_1_5("n^1.5"),
+        QUADRATIC("n²");
+
+        private final String formula;
+
+        Model(String formula) {
+            this.formula = formula;
+        }
+
+        public String getFormula() {
+            return formula;
+        }
+
+        /**
+         * @return значение модели без константы (логарифм — двоичный)
+         */
+        public double evaluate(double n) {
+            double log = Math.log(n) / Math.log(2);
+            switch (this) {
+                case LINEAR:
+                    return n;
+                case LINEARITHMIC:
+                    return n * log;
+                case LINEARITHMIC_SQUARED:
+                    return n * log * log;
+                case POWER_1_5:
+                    return n * Math.sqrt(n);
+                default:
+                    return n * n;
+            }
+        }
+    }
+
+    private final double exponent;
+    private final double powerConstant;
+    private final Model model;
+    private final double constant;
+    private final double error;
+
+    private ComplexityFit(double exponent, double powerConstant, Model model, double constant, double error) {
+        this.exponent = exponent;
+        this.powerConstant = powerConstant;
+        this.model = model;
+        this.constant = constant;
+        this.error = error;
+    }
+
+    /**
+     * Подбор асимптотики
+     * @param sizes размеры массива (не меньше двух различных, каждый больше 1)
+     * @param values измеренные значения для каждого размера (положительные)
+     * @return результат подбора
+     * @throws IllegalArgumentException если точек недостаточно или значения не положительные
+     */
+    public static ComplexityFit fit(long[] sizes, double[] values) {
+        if (sizes.length != values.length) {
+            throw new IllegalArgumentException("Количество размеров и значений не совпадает: "
+                    + sizes.length + " и " + values.length);
+        }
+        int count = sizes.length;
+        double[] logN = new double[count];
+        double[] logY = new double[count];
+        for (int i = 0; i < count; i++) {
+            if (sizes[i] <= 1 || values[i] <= 0) {
+                throw new IllegalArgumentException("Размер должен быть больше 1, а значение положительным: n="
+                        + sizes[i] + ", значение " + values[i]);
+            }
+            logN[i] = Math.log(sizes[i]);
+            logY[i] = Math.log(values[i]);
+        }
+
+        // Степенной закон: log y = log c + k·log n
+        double meanX = 0;
+        double meanY = 0;
+        for (int i = 0; i < count; i++) {
+            meanX += logN[i];
+            meanY += logY[i];
+        }
+        meanX /= count;
+        meanY /= count;
+        double sxx = 0;
+        double sxy = 0;
+        for (int i = 0; i < count; i++) {
+            sxx += (logN[i] - meanX) * (logN[i] - meanX);
+            sxy += (logN[i] - meanX) * (logY[i] - meanY);
+        }
+        if (sxx == 0) {
+            throw new IllegalArgumentException("Для подбора нужны хотя бы два различных размера");
+        }
+        double exponent = sxy / sxx;
+        double powerConstant = Math.exp(meanY - exponent * meanX);
+
+        // Стандартная модель: константа — среднее геометрическое отношений y / f(n)
+        Model best = null;
+        double bestConstant = 0;
+        double bestError = Double.POSITIVE_INFINITY;
+        for (Model model : Model.values()) {
+            double logC = 0;
+            for (int i = 0; i < count; i++) {
+                logC += logY[i] - Math.log(model.evaluate(sizes[i]));
+            }
+            logC /= count;
+            double squares = 0;
+            for (int i = 0; i < count; i++) {
+                double residual = logY[i] - logC - Math.log(model.evaluate(sizes[i]));
+                squares += residual * residual;
+            }
+            double error = Math.sqrt(squares / count);
+            if (error < bestError) {
+                best = model;
+                bestConstant = Math.exp(logC);
+                bestError = error;
+            }
+        }
+        return new ComplexityFit(exponent, powerConstant, best, bestConstant, bestError);
+    }
+
+    /**
+     * @return показатель степени k закона {@code c·n^k}
+     */
+    public double getExponent() {
+        return exponent;
+    }
+
+    /**
+     * @return константа c закона {@code c·n^k}
+     */
+    public double getPowerConstant() {
+        return powerConstant;
+    }
+
+    public Model getModel() {
+        return model;
+    }
+
+    /**
+     * @return константа выбранной стандартной модели
+     */
+    public double getConstant() {
+        return constant;
+    }
+
+    /**
+     * @return среднеквадратичная ошибка натуральных логарифмов для выбранной модели
+     *         (0.1 — расхождение с замерами около 10%)
+     */
+    public double getError() {
+        return error;
+    }
+
+    /**
+     * Ожидаемое значение по выбранной модели
+     * @param n размер массива
+     * @return значение модели с подобранной константой
+     */
+    public double predict(long n) {
+        return constant * model.evaluate(n);
+    }
+
+    /**
+     * @return описание вида «≈ 0.25·n² (n^1.98)»
+     */
+    public String describe() {
+        return String.format(Locale.ROOT, "≈ %s·%s (n^%.2f)", formatConstant(constant), model.getFormula(), exponent);
+    }
+
+    private static String formatConstant(double value) {
+        return value >= 0.01 && value < 1000
+                ? String.format(Locale.ROOT, "%.2f", value)
+                : String.format(Locale.ROOT, "%.2e", value);
+    }
+}
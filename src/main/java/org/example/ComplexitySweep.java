@@ -0,0 +1,206 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Серия экспериментов по геометрической прогрессии размеров массива: для каждого алгоритма
+ * строится кривая сравнений, вставок и времени в зависимости от n и подбирается асимптотика ({@link ComplexityFit}).
+ * <p>
+ * Массив каждого размера генерируется один раз и сортируется всеми алгоритмами. Алгоритм исключается
+ * из следующих размеров, если ожидаемое время прогона на следующем размере больше лимита
+ * (свойство {@code sort.sweep.limit.ms}, по умолчанию {@value #DEFAULT_POINT_LIMIT_MS} мс), —
+ * иначе квадратичные сортировки на больших размерах заняли бы часы.
+ */
+public final class ComplexitySweep {
+    /**
+     * Лимит ожидаемого времени одного прогона по умолчанию, мс
+     */
+    public static final int DEFAULT_POINT_LIMIT_MS = 2000;
+    /**
+     * Время короче этого порога (нс) в подбор не входит, если длинных точек хотя бы две:
+     * на малых размерах время определяется накладными расходами, а не асимптотикой
+     */
+    static final double TIME_FIT_FLOOR_NANOS = 1e6;
+
+    /**
+     * Кривая одного алгоритма
+     */
+    public static class Curve {
+        final SortAlgorithm algorithm;
+        final List<SortExperimentResult> points = new ArrayList<>();
+        ComplexityFit comparisons;  // null, если подобрать нельзя (меньше двух точек или нулевые значения)
+        ComplexityFit moves;
+        ComplexityFit time;         // по медиане времени в наносекундах
+
+        Curve(SortAlgorithm algorithm) {
+            this.algorithm = algorithm;
+        }
+
+        public SortAlgorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        /**
+         * @return результаты в порядке возрастания размера
+         */
+        public List<SortExperimentResult> getPoints() {
+            return points;
+        }
+
+        public ComplexityFit getComparisons() {
+            return comparisons;
+        }
+
+        public ComplexityFit getMoves() {
+            return moves;
+        }
+
+        public ComplexityFit getTime() {
+            return time;
+        }
+    }
+
+    private ComplexitySweep() {
+    }
+
+    /**
+     * Геометрическая прогрессия размеров
+     * @param min первый размер
+     * @param max наибольший размер (включается, даже если не попадает в прогрессию)
+     * @param factor знаменатель прогрессии (больше 1)
+     * @return возрастающие размеры
+     */
+    public static int[] geometricSizes(int min, int max, double factor) {
+        if (min < 2 || max < min) {
+            throw new IllegalArgumentException("Размеры должны быть не меньше 2 и min <= max: " + min + ", " + max);
+        }
+        if (!(factor > 1)) {
+            throw new IllegalArgumentException("Знаменатель прогрессии должен быть больше 1: " + factor);
+        }
+        List<Integer> sizes = new ArrayList<>();
+        for (double size = min; size < max; size *= factor) {
+            int rounded = (int) Math.round(size);
+            if (sizes.isEmpty() || rounded > sizes.get(sizes.size() - 1)) {
+                sizes.add(rounded);
+            }
+        }
+        if (sizes.isEmpty() || sizes.get(sizes.size() - 1) < max) {
+            sizes.add(max);
+        }
+        return sizes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Проведение серии (выполняется в фоновом потоке)
+     * @param algorithms алгоритмы
+     * @param sizes возрастающие размеры массива
+     * @param generator генератор массивов
+     * @param warmups количество прогревочных прогонов на каждой точке
+     * @param repetitions количество повторов замера времени на каждой точке
+     * @param progress приемник прогресса и отмены (может быть null)
+     * @return кривые в порядке алгоритмов
+     * @throws CancellationException если серия была отменена
+     */
+    public static List<Curve> run(List<SortAlgorithm> algorithms, int[] sizes, ArrayGenerator generator,
+                                  int warmups, int repetitions, SortProgress progress) {
+        double limitNanos = Integer.getInteger("sort.sweep.limit.ms", DEFAULT_POINT_LIMIT_MS) * 1e6;
+        String distribution = generator.getShape().getDisplayName();
+
+        List<Curve> curves = new ArrayList<>();
+        for (SortAlgorithm algorithm : algorithms) {
+            curves.add(new Curve(algorithm));
+        }
+        for (int size : sizes) {
+            int[] source = null;
+            int[] work = null;
+            Presortedness presortedness = null;
+            for (Curve curve : curves) {
+                if (expectedNanos(curve, size) > limitNanos) {
+                    continue;
+                }
+                if (source == null) {
+                    if (progress != null) {
+                        progress.beginPhase("Генерация массива (n=" + size + ")", 0);
+                    }
+                    source = generator.generate(size);
+                    work = new int[size];
+                    presortedness = Presortedness.analyze(source);
+                }
+                SortExperimentResult point = SortExperiment.measure(curve.algorithm, distribution, source, work,
+                        warmups, repetitions, progress);
+                point.seed = generator.getSeed();
+                SortExperiment.applyPresortedness(point, curve.algorithm, presortedness);
+                curve.points.add(point);
+            }
+        }
+
+        for (Curve curve : curves) {
+            curve.comparisons = fit(curve.points, SortExperimentResult::getComparisons);
+            curve.moves = fit(curve.points, SortExperimentResult::getSwaps);
+            curve.time = fitTime(curve.points);
+        }
+        return curves;
+    }
+
+    /**
+     * Ожидаемое время прогона на новом размере по уже измеренным точкам.
+     * По двум последним точкам берется наблюдаемый показатель степени, но не меньше 1 и не больше 2.
+     */
+    private static double expectedNanos(Curve curve, int size) {
+        List<SortExperimentResult> points = curve.points;
+        if (points.isEmpty()) {
+            return 0;
+        }
+        SortExperimentResult last = points.get(points.size() - 1);
+        double exponent = 2;
+        if (points.size() > 1) {
+            SortExperimentResult previous = points.get(points.size() - 2);
+            double observed = Math.log(last.getTimeNanos() / previous.getTimeNanos())
+                    / Math.log((double) last.arraySize / previous.arraySize);
+            if (!Double.isNaN(observed)) {
+                exponent = Math.max(1, Math.min(2, observed));
+            }
+        }
+        return last.getTimeNanos() * Math.pow((double) size / last.arraySize, exponent);
+    }
+
+    /**
+     * Подбор асимптотики времени по точкам не короче {@link #TIME_FIT_FLOOR_NANOS}
+     */
+    private static ComplexityFit fitTime(List<SortExperimentResult> points) {
+        List<SortExperimentResult> longRuns = new ArrayList<>();
+        for (SortExperimentResult point : points) {
+            if (point.getTimeNanos() >= TIME_FIT_FLOOR_NANOS) {
+                longRuns.add(point);
+            }
+        }
+        return fit(longRuns.size() >= 2 ? longRuns : points, SortExperimentResult::getTimeNanos);
+    }
+
+    /**
+     * Подбор асимптотики одной величины по точкам с положительными значениями
+     * @param metric величина результата
+     * @return результат подбора или null, если точек меньше двух
+     */
+    private static ComplexityFit fit(List<SortExperimentResult> points, ToDoubleFunction<SortExperimentResult> metric) {
+        List<SortExperimentResult> usable = new ArrayList<>();
+        for (SortExperimentResult point : points) {
+            if (point.arraySize > 1 && metric.applyAsDouble(point) > 0) {
+                usable.add(point);
+            }
+        }
+        if (usable.size() < 2) {
+            return null;
+        }
+        long[] sizes = new long[usable.size()];
+        double[] values = new double[usable.size()];
+        for (int i = 0; i < usable.size(); i++) {
+            sizes[i] = usable.get(i).arraySize;
+            values[i] = metric.applyAsDouble(usable.get(i));
+        }
+        return ComplexityFit.fit(sizes, values);
+    }
+}
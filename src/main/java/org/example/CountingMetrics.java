@@ -0,0 +1,144 @@
+package org.example;
+
+/**
+ * Приемник статистики, считающий сравнения и перемещения элементов.
+ * Счетчики — обычные поля: объект используется одним потоком сортировки,
+ * а в {@link SortProgress} значения публикуются только в контрольных точках.
+ * <p>
+ * Для живой визуализации в контрольных точках накопленные значения дополнительно публикуются
+ * в {@link EventRingBuffer} (индекс внешнего цикла, сравнения, перемещения). Отдельного приемника
+ * для анимации нет намеренно: в процессе, где замеряется время с {@link NoOpMetrics} (приложение, пакетный
+ * режим, проверка регрессий, бенчмарки), через общие ядра должны проходить только {@link NoOpMetrics} и этот
+ * класс, иначе вызовы {@link Metrics} в ядрах становятся мегаморфными и замер времени без счетчиков
+ * замедляется. {@link TraceWriter} — третья реализация, поэтому он используется только в отдельном
+ * процессе {@link SortTrace}, где время не замеряется.
+ */
+public final class CountingMetrics implements Metrics {
+    private final SortProgress progress;
+    private final EventRingBuffer events;
+    private final Thread owner;
+
+    private long comparisons;
+    private long moves;
+    private long passes;
+    private long scratchBytes;
+    private String strategy;
+    private long prepassNanos;
+
+    public CountingMetrics() {
+        this(null);
+    }
+
+    /**
+     * @param progress приемник прогресса (может быть null)
+     */
+    public CountingMetrics(SortProgress progress) {
+        this(progress, null);
+    }
+
+    /**
+     * Публикация не блокируется: если отрисовка не успевает разбирать буфер, события отбрасываются,
+     * а следующее событие все равно несет полные счетчики. Публикует только поток, создавший приемник
+     * (у буфера один писатель); контрольные точки из других потоков передаются только в {@link SortProgress}.
+     * @param progress приемник прогресса (может быть null)
+     * @param events буфер событий для отрисовки (может быть null)
+     */
+    public CountingMetrics(SortProgress progress, EventRingBuffer events) {
+        this.progress = progress;
+        this.events = events;
+        this.owner = events != null ? Thread.currentThread() : null;
+    }
+
+    @Override
+    public void compare() {
+        comparisons++;
+    }
+
+    @Override
+    public void move() {
+        moves++;
+    }
+
+    @Override
+    public void moves(long count) {
+        moves += count;
+    }
+
+    @Override
+    public void pass() {
+        passes++;
+    }
+
+    @Override
+    public void scratch(long bytes) {
+        scratchBytes += bytes;
+    }
+
+    @Override
+    public void strategy(String kernel, long prepassNanos) {
+        this.strategy = kernel;
+        this.prepassNanos += prepassNanos;
+    }
+
+    @Override
+    public boolean isCounting() {
+        return true;
+    }
+
+    @Override
+    public void add(long comparisons, long moves) {
+        this.comparisons += comparisons;
+        this.moves += moves;
+    }
+
+    @Override
+    public void progress(int processed) {
+        if (events != null && Thread.currentThread() == owner) {
+            events.offer(processed, comparisons, moves);
+        }
+        if (progress != null) {
+            progress.update(processed, comparisons, moves);
+        }
+    }
+
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    public long getMoves() {
+        return moves;
+    }
+
+    public long getPasses() {
+        return passes;
+    }
+
+    public long getScratchBytes() {
+        return scratchBytes;
+    }
+
+    /**
+     * @return ядро, выбранное по предварительному проходу (null, если алгоритм не выбирает ядро)
+     */
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public long getPrepassNanos() {
+        return prepassNanos;
+    }
+
+    /**
+     * @return накопленные счетчики в виде результата сортировки
+     */
+    public SortResult toResult() {
+        return new SortResult(comparisons, moves);
+    }
+
+    /**
+     * @return накопленные счетчики вместе с проходами и вспомогательной памятью
+     */
+    public RadixSortResult toRadixResult() {
+        return new RadixSortResult(comparisons, moves, passes, scratchBytes);
+    }
+}
@@ -0,0 +1,50 @@
+package org.example;
+
+import java.io.IOException;
+
+/**
+ * Сортировка подсчетом для небольшого диапазона значений
+ * (при большом диапазоне — поразрядная LSD, см. {@link RadixSorts#countingSort(int[], Metrics)})
+ */
+public class CountingSortAlgorithm implements SortAlgorithm {
+
+    @Override
+    public String getId() {
+        return "counting";
+    }
+
+    @Override
+    public String getName() {
+        return "Подсчетом";
+    }
+
+    @Override
+    public boolean isStable() {
+        return true;
+    }
+
+    @Override
+    public String getComparisonsComplexity() {
+        return "0";
+    }
+
+    @Override
+    public String getMovesComplexity() {
+        return "O(n + k)";
+    }
+
+    @Override
+    public void sort(int[] arr, Metrics metrics) {
+        RadixSorts.countingSort(arr, metrics);
+    }
+
+    @Override
+    public boolean supportsOffHeap() {
+        return true;
+    }
+
+    @Override
+    public void sort(IntArrayAccess arr, Metrics metrics) throws IOException {
+        RadixSorts.countingSort(arr, metrics);
+    }
+}
@@ -0,0 +1,110 @@
+package org.example;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Ограниченный кольцевой буфер событий без блокировок для одного писателя и одного читателя.
+ * Событие — три числа long. Писатель (поток сортировки) никогда не ждет: если буфер заполнен,
+ * {@link #offer(long, long, long)} возвращает false, и событие отбрасывается.
+ * <p>
+ * Индексы записи и чтения растут монотонно; писатель публикует запись через release-запись tail,
+ * читатель освобождает ячейки release-записью head. Позиция читателя кэшируется у писателя
+ * и перечитывается только когда буфер кажется заполненным.
+ */
+public final class EventRingBuffer {
+    /**
+     * Количество чисел в одном событии
+     */
+    public static final int EVENT_SIZE = 3;
+
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+    private static final VarHandle REJECTED;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(EventRingBuffer.class, "head", long.class);
+            TAIL = lookup.findVarHandle(EventRingBuffer.class, "tail", long.class);
+            REJECTED = lookup.findVarHandle(EventRingBuffer.class, "rejected", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long[] slots;
+    private final int mask;
+
+    private long head;          // Следующее событие для чтения (пишет только читатель)
+    private long tail;          // Следующая ячейка для записи (пишет только писатель)
+    private long cachedHead;    // Последняя прочитанная писателем позиция читателя
+    private long rejected;      // Отброшенные события
+
+    /**
+     * @param capacity количество событий (округляется вверх до степени двойки)
+     */
+    public EventRingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 24)) {
+            throw new IllegalArgumentException("Емкость буфера должна быть от 1 до 2^24: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1 > 0 ? (capacity - 1) << 1 : 1);
+        this.slots = new long[size * EVENT_SIZE];
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return емкость в событиях
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Запись события (только поток-писатель)
+     * @return false, если буфер заполнен и событие отброшено
+     */
+    public boolean offer(long a, long b, long c) {
+        long t = tail;
+        if (t - cachedHead > mask) {
+            cachedHead = (long) HEAD.getAcquire(this);
+            if (t - cachedHead > mask) {
+                REJECTED.setOpaque(this, rejected + 1);
+                return false;
+            }
+        }
+        int index = (int) (t & mask) * EVENT_SIZE;
+        slots[index] = a;
+        slots[index + 1] = b;
+        slots[index + 2] = c;
+        TAIL.setRelease(this, t + 1);
+        return true;
+    }
+
+    /**
+     * Чтение всех доступных событий (только поток-читатель). Читатель получает только последнее событие,
+     * чего достаточно, когда события несут накопленные значения.
+     * @param last массив из {@link #EVENT_SIZE} чисел для последнего прочитанного события
+     * @return количество прочитанных событий (0, если буфер пуст и last не изменен)
+     */
+    public int drain(long[] last) {
+        long h = head;
+        long t = (long) TAIL.getAcquire(this);
+        if (t == h) {
+            return 0;
+        }
+        int index = (int) ((t - 1) & mask) * EVENT_SIZE;
+        last[0] = slots[index];
+        last[1] = slots[index + 1];
+        last[2] = slots[index + 2];
+        HEAD.setRelease(this, t);
+        return (int) (t - h);
+    }
+
+    /**
+     * @return количество событий, отброшенных из-за заполненного буфера
+     */
+    public long getRejected() {
+        return (long) REJECTED.getOpaque(this);
+    }
+}
@@ -0,0 +1,104 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Файл результатов экспериментов, общий для графического интерфейса и пакетного режима.
+ * Первые пять столбцов совпадают с прежним форматом, статистика повторов добавлена в конец строки.
+ */
+public final class ExperimentResultsFile {
+
+    private ExperimentResultsFile() {
+    }
+
+    /**
+     * Запись результатов в файл
+     * @param file файл
+     * @param results результаты экспериментов
+     */
+    public static void write(File file, List<SortExperimentResult> results) throws IOException {
+        try (PrintWriter writer = new PrintWriter(file)) {
+            // Записываем заголовок
+            writer.println("Размер массива, Алгоритм, Сравнения, Вставки, Время (мс), "
+                    + "Распределение, Повторы, Медиана (мс), p95 (мс), Ст. откл. (мс), Проходы, Память (байт), "
+                    + "Серии, Разбиение: чтение (байт), Разбиение: запись (байт), Разбиение (мс), "
+                    + "Слияние: чтение (байт), Слияние: запись (байт), Слияние (мс), "
+                    + "Прогрев, Мин (мс), Среднее (мс), p99 (мс), "
+                    + "Выделено за прогон (байт), Сборки мусора, Время сборок (мс), Пиковая куча (байт)");
+
+            // Записываем результаты экспериментов
+            for (SortExperimentResult experiment : results) {
+                TimingStats timing = experiment.timing;
+                // Для сортировки в памяти столбцы внешней сортировки нулевые
+                ExternalSortStats external = experiment.external != null ? experiment.external : new ExternalSortStats();
+                writer.println(String.format(Locale.ROOT, "%d, %s, %d, %d, %d, %s, %d, %.3f, %.3f, %.3f, %d, %d, "
+                                + "%d, %d, %d, %.3f, %d, %d, %.3f, %d, %.6f, %.6f, %.6f, %d, %d, %d, %d",
+                        experiment.arraySize,
+                        experiment.algorithm,
+                        experiment.comparisons,
+                        experiment.swaps,
+                        experiment.timeMs,
+                        experiment.distribution,
+                        timing != null ? timing.getCount() : 1,
+                        timing != null ? timing.getMedian() / 1e6 : experiment.timeMs,
+                        timing != null ? timing.getP95() / 1e6 : experiment.timeMs,
+                        timing != null ? timing.getStddev() / 1e6 : 0.0,
+                        experiment.passes,
+                        experiment.scratchBytes,
+                        external.runs,
+                        external.runReadBytes,
+                        external.runWriteBytes,
+                        external.runNanos / 1e6,
+                        external.mergeReadBytes,
+                        external.mergeWriteBytes,
+                        external.mergeNanos / 1e6,
+                        experiment.warmups,
+                        timing != null ? timing.getMin() / 1e6 : experiment.timeMs,
+                        timing != null ? timing.getMean() / 1e6 : experiment.timeMs,
+                        timing != null ? timing.getP99() / 1e6 : experiment.timeMs,
+                        experiment.allocatedBytes,
+                        experiment.gcCount,
+                        experiment.gcTimeMs,
+                        experiment.peakHeapBytes));
+            }
+
+            if (writer.checkError()) {
+                throw new IOException("Ошибка записи в файл " + file);
+            }
+        }
+    }
+
+    /**
+     * Запись полного распределения времени: одна строка на каждый повтор каждого эксперимента
+     * @param file файл
+     * @param results результаты экспериментов (без статистики повторов пропускаются)
+     */
+    public static void writeSamples(File file, List<SortExperimentResult> results) throws IOException {
+        try (PrintWriter writer = new PrintWriter(file)) {
+            writer.println("Эксперимент, Алгоритм, Размер массива, Распределение, Повтор, Время (нс)");
+            for (SortExperimentResult experiment : results) {
+                if (experiment.timing == null) {
+                    continue;
+                }
+                long[] samples = experiment.timing.getSamples();
+                for (int i = 0; i < samples.length; i++) {
+                    writer.println(String.format(Locale.ROOT, "%s, %s, %d, %s, %d, %d",
+                            experiment.experimentId,
+                            experiment.algorithm,
+                            experiment.arraySize,
+                            experiment.distribution,
+                            i + 1,
+                            samples[i]));
+                }
+            }
+
+            if (writer.checkError()) {
+                throw new IOException("Ошибка записи в файл " + file);
+            }
+        }
+    }
+}
@@ -0,0 +1,554 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Внешняя сортировка слиянием для двоичных файлов массивов, которые не помещаются в память.
+ * <ol>
+ * <li>Разбиение: файл читается фрагментами ограниченного размера, каждый фрагмент сортируется
+ * в памяти выбранным алгоритмом и записывается во временный файл — отсортированную серию.</li>
+ * <li>Слияние: серии сливаются k-путевым слиянием с кучей на массивах int (без объектов на элемент)
+ * через прямые буферы. Если серий больше {@value #MAX_FAN_IN}, слияние выполняется в несколько проходов.</li>
+ * </ol>
+ * Сравнения и перемещения складываются из сортировки фрагментов и слияния: сравнение — каждое
+ * сравнение в куче, перемещение — каждая запись элемента в выходной файл слияния.
+ * <pre>
+ * --input PATH        исходный двоичный файл массива (обязательный)
+ * --output PATH       файл результата (обязательный)
+ * --algorithm A       алгоритм сортировки фрагментов (по умолчанию hybrid)
+ * --chunk N           размер фрагмента в элементах (по умолчанию — по размеру кучи)
+ * --temp-dir PATH     каталог временных файлов (по умолчанию — каталог результата)
+ * </pre>
+ */
+public final class ExternalMergeSort {
+    /**
+     * Наибольшее количество серий, сливаемых за один проход
+     */
+    public static final int MAX_FAN_IN = 256;
+    /**
+     * Буфер чтения одной серии при слиянии
+     */
+    private static final int READ_BUFFER_BYTES = 1 << 18;
+    /**
+     * Буфер чтения фрагментов и записи серий и результата
+     */
+    private static final int WRITE_BUFFER_BYTES = 1 << 22;
+    private static final int PROGRESS_STEP = 1 << 16;
+
+    private final SortAlgorithm runAlgorithm;
+    private final int chunkElements;
+    private final File tempDirectory;
+
+    /**
+     * @param runAlgorithm алгоритм сортировки фрагментов в памяти
+     * @param chunkElements размер фрагмента в элементах
+     * @param tempDirectory каталог временных файлов серий (null — каталог файла результата)
+     */
+    public ExternalMergeSort(SortAlgorithm runAlgorithm, int chunkElements, File tempDirectory) {
+        if (chunkElements <= 0) {
+            throw new IllegalArgumentException("Размер фрагмента должен быть положительным: " + chunkElements);
+        }
+        this.runAlgorithm = runAlgorithm;
+        this.chunkElements = chunkElements;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * @return размер фрагмента по умолчанию: восьмая часть максимального размера кучи, от 64K до 64M элементов
+     */
+    public static int defaultChunkElements() {
+        long elements = Runtime.getRuntime().maxMemory() / 8 / Integer.BYTES;
+        return (int) Math.max(1 << 16, Math.min(elements, 1 << 26));
+    }
+
+    public SortAlgorithm getRunAlgorithm() {
+        return runAlgorithm;
+    }
+
+    public int getChunkElements() {
+        return chunkElements;
+    }
+
+    /**
+     * Сортировка файла с подсчетом операций (один прогон)
+     * @param input исходный двоичный файл массива (не изменяется)
+     * @param output файл результата в двоичном формате
+     * @param progress приемник прогресса и отмены (может быть null)
+     * @return результат эксперимента со статистикой этапов ({@link SortExperimentResult#getExternal()})
+     * @throws IOException при ошибке чтения или записи или если файл не в двоичном формате
+     * @throws CancellationException если сортировка была отменена
+     */
+    public SortExperimentResult sortFile(File input, File output, SortProgress progress) throws IOException {
+        BinaryArrayHeader header = readHeader(input);
+        CountingMetrics metrics = new CountingMetrics(progress);
+        MemoryProbe memory = MemoryProbe.start();
+        long startTime = System.nanoTime();
+        ExternalSortStats stats = sort(input, output, metrics, progress);
+        long nanos = System.nanoTime() - startTime;
+        memory.stop(1);
+
+        SortExperimentResult result = new SortExperimentResult(
+                header.getCount(),
+                "Внешняя (" + runAlgorithm.getName() + ")",
+                header.getShape().getDisplayName(),
+                metrics.getComparisons(),
+                metrics.getMoves(),
+                nanos / 1000000,
+                TimingStats.of(new long[]{nanos})
+        );
+        result.scratchBytes = metrics.getScratchBytes();
+        result.external = stats;
+        memory.applyTo(result);
+        return result;
+    }
+
+    /**
+     * Сортировка файла
+     * @param input исходный двоичный файл массива (не изменяется)
+     * @param output файл результата в двоичном формате
+     * @param metrics приемник статистики
+     * @param progress приемник этапов для индикатора выполнения (может быть null)
+     * @return статистика этапов
+     * @throws IOException при ошибке чтения или записи или если файл не в двоичном формате
+     * @throws CancellationException если сортировка была отменена
+     */
+    public ExternalSortStats sort(File input, File output, Metrics metrics, SortProgress progress) throws IOException {
+        BinaryArrayHeader header = readHeader(input);
+        long count = header.getCount();
+        File directory = tempDirectory != null ? tempDirectory : output.getAbsoluteFile().getParentFile();
+        ExternalSortStats stats = new ExternalSortStats();
+        List<File> runs = new ArrayList<>();
+        try {
+            long startTime = System.nanoTime();
+            if (progress != null) {
+                progress.beginPhase("Разбиение на серии", progressTotal(count));
+            }
+            createRuns(input, count, directory, runs, stats, metrics);
+            stats.runs = runs.size();
+            stats.runNanos = System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            // Промежуточные проходы, пока серий больше, чем входов слияния
+            while (runs.size() > MAX_FAN_IN) {
+                List<File> merged = new ArrayList<>();
+                try {
+                    for (int from = 0; from < runs.size(); from += MAX_FAN_IN) {
+                        List<File> group = runs.subList(from, Math.min(from + MAX_FAN_IN, runs.size()));
+                        File run = File.createTempFile("sort-run", ".bin", directory);
+                        merged.add(run);
+                        mergeRuns(group, run, false, count, stats, metrics, progress);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    deleteAll(merged);
+                    throw e;
+                }
+                deleteAll(runs);
+                runs = merged;
+                stats.mergePasses++;
+            }
+            stats.mergePasses++;
+            mergeRuns(runs, output, true, count, stats, metrics, progress);
+            stats.mergeNanos = System.nanoTime() - startTime;
+        } finally {
+            deleteAll(runs);
+        }
+        return stats;
+    }
+
+    private static BinaryArrayHeader readHeader(File input) throws IOException {
+        BinaryArrayHeader header = ArrayFileReader.readHeader(input);
+        if (header == null) {
+            throw new IOException("Внешняя сортировка поддерживает только двоичный формат массива");
+        }
+        return header;
+    }
+
+    /**
+     * Этап разбиения: чтение фрагментов, сортировка в памяти и запись серий
+     */
+    private void createRuns(File input, long count, File directory, List<File> runs, ExternalSortStats stats,
+                            Metrics metrics) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        int[] chunk = new int[(int) Math.min(chunkElements, Math.max(count, 1))];
+        metrics.scratch((long) chunk.length * Integer.BYTES + WRITE_BUFFER_BYTES);
+
+        try (FileChannel channel = FileChannel.open(input.toPath(), StandardOpenOption.READ)) {
+            long expectedSize = BinaryArrayHeader.SIZE + count * Integer.BYTES;
+            if (channel.size() != expectedSize) {
+                throw new IOException("Размер файла " + channel.size() + " байт не соответствует заголовку ("
+                        + expectedSize + " байт)");
+            }
+            channel.position(BinaryArrayHeader.SIZE);
+
+            long processed = 0;
+            while (processed < count) {
+                int length = (int) Math.min(chunk.length, count - processed);
+                readInts(channel, buffer, chunk, length);
+                stats.runReadBytes += (long) length * Integer.BYTES;
+
+                // Последний фрагмент может быть короче — сортируем массив точной длины
+                int[] run = length == chunk.length ? chunk : Arrays.copyOf(chunk, length);
+                Metrics runMetrics = metrics.isCounting() ? new CountingMetrics() : Metrics.NONE;
+                runAlgorithm.sort(run, runMetrics);
+                if (runMetrics instanceof CountingMetrics) {
+                    CountingMetrics counting = (CountingMetrics) runMetrics;
+                    metrics.add(counting.getComparisons(), counting.getMoves());
+                }
+
+                File file = File.createTempFile("sort-run", ".bin", directory);
+                runs.add(file);
+                try (FileChannel out = FileChannel.open(file.toPath(), StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                    writeInts(out, buffer, run, length);
+                }
+                stats.runWriteBytes += (long) length * Integer.BYTES;
+
+                processed += length;
+                metrics.progress(progressValue(processed, count));
+            }
+        }
+    }
+
+    /**
+     * k-путевое слияние серий в файл
+     * @param withHeader записать заголовок двоичного формата (итоговый файл)
+     */
+    private static void mergeRuns(List<File> runs, File output, boolean withHeader, long count, ExternalSortStats stats,
+                                  Metrics metrics, SortProgress progress) throws IOException {
+        if (progress != null) {
+            progress.beginPhase(withHeader ? "Слияние " + runs.size() + " серий" : "Промежуточное слияние",
+                    progressTotal(count));
+        }
+
+        List<RunReader> readers = new ArrayList<>();
+        try (FileChannel out = FileChannel.open(output.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer outBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            metrics.scratch(WRITE_BUFFER_BYTES + (long) runs.size() * READ_BUFFER_BYTES);
+            long total = 0;
+            for (File run : runs) {
+                RunReader reader = new RunReader(run);
+                readers.add(reader);
+                total += reader.remaining;
+            }
+            if (withHeader) {
+                new BinaryArrayHeader(total, ArrayShape.SORTED, 0).write(outBuffer);
+            }
+
+            IntRunHeap heap = new IntRunHeap(readers.size(), metrics);
+            for (int r = 0; r < readers.size(); r++) {
+                if (readers.get(r).hasNext()) {
+                    heap.push(readers.get(r).next(), r);
+                }
+            }
+
+            long written = 0;
+            while (!heap.isEmpty()) {
+                int run = heap.topRun();
+                if (outBuffer.remaining() < Integer.BYTES) {
+                    flush(out, outBuffer);
+                }
+                outBuffer.putInt(heap.topKey());
+                written++;
+
+                RunReader reader = readers.get(run);
+                if (reader.hasNext()) {
+                    heap.replaceTop(reader.next());
+                } else {
+                    heap.pop();
+                }
+                if ((written & (PROGRESS_STEP - 1)) == 0) {
+                    metrics.progress(progressValue(written, count));
+                }
+            }
+            flush(out, outBuffer);
+            metrics.moves(written);
+            metrics.progress(progressValue(written, count));
+
+            for (RunReader reader : readers) {
+                stats.mergeReadBytes += reader.bytesRead;
+            }
+            stats.mergeWriteBytes += written * Integer.BYTES + (withHeader ? BinaryArrayHeader.SIZE : 0);
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    private static void readInts(FileChannel channel, ByteBuffer buffer, int[] target, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), (long) (length - offset) * Integer.BYTES));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Неожиданный конец файла");
+                }
+            }
+            buffer.flip();
+            IntBuffer ints = buffer.asIntBuffer();
+            int n = ints.remaining();
+            ints.get(target, offset, n);
+            offset += n;
+        }
+    }
+
+    private static void writeInts(FileChannel channel, ByteBuffer buffer, int[] source, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            buffer.clear();
+            int n = Math.min(buffer.capacity() / Integer.BYTES, length - offset);
+            buffer.asIntBuffer().put(source, offset, n);
+            buffer.limit(n * Integer.BYTES);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            offset += n;
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void deleteAll(List<File> files) throws IOException {
+        for (File file : files) {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    /**
+     * Индикатор выполнения считает в int, поэтому для очень больших файлов значения масштабируются
+     */
+    private static int progressTotal(long count) {
+        return (int) Math.min(count, Integer.MAX_VALUE);
+    }
+
+    private static int progressValue(long processed, long count) {
+        return count <= Integer.MAX_VALUE ? (int) processed : (int) (processed * (double) Integer.MAX_VALUE / count);
+    }
+
+    /**
+     * Последовательное чтение серии через прямой буфер
+     */
+    private static final class RunReader {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private long remaining;
+        private long bytesRead;
+
+        RunReader(File file) throws IOException {
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            this.buffer = ByteBuffer.allocateDirect(READ_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            this.buffer.limit(0);
+            this.remaining = channel.size() / Integer.BYTES;
+        }
+
+        boolean hasNext() {
+            return remaining > 0;
+        }
+
+        int next() throws IOException {
+            if (buffer.remaining() < Integer.BYTES) {
+                buffer.compact();
+                while (buffer.position() < Integer.BYTES) {
+                    int read = channel.read(buffer);
+                    if (read < 0) {
+                        throw new IOException("Неожиданный конец файла серии");
+                    }
+                    bytesRead += read;
+                }
+                buffer.flip();
+            }
+            remaining--;
+            return buffer.getInt();
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Двоичная куча пар (значение, номер серии) на двух массивах int.
+     * При равных значениях первой идет серия с меньшим номером, поэтому слияние устойчиво.
+     */
+    private static final class IntRunHeap {
+        private final int[] keys;
+        private final int[] runs;
+        private final Metrics metrics;
+        private int size;
+
+        IntRunHeap(int capacity, Metrics metrics) {
+            this.keys = new int[capacity];
+            this.runs = new int[capacity];
+            this.metrics = metrics;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int topKey() {
+            return keys[0];
+        }
+
+        int topRun() {
+            return runs[0];
+        }
+
+        void push(int key, int run) {
+            int i = size++;
+            keys[i] = key;
+            runs[i] = run;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!less(i, parent)) {
+                    break;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        /**
+         * Замена вершины следующим значением той же серии
+         */
+        void replaceTop(int key) {
+            keys[0] = key;
+            siftDown();
+        }
+
+        void pop() {
+            size--;
+            keys[0] = keys[size];
+            runs[0] = runs[size];
+            siftDown();
+        }
+
+        private void siftDown() {
+            int i = 0;
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) {
+                    return;
+                }
+                int smallest = left;
+                if (left + 1 < size && less(left + 1, left)) {
+                    smallest = left + 1;
+                }
+                if (!less(smallest, i)) {
+                    return;
+                }
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        private boolean less(int i, int j) {
+            metrics.compare();
+            return keys[i] < keys[j] || (keys[i] == keys[j] && runs[i] < runs[j]);
+        }
+
+        private void swap(int i, int j) {
+            int key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+            int run = runs[i];
+            runs[i] = runs[j];
+            runs[j] = run;
+        }
+    }
+
+    /**
+     * Внешняя сортировка файла из командной строки
+     */
+    public static void main(String[] args) {
+        File input = null;
+        File output = null;
+        SortAlgorithm algorithm = null;
+        int chunk = defaultChunkElements();
+        File tempDirectory = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if ("--help".equals(option) || "-h".equals(option)) {
+                    printUsage();
+                    return;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Не указано значение параметра " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--input":
+                        input = new File(value);
+                        break;
+                    case "--output":
+                        output = new File(value);
+                        break;
+                    case "--algorithm":
+                        algorithm = SortAlgorithms.get(value);
+                        break;
+                    case "--chunk":
+                        chunk = Integer.parseInt(value);
+                        break;
+                    case "--temp-dir":
+                        tempDirectory = new File(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Неизвестный параметр: " + option);
+                }
+            }
+            if (input == null || output == null) {
+                throw new IllegalArgumentException("Не указан исходный файл (--input) или файл результата (--output)");
+            }
+            if (algorithm == null) {
+                algorithm = SortAlgorithms.get("hybrid");
+            }
+
+            ExternalMergeSort sort = new ExternalMergeSort(algorithm, chunk, tempDirectory);
+            SortExperimentResult result = sort.sortFile(input, output, null);
+            ExternalSortStats stats = result.external;
+            System.out.println(String.format(Locale.ROOT, "Отсортировано %d элементов за %d мс, серий: %d, проходов слияния: %d",
+                    result.arraySize, result.timeMs, stats.runs, stats.mergePasses));
+            System.out.println(String.format(Locale.ROOT, "Разбиение: %.1f мс, прочитано %d байт, записано %d байт",
+                    stats.runNanos / 1e6, stats.runReadBytes, stats.runWriteBytes));
+            System.out.println(String.format(Locale.ROOT, "Слияние: %.1f мс, прочитано %d байт, записано %d байт",
+                    stats.mergeNanos / 1e6, stats.mergeReadBytes, stats.mergeWriteBytes));
+            System.out.println(String.format(Locale.ROOT, "Сравнения: %d, перемещения: %d",
+                    result.comparisons, result.swaps));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Ошибка: " + e.getMessage());
+            printUsage();
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("Ошибка внешней сортировки: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void printUsage() {
+        System.out.println("Использование: ExternalMergeSort --input PATH --output PATH [параметры]");
+        System.out.println("  --algorithm A     алгоритм сортировки фрагментов (по умолчанию hybrid)");
+        System.out.println("  --chunk N         размер фрагмента в элементах (по умолчанию " + defaultChunkElements() + ")");
+        System.out.println("  --temp-dir PATH   каталог временных файлов (по умолчанию — каталог результата)");
+    }
+}
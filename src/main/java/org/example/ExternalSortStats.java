@@ -0,0 +1,47 @@
+package org.example;
+
+/**
+ * Статистика внешней сортировки по этапам: разбиение на отсортированные серии и слияние серий
+ */
+public class ExternalSortStats {
+    int runs;              // количество серий после разбиения
+    int mergePasses;       // количество проходов слияния (больше 1, если серий больше, чем входов слияния)
+    long runReadBytes;     // прочитано на этапе разбиения, байт
+    long runWriteBytes;    // записано на этапе разбиения, байт
+    long runNanos;         // время этапа разбиения, нс
+    long mergeReadBytes;   // прочитано на этапе слияния, байт
+    long mergeWriteBytes;  // записано на этапе слияния, байт
+    long mergeNanos;       // время этапа слияния, нс
+
+    public int getRuns() {
+        return runs;
+    }
+
+    public int getMergePasses() {
+        return mergePasses;
+    }
+
+    public long getRunReadBytes() {
+        return runReadBytes;
+    }
+
+    public long getRunWriteBytes() {
+        return runWriteBytes;
+    }
+
+    public long getRunNanos() {
+        return runNanos;
+    }
+
+    public long getMergeReadBytes() {
+        return mergeReadBytes;
+    }
+
+    public long getMergeWriteBytes() {
+        return mergeWriteBytes;
+    }
+
+    public long getMergeNanos() {
+        return mergeNanos;
+    }
+}
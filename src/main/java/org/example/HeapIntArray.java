@@ -0,0 +1,75 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Массив int в куче, доступный через {@link IntArrayAccess}
+ */
+public final class HeapIntArray implements IntArrayAccess {
+    private final int[] array;
+
+    public HeapIntArray(int[] array) {
+        this.array = array;
+    }
+
+    /**
+     * @return массив, в котором хранятся элементы
+     */
+    public int[] getArray() {
+        return array;
+    }
+
+    @Override
+    public int length() {
+        return array.length;
+    }
+
+    @Override
+    public int get(int index) {
+        return array[index];
+    }
+
+    @Override
+    public void set(int index, int value) {
+        array[index] = value;
+    }
+
+    @Override
+    public void get(int index, int[] dst, int offset, int length) {
+        System.arraycopy(array, index, dst, offset, length);
+    }
+
+    @Override
+    public void set(int index, int[] src, int offset, int length) {
+        System.arraycopy(src, offset, array, index, length);
+    }
+
+    @Override
+    public void move(int from, int to, int length) {
+        System.arraycopy(array, from, array, to, length);
+    }
+
+    @Override
+    public void fill(int from, int to, int value) {
+        Arrays.fill(array, from, to, value);
+    }
+
+    @Override
+    public boolean isOffHeap() {
+        return false;
+    }
+
+    @Override
+    public IntArrayAccess allocateScratch(int length) {
+        return new HeapIntArray(new int[length]);
+    }
+
+    @Override
+    public void copyTo(int srcIndex, IntArrayAccess dst, int dstIndex, int length) {
+        if (dst instanceof HeapIntArray) {
+            System.arraycopy(array, srcIndex, ((HeapIntArray) dst).array, dstIndex, length);
+        } else {
+            dst.set(dstIndex, array, srcIndex, length);
+        }
+    }
+}
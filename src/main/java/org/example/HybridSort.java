@@ -0,0 +1,993 @@
+package org.example;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Гибридная сортировка по схеме TimSort.
+ * Массив разбивается на естественные серии (убывающие серии разворачиваются), короткие серии
+ * дополняются до минимальной длины сортировкой бинарными вставками
+ * ({@link InsertionSorts#binaryInsertionSort(int[], int, int, int, Metrics)}), затем серии
+ * сливаются со стека с «галопом». Для слияния используется один буфер на n/2 элементов,
+ * выделяемый заранее.
+ * <p>
+ * Перемещением считается каждая запись элемента в массив или в буфер слияния.
+ */
+public final class HybridSort {
+    /**
+     * Массивы короче этой длины сортируются только бинарными вставками
+     */
+    private static final int MIN_MERGE = 32;
+    /**
+     * Начальный порог перехода в режим галопа
+     */
+    private static final int MIN_GALLOP = 7;
+    /**
+     * Глубины стека хватает для массивов любой длины int
+     */
+    private static final int MAX_STACK = 49;
+
+    private final int[] a;
+    private final Metrics metrics;
+    private final int[] tmp;
+    private int minGallop = MIN_GALLOP;
+
+    private final int[] runBase = new int[MAX_STACK];
+    private final int[] runLen = new int[MAX_STACK];
+    private int stackSize;
+
+    private HybridSort(int[] a, Metrics metrics) {
+        this.a = a;
+        this.metrics = metrics;
+        this.tmp = new int[(a.length >>> 1) + 1];
+        metrics.scratch((long) tmp.length * Integer.BYTES);
+    }
+
+    /**
+     * Сортировка массива
+     * @param arr массив для сортировки
+     * @param metrics приемник статистики ({@link Metrics#NONE} для замера времени)
+     * @throws CancellationException если сортировка была отменена через приемник прогресса
+     */
+    public static void sort(int[] arr, Metrics metrics) {
+        int n = arr.length;
+        if (n < 2) {
+            return;
+        }
+
+        if (n < MIN_MERGE) {
+            int initRunLen = countRunAndMakeAscending(arr, 0, n, metrics);
+            InsertionSorts.binaryInsertionSort(arr, 0, n, initRunLen, metrics);
+            return;
+        }
+
+        HybridSort sort = new HybridSort(arr, metrics);
+        int minRun = minRunLength(n);
+        int lo = 0;
+        int remaining = n;
+        do {
+            int runLen = countRunAndMakeAscending(arr, lo, n, metrics);
+
+            // Короткую серию дополняем до minRun бинарными вставками
+            if (runLen < minRun) {
+                int force = Math.min(remaining, minRun);
+                InsertionSorts.binaryInsertionSort(arr, lo, lo + force, lo + runLen, metrics);
+                runLen = force;
+            }
+
+            sort.pushRun(lo, runLen);
+            sort.mergeCollapse();
+
+            lo += runLen;
+            remaining -= runLen;
+            metrics.progress(lo);
+        } while (remaining != 0);
+
+        sort.mergeForceCollapse();
+    }
+
+    /**
+     * Сортировка массива вне кучи: тот же алгоритм и те же вызовы приемника статистики, что и у
+     * {@link #sort(int[], Metrics)}; буфер слияния выделяется через {@link IntArrayAccess#allocateScratch(int)}
+     * (для файла — временный файл, отображенный в память), а блоки переносятся через {@link IntArrayAccess#copyTo}
+     * @param arr массив для сортировки
+     * @param metrics приемник статистики
+     * @throws IOException если не удалось создать буфер слияния
+     * @throws CancellationException если сортировка была отменена через приемник прогресса
+     */
+    public static void sort(IntArrayAccess arr, Metrics metrics) throws IOException {
+        int n = arr.length();
+        if (n < 2) {
+            return;
+        }
+
+        if (n < MIN_MERGE) {
+            int initRunLen = countRunAndMakeAscending(arr, 0, n, metrics);
+            InsertionSorts.binaryInsertionSort(arr, 0, n, initRunLen, metrics);
+            return;
+        }
+
+        try (IntArrayAccess tmp = arr.allocateScratch((n >>> 1) + 1)) {
+            AccessSort sort = new AccessSort(arr, tmp, metrics);
+            int minRun = minRunLength(n);
+            int lo = 0;
+            int remaining = n;
+            do {
+                int runLen = countRunAndMakeAscending(arr, lo, n, metrics);
+
+                if (runLen < minRun) {
+                    int force = Math.min(remaining, minRun);
+                    InsertionSorts.binaryInsertionSort(arr, lo, lo + force, lo + runLen, metrics);
+                    runLen = force;
+                }
+
+                sort.pushRun(lo, runLen);
+                sort.mergeCollapse();
+
+                lo += runLen;
+                remaining -= runLen;
+                metrics.progress(lo);
+            } while (remaining != 0);
+
+            sort.mergeForceCollapse();
+        }
+    }
+
+    /**
+     * Минимальная длина серии: от MIN_MERGE/2 до MIN_MERGE, чтобы n/minRun было близко к степени двойки
+     */
+    private static int minRunLength(int n) {
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= (n & 1);
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    /**
+     * Длина серии, начинающейся с lo. Строго убывающая серия разворачивается на месте.
+     */
+    private static int countRunAndMakeAscending(int[] a, int lo, int hi, Metrics metrics) {
+        int runHi = lo + 1;
+        if (runHi == hi) {
+            return 1;
+        }
+
+        metrics.compare();
+        if (a[runHi++] < a[lo]) {
+            while (runHi < hi && less(a[runHi], a[runHi - 1], metrics)) {
+                runHi++;
+            }
+            reverseRange(a, lo, runHi, metrics);
+        } else {
+            while (runHi < hi && !less(a[runHi], a[runHi - 1], metrics)) {
+                runHi++;
+            }
+        }
+        return runHi - lo;
+    }
+
+    private static void reverseRange(int[] a, int lo, int hi, Metrics metrics) {
+        metrics.moves(((hi - lo) >>> 1) * 2L);
+        hi--;
+        while (lo < hi) {
+            int t = a[lo];
+            a[lo++] = a[hi];
+            a[hi--] = t;
+        }
+    }
+
+    private static int countRunAndMakeAscending(IntArrayAccess a, int lo, int hi, Metrics metrics) {
+        int runHi = lo + 1;
+        if (runHi == hi) {
+            return 1;
+        }
+
+        metrics.compare();
+        if (a.get(runHi++) < a.get(lo)) {
+            while (runHi < hi && less(a.get(runHi), a.get(runHi - 1), metrics)) {
+                runHi++;
+            }
+            reverseRange(a, lo, runHi, metrics);
+        } else {
+            while (runHi < hi && !less(a.get(runHi), a.get(runHi - 1), metrics)) {
+                runHi++;
+            }
+        }
+        return runHi - lo;
+    }
+
+    private static void reverseRange(IntArrayAccess a, int lo, int hi, Metrics metrics) {
+        metrics.moves(((hi - lo) >>> 1) * 2L);
+        hi--;
+        while (lo < hi) {
+            int t = a.get(lo);
+            a.set(lo++, a.get(hi));
+            a.set(hi--, t);
+        }
+    }
+
+    private static boolean less(int x, int y, Metrics metrics) {
+        metrics.compare();
+        return x < y;
+    }
+
+    private void pushRun(int base, int len) {
+        runBase[stackSize] = base;
+        runLen[stackSize] = len;
+        stackSize++;
+    }
+
+    /**
+     * Слияние серий на вершине стека, пока не выполнены инварианты длин
+     * (с исправлением de Gouw и др. для четырех верхних серий)
+     */
+    private void mergeCollapse() {
+        while (stackSize > 1) {
+            int n = stackSize - 2;
+            if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                    || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                if (runLen[n - 1] < runLen[n + 1]) {
+                    n--;
+                }
+            } else if (runLen[n] > runLen[n + 1]) {
+                break;
+            }
+            mergeAt(n);
+        }
+    }
+
+    private void mergeForceCollapse() {
+        while (stackSize > 1) {
+            int n = stackSize - 2;
+            if (n > 0 && runLen[n - 1] < runLen[n + 1]) {
+                n--;
+            }
+            mergeAt(n);
+        }
+    }
+
+    /**
+     * Слияние серий i и i + 1 на стеке
+     */
+    private void mergeAt(int i) {
+        int base1 = runBase[i];
+        int len1 = runLen[i];
+        int base2 = runBase[i + 1];
+        int len2 = runLen[i + 1];
+
+        runLen[i] = len1 + len2;
+        if (i == stackSize - 3) {
+            runBase[i + 1] = runBase[i + 2];
+            runLen[i + 1] = runLen[i + 2];
+        }
+        stackSize--;
+
+        // Элементы первой серии, меньшие начала второй, уже на месте
+        int k = gallopRight(a[base2], a, base1, len1, 0);
+        base1 += k;
+        len1 -= k;
+        if (len1 == 0) {
+            return;
+        }
+
+        // Элементы второй серии, большие конца первой, уже на месте
+        len2 = gallopLeft(a[base1 + len1 - 1], a, base2, len2, len2 - 1);
+        if (len2 == 0) {
+            return;
+        }
+
+        if (len1 <= len2) {
+            mergeLo(base1, len1, base2, len2);
+        } else {
+            mergeHi(base1, len1, base2, len2);
+        }
+    }
+
+    /**
+     * Позиция вставки key в отсортированный диапазон (левее равных элементов) экспоненциальным поиском от hint
+     */
+    private int gallopLeft(int key, int[] array, int base, int len, int hint) {
+        int lastOfs = 0;
+        int ofs = 1;
+        if (less(array[base + hint], key, metrics)) {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && less(array[base + hint + ofs], key, metrics)) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) {
+                    ofs = maxOfs;
+                }
+            }
+            if (ofs > maxOfs) {
+                ofs = maxOfs;
+            }
+            lastOfs += hint;
+            ofs += hint;
+        } else {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && !less(array[base + hint - ofs], key, metrics)) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) {
+                    ofs = maxOfs;
+                }
+            }
+            if (ofs > maxOfs) {
+                ofs = maxOfs;
+            }
+            int t = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - t;
+        }
+
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (less(array[base + m], key, metrics)) {
+                lastOfs = m + 1;
+            } else {
+                ofs = m;
+            }
+        }
+        return ofs;
+    }
+
+    /**
+     * Позиция вставки key в отсортированный диапазон (правее равных элементов) экспоненциальным поиском от hint
+     */
+    private int gallopRight(int key, int[] array, int base, int len, int hint) {
+        int ofs = 1;
+        int lastOfs = 0;
+        if (less(key, array[base + hint], metrics)) {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && less(key, array[base + hint - ofs], metrics)) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) {
+                    ofs = maxOfs;
+                }
+            }
+            if (ofs > maxOfs) {
+                ofs = maxOfs;
+            }
+            int t = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - t;
+        } else {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && !less(key, array[base + hint + ofs], metrics)) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) {
+                    ofs = maxOfs;
+                }
+            }
+            if (ofs > maxOfs) {
+                ofs = maxOfs;
+            }
+            lastOfs += hint;
+            ofs += hint;
+        }
+
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (less(key, array[base + m], metrics)) {
+                ofs = m;
+            } else {
+                lastOfs = m + 1;
+            }
+        }
+        return ofs;
+    }
+
+    /**
+     * Слияние слева направо; первая серия (не длиннее второй) копируется в буфер
+     */
+    private void mergeLo(int base1, int len1, int base2, int len2) {
+        int[] a = this.a;
+        int[] tmp = this.tmp;
+        System.arraycopy(a, base1, tmp, 0, len1);
+        metrics.moves(len1);
+
+        int cursor1 = 0;
+        int cursor2 = base2;
+        int dest = base1;
+
+        a[dest++] = a[cursor2++];
+        metrics.move();
+        if (--len2 == 0) {
+            System.arraycopy(tmp, cursor1, a, dest, len1);
+            metrics.moves(len1);
+            return;
+        }
+        if (len1 == 1) {
+            System.arraycopy(a, cursor2, a, dest, len2);
+            a[dest + len2] = tmp[cursor1];
+            metrics.moves(len2 + 1);
+            return;
+        }
+
+        int minGallop = this.minGallop;
+        outer:
+        while (true) {
+            int count1 = 0;
+            int count2 = 0;
+
+            // Поэлементное слияние, пока одна серия не начнет «выигрывать» подряд
+            do {
+                if (less(a[cursor2], tmp[cursor1], metrics)) {
+                    a[dest++] = a[cursor2++];
+                    metrics.move();
+                    count2++;
+                    count1 = 0;
+                    if (--len2 == 0) {
+                        break outer;
+                    }
+                } else {
+                    a[dest++] = tmp[cursor1++];
+                    metrics.move();
+                    count1++;
+                    count2 = 0;
+                    if (--len1 == 1) {
+                        break outer;
+                    }
+                }
+            } while ((count1 | count2) < minGallop);
+
+            // Режим галопа: блоки копируются целиком
+            do {
+                count1 = gallopRight(a[cursor2], tmp, cursor1, len1, 0);
+                if (count1 != 0) {
+                    System.arraycopy(tmp, cursor1, a, dest, count1);
+                    metrics.moves(count1);
+                    dest += count1;
+                    cursor1 += count1;
+                    len1 -= count1;
+                    if (len1 <= 1) {
+                        break outer;
+                    }
+                }
+                a[dest++] = a[cursor2++];
+                metrics.move();
+                if (--len2 == 0) {
+                    break outer;
+                }
+
+                count2 = gallopLeft(tmp[cursor1], a, cursor2, len2, 0);
+                if (count2 != 0) {
+                    System.arraycopy(a, cursor2, a, dest, count2);
+                    metrics.moves(count2);
+                    dest += count2;
+                    cursor2 += count2;
+                    len2 -= count2;
+                    if (len2 == 0) {
+                        break outer;
+                    }
+                }
+                a[dest++] = tmp[cursor1++];
+                metrics.move();
+                if (--len1 == 1) {
+                    break outer;
+                }
+                minGallop--;
+            } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+            if (minGallop < 0) {
+                minGallop = 0;
+            }
+            minGallop += 2;
+        }
+        this.minGallop = minGallop < 1 ? 1 : minGallop;
+
+        if (len1 == 1) {
+            System.arraycopy(a, cursor2, a, dest, len2);
+            a[dest + len2] = tmp[cursor1];
+            metrics.moves(len2 + 1);
+        } else {
+            System.arraycopy(tmp, cursor1, a, dest, len1);
+            metrics.moves(len1);
+        }
+    }
+
+    /**
+     * Слияние справа налево; вторая серия (короче первой) копируется в буфер
+     */
+    private void mergeHi(int base1, int len1, int base2, int len2) {
+        int[] a = this.a;
+        int[] tmp = this.tmp;
+        System.arraycopy(a, base2, tmp, 0, len2);
+        metrics.moves(len2);
+
+        int cursor1 = base1 + len1 - 1;
+        int cursor2 = len2 - 1;
+        int dest = base2 + len2 - 1;
+
+        a[dest--] = a[cursor1--];
+        metrics.move();
+        if (--len1 == 0) {
+            System.arraycopy(tmp, 0, a, dest - (len2 - 1), len2);
+            metrics.moves(len2);
+            return;
+        }
+        if (len2 == 1) {
+            dest -= len1;
+            cursor1 -= len1;
+            System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+            a[dest] = tmp[cursor2];
+            metrics.moves(len1 + 1);
+            return;
+        }
+
+        int minGallop = this.minGallop;
+        outer:
+        while (true) {
+            int count1 = 0;
+            int count2 = 0;
+
+            do {
+                if (less(tmp[cursor2], a[cursor1], metrics)) {
+                    a[dest--] = a[cursor1--];
+                    metrics.move();
+                    count1++;
+                    count2 = 0;
+                    if (--len1 == 0) {
+                        break outer;
+                    }
+                } else {
+                    a[dest--] = tmp[cursor2--];
+                    metrics.move();
+                    count2++;
+                    count1 = 0;
+                    if (--len2 == 1) {
+                        break outer;
+                    }
+                }
+            } while ((count1 | count2) < minGallop);
+
+            do {
+                count1 = len1 - gallopRight(tmp[cursor2], a, base1, len1, len1 - 1);
+                if (count1 != 0) {
+                    dest -= count1;
+                    cursor1 -= count1;
+                    len1 -= count1;
+                    System.arraycopy(a, cursor1 + 1, a, dest + 1, count1);
+                    metrics.moves(count1);
+                    if (len1 == 0) {
+                        break outer;
+                    }
+                }
+                a[dest--] = tmp[cursor2--];
+                metrics.move();
+                if (--len2 == 1) {
+                    break outer;
+                }
+
+                count2 = len2 - gallopLeft(a[cursor1], tmp, 0, len2, len2 - 1);
+                if (count2 != 0) {
+                    dest -= count2;
+                    cursor2 -= count2;
+                    len2 -= count2;
+                    System.arraycopy(tmp, cursor2 + 1, a, dest + 1, count2);
+                    metrics.moves(count2);
+                    if (len2 <= 1) {
+                        break outer;
+                    }
+                }
+                a[dest--] = a[cursor1--];
+                metrics.move();
+                if (--len1 == 0) {
+                    break outer;
+                }
+                minGallop--;
+            } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+            if (minGallop < 0) {
+                minGallop = 0;
+            }
+            minGallop += 2;
+        }
+        this.minGallop = minGallop < 1 ? 1 : minGallop;
+
+        if (len2 == 1) {
+            dest -= len1;
+            cursor1 -= len1;
+            System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+            a[dest] = tmp[cursor2];
+            metrics.moves(len1 + 1);
+        } else {
+            System.arraycopy(tmp, 0, a, dest - (len2 - 1), len2);
+            metrics.moves(len2);
+        }
+    }
+
+    /**
+     * Состояние слияния для массива вне кучи; методы повторяют методы экземпляра {@link HybridSort}
+     */
+    private static final class AccessSort {
+        private final IntArrayAccess a;
+        private final Metrics metrics;
+        private final IntArrayAccess tmp;
+        private int minGallop = MIN_GALLOP;
+
+        private final int[] runBase = new int[MAX_STACK];
+        private final int[] runLen = new int[MAX_STACK];
+        private int stackSize;
+
+        private AccessSort(IntArrayAccess a, IntArrayAccess tmp, Metrics metrics) {
+            this.a = a;
+            this.metrics = metrics;
+            this.tmp = tmp;
+            metrics.scratch((long) tmp.length() * Integer.BYTES);
+        }
+
+        private void pushRun(int base, int len) {
+            runBase[stackSize] = base;
+            runLen[stackSize] = len;
+            stackSize++;
+        }
+
+        private void mergeCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                        || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                    if (runLen[n - 1] < runLen[n + 1]) {
+                        n--;
+                    }
+                } else if (runLen[n] > runLen[n + 1]) {
+                    break;
+                }
+                mergeAt(n);
+            }
+        }
+
+        private void mergeForceCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] < runLen[n + 1]) {
+                    n--;
+                }
+                mergeAt(n);
+            }
+        }
+
+        private void mergeAt(int i) {
+            int base1 = runBase[i];
+            int len1 = runLen[i];
+            int base2 = runBase[i + 1];
+            int len2 = runLen[i + 1];
+
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+
+            // Элементы первой серии, меньшие начала второй, уже на месте
+            int k = gallopRight(a.get(base2), a, base1, len1, 0);
+            base1 += k;
+            len1 -= k;
+            if (len1 == 0) {
+                return;
+            }
+
+            // Элементы второй серии, большие конца первой, уже на месте
+            len2 = gallopLeft(a.get(base1 + len1 - 1), a, base2, len2, len2 - 1);
+            if (len2 == 0) {
+                return;
+            }
+
+            if (len1 <= len2) {
+                mergeLo(base1, len1, base2, len2);
+            } else {
+                mergeHi(base1, len1, base2, len2);
+            }
+        }
+
+        private int gallopLeft(int key, IntArrayAccess array, int base, int len, int hint) {
+            int lastOfs = 0;
+            int ofs = 1;
+            if (less(array.get(base + hint), key, metrics)) {
+                int maxOfs = len - hint;
+                while (ofs < maxOfs && less(array.get(base + hint + ofs), key, metrics)) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) {
+                        ofs = maxOfs;
+                    }
+                }
+                if (ofs > maxOfs) {
+                    ofs = maxOfs;
+                }
+                lastOfs += hint;
+                ofs += hint;
+            } else {
+                int maxOfs = hint + 1;
+                while (ofs < maxOfs && !less(array.get(base + hint - ofs), key, metrics)) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) {
+                        ofs = maxOfs;
+                    }
+                }
+                if (ofs > maxOfs) {
+                    ofs = maxOfs;
+                }
+                int t = lastOfs;
+                lastOfs = hint - ofs;
+                ofs = hint - t;
+            }
+
+            lastOfs++;
+            while (lastOfs < ofs) {
+                int m = lastOfs + ((ofs - lastOfs) >>> 1);
+                if (less(array.get(base + m), key, metrics)) {
+                    lastOfs = m + 1;
+                } else {
+                    ofs = m;
+                }
+            }
+            return ofs;
+        }
+
+        private int gallopRight(int key, IntArrayAccess array, int base, int len, int hint) {
+            int ofs = 1;
+            int lastOfs = 0;
+            if (less(key, array.get(base + hint), metrics)) {
+                int maxOfs = hint + 1;
+                while (ofs < maxOfs && less(key, array.get(base + hint - ofs), metrics)) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) {
+                        ofs = maxOfs;
+                    }
+                }
+                if (ofs > maxOfs) {
+                    ofs = maxOfs;
+                }
+                int t = lastOfs;
+                lastOfs = hint - ofs;
+                ofs = hint - t;
+            } else {
+                int maxOfs = len - hint;
+                while (ofs < maxOfs && !less(key, array.get(base + hint + ofs), metrics)) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) {
+                        ofs = maxOfs;
+                    }
+                }
+                if (ofs > maxOfs) {
+                    ofs = maxOfs;
+                }
+                lastOfs += hint;
+                ofs += hint;
+            }
+
+            lastOfs++;
+            while (lastOfs < ofs) {
+                int m = lastOfs + ((ofs - lastOfs) >>> 1);
+                if (less(key, array.get(base + m), metrics)) {
+                    ofs = m;
+                } else {
+                    lastOfs = m + 1;
+                }
+            }
+            return ofs;
+        }
+
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            IntArrayAccess a = this.a;
+            IntArrayAccess tmp = this.tmp;
+            a.copyTo(base1, tmp, 0, len1);
+            metrics.moves(len1);
+
+            int cursor1 = 0;
+            int cursor2 = base2;
+            int dest = base1;
+
+            a.set(dest++, a.get(cursor2++));
+            metrics.move();
+            if (--len2 == 0) {
+                tmp.copyTo(cursor1, a, dest, len1);
+                metrics.moves(len1);
+                return;
+            }
+            if (len1 == 1) {
+                a.copyTo(cursor2, a, dest, len2);
+                a.set(dest + len2, tmp.get(cursor1));
+                metrics.moves(len2 + 1);
+                return;
+            }
+
+            int minGallop = this.minGallop;
+            outer:
+            while (true) {
+                int count1 = 0;
+                int count2 = 0;
+
+                // Поэлементное слияние, пока одна серия не начнет «выигрывать» подряд
+                do {
+                    if (less(a.get(cursor2), tmp.get(cursor1), metrics)) {
+                        a.set(dest++, a.get(cursor2++));
+                        metrics.move();
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 0) {
+                            break outer;
+                        }
+                    } else {
+                        a.set(dest++, tmp.get(cursor1++));
+                        metrics.move();
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 1) {
+                            break outer;
+                        }
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                // Режим галопа: блоки копируются целиком
+                do {
+                    count1 = gallopRight(a.get(cursor2), tmp, cursor1, len1, 0);
+                    if (count1 != 0) {
+                        tmp.copyTo(cursor1, a, dest, count1);
+                        metrics.moves(count1);
+                        dest += count1;
+                        cursor1 += count1;
+                        len1 -= count1;
+                        if (len1 <= 1) {
+                            break outer;
+                        }
+                    }
+                    a.set(dest++, a.get(cursor2++));
+                    metrics.move();
+                    if (--len2 == 0) {
+                        break outer;
+                    }
+
+                    count2 = gallopLeft(tmp.get(cursor1), a, cursor2, len2, 0);
+                    if (count2 != 0) {
+                        a.copyTo(cursor2, a, dest, count2);
+                        metrics.moves(count2);
+                        dest += count2;
+                        cursor2 += count2;
+                        len2 -= count2;
+                        if (len2 == 0) {
+                            break outer;
+                        }
+                    }
+                    a.set(dest++, tmp.get(cursor1++));
+                    metrics.move();
+                    if (--len1 == 1) {
+                        break outer;
+                    }
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                if (minGallop < 0) {
+                    minGallop = 0;
+                }
+                minGallop += 2;
+            }
+            this.minGallop = minGallop < 1 ? 1 : minGallop;
+
+            if (len1 == 1) {
+                a.copyTo(cursor2, a, dest, len2);
+                a.set(dest + len2, tmp.get(cursor1));
+                metrics.moves(len2 + 1);
+            } else {
+                tmp.copyTo(cursor1, a, dest, len1);
+                metrics.moves(len1);
+            }
+        }
+
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            IntArrayAccess a = this.a;
+            IntArrayAccess tmp = this.tmp;
+            a.copyTo(base2, tmp, 0, len2);
+            metrics.moves(len2);
+
+            int cursor1 = base1 + len1 - 1;
+            int cursor2 = len2 - 1;
+            int dest = base2 + len2 - 1;
+
+            a.set(dest--, a.get(cursor1--));
+            metrics.move();
+            if (--len1 == 0) {
+                tmp.copyTo(0, a, dest - (len2 - 1), len2);
+                metrics.moves(len2);
+                return;
+            }
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                a.copyTo(cursor1 + 1, a, dest + 1, len1);
+                a.set(dest, tmp.get(cursor2));
+                metrics.moves(len1 + 1);
+                return;
+            }
+
+            int minGallop = this.minGallop;
+            outer:
+            while (true) {
+                int count1 = 0;
+                int count2 = 0;
+
+                do {
+                    if (less(tmp.get(cursor2), a.get(cursor1), metrics)) {
+                        a.set(dest--, a.get(cursor1--));
+                        metrics.move();
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 0) {
+                            break outer;
+                        }
+                    } else {
+                        a.set(dest--, tmp.get(cursor2--));
+                        metrics.move();
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 1) {
+                            break outer;
+                        }
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                do {
+                    count1 = len1 - gallopRight(tmp.get(cursor2), a, base1, len1, len1 - 1);
+                    if (count1 != 0) {
+                        dest -= count1;
+                        cursor1 -= count1;
+                        len1 -= count1;
+                        a.copyTo(cursor1 + 1, a, dest + 1, count1);
+                        metrics.moves(count1);
+                        if (len1 == 0) {
+                            break outer;
+                        }
+                    }
+                    a.set(dest--, tmp.get(cursor2--));
+                    metrics.move();
+                    if (--len2 == 1) {
+                        break outer;
+                    }
+
+                    count2 = len2 - gallopLeft(a.get(cursor1), tmp, 0, len2, len2 - 1);
+                    if (count2 != 0) {
+                        dest -= count2;
+                        cursor2 -= count2;
+                        len2 -= count2;
+                        tmp.copyTo(cursor2 + 1, a, dest + 1, count2);
+                        metrics.moves(count2);
+                        if (len2 <= 1) {
+                            break outer;
+                        }
+                    }
+                    a.set(dest--, a.get(cursor1--));
+                    metrics.move();
+                    if (--len1 == 0) {
+                        break outer;
+                    }
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                if (minGallop < 0) {
+                    minGallop = 0;
+                }
+                minGallop += 2;
+            }
+            this.minGallop = minGallop < 1 ? 1 : minGallop;
+
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                a.copyTo(cursor1 + 1, a, dest + 1, len1);
+                a.set(dest, tmp.get(cursor2));
+                metrics.moves(len1 + 1);
+            } else {
+                tmp.copyTo(0, a, dest - (len2 - 1), len2);
+                metrics.moves(len2);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.example;
+
+import java.io.IOException;
+
+/**
+ * Гибридная сортировка: естественные серии, бинарные вставки для коротких серий и слияние с галопом
+ */
+public class HybridSortAlgorithm implements SortAlgorithm {
+
+    @Override
+    public String getId() {
+        return "hybrid";
+    }
+
+    @Override
+    public String getName() {
+        return "Гибридная (TimSort)";
+    }
+
+    @Override
+    public boolean isStable() {
+        return true;
+    }
+
+    @Override
+    public String getComparisonsComplexity() {
+        return "O(n log n)";
+    }
+
+    @Override
+    public String getMovesComplexity() {
+        return "O(n log n)";
+    }
+
+    @Override
+    public void sort(int[] arr, Metrics metrics) {
+        HybridSort.sort(arr, metrics);
+    }
+
+    @Override
+    public boolean supportsOffHeap() {
+        return true;
+    }
+
+    @Override
+    public void sort(IntArrayAccess arr, Metrics metrics) throws IOException {
+        HybridSort.sort(arr, metrics);
+    }
+}
@@ -0,0 +1,60 @@
+package org.example;
+
+/**
+ * Сортировка простыми вставками
+ */
+public class InsertionSortAlgorithm implements SortAlgorithm {
+
+    @Override
+    public String getId() {
+        return "insertion";
+    }
+
+    @Override
+    public String getName() {
+        return "Простые вставки";
+    }
+
+    @Override
+    public boolean isStable() {
+        return true;
+    }
+
+    @Override
+    public String getComparisonsComplexity() {
+        return "O(n²)";
+    }
+
+    @Override
+    public String getMovesComplexity() {
+        return "O(n²)";
+    }
+
+    @Override
+    public void sort(int[] arr, Metrics metrics) {
+        InsertionSorts.insertionSort(arr, metrics);
+    }
+
+    /**
+     * Каждый сдвиг устраняет ровно одну инверсию, поэтому перемещений столько же, сколько инверсий
+     */
+    @Override
+    public long expectedMoves(Presortedness presortedness) {
+        return presortedness.getInversions();
+    }
+
+    @Override
+    public boolean supportsTrace() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsOffHeap() {
+        return true;
+    }
+
+    @Override
+    public void sort(IntArrayAccess arr, Metrics metrics) {
+        InsertionSorts.insertionSort(arr, metrics);
+    }
+}
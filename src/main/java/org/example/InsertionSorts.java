@@ -0,0 +1,417 @@
+package org.example;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Ядра сортировки вставками (на основе кода из InsertionSortComparison.java).
+ * Ядра не зависят от интерфейса и используются приложением, пакетным режимом и бенчмарками.
+ */
+public final class InsertionSorts {
+
+    private InsertionSorts() {
+    }
+
+    /**
+     * Сортировка простыми вставками с подсчетом операций
+     * @param arr массив для сортировки
+     * @return результат сортировки (количество сравнений и перестановок)
+     */
+    public static SortResult insertionSort(int[] arr) {
+        CountingMetrics metrics = new CountingMetrics();
+        insertionSort(arr, metrics);
+        return metrics.toResult();
+    }
+
+    /**
+     * Сортировка простыми вставками
+     * @param arr массив для сортировки
+     * @param metrics приемник статистики ({@link Metrics#NONE} для замера времени)
+     * @throws CancellationException если сортировка была отменена через приемник прогресса
+     */
+    public static void insertionSort(int[] arr, Metrics metrics) {
+        insertionSort(arr, 0, arr.length, metrics);
+    }
+
+    /**
+     * Сортировка простыми вставками диапазона массива.
+     * Используется поразрядной сортировкой MSD для коротких корзин.
+     * @param arr массив
+     * @param from начало диапазона (включительно)
+     * @param to конец диапазона (не включительно)
+     * @param metrics приемник статистики
+     * @throws CancellationException если сортировка была отменена через приемник прогресса
+     */
+    public static void insertionSort(int[] arr, int from, int to, Metrics metrics) {
+        for (int i = from + 1; i < to; i++) {
+            int current = arr[i];
+            metrics.move(i, Metrics.TEMP);
+            int j = i - 1;
+
+            // Сдвигаем все элементы вправо которые больше current
+            while (j >= from) {
+                boolean greater = arr[j] > current;
+                metrics.compare(j, Metrics.TEMP, greater);
+                if (!greater) {
+                    break;
+                }
+                arr[j + 1] = arr[j];
+                metrics.move(j, j + 1);
+                j--;
+            }
+
+            arr[j + 1] = current;
+            metrics.move(Metrics.TEMP, j + 1);
+
+            metrics.progress(i + 1);
+        }
+    }
+
+    /**
+     * Сортировка простыми вставками с ограничением количества сдвигов. Сдвигов столько же, сколько инверсий,
+     * поэтому прерванная сортировка тратит не больше O(n + maxMoves) времени, даже если количество инверсий
+     * было недооценено. Массив прерывается только между вставками и остается перестановкой исходного.
+     * @param arr массив для сортировки
+     * @param maxMoves допустимое количество сдвигов
+     * @param metrics приемник статистики
+     * @return true, если массив отсортирован; false, если сдвигов потребовалось больше maxMoves
+     * @throws CancellationException если сортировка была отменена через приемник прогресса
+     */
+    public static boolean insertionSort(int[] arr, long maxMoves, Metrics metrics) {
+        long budget = maxMoves;
+        for (int i = 1; i < arr.length; i++) {
+            int current = arr[i];
+            metrics.move(i, Metrics.TEMP);
+            int j = i - 1;
+
+            while (j >= 0) {
+                boolean greater = arr[j] > current;
+                metrics.compare(j, Metrics.TEMP, greater);
+                if (!greater) {
+                    break;
+                }
+                arr[j + 1] = arr[j];
+                metrics.move(j, j + 1);
+                j--;
+            }
+
+            arr[j + 1] = current;
+            metrics.move(Metrics.TEMP, j + 1);
+
+            budget -= i - 1 - j;
+            if (budget < 0) {
+                return false;
+            }
+            metrics.progress(i + 1);
+        }
+        return true;
+    }
+
+    /**
+     * Сортировка бинарными вставками с подсчетом операций
+     * @param arr массив для сортировки
+     * @return результат сортировки (количество сравнений и перестановок)
+     */
+    public static SortResult binaryInsertionSort(int[] arr) {
+        CountingMetrics metrics = new CountingMetrics();
+        binaryInsertionSort(arr, metrics);
+        return metrics.toResult();
+    }
+
+    /**
+     * Сортировка бинарными вставками
+     * @param arr массив для сортировки
+     * @param metrics приемник статистики ({@link Metrics#NONE} для замера времени)
+     * @throws CancellationException если сортировка была отменена через приемник прогресса
+     */
+    public static void binaryInsertionSort(int[] arr, Metrics metrics) {
+        binaryInsertionSort(arr, 0, arr.length, 1, metrics);
+    }
+
+    /**
+     * Сортировка бинарными вставками диапазона массива, начало которого уже отсортировано.
+     * Используется гибридной сортировкой для дополнения коротких серий.
+     * @param arr массив
+     * @param from начало диапазона (включительно)
+     * @param to конец диапазона (не включительно)
+     * @param start первый элемент, который нужно вставить; диапазон [from, start) уже отсортирован
+     * @param metrics приемник статистики
+     * @throws CancellationException если сортировка была отменена через приемник прогресса
+     */
+    public static void binaryInsertionSort(int[] arr, int from, int to, int start, Metrics metrics) {
+        if (start == from) {
+            start++;
+        }
+        for (int i = start; i < to; i++) {
+            int current = arr[i];
+            metrics.move(i, Metrics.TEMP);
+
+            // Определяем позицию для вставки в подмассиве [from..i-1] используя метод бинарного поиска
+            int position = binarySearchPosition(arr, current, from, i-1, metrics);
+
+            int j = i - 1;
+            while (j >= position) {
+                arr[j + 1] = arr[j];
+                metrics.move(j, j + 1);
+                j--;
+            }
+
+            arr[position] = current;
+            metrics.move(Metrics.TEMP, position);
+
+            metrics.progress(i + 1);
+        }
+    }
+
+    /**
+     * Сортировка бинарными вставками с блочным сдвигом: элементы после позиции вставки
+     * сдвигаются одним вызовом {@link System#arraycopy}, а счетчик перемещений
+     * увеличивается сразу на длину сдвига. Сравнения и перемещения совпадают
+     * с {@link #binaryInsertionSort(int[], Metrics)}, отличается только время.
+     * @param arr массив для сортировки
+     * @param metrics приемник статистики ({@link Metrics#NONE} для замера времени)
+     * @throws CancellationException если сортировка была отменена через приемник прогресса
+     */
+    public static void blockMoveInsertionSort(int[] arr, Metrics metrics) {
+        for (int i = 1; i < arr.length; i++) {
+            insertBlockMove(arr, 0, i, metrics);
+            metrics.progress(i + 1);
+        }
+    }
+
+    /**
+     * Размер группы групповых вставок по умолчанию для массива заданного размера.
+     * Сдвиги в отсортированной части стоят около n²/(2k), сортировка групп — около nk/4,
+     * сумма минимальна при k ≈ √(2n).
+     * @param length размер массива
+     * @return размер группы
+     */
+    public static int defaultGroupSize(int length) {
+        return Math.max(2, (int) Math.sqrt(2.0 * length));
+    }
+
+    /**
+     * Групповые вставки: за один проход в отсортированную часть вставляется группа из k элементов.
+     * Группа сортируется бинарными вставками во вспомогательном буфере и вставляется начиная
+     * с наибольшего элемента, поэтому каждый элемент отсортированной части сдвигается за проход
+     * не больше одного раза (сразу на свое место), а не до k раз. Перемещений около n²/(2k) вместо n²/4.
+     * Сортировка устойчива.
+     * @param arr массив для сортировки
+     * @param groupSize размер группы k (не меньше 1; 1 — обычные бинарные вставки)
+     * @param metrics приемник статистики ({@link Metrics#NONE} для замера времени)
+     * @throws CancellationException если сортировка была отменена через приемник прогресса
+     */
+    public static void batchedInsertionSort(int[] arr, int groupSize, Metrics metrics) {
+        if (groupSize < 1) {
+            throw new IllegalArgumentException("Размер группы должен быть положительным: " + groupSize);
+        }
+        int[] group = new int[Math.min(groupSize, arr.length)];
+        metrics.scratch((long) group.length * Integer.BYTES);
+        int sorted = 0;
+        while (sorted < arr.length) {
+            int count = Math.min(groupSize, arr.length - sorted);
+
+            // Сортируем очередную группу в буфере
+            System.arraycopy(arr, sorted, group, 0, count);
+            for (int i = 1; i < count; i++) {
+                insertBlockMove(group, 0, i, metrics);
+            }
+
+            // Вставляем группу с конца: правее позиции наибольшего элемента сдвигается весь хвост
+            int limit = sorted;
+            for (int t = count - 1; t >= 0; t--) {
+                int value = group[t];
+                int position = binarySearchPosition(arr, value, 0, limit - 1, metrics);
+                System.arraycopy(arr, position, arr, position + t + 1, limit - position);
+                metrics.moves(limit - position);
+                arr[position + t] = value;
+                limit = position;
+            }
+
+            sorted += count;
+            metrics.progress(sorted);
+        }
+    }
+
+    /**
+     * Вставка arr[i] в отсортированный диапазон [from, i) с блочным сдвигом
+     */
+    private static void insertBlockMove(int[] arr, int from, int i, Metrics metrics) {
+        int current = arr[i];
+        int position = binarySearchPosition(arr, current, from, i - 1, metrics);
+        System.arraycopy(arr, position, arr, position + 1, i - position);
+        metrics.moves(i - position);
+        arr[position] = current;
+    }
+
+    /**
+     * Бинарный поиск позиции для вставки элемента
+     * @param arr массив
+     * @param value значение для вставки
+     * @param left левая граница поиска
+     * @param right правая граница поиска
+     * @param metrics приемник статистики
+     * @return позиция для вставки
+     */
+    private static int binarySearchPosition(int[] arr, int value, int left, int right, Metrics metrics) {
+        while (left <= right) {
+            int mid = (left + right) / 2;
+            boolean less = value < arr[mid];
+            metrics.compare(Metrics.TEMP, mid, less);
+
+            if (less) {
+                right = mid - 1;
+            } else {
+                left = mid + 1;
+            }
+        }
+
+        return left;
+    }
+
+    // Версии ядер для массивов вне кучи: тот же алгоритм и те же вызовы приемника статистики,
+    // что и у версий для int[], поэтому счетчики совпадают
+
+    /**
+     * Сортировка простыми вставками массива вне кучи
+     * @see #insertionSort(int[], Metrics)
+     */
+    public static void insertionSort(IntArrayAccess arr, Metrics metrics) {
+        insertionSort(arr, 0, arr.length(), metrics);
+    }
+
+    /**
+     * Сортировка простыми вставками диапазона массива вне кучи
+     * @see #insertionSort(int[], int, int, Metrics)
+     */
+    public static void insertionSort(IntArrayAccess arr, int from, int to, Metrics metrics) {
+        for (int i = from + 1; i < to; i++) {
+            int current = arr.get(i);
+            metrics.move(i, Metrics.TEMP);
+            int j = i - 1;
+
+            while (j >= from) {
+                int value = arr.get(j);
+                boolean greater = value > current;
+                metrics.compare(j, Metrics.TEMP, greater);
+                if (!greater) {
+                    break;
+                }
+                arr.set(j + 1, value);
+                metrics.move(j, j + 1);
+                j--;
+            }
+
+            arr.set(j + 1, current);
+            metrics.move(Metrics.TEMP, j + 1);
+
+            metrics.progress(i + 1);
+        }
+    }
+
+    /**
+     * Сортировка бинарными вставками массива вне кучи
+     * @see #binaryInsertionSort(int[], Metrics)
+     */
+    public static void binaryInsertionSort(IntArrayAccess arr, Metrics metrics) {
+        binaryInsertionSort(arr, 0, arr.length(), 1, metrics);
+    }
+
+    /**
+     * Сортировка бинарными вставками диапазона массива вне кучи, начало которого уже отсортировано
+     * @see #binaryInsertionSort(int[], int, int, int, Metrics)
+     */
+    public static void binaryInsertionSort(IntArrayAccess arr, int from, int to, int start, Metrics metrics) {
+        if (start == from) {
+            start++;
+        }
+        for (int i = start; i < to; i++) {
+            int current = arr.get(i);
+            metrics.move(i, Metrics.TEMP);
+
+            int position = binarySearchPosition(arr, current, from, i - 1, metrics);
+
+            int j = i - 1;
+            while (j >= position) {
+                arr.set(j + 1, arr.get(j));
+                metrics.move(j, j + 1);
+                j--;
+            }
+
+            arr.set(position, current);
+            metrics.move(Metrics.TEMP, position);
+
+            metrics.progress(i + 1);
+        }
+    }
+
+    /**
+     * Сортировка бинарными вставками с блочным сдвигом массива вне кучи: сдвиг выполняется
+     * одной операцией {@link IntArrayAccess#move}
+     * @see #blockMoveInsertionSort(int[], Metrics)
+     */
+    public static void blockMoveInsertionSort(IntArrayAccess arr, Metrics metrics) {
+        for (int i = 1; i < arr.length(); i++) {
+            insertBlockMove(arr, 0, i, metrics);
+            metrics.progress(i + 1);
+        }
+    }
+
+    /**
+     * Групповые вставки в массиве вне кучи; буфер группы находится в куче
+     * @see #batchedInsertionSort(int[], int, Metrics)
+     */
+    public static void batchedInsertionSort(IntArrayAccess arr, int groupSize, Metrics metrics) {
+        if (groupSize < 1) {
+            throw new IllegalArgumentException("Размер группы должен быть положительным: " + groupSize);
+        }
+        int length = arr.length();
+        int[] group = new int[Math.min(groupSize, length)];
+        metrics.scratch((long) group.length * Integer.BYTES);
+        int sorted = 0;
+        while (sorted < length) {
+            int count = Math.min(groupSize, length - sorted);
+
+            arr.get(sorted, group, 0, count);
+            for (int i = 1; i < count; i++) {
+                insertBlockMove(group, 0, i, metrics);
+            }
+
+            int limit = sorted;
+            for (int t = count - 1; t >= 0; t--) {
+                int value = group[t];
+                int position = binarySearchPosition(arr, value, 0, limit - 1, metrics);
+                arr.move(position, position + t + 1, limit - position);
+                metrics.moves(limit - position);
+                arr.set(position + t, value);
+                limit = position;
+            }
+
+            sorted += count;
+            metrics.progress(sorted);
+        }
+    }
+
+    private static void insertBlockMove(IntArrayAccess arr, int from, int i, Metrics metrics) {
+        int current = arr.get(i);
+        int position = binarySearchPosition(arr, current, from, i - 1, metrics);
+        arr.move(position, position + 1, i - position);
+        metrics.moves(i - position);
+        arr.set(position, current);
+    }
+
+    private static int binarySearchPosition(IntArrayAccess arr, int value, int left, int right, Metrics metrics) {
+        while (left <= right) {
+            int mid = (left + right) / 2;
+            boolean less = value < arr.get(mid);
+            metrics.compare(Metrics.TEMP, mid, less);
+
+            if (less) {
+                right = mid - 1;
+            } else {
+                left = mid + 1;
+            }
+        }
+
+        return left;
+    }
+}
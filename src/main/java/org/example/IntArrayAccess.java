@@ -0,0 +1,109 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Доступ к массиву int по индексу независимо от места хранения: обычный массив в куче
+ * ({@link HeapIntArray}) или файл, отображенный в память ({@link MappedIntArray}).
+ * Через этот интерфейс работают сортировки вне кучи: у ядер в {@link InsertionSorts}, {@link RadixSorts},
+ * {@link HybridSort} и {@link ParallelSort} рядом с версией для int[] есть версия для этого интерфейса
+ * с тем же алгоритмом и теми же вызовами {@link Metrics}.
+ */
+public interface IntArrayAccess extends Closeable {
+
+    /**
+     * @return количество элементов
+     */
+    int length();
+
+    int get(int index);
+
+    void set(int index, int value);
+
+    /**
+     * Чтение диапазона в массив кучи
+     * @param index начало диапазона в этом массиве
+     * @param dst массив назначения
+     * @param offset начало в массиве назначения
+     * @param length количество элементов
+     */
+    default void get(int index, int[] dst, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            dst[offset + i] = get(index + i);
+        }
+    }
+
+    /**
+     * Запись диапазона из массива кучи
+     * @param index начало диапазона в этом массиве
+     * @param src исходный массив
+     * @param offset начало в исходном массиве
+     * @param length количество элементов
+     */
+    default void set(int index, int[] src, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            set(index + i, src[offset + i]);
+        }
+    }
+
+    /**
+     * Сдвиг диапазона внутри массива одной операцией, как {@code System.arraycopy(a, from, a, to, length)}
+     * (диапазоны могут перекрываться)
+     * @param from начало исходного диапазона
+     * @param to начало диапазона назначения
+     * @param length количество элементов
+     */
+    default void move(int from, int to, int length) {
+        copyTo(from, this, to, length);
+    }
+
+    /**
+     * Заполнение диапазона [from, to) значением
+     */
+    default void fill(int from, int to, int value) {
+        for (int i = from; i < to; i++) {
+            set(i, value);
+        }
+    }
+
+    /**
+     * @return true, если элементы хранятся вне кучи Java
+     */
+    boolean isOffHeap();
+
+    /**
+     * Выделение вспомогательного массива того же вида: в куче для массива в куче,
+     * временный файл, отображенный в память, для массива вне кучи. Новый массив заполнен нулями.
+     * @param length количество элементов
+     * @return новый массив; его нужно закрыть после использования
+     * @throws IOException если не удалось создать временный файл
+     */
+    IntArrayAccess allocateScratch(int length) throws IOException;
+
+    /**
+     * Копирование диапазона в другой массив (или в этот же со сдвигом, как {@link System#arraycopy})
+     * @param srcIndex начало диапазона в этом массиве
+     * @param dst массив назначения
+     * @param dstIndex начало диапазона в массиве назначения
+     * @param length количество элементов
+     */
+    default void copyTo(int srcIndex, IntArrayAccess dst, int dstIndex, int length) {
+        if (dst == this && srcIndex < dstIndex) {
+            for (int i = length - 1; i >= 0; i--) {
+                dst.set(dstIndex + i, get(srcIndex + i));
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                dst.set(dstIndex + i, get(srcIndex + i));
+            }
+        }
+    }
+
+    /**
+     * Освобождение ресурсов (для массива в куче ничего не делает)
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
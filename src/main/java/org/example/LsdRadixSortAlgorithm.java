@@ -0,0 +1,93 @@
+package org.example;
+
+import java.io.IOException;
+
+/**
+ * Поразрядная сортировка LSD с заданной шириной разряда.
+ * Вложенные классы {@link Digits8}, {@link Digits11} и {@link Digits16} регистрируются
+ * через {@link java.util.ServiceLoader} как отдельные алгоритмы.
+ */
+public class LsdRadixSortAlgorithm implements SortAlgorithm {
+    private final int digitBits;
+
+    /**
+     * @param digitBits ширина разряда в битах (от 1 до 16)
+     */
+    public LsdRadixSortAlgorithm(int digitBits) {
+        if (digitBits < 1 || digitBits > 16) {
+            throw new IllegalArgumentException("Ширина разряда должна быть от 1 до 16 бит: " + digitBits);
+        }
+        this.digitBits = digitBits;
+    }
+
+    public int getDigitBits() {
+        return digitBits;
+    }
+
+    @Override
+    public String getId() {
+        return "lsd" + digitBits;
+    }
+
+    @Override
+    public String getName() {
+        return "Поразрядная LSD (" + digitBits + " бит)";
+    }
+
+    @Override
+    public boolean isStable() {
+        return true;
+    }
+
+    @Override
+    public String getComparisonsComplexity() {
+        return "0";
+    }
+
+    @Override
+    public String getMovesComplexity() {
+        return "O(n·w/" + digitBits + ")";
+    }
+
+    @Override
+    public void sort(int[] arr, Metrics metrics) {
+        RadixSorts.lsdRadixSort(arr, digitBits, metrics);
+    }
+
+    @Override
+    public boolean supportsOffHeap() {
+        return true;
+    }
+
+    @Override
+    public void sort(IntArrayAccess arr, Metrics metrics) throws IOException {
+        RadixSorts.lsdRadixSort(arr, digitBits, metrics);
+    }
+
+    /**
+     * LSD с 8-битными разрядами
+     */
+    public static class Digits8 extends LsdRadixSortAlgorithm {
+        public Digits8() {
+            super(8);
+        }
+    }
+
+    /**
+     * LSD с 11-битными разрядами (три прохода для 32-битных ключей)
+     */
+    public static class Digits11 extends LsdRadixSortAlgorithm {
+        public Digits11() {
+            super(11);
+        }
+    }
+
+    /**
+     * LSD с 16-битными разрядами
+     */
+    public static class Digits16 extends LsdRadixSortAlgorithm {
+        public Digits16() {
+            super(16);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Критерий Манна — Уитни для сравнения замеров времени двух запусков без предположения
+ * о нормальности распределения (время прогонов обычно скошено вправо из-за выбросов).
+ * <p>
+ * Для небольших выборок без совпадающих значений p-значение вычисляется точно по распределению U,
+ * иначе — нормальным приближением с поправкой на совпадения и на непрерывность.
+ */
+public final class MannWhitney {
+    // Наибольший размер выборки для точного распределения U
+    private static final int EXACT_LIMIT = 30;
+
+    private MannWhitney() {
+    }
+
+    /**
+     * Статистика U первой выборки: количество пар (x, y), в которых x больше y (совпадения — по половине)
+     * @param x первая выборка
+     * @param y вторая выборка
+     */
+    public static double u(long[] x, long[] y) {
+        int n1 = x.length;
+        int n2 = y.length;
+        long[] all = new long[n1 + n2];
+        System.arraycopy(x, 0, all, 0, n1);
+        System.arraycopy(y, 0, all, n1, n2);
+        Arrays.sort(all);
+
+        double rankSum = 0;
+        for (long value : x) {
+            rankSum += midRank(all, value);
+        }
+        return rankSum - n1 * (n1 + 1) / 2.0;
+    }
+
+    /**
+     * Одностороннее p-значение гипотезы «значения x в целом больше значений y»
+     * (для времени — «первый запуск медленнее второго»)
+     * @param x первая выборка
+     * @param y вторая выборка
+     * @return вероятность получить такое или большее U при одинаковых распределениях
+     */
+    public static double pGreater(long[] x, long[] y) {
+        if (x.length == 0 || y.length == 0) {
+            throw new IllegalArgumentException("Для критерия Манна — Уитни нужны непустые выборки");
+        }
+        double u = u(x, y);
+        int n1 = x.length;
+        int n2 = y.length;
+        if (n1 <= EXACT_LIMIT && n2 <= EXACT_LIMIT && !hasTies(x, y)) {
+            return exactUpperTail(n1, n2, (int) Math.round(u));
+        }
+
+        // Нормальное приближение с поправкой на совпадения
+        long[] all = new long[n1 + n2];
+        System.arraycopy(x, 0, all, 0, n1);
+        System.arraycopy(y, 0, all, n1, n2);
+        Arrays.sort(all);
+        double ties = 0;
+        for (int i = 0; i < all.length; ) {
+            int j = i;
+            while (j < all.length && all[j] == all[i]) {
+                j++;
+            }
+            long t = j - i;
+            ties += t * t * t - t;
+            i = j;
+        }
+        double n = n1 + n2;
+        double mean = n1 * (double) n2 / 2;
+        double variance = n1 * (double) n2 / 12 * ((n + 1) - ties / (n * (n - 1)));
+        if (variance <= 0) {
+            return 0.5;
+        }
+        double z = (u - mean - 0.5) / Math.sqrt(variance);
+        return 1 - normalCdf(z);
+    }
+
+    /**
+     * Наименьшее p-значение, которого может достичь точный односторонний критерий при выборках без совпадений:
+     * все элементы первой выборки больше всех элементов второй, вероятность этого — 1 / C(n1 + n2, n1).
+     * Если оно не меньше уровня значимости, различие не может быть признано значимым ни при каких замерах.
+     * @param n1 размер первой выборки
+     * @param n2 размер второй выборки
+     */
+    public static double minPValue(int n1, int n2) {
+        double p = 1;
+        for (int i = 1; i <= n1; i++) {
+            p = p * i / (n2 + i);
+        }
+        return p;
+    }
+
+    /**
+     * Точная вероятность P(U ≥ u) при отсутствии совпадений: количество расстановок n1 + n2 рангов
+     * с заданным U считается динамическим программированием
+     */
+    static double exactUpperTail(int n1, int n2, int u) {
+        int max = n1 * n2;
+        if (u <= 0) {
+            return 1;
+        }
+        if (u > max) {
+            return 0;
+        }
+        // counts[m][k] — количество расстановок m элементов первой выборки среди m + j элементов с U = k,
+        // j наращивается во внешнем цикле
+        double[][] counts = new double[n1 + 1][];
+        for (int m = 0; m <= n1; m++) {
+            counts[m] = new double[max + 1];
+        }
+        counts[0][0] = 1;
+        for (int j = 0; j <= n2; j++) {
+            for (int m = 0; m <= n1; m++) {
+                if (j == 0 && m == 0) {
+                    continue;
+                }
+                double[] next = new double[max + 1];
+                // Наибольший элемент — из второй выборки (U не меняется) или из первой (U растет на j)
+                if (j > 0) {
+                    double[] previous = counts[m];
+                    System.arraycopy(previous, 0, next, 0, max + 1);
+                }
+                if (m > 0) {
+                    double[] previous = counts[m - 1];
+                    for (int k = j; k <= max; k++) {
+                        next[k] += previous[k - j];
+                    }
+                }
+                counts[m] = next;
+            }
+        }
+
+        double total = 0;
+        double tail = 0;
+        for (int k = 0; k <= max; k++) {
+            total += counts[n1][k];
+            if (k >= u) {
+                tail += counts[n1][k];
+            }
+        }
+        return tail / total;
+    }
+
+    private static boolean hasTies(long[] x, long[] y) {
+        long[] all = new long[x.length + y.length];
+        System.arraycopy(x, 0, all, 0, x.length);
+        System.arraycopy(y, 0, all, x.length, y.length);
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            if (all[i] == all[i - 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Средний ранг значения в отсортированном массиве (ранги с единицы)
+     */
+    private static double midRank(long[] sorted, long value) {
+        int first = lowerBound(sorted, value);
+        int last = lowerBound(sorted, value + 1) - 1;
+        return (first + last) / 2.0 + 1;
+    }
+
+    private static int lowerBound(long[] sorted, long value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Функция стандартного нормального распределения (приближение Абрамовица — Стиган 7.1.26, ошибка до 1.5e-7)
+     */
+    static double normalCdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double erf = 1 - ((((1.061405429 * t - 1.453152027) * t + 1.421413741) * t - 0.284496736) * t
+                + 0.254829592) * t * Math.exp(-x * x);
+        return z >= 0 ? (1 + erf) / 2 : (1 - erf) / 2;
+    }
+}
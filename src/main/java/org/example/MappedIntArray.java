@@ -0,0 +1,191 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Массив int в файле, отображенном в память (little-endian, как в {@link BinaryArrayHeader}).
+ * Файл отображается фрагментами по 1 ГБ, поэтому размер массива ограничен только типом индекса,
+ * а данные не занимают место в куче: страницы подгружает и сбрасывает на диск операционная система.
+ */
+public final class MappedIntArray implements IntArrayAccess {
+    /**
+     * Фрагмент отображения — 2^28 элементов (1 ГБ)
+     */
+    private static final int CHUNK_SHIFT = 28;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final File file;
+    private final int length;
+    private final boolean temporary;
+    private IntBuffer[] chunks;
+
+    private MappedIntArray(File file, long offset, int length, boolean temporary) throws IOException {
+        this.file = file;
+        this.length = length;
+        this.temporary = temporary;
+        int chunkCount = (int) (((long) length + CHUNK_MASK) >>> CHUNK_SHIFT);
+        this.chunks = new IntBuffer[chunkCount];
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long required = offset + (long) length * Integer.BYTES;
+            if (channel.size() < required) {
+                throw new IOException("Файл " + file + " меньше " + required + " байт");
+            }
+            // Отображение остается действительным после закрытия канала
+            for (int c = 0; c < chunkCount; c++) {
+                int chunkLength = Math.min(1 << CHUNK_SHIFT, length - (c << CHUNK_SHIFT));
+                chunks[c] = channel.map(FileChannel.MapMode.READ_WRITE,
+                                offset + ((long) c << CHUNK_SHIFT) * Integer.BYTES, (long) chunkLength * Integer.BYTES)
+                        .order(ByteOrder.LITTLE_ENDIAN)
+                        .asIntBuffer();
+            }
+        }
+    }
+
+    /**
+     * Отображение элементов двоичного файла массива для чтения и записи (сортировка на месте)
+     * @param file двоичный файл массива
+     * @return массив, изменения которого записываются в файл
+     * @throws IOException если файл не в двоичном формате или массив слишком велик
+     */
+    public static MappedIntArray openArrayFile(File file) throws IOException {
+        BinaryArrayHeader header = ArrayFileReader.readHeader(file);
+        if (header == null) {
+            throw new IOException("Файл " + file + " не в двоичном формате массива");
+        }
+        if (header.getCount() > Integer.MAX_VALUE) {
+            throw new IOException("Массив из " + header.getCount() + " элементов слишком велик для индекса int");
+        }
+        return new MappedIntArray(file, BinaryArrayHeader.SIZE, (int) header.getCount(), false);
+    }
+
+    /**
+     * Создание временного файла, отображенного в память; файл удаляется при закрытии
+     * @param directory каталог временного файла (null — системный)
+     * @param length количество элементов
+     * @return массив, заполненный нулями
+     */
+    public static MappedIntArray createTemporary(File directory, int length) throws IOException {
+        File file = File.createTempFile("sort-scratch", ".bin", directory);
+        file.deleteOnExit();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(0);
+            if (length > 0) {
+                // Расширяем файл до нужного размера записью последнего байта
+                channel.write(ByteBuffer.allocate(1), (long) length * Integer.BYTES - 1);
+            }
+        }
+        return new MappedIntArray(file, 0, length, true);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public int get(int index) {
+        return chunks[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK);
+    }
+
+    @Override
+    public void set(int index, int value) {
+        chunks[index >>> CHUNK_SHIFT].put(index & CHUNK_MASK, value);
+    }
+
+    @Override
+    public void get(int index, int[] dst, int offset, int length) {
+        while (length > 0) {
+            int count = Math.min(length, CHUNK_SIZE - (index & CHUNK_MASK));
+            chunks[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK, dst, offset, count);
+            index += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    @Override
+    public void set(int index, int[] src, int offset, int length) {
+        while (length > 0) {
+            int count = Math.min(length, CHUNK_SIZE - (index & CHUNK_MASK));
+            chunks[index >>> CHUNK_SHIFT].put(index & CHUNK_MASK, src, offset, count);
+            index += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * Копирование между файлами, отображенными в память, выполняется копированием памяти по фрагментам
+     * (без поэлементного доступа); перекрывающиеся диапазоны одного массива копируются как {@link System#arraycopy}
+     */
+    @Override
+    public void copyTo(int srcIndex, IntArrayAccess dst, int dstIndex, int length) {
+        if (dst instanceof HeapIntArray) {
+            get(srcIndex, ((HeapIntArray) dst).getArray(), dstIndex, length);
+            return;
+        }
+        if (!(dst instanceof MappedIntArray)) {
+            IntArrayAccess.super.copyTo(srcIndex, dst, dstIndex, length);
+            return;
+        }
+        IntBuffer[] dstChunks = ((MappedIntArray) dst).chunks;
+        // Сдвиг вправо внутри массива копируется с конца, чтобы не затереть еще не скопированные элементы
+        boolean backward = dst == this && srcIndex < dstIndex;
+        int done = 0;
+        while (done < length) {
+            int remaining = length - done;
+            int from;
+            int to;
+            int count;
+            if (backward) {
+                int fromEnd = srcIndex + remaining;
+                int toEnd = dstIndex + remaining;
+                count = Math.min(remaining, Math.min(((fromEnd - 1) & CHUNK_MASK) + 1, ((toEnd - 1) & CHUNK_MASK) + 1));
+                from = fromEnd - count;
+                to = toEnd - count;
+            } else {
+                from = srcIndex + done;
+                to = dstIndex + done;
+                count = Math.min(remaining,
+                        Math.min(CHUNK_SIZE - (from & CHUNK_MASK), CHUNK_SIZE - (to & CHUNK_MASK)));
+            }
+            // Внутри фрагмента перекрытие допустимо: копирование идет как через промежуточный буфер
+            dstChunks[to >>> CHUNK_SHIFT].put(to & CHUNK_MASK, chunks[from >>> CHUNK_SHIFT], from & CHUNK_MASK, count);
+            done += count;
+        }
+    }
+
+    @Override
+    public boolean isOffHeap() {
+        return true;
+    }
+
+    @Override
+    public IntArrayAccess allocateScratch(int length) throws IOException {
+        return createTemporary(file.getAbsoluteFile().getParentFile(), length);
+    }
+
+    /**
+     * Освобождение фрагментов отображения; временный файл удаляется.
+     * Сами страницы освобождаются сборщиком мусора вместе с буферами.
+     */
+    @Override
+    public void close() throws IOException {
+        chunks = null;
+        if (temporary) {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.example;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Замер памяти за участок кода: байты, выделенные текущим потоком
+ * ({@code com.sun.management.ThreadMXBean#getThreadAllocatedBytes}), количество и время сборок мусора
+ * и пиковое заполнение кучи. Выделения в других потоках (например, в подзадачах параллельной сортировки)
+ * в счетчик потока не попадают.
+ */
+final class MemoryProbe {
+    /**
+     * Значение счетчика, если JVM не поддерживает учет выделений по потокам
+     */
+    static final long UNSUPPORTED = -1;
+
+    private final long startAllocated;
+    private final long startGcCount;
+    private final long startGcTime;
+    private long allocatedPerRun = UNSUPPORTED;
+    private long gcCountDelta;
+    private long gcTimeDelta;
+    private long peakHeapBytes;
+
+    private MemoryProbe() {
+        // Пиковые значения пулов считаются заново от начала замера
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pool.resetPeakUsage();
+            }
+        }
+        this.startGcCount = gcCount();
+        this.startGcTime = gcTime();
+        this.startAllocated = allocatedBytes();
+    }
+
+    /**
+     * Начало замера в текущем потоке
+     */
+    static MemoryProbe start() {
+        return new MemoryProbe();
+    }
+
+    /**
+     * Окончание замера
+     * @param runs количество прогонов внутри замера (выделенные байты делятся на него)
+     */
+    void stop(int runs) {
+        long allocated = allocatedBytes();
+        allocatedPerRun = allocated == UNSUPPORTED || startAllocated == UNSUPPORTED
+                ? UNSUPPORTED : (allocated - startAllocated) / runs;
+        gcCountDelta = gcCount() - startGcCount;
+        gcTimeDelta = gcTime() - startGcTime;
+        peakHeapBytes = peakHeap();
+    }
+
+    /**
+     * Запись результатов замера в эксперимент
+     */
+    void applyTo(SortExperimentResult result) {
+        result.allocatedBytes = allocatedPerRun;
+        result.gcCount = gcCountDelta;
+        result.gcTimeMs = gcTimeDelta;
+        result.peakHeapBytes = peakHeapBytes;
+    }
+
+    /**
+     * @return байты, выделенные текущим потоком с его запуска, или {@link #UNSUPPORTED}
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+            if (sunThreads.isThreadAllocatedMemorySupported() && sunThreads.isThreadAllocatedMemoryEnabled()) {
+                return sunThreads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return UNSUPPORTED;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return time;
+    }
+
+    /**
+     * Сумма пиковых заполнений пулов кучи. Пики пулов могут приходиться на разные моменты,
+     * поэтому значение — оценка сверху.
+     */
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid() && pool.getPeakUsage() != null) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
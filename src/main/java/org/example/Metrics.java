@@ -0,0 +1,100 @@
+package org.example;
+
+/**
+ * Приемник статистики, который ядра сортировки уведомляют о каждой операции.
+ * Реализация {@link #NONE} ничего не делает, и JIT полностью удаляет ее вызовы,
+ * поэтому одно и то же ядро служит и для замера времени, и для подсчета операций.
+ */
+public interface Metrics {
+
+    /**
+     * Приемник без подсчета операций (для замера времени)
+     */
+    Metrics NONE = new NoOpMetrics(null);
+
+    /**
+     * Индекс временной ячейки (вставляемый элемент, вынутый из массива) в операциях с индексами
+     */
+    int TEMP = -1;
+
+    /**
+     * Одно сравнение элементов
+     */
+    void compare();
+
+    /**
+     * Одно перемещение (вставка) элемента
+     */
+    void move();
+
+    /**
+     * Перемещение сразу нескольких элементов
+     * @param count количество перемещенных элементов
+     */
+    void moves(long count);
+
+    /**
+     * Контрольная точка внешнего цикла сортировки. Вызывается не чаще одного раза на элемент.
+     * @param processed количество обработанных элементов
+     */
+    void progress(int processed);
+
+    /**
+     * Сравнение с индексами операндов (для трассировки). По умолчанию считается как {@link #compare()}.
+     * @param i индекс первого операнда или {@link #TEMP}
+     * @param j индекс второго операнда или {@link #TEMP}
+     * @param result результат условия, которое проверило ядро
+     */
+    default void compare(int i, int j, boolean result) {
+        compare();
+    }
+
+    /**
+     * Перемещение элемента с индексами (для трассировки): {@code a[to] = a[from]}.
+     * Перемещение во временную ячейку и из нее не считается перемещением элемента.
+     * @param from откуда или {@link #TEMP}
+     * @param to куда или {@link #TEMP}
+     */
+    default void move(int from, int to) {
+        if (from != TEMP && to != TEMP) {
+            move();
+        }
+    }
+
+    /**
+     * Один проход распределения элементов по разряду (поразрядные сортировки)
+     */
+    default void pass() {
+    }
+
+    /**
+     * Выделение вспомогательной памяти под буферы сортировки
+     * @param bytes размер в байтах
+     */
+    default void scratch(long bytes) {
+    }
+
+    /**
+     * Выбор ядра по предварительному проходу (автоматический выбор алгоритма)
+     * @param kernel название выбранного ядра
+     * @param prepassNanos время предварительного прохода, нс
+     */
+    default void strategy(String kernel, long prepassNanos) {
+    }
+
+    /**
+     * @return true, если приемник считает операции. Параллельные алгоритмы в этом случае
+     * заводят собственные счетчики для каждой подзадачи и добавляют итог через {@link #add(long, long)}
+     */
+    default boolean isCounting() {
+        return false;
+    }
+
+    /**
+     * Добавление операций, подсчитанных в других потоках
+     * @param comparisons количество сравнений
+     * @param moves количество перемещений
+     */
+    default void add(long comparisons, long moves) {
+    }
+}
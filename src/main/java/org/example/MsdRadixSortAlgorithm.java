@@ -0,0 +1,69 @@
+package org.example;
+
+import java.io.IOException;
+
+/**
+ * Поразрядная сортировка MSD с досортировкой коротких корзин простыми вставками.
+ * Порог вставок задается системным свойством {@code sort.msd.cutoff}.
+ */
+public class MsdRadixSortAlgorithm implements SortAlgorithm {
+    private final int cutoff;
+
+    public MsdRadixSortAlgorithm() {
+        this(Integer.getInteger("sort.msd.cutoff", RadixSorts.DEFAULT_MSD_CUTOFF));
+    }
+
+    /**
+     * @param cutoff размер корзины, ниже которого используются простые вставки
+     */
+    public MsdRadixSortAlgorithm(int cutoff) {
+        if (cutoff < 0) {
+            throw new IllegalArgumentException("Порог вставок не может быть отрицательным: " + cutoff);
+        }
+        this.cutoff = cutoff;
+    }
+
+    public int getCutoff() {
+        return cutoff;
+    }
+
+    @Override
+    public String getId() {
+        return "msd";
+    }
+
+    @Override
+    public String getName() {
+        return "Поразрядная MSD";
+    }
+
+    @Override
+    public boolean isStable() {
+        return true;
+    }
+
+    @Override
+    public String getComparisonsComplexity() {
+        return "O(n·c)";
+    }
+
+    @Override
+    public String getMovesComplexity() {
+        return "O(n·w/8)";
+    }
+
+    @Override
+    public void sort(int[] arr, Metrics metrics) {
+        RadixSorts.msdRadixSort(arr, cutoff, metrics);
+    }
+
+    @Override
+    public boolean supportsOffHeap() {
+        return true;
+    }
+
+    @Override
+    public void sort(IntArrayAccess arr, Metrics metrics) throws IOException {
+        RadixSorts.msdRadixSort(arr, cutoff, metrics);
+    }
+}
@@ -0,0 +1,36 @@
+package org.example;
+
+/**
+ * Приемник статистики, не считающий операции.
+ * Если задан {@link SortProgress}, публикует в него только индекс внешнего цикла,
+ * чтобы при замере времени работали индикатор выполнения и отмена.
+ */
+public final class NoOpMetrics implements Metrics {
+    private final SortProgress progress;
+
+    /**
+     * @param progress приемник прогресса (может быть null)
+     */
+    public NoOpMetrics(SortProgress progress) {
+        this.progress = progress;
+    }
+
+    @Override
+    public void compare() {
+    }
+
+    @Override
+    public void move() {
+    }
+
+    @Override
+    public void moves(long count) {
+    }
+
+    @Override
+    public void progress(int processed) {
+        if (progress != null) {
+            progress.update(processed);
+        }
+    }
+}
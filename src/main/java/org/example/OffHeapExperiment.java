@@ -0,0 +1,115 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Сортировка двоичного файла массива вне кучи: файл копируется средствами операционной системы,
+ * копия отображается в память ({@link MappedIntArray}) и сортируется на месте.
+ * Вспомогательные буферы алгоритмов и копия исходных данных для повторных прогонов создаются
+ * во временных файлах рядом с результатом, поэтому размер массива ограничен диском и адресным
+ * пространством, а не размером кучи.
+ */
+public final class OffHeapExperiment {
+
+    private OffHeapExperiment() {
+    }
+
+    /**
+     * Сортировка файла по той же схеме, что и {@link SortExperiment#measure}: прогревочные прогоны,
+     * несколько повторов без счетчиков для времени и отдельный прогон с подсчетом операций.
+     * Каждый прогон сортирует свежую копию исходных данных: перед прогоном они копируются вне замера из
+     * временного файла рядом с результатом (копирование памяти отображений, как {@link System#arraycopy}).
+     * Последним выполняется прогон с подсчетом, его результат остается в output.
+     * @param algorithm алгоритм, поддерживающий сортировку вне кучи ({@link SortAlgorithm#supportsOffHeap()})
+     * @param input исходный двоичный файл массива (не изменяется, если output — другой файл)
+     * @param output файл результата; если совпадает с input, файл сортируется на месте
+     * @param warmups количество прогревочных прогонов
+     * @param repetitions количество повторов замера времени
+     * @param progress приемник прогресса и отмены (может быть null)
+     * @return результат эксперимента с объемом памяти вне кучи и занятой кучей; время — медиана повторов
+     * @throws IOException при ошибке чтения, копирования или если файл не в двоичном формате
+     * @throws CancellationException если сортировка была отменена
+     */
+    public static SortExperimentResult sortFile(SortAlgorithm algorithm, File input, File output,
+                                                int warmups, int repetitions, SortProgress progress)
+            throws IOException {
+        if (!algorithm.supportsOffHeap()) {
+            throw new IllegalArgumentException("Алгоритм " + algorithm.getName() + " не поддерживает сортировку вне кучи");
+        }
+        if (warmups < 0) {
+            throw new IllegalArgumentException("Количество прогревочных прогонов не может быть отрицательным: " + warmups);
+        }
+        if (repetitions <= 0) {
+            throw new IllegalArgumentException("Количество повторов должно быть положительным: " + repetitions);
+        }
+        BinaryArrayHeader header = ArrayFileReader.readHeader(input);
+        if (header == null) {
+            throw new IOException("Сортировка вне кучи поддерживает только двоичный формат массива");
+        }
+        if (!input.getCanonicalFile().equals(output.getCanonicalFile())) {
+            Files.copy(input.toPath(), output.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        try (MappedIntArray array = MappedIntArray.openArrayFile(output);
+             IntArrayAccess source = array.allocateScratch(array.length())) {
+            int n = array.length();
+            array.copyTo(0, source, 0, n);
+
+            // Этап 0: прогрев
+            for (int w = 0; w < warmups; w++) {
+                if (progress != null) {
+                    progress.beginPhase(algorithm.getName() + " (вне кучи, прогрев " + (w + 1) + "/" + warmups + ")", n);
+                }
+                source.copyTo(0, array, 0, n);
+                algorithm.sort(array, new NoOpMetrics(progress));
+            }
+
+            // Этап 1: замер времени без счетчиков
+            long[] nanos = new long[repetitions];
+            MemoryProbe memory = MemoryProbe.start();
+            for (int r = 0; r < repetitions; r++) {
+                if (progress != null) {
+                    progress.beginPhase(algorithm.getName() + (repetitions > 1
+                            ? " (вне кучи, замер времени " + (r + 1) + "/" + repetitions + ")"
+                            : " (вне кучи, замер времени)"), n);
+                }
+                source.copyTo(0, array, 0, n);
+                long startTime = System.nanoTime();
+                algorithm.sort(array, new NoOpMetrics(progress));
+                nanos[r] = System.nanoTime() - startTime;
+            }
+            memory.stop(repetitions);
+            TimingStats timing = TimingStats.of(nanos);
+
+            // Этап 2: подсчет операций
+            if (progress != null) {
+                progress.beginPhase(algorithm.getName() + " (вне кучи, подсчет операций)", n);
+            }
+            source.copyTo(0, array, 0, n);
+            CountingMetrics metrics = new CountingMetrics(progress);
+            algorithm.sort(array, metrics);
+
+            SortExperimentResult result = new SortExperimentResult(
+                    n,
+                    algorithm.getName(),
+                    header.getShape().getDisplayName(),
+                    metrics.getComparisons(),
+                    metrics.getMoves(),
+                    (long) timing.getMedian() / 1000000,
+                    timing
+            );
+            result.warmups = warmups;
+            result.passes = metrics.getPasses();
+            result.scratchBytes = metrics.getScratchBytes();
+            result.offHeapBytes = (long) n * Integer.BYTES + metrics.getScratchBytes();
+            Runtime runtime = Runtime.getRuntime();
+            result.heapBytes = runtime.totalMemory() - runtime.freeMemory();
+            memory.applyTo(result);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Замер масштабируемости параллельной сортировки: время, ускорение и эффективность
+ * в зависимости от количества потоков.
+ */
+public final class ParallelScaling {
+
+    /**
+     * Результат для одного количества потоков
+     */
+    public static class Point {
+        final int threads;
+        final TimingStats timing;
+        final double speedup;
+        final double efficiency;
+
+        Point(int threads, TimingStats timing, double speedup) {
+            this.threads = threads;
+            this.timing = timing;
+            this.speedup = speedup;
+            this.efficiency = speedup / threads;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public TimingStats getTiming() {
+            return timing;
+        }
+
+        /**
+         * @return ускорение относительно запуска в одном потоке
+         */
+        public double getSpeedup() {
+            return speedup;
+        }
+
+        /**
+         * @return эффективность: ускорение, деленное на количество потоков
+         */
+        public double getEfficiency() {
+            return efficiency;
+        }
+    }
+
+    private ParallelScaling() {
+    }
+
+    /**
+     * @return 1, 2, 4, ... до количества процессоров включительно
+     */
+    public static int[] defaultThreadCounts() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        List<Integer> counts = new ArrayList<>();
+        for (int t = 1; t < processors; t <<= 1) {
+            counts.add(t);
+        }
+        counts.add(processors);
+        return counts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Замер параллельной сортировки для каждого количества потоков (выполняется в фоновом потоке)
+     * @param source исходный массив (не изменяется)
+     * @param threadCounts количества потоков; ускорение считается относительно первого значения,
+     *                     умноженного на количество его потоков
+     * @param threshold размер листа
+     * @param repetitions количество повторов для каждого количества потоков (время — медиана)
+     * @param progress приемник прогресса и отмены (может быть null)
+     * @return результаты в порядке threadCounts
+     * @throws CancellationException если замер был отменен
+     */
+    public static List<Point> measure(int[] source, int[] threadCounts, int threshold, int repetitions,
+                                      SortProgress progress) {
+        if (repetitions <= 0) {
+            throw new IllegalArgumentException("Количество повторов должно быть положительным: " + repetitions);
+        }
+        int[] work = new int[source.length];
+        List<Point> points = new ArrayList<>();
+        double baseline = 0;
+        for (int threads : threadCounts) {
+            long[] nanos = new long[repetitions];
+            try (ParallelSort sort = new ParallelSort(threads, threshold)) {
+                // Прогревочный прогон создает пул и запускает его потоки вне замера
+                if (progress != null) {
+                    progress.beginPhase("Потоков: " + threads + " (прогрев)", source.length);
+                }
+                System.arraycopy(source, 0, work, 0, source.length);
+                sort.sort(work, new NoOpMetrics(progress));
+
+                for (int r = 0; r < repetitions; r++) {
+                    if (progress != null) {
+                        progress.beginPhase("Потоков: " + threads + " (" + (r + 1) + "/" + repetitions + ")",
+                                source.length);
+                    }
+                    System.arraycopy(source, 0, work, 0, source.length);
+                    long startTime = System.nanoTime();
+                    sort.sort(work, new NoOpMetrics(progress));
+                    nanos[r] = System.nanoTime() - startTime;
+                }
+            }
+            TimingStats timing = TimingStats.of(nanos);
+            if (points.isEmpty()) {
+                baseline = timing.getMedian() * threads;
+            }
+            points.add(new Point(threads, timing, baseline / timing.getMedian()));
+        }
+        return points;
+    }
+}
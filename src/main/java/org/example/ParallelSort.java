@@ -0,0 +1,500 @@
+package org.example;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Параллельная сортировка слиянием на {@link ForkJoinPool}.
+ * Массив делится пополам до порога {@link #getThreshold()}, листья сортируются бинарными вставками
+ * ({@link InsertionSorts#binaryInsertionSort(int[], int, int, int, Metrics)}), затем половины
+ * сливаются параллельным слиянием. Результаты уровней чередуются между массивом и буфером
+ * на n элементов, поэтому обратного копирования нет.
+ * <p>
+ * Каждая подзадача считает операции в собственном {@link CountingMetrics}, итог подзадачи
+ * добавляется в общие {@link LongAdder} один раз, и в конце сумма передается в приемник вызывающего.
+ * <p>
+ * Пул потоков создается при первой сортировке и используется повторно, чтобы создание пула и запуск потоков
+ * не попадали в замер каждого прогона. Потоки пула — демоны; {@link #close()} завершает пул явно.
+ */
+public final class ParallelSort implements AutoCloseable {
+    /**
+     * Порог размера листа по умолчанию
+     */
+    public static final int DEFAULT_THRESHOLD = 1024;
+    /**
+     * Слияния меньше этого размера выполняются последовательно
+     */
+    private static final int MERGE_THRESHOLD = 8192;
+
+    private final int parallelism;
+    private final int threshold;
+    private ForkJoinPool pool;
+
+    /**
+     * @param parallelism количество потоков
+     * @param threshold размер листа, ниже которого диапазон сортируется вставками
+     */
+    public ParallelSort(int parallelism, int threshold) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Количество потоков должно быть положительным: " + parallelism);
+        }
+        if (threshold < 2) {
+            throw new IllegalArgumentException("Порог должен быть не меньше 2: " + threshold);
+        }
+        this.parallelism = parallelism;
+        this.threshold = threshold;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Сортировка массива
+     * @param arr массив для сортировки
+     * @param metrics приемник статистики ({@link Metrics#NONE} для замера времени)
+     * @throws CancellationException если сортировка была отменена через приемник прогресса
+     */
+    public void sort(int[] arr, Metrics metrics) {
+        if (arr.length < 2) {
+            return;
+        }
+        Context context = new Context(arr, metrics, threshold);
+        metrics.scratch((long) arr.length * Integer.BYTES);
+        ForkJoinPool pool = pool();
+        try {
+            pool.invoke(new SortTask(context, 0, arr.length, false));
+        } catch (RuntimeException e) {
+            // После отмены оставшиеся подзадачи тоже завершаются в контрольных точках; дожидаемся их,
+            // чтобы они не занимали потоки пула следующей сортировки
+            pool.awaitQuiescence(1, TimeUnit.MINUTES);
+            throw e;
+        }
+        metrics.add(context.comparisons.sum(), context.moves.sum());
+        metrics.progress(arr.length);
+    }
+
+    /**
+     * Сортировка массива вне кучи: то же разбиение, те же ядра листьев и слияния и те же счетчики,
+     * что и у {@link #sort(int[], Metrics)}; буфер на n элементов выделяется через
+     * {@link IntArrayAccess#allocateScratch(int)}. Подзадачи пишут в непересекающиеся диапазоны.
+     * @param arr массив для сортировки
+     * @param metrics приемник статистики
+     * @throws IOException если не удалось создать буфер
+     * @throws CancellationException если сортировка была отменена через приемник прогресса
+     */
+    public void sort(IntArrayAccess arr, Metrics metrics) throws IOException {
+        int n = arr.length();
+        if (n < 2) {
+            return;
+        }
+        try (IntArrayAccess buffer = arr.allocateScratch(n)) {
+            AccessContext context = new AccessContext(arr, buffer, metrics, threshold);
+            metrics.scratch((long) n * Integer.BYTES);
+            ForkJoinPool pool = pool();
+            try {
+                pool.invoke(new AccessSortTask(context, 0, n, false));
+            } catch (RuntimeException e) {
+                pool.awaitQuiescence(1, TimeUnit.MINUTES);
+                throw e;
+            }
+            metrics.add(context.comparisons.sum(), context.moves.sum());
+        }
+        metrics.progress(n);
+    }
+
+    /**
+     * @return пул потоков сортировки (создается при первом обращении)
+     */
+    private synchronized ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
+    }
+
+    /**
+     * Завершение пула потоков. Следующая сортировка создаст пул заново.
+     */
+    @Override
+    public synchronized void close() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    /**
+     * Счетчики и прогресс одной сортировки
+     */
+    private abstract static class Counters {
+        final Metrics metrics;
+        final int threshold;
+        final LongAdder comparisons = new LongAdder();
+        final LongAdder moves = new LongAdder();
+        final LongAdder processed = new LongAdder();
+
+        Counters(Metrics metrics, int threshold) {
+            this.metrics = metrics;
+            this.threshold = threshold;
+        }
+
+        /**
+         * @return приемник статистики для одной подзадачи
+         */
+        Metrics taskMetrics() {
+            return metrics.isCounting() ? new CountingMetrics() : Metrics.NONE;
+        }
+
+        /**
+         * Перенос счетчиков подзадачи в общие сумматоры
+         */
+        void collect(Metrics taskMetrics) {
+            if (taskMetrics instanceof CountingMetrics) {
+                CountingMetrics counting = (CountingMetrics) taskMetrics;
+                comparisons.add(counting.getComparisons());
+                moves.add(counting.getMoves());
+            }
+        }
+
+        /**
+         * Учет завершенного листа: прогресс и проверка отмены
+         */
+        void leafDone(int length) {
+            processed.add(length);
+            metrics.progress((int) processed.sum());
+        }
+    }
+
+    /**
+     * Общее состояние одной сортировки
+     */
+    private static final class Context extends Counters {
+        final int[] array;
+        final int[] buffer;
+
+        Context(int[] array, Metrics metrics, int threshold) {
+            super(metrics, threshold);
+            this.array = array;
+            this.buffer = new int[array.length];
+        }
+    }
+
+    /**
+     * Общее состояние одной сортировки массива вне кучи
+     */
+    private static final class AccessContext extends Counters {
+        final IntArrayAccess array;
+        final IntArrayAccess buffer;
+
+        AccessContext(IntArrayAccess array, IntArrayAccess buffer, Metrics metrics, int threshold) {
+            super(metrics, threshold);
+            this.array = array;
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * Сортировка диапазона [lo, hi). Результат оказывается в буфере, если toBuffer, иначе в массиве.
+     */
+    private static final class SortTask extends RecursiveAction {
+        private final Context context;
+        private final int lo;
+        private final int hi;
+        private final boolean toBuffer;
+
+        SortTask(Context context, int lo, int hi, boolean toBuffer) {
+            this.context = context;
+            this.lo = lo;
+            this.hi = hi;
+            this.toBuffer = toBuffer;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= context.threshold) {
+                Metrics metrics = context.taskMetrics();
+                InsertionSorts.binaryInsertionSort(context.array, lo, hi, lo, metrics);
+                if (toBuffer) {
+                    System.arraycopy(context.array, lo, context.buffer, lo, hi - lo);
+                    metrics.moves(hi - lo);
+                }
+                context.collect(metrics);
+
+                // Прогресс и проверка отмены — по завершении листа
+                context.leafDone(hi - lo);
+                return;
+            }
+
+            // Половины сортируются в другой массив и сливаются в целевой
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new SortTask(context, lo, mid, !toBuffer), new SortTask(context, mid, hi, !toBuffer));
+            int[] src = toBuffer ? context.array : context.buffer;
+            int[] dst = toBuffer ? context.buffer : context.array;
+            new MergeTask(context, src, lo, mid, mid, hi, dst, lo).compute();
+        }
+    }
+
+    /**
+     * Устойчивое слияние src[lo1, hi1) и src[lo2, hi2) в dst начиная с dstLo.
+     * Большой диапазон делится по медиане длинной серии и бинарному поиску в короткой.
+     */
+    private static final class MergeTask extends RecursiveAction {
+        private final Context context;
+        private final int[] src;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final int[] dst;
+        private final int dstLo;
+
+        MergeTask(Context context, int[] src, int lo1, int hi1, int lo2, int hi2, int[] dst, int dstLo) {
+            this.context = context;
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.dstLo = dstLo;
+        }
+
+        @Override
+        protected void compute() {
+            int len1 = hi1 - lo1;
+            int len2 = hi2 - lo2;
+            Metrics metrics = context.taskMetrics();
+
+            if (len1 + len2 <= MERGE_THRESHOLD) {
+                mergeSequential(metrics);
+                context.collect(metrics);
+                return;
+            }
+
+            int split1;
+            int split2;
+            if (len1 >= len2) {
+                // Левее split2 — элементы второй серии, строго меньшие src[split1]
+                split1 = (lo1 + hi1) >>> 1;
+                split2 = lowerBound(src, lo2, hi2, src[split1], metrics);
+            } else {
+                // Левее split1 — элементы первой серии, не большие src[split2]
+                split2 = (lo2 + hi2) >>> 1;
+                split1 = upperBound(src, lo1, hi1, src[split2], metrics);
+            }
+            context.collect(metrics);
+
+            int dstMid = dstLo + (split1 - lo1) + (split2 - lo2);
+            invokeAll(new MergeTask(context, src, lo1, split1, lo2, split2, dst, dstLo),
+                    new MergeTask(context, src, split1, hi1, split2, hi2, dst, dstMid));
+        }
+
+        private void mergeSequential(Metrics metrics) {
+            int i = lo1;
+            int j = lo2;
+            int k = dstLo;
+            while (i < hi1 && j < hi2) {
+                metrics.compare();
+                if (src[j] < src[i]) {
+                    dst[k++] = src[j++];
+                } else {
+                    dst[k++] = src[i++];
+                }
+            }
+            System.arraycopy(src, i, dst, k, hi1 - i);
+            k += hi1 - i;
+            System.arraycopy(src, j, dst, k, hi2 - j);
+            metrics.moves((hi1 - lo1) + (hi2 - lo2));
+        }
+
+        /**
+         * Первый индекс в [lo, hi), где значение не меньше key
+         */
+        private static int lowerBound(int[] a, int lo, int hi, int key, Metrics metrics) {
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                metrics.compare();
+                if (a[mid] < key) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /**
+         * Первый индекс в [lo, hi), где значение больше key
+         */
+        private static int upperBound(int[] a, int lo, int hi, int key, Metrics metrics) {
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                metrics.compare();
+                if (key < a[mid]) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            return lo;
+        }
+    }
+
+    /**
+     * Сортировка диапазона массива вне кучи (см. {@link SortTask})
+     */
+    private static final class AccessSortTask extends RecursiveAction {
+        private final AccessContext context;
+        private final int lo;
+        private final int hi;
+        private final boolean toBuffer;
+
+        AccessSortTask(AccessContext context, int lo, int hi, boolean toBuffer) {
+            this.context = context;
+            this.lo = lo;
+            this.hi = hi;
+            this.toBuffer = toBuffer;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= context.threshold) {
+                Metrics metrics = context.taskMetrics();
+                InsertionSorts.binaryInsertionSort(context.array, lo, hi, lo, metrics);
+                if (toBuffer) {
+                    context.array.copyTo(lo, context.buffer, lo, hi - lo);
+                    metrics.moves(hi - lo);
+                }
+                context.collect(metrics);
+                context.leafDone(hi - lo);
+                return;
+            }
+
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new AccessSortTask(context, lo, mid, !toBuffer),
+                    new AccessSortTask(context, mid, hi, !toBuffer));
+            IntArrayAccess src = toBuffer ? context.array : context.buffer;
+            IntArrayAccess dst = toBuffer ? context.buffer : context.array;
+            new AccessMergeTask(context, src, lo, mid, mid, hi, dst, lo).compute();
+        }
+    }
+
+    /**
+     * Слияние диапазонов массива вне кучи (см. {@link MergeTask})
+     */
+    private static final class AccessMergeTask extends RecursiveAction {
+        private final AccessContext context;
+        private final IntArrayAccess src;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final IntArrayAccess dst;
+        private final int dstLo;
+
+        AccessMergeTask(AccessContext context, IntArrayAccess src, int lo1, int hi1, int lo2, int hi2,
+                        IntArrayAccess dst, int dstLo) {
+            this.context = context;
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.dstLo = dstLo;
+        }
+
+        @Override
+        protected void compute() {
+            int len1 = hi1 - lo1;
+            int len2 = hi2 - lo2;
+            Metrics metrics = context.taskMetrics();
+
+            if (len1 + len2 <= MERGE_THRESHOLD) {
+                mergeSequential(metrics);
+                context.collect(metrics);
+                return;
+            }
+
+            int split1;
+            int split2;
+            if (len1 >= len2) {
+                split1 = (lo1 + hi1) >>> 1;
+                split2 = lowerBound(src, lo2, hi2, src.get(split1), metrics);
+            } else {
+                split2 = (lo2 + hi2) >>> 1;
+                split1 = upperBound(src, lo1, hi1, src.get(split2), metrics);
+            }
+            context.collect(metrics);
+
+            int dstMid = dstLo + (split1 - lo1) + (split2 - lo2);
+            invokeAll(new AccessMergeTask(context, src, lo1, split1, lo2, split2, dst, dstLo),
+                    new AccessMergeTask(context, src, split1, hi1, split2, hi2, dst, dstMid));
+        }
+
+        private void mergeSequential(Metrics metrics) {
+            int i = lo1;
+            int j = lo2;
+            int k = dstLo;
+            if (i < hi1 && j < hi2) {
+                int left = src.get(i);
+                int right = src.get(j);
+                while (true) {
+                    metrics.compare();
+                    if (right < left) {
+                        dst.set(k++, right);
+                        if (++j == hi2) {
+                            break;
+                        }
+                        right = src.get(j);
+                    } else {
+                        dst.set(k++, left);
+                        if (++i == hi1) {
+                            break;
+                        }
+                        left = src.get(i);
+                    }
+                }
+            }
+            src.copyTo(i, dst, k, hi1 - i);
+            k += hi1 - i;
+            src.copyTo(j, dst, k, hi2 - j);
+            metrics.moves((hi1 - lo1) + (hi2 - lo2));
+        }
+
+        private static int lowerBound(IntArrayAccess a, int lo, int hi, int key, Metrics metrics) {
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                metrics.compare();
+                if (a.get(mid) < key) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        private static int upperBound(IntArrayAccess a, int lo, int hi, int key, Metrics metrics) {
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                metrics.compare();
+                if (key < a.get(mid)) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.example;
+
+import java.io.IOException;
+
+/**
+ * Параллельная сортировка слиянием (fork/join) с листьями на бинарных вставках.
+ * Количество потоков и порог листа по умолчанию задаются системными свойствами
+ * {@code sort.parallel.threads} и {@code sort.parallel.threshold}.
+ */
+public class ParallelSortAlgorithm implements SortAlgorithm {
+    private final ParallelSort sort;
+
+    public ParallelSortAlgorithm() {
+        this(Integer.getInteger("sort.parallel.threads", Runtime.getRuntime().availableProcessors()),
+                Integer.getInteger("sort.parallel.threshold", ParallelSort.DEFAULT_THRESHOLD));
+    }
+
+    /**
+     * @param parallelism количество потоков
+     * @param threshold размер листа, ниже которого диапазон сортируется вставками
+     */
+    public ParallelSortAlgorithm(int parallelism, int threshold) {
+        this.sort = new ParallelSort(parallelism, threshold);
+    }
+
+    public ParallelSort getSort() {
+        return sort;
+    }
+
+    @Override
+    public String getId() {
+        return "parallel";
+    }
+
+    @Override
+    public String getName() {
+        return "Параллельная (fork/join)";
+    }
+
+    @Override
+    public boolean isStable() {
+        return true;
+    }
+
+    @Override
+    public String getComparisonsComplexity() {
+        return "O(n log n)";
+    }
+
+    @Override
+    public String getMovesComplexity() {
+        return "O(n log n)";
+    }
+
+    @Override
+    public void sort(int[] arr, Metrics metrics) {
+        sort.sort(arr, metrics);
+    }
+
+    @Override
+    public boolean supportsOffHeap() {
+        return true;
+    }
+
+    @Override
+    public void sort(IntArrayAccess arr, Metrics metrics) throws IOException {
+        sort.sort(arr, metrics);
+    }
+}
@@ -0,0 +1,315 @@
+package org.example;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Точные показатели предварительной упорядоченности массива:
+ * <ul>
+ *     <li>Inv — количество инверсий (пар i &lt; j, a[i] &gt; a[j]); у простых и бинарных вставок
+ *     количество перемещений в точности равно ему;</li>
+ *     <li>Runs — количество серий неубывания (спуски соседних элементов + 1) и длина наибольшей серии;</li>
+ *     <li>Rem — наименьшее количество элементов, после удаления которых массив отсортирован
+ *     (n минус длина наибольшей неубывающей подпоследовательности);</li>
+ *     <li>Osc — колебания: для каждой пары соседних элементов — количество элементов массива строго между ними.</li>
+ * </ul>
+ * Инверсии считаются сортировкой слиянием за O(n log n); она же дает отсортированную копию, с которой
+ * сверяются отсортированные концы пар соседних элементов для Osc. Для больших массивов половины сортируются
+ * параллельно на {@link ForkJoinPool}, а Rem считается одновременно с инверсиями.
+ * Количество потоков задается системным свойством {@code sort.analysis.threads}.
+ */
+public final class Presortedness {
+    /**
+     * Массивы меньше этого размера анализируются в одном потоке
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+    // Диапазоны не длиннее этого сортируются вставками с подсчетом сдвигов
+    private static final int INSERTION_LEAF = 32;
+
+    long size;
+    long inversions;
+    long runs;
+    long longestRun;
+    long rem;
+    long osc;
+    long nanos;          // Время анализа, нс
+
+    Presortedness() {
+    }
+
+    /**
+     * Анализ массива с количеством потоков по умолчанию
+     * @see #analyze(int[], int)
+     */
+    public static Presortedness analyze(int[] arr) {
+        return analyze(arr, Integer.getInteger("sort.analysis.threads", Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Анализ массива
+     * @param arr массив (не изменяется)
+     * @param parallelism количество потоков (массивы меньше {@value #PARALLEL_THRESHOLD} анализируются в одном)
+     * @return показатели упорядоченности
+     */
+    public static Presortedness analyze(int[] arr, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Количество потоков должно быть положительным: " + parallelism);
+        }
+        long start = System.nanoTime();
+        int n = arr.length;
+        Presortedness result = new Presortedness();
+        result.size = n;
+        if (n == 0) {
+            return result;
+        }
+        countRuns(arr, result);
+
+        // Слияние ведется поочередно между двумя копиями, отсортированный результат остается в sorted
+        int[] sorted = arr.clone();
+        int[] buffer = arr.clone();
+        if (n < PARALLEL_THRESHOLD || parallelism == 1) {
+            result.inversions = countInversions(sorted, buffer, 0, n);
+            result.rem = n - longestNonDecreasing(arr);
+            result.osc = oscillation(arr, sorted, false);
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                int grain = Math.max(PARALLEL_THRESHOLD, n / (parallelism * 4));
+                ForkJoinTask<Long> remTask = pool.submit(() -> (long) longestNonDecreasing(arr));
+                result.inversions = pool.invoke(new InversionTask(sorted, buffer, 0, n, grain));
+                result.osc = pool.submit(() -> oscillation(arr, sorted, true)).join();
+                result.rem = n - remTask.join();
+            } finally {
+                pool.shutdown();
+            }
+        }
+        result.nanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private static void countRuns(int[] arr, Presortedness result) {
+        long runs = 1;
+        long longest = 1;
+        long current = 1;
+        for (int i = 1; i < arr.length; i++) {
+            if (arr[i] < arr[i - 1]) {
+                runs++;
+                longest = Math.max(longest, current);
+                current = 1;
+            } else {
+                current++;
+            }
+        }
+        result.runs = runs;
+        result.longestRun = Math.max(longest, current);
+    }
+
+    /**
+     * Сортировка a[lo, hi) с подсчетом инверсий; b на входе содержит те же элементы и служит буфером
+     */
+    static long countInversions(int[] a, int[] b, int lo, int hi) {
+        if (hi - lo <= INSERTION_LEAF) {
+            return insertionCount(a, lo, hi);
+        }
+        int mid = (lo + hi) >>> 1;
+        // Половины сортируются в b, затем сливаются обратно в a
+        long count = countInversions(b, a, lo, mid) + countInversions(b, a, mid, hi);
+        return count + merge(b, a, lo, mid, hi);
+    }
+
+    private static long insertionCount(int[] a, int lo, int hi) {
+        long shifts = 0;
+        for (int i = lo + 1; i < hi; i++) {
+            int current = a[i];
+            int j = i - 1;
+            while (j >= lo && a[j] > current) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            shifts += i - 1 - j;
+            a[j + 1] = current;
+        }
+        return shifts;
+    }
+
+    /**
+     * Слияние отсортированных src[lo, mid) и src[mid, hi) в dst; каждый элемент правой половины,
+     * обгоняющий элементы левой, образует с каждым из них инверсию
+     */
+    private static long merge(int[] src, int[] dst, int lo, int mid, int hi) {
+        long inversions = 0;
+        int i = lo;
+        int j = mid;
+        int k = lo;
+        while (i < mid && j < hi) {
+            if (src[j] < src[i]) {
+                inversions += mid - i;
+                dst[k++] = src[j++];
+            } else {
+                dst[k++] = src[i++];
+            }
+        }
+        System.arraycopy(src, i, dst, k, mid - i);
+        System.arraycopy(src, j, dst, k + mid - i, hi - j);
+        return inversions;
+    }
+
+    /**
+     * Длина наибольшей неубывающей подпоследовательности (сортировка «пасьянсом», O(n log n))
+     */
+    static int longestNonDecreasing(int[] arr) {
+        // tails[k] — наименьший последний элемент подпоследовательности длины k + 1
+        int[] tails = new int[arr.length];
+        int length = 0;
+        for (int value : arr) {
+            int position = upperBound(tails, 0, length, value);
+            tails[position] = value;
+            if (position == length) {
+                length++;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Колебания: сумма по парам соседних различных элементов количества элементов строго между ними.
+     * Для пары (low, high) это less(high) − lessOrEqual(low), где less и lessOrEqual — количество элементов
+     * массива меньше и не больше значения. Обе суммы считаются одним проходом по отсортированным концам пар
+     * навстречу отсортированному массиву, без двоичного поиска на каждую пару.
+     * @param arr массив
+     * @param sorted элементы массива по возрастанию
+     * @param parallel сортировать концы пар в двух потоках
+     */
+    static long oscillation(int[] arr, int[] sorted, boolean parallel) {
+        int n = arr.length;
+        int pairs = 0;
+        for (int i = 0; i + 1 < n; i++) {
+            pairs += arr[i] != arr[i + 1] ? 1 : 0;
+        }
+        int[] lows = new int[pairs];
+        int[] highs = new int[pairs];
+        for (int i = 0, k = 0; i + 1 < n; i++) {
+            int x = arr[i];
+            int y = arr[i + 1];
+            if (x != y) {
+                lows[k] = Math.min(x, y);
+                highs[k] = Math.max(x, y);
+                k++;
+            }
+        }
+        if (parallel) {
+            ForkJoinTask<?> lowTask = ForkJoinTask.adapt(() -> RadixSorts.lsdRadixSort(lows, 16, Metrics.NONE)).fork();
+            RadixSorts.lsdRadixSort(highs, 16, Metrics.NONE);
+            lowTask.join();
+        } else {
+            RadixSorts.lsdRadixSort(lows, 16, Metrics.NONE);
+            RadixSorts.lsdRadixSort(highs, 16, Metrics.NONE);
+        }
+
+        long osc = 0;
+        int p = 0;
+        for (int high : highs) {
+            while (p < n && sorted[p] < high) {
+                p++;
+            }
+            osc += p;
+        }
+        p = 0;
+        for (int low : lows) {
+            while (p < n && sorted[p] <= low) {
+                p++;
+            }
+            osc -= p;
+        }
+        return osc;
+    }
+
+    private static int upperBound(int[] sorted, int from, int to, int value) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (sorted[mid] <= value) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * Параллельный подсчет инверсий: половины диапазона сортируются одновременно
+     */
+    private static final class InversionTask extends RecursiveTask<Long> {
+        private final int[] a;
+        private final int[] b;
+        private final int lo;
+        private final int hi;
+        private final int grain;
+
+        InversionTask(int[] a, int[] b, int lo, int hi, int grain) {
+            this.a = a;
+            this.b = b;
+            this.lo = lo;
+            this.hi = hi;
+            this.grain = grain;
+        }
+
+        @Override
+        protected Long compute() {
+            if (hi - lo <= grain) {
+                return countInversions(a, b, lo, hi);
+            }
+            int mid = (lo + hi) >>> 1;
+            InversionTask left = new InversionTask(b, a, lo, mid, grain);
+            left.fork();
+            long count = new InversionTask(b, a, mid, hi, grain).compute();
+            count += left.join();
+            return count + merge(b, a, lo, mid, hi);
+        }
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getInversions() {
+        return inversions;
+    }
+
+    /**
+     * @return наибольшее возможное количество инверсий n(n − 1)/2
+     */
+    public long getMaxInversions() {
+        return size * (size - 1) / 2;
+    }
+
+    public long getRuns() {
+        return runs;
+    }
+
+    public long getLongestRun() {
+        return longestRun;
+    }
+
+    public long getRem() {
+        return rem;
+    }
+
+    public long getOsc() {
+        return osc;
+    }
+
+    /**
+     * @return время анализа, нс (0 для показателей, прочитанных из хранилища)
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("инверсии: %d, серии: %d (наибольшая %d), Rem: %d, Osc: %d",
+                inversions, runs, longestRun, rem, osc);
+    }
+}
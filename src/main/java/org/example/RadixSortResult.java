@@ -0,0 +1,24 @@
+package org.example;
+
+/**
+ * Результат поразрядной сортировки: кроме сравнений и перемещений
+ * хранит количество проходов распределения и объем вспомогательной памяти
+ */
+public class RadixSortResult extends SortResult {
+    long passes;       // количество проходов распределения по разрядам
+    long scratchBytes; // вспомогательная память, байт
+
+    public RadixSortResult(long comparisons, long swaps, long passes, long scratchBytes) {
+        super(comparisons, swaps);
+        this.passes = passes;
+        this.scratchBytes = scratchBytes;
+    }
+
+    public long getPasses() {
+        return passes;
+    }
+
+    public long getScratchBytes() {
+        return scratchBytes;
+    }
+}
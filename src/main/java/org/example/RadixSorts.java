@@ -0,0 +1,482 @@
+package org.example;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Ядра поразрядных сортировок и сортировки подсчетом для массивов int.
+ * Элементы не сравниваются, а распределяются по корзинам по значению разряда ключа.
+ * Ключом служит разность {@code value - min} как беззнаковое число, поэтому отрицательные
+ * значения сортируются правильно, а количество разрядов определяется диапазоном значений, а не типом int.
+ * <p>
+ * Каждое распределение элементов по корзинам сообщается через {@link Metrics#pass()},
+ * запись элемента в буфер или обратно в массив — как перемещение, а буферы — через {@link Metrics#scratch(long)}.
+ */
+public final class RadixSorts {
+    /**
+     * Ширина разряда сортировки MSD
+     */
+    public static final int MSD_DIGIT_BITS = 8;
+    /**
+     * Корзины не больше этого размера сортировка MSD досортировывает простыми вставками
+     */
+    public static final int DEFAULT_MSD_CUTOFF = 32;
+    /**
+     * Сортировка подсчетом выполняется, если диапазон значений не больше этого числа или размера массива
+     */
+    public static final int COUNTING_RANGE_LIMIT = 1 << 20;
+
+    private static final int MSD_RADIX = 1 << MSD_DIGIT_BITS;
+
+    private RadixSorts() {
+    }
+
+    /**
+     * Поразрядная сортировка LSD с подсчетом операций
+     * @param arr массив для сортировки
+     * @param digitBits ширина разряда в битах
+     * @return результат сортировки (перемещения, проходы и вспомогательная память)
+     */
+    public static RadixSortResult lsdRadixSort(int[] arr, int digitBits) {
+        CountingMetrics metrics = new CountingMetrics();
+        lsdRadixSort(arr, digitBits, metrics);
+        return metrics.toRadixResult();
+    }
+
+    /**
+     * Поразрядная сортировка LSD: разряды обрабатываются от младшего к старшему устойчивым распределением,
+     * результат каждого прохода чередуется между массивом и буфером на n элементов.
+     * Разряд, одинаковый у всех элементов, пропускается без распределения.
+     * @param arr массив для сортировки
+     * @param digitBits ширина разряда в битах (от 1 до 16; обычно 8, 11 или 16)
+     * @param metrics приемник статистики ({@link Metrics#NONE} для замера времени)
+     * @throws CancellationException если сортировка была отменена через приемник прогресса
+     */
+    public static void lsdRadixSort(int[] arr, int digitBits, Metrics metrics) {
+        if (digitBits < 1 || digitBits > 16) {
+            throw new IllegalArgumentException("Ширина разряда должна быть от 1 до 16 бит: " + digitBits);
+        }
+        int n = arr.length;
+        if (n < 2) {
+            return;
+        }
+        int min = min(arr);
+        int keyBits = keyBits(min, max(arr));
+        if (keyBits == 0) {
+            metrics.progress(n);
+            return;
+        }
+
+        int radix = 1 << digitBits;
+        int mask = radix - 1;
+        int[] buffer = new int[n];
+        int[] count = new int[radix + 1];
+        metrics.scratch((long) (n + count.length) * Integer.BYTES);
+
+        int[] src = arr;
+        int[] dst = buffer;
+        int digits = (keyBits + digitBits - 1) / digitBits;
+        for (int d = 0; d < digits; d++) {
+            int shift = d * digitBits;
+            Arrays.fill(count, 0);
+            for (int value : src) {
+                count[(((value - min) >>> shift) & mask) + 1]++;
+            }
+
+            // Все элементы в одной корзине — порядок не меняется
+            if (count[(((src[0] - min) >>> shift) & mask) + 1] == n) {
+                continue;
+            }
+
+            for (int r = 0; r < radix; r++) {
+                count[r + 1] += count[r];
+            }
+            for (int value : src) {
+                dst[count[((value - min) >>> shift) & mask]++] = value;
+            }
+            metrics.moves(n);
+            metrics.pass();
+
+            int[] swap = src;
+            src = dst;
+            dst = swap;
+            metrics.progress((int) ((long) n * (d + 1) / digits));
+        }
+
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, n);
+            metrics.moves(n);
+        }
+        metrics.progress(n);
+    }
+
+    /**
+     * Поразрядная сортировка MSD с подсчетом операций
+     * @param arr массив для сортировки
+     * @param cutoff размер корзины, ниже которого используются простые вставки
+     * @return результат сортировки (сравнения вставок, перемещения, проходы и вспомогательная память)
+     */
+    public static RadixSortResult msdRadixSort(int[] arr, int cutoff) {
+        CountingMetrics metrics = new CountingMetrics();
+        msdRadixSort(arr, cutoff, metrics);
+        return metrics.toRadixResult();
+    }
+
+    /**
+     * Поразрядная сортировка MSD: диапазон распределяется по старшему разряду ({@value #MSD_DIGIT_BITS} бит),
+     * затем каждая корзина рекурсивно сортируется по следующему разряду. Корзины не больше cutoff
+     * досортировываются простыми вставками ({@link InsertionSorts#insertionSort(int[], int, int, Metrics)}).
+     * Проходом считается каждое распределение диапазона по разряду.
+     * @param arr массив для сортировки
+     * @param cutoff размер корзины, ниже которого используются простые вставки (0 — без вставок)
+     * @param metrics приемник статистики ({@link Metrics#NONE} для замера времени)
+     * @throws CancellationException если сортировка была отменена через приемник прогресса
+     */
+    public static void msdRadixSort(int[] arr, int cutoff, Metrics metrics) {
+        if (cutoff < 0) {
+            throw new IllegalArgumentException("Порог вставок не может быть отрицательным: " + cutoff);
+        }
+        int n = arr.length;
+        if (n < 2) {
+            return;
+        }
+        int min = min(arr);
+        int keyBits = keyBits(min, max(arr));
+        if (keyBits == 0) {
+            metrics.progress(n);
+            return;
+        }
+
+        int levels = (keyBits + MSD_DIGIT_BITS - 1) / MSD_DIGIT_BITS;
+        int[] buffer = new int[n];
+        // Отдельный массив счетчиков на каждый уровень рекурсии
+        int[][] counts = new int[levels][MSD_RADIX + 1];
+        metrics.scratch((long) (n + levels * (MSD_RADIX + 1)) * Integer.BYTES);
+
+        msdSort(arr, buffer, counts, 0, n, 0, (levels - 1) * MSD_DIGIT_BITS, min, cutoff, metrics);
+        metrics.progress(n);
+    }
+
+    private static void msdSort(int[] arr, int[] buffer, int[][] counts, int lo, int hi, int level, int shift,
+                                int min, int cutoff, Metrics metrics) {
+        if (hi - lo <= cutoff) {
+            InsertionSorts.insertionSort(arr, lo, hi, metrics);
+            return;
+        }
+
+        int[] count = counts[level];
+        Arrays.fill(count, 0);
+        for (int i = lo; i < hi; i++) {
+            count[(((arr[i] - min) >>> shift) & (MSD_RADIX - 1)) + 1]++;
+        }
+
+        if (count[(((arr[lo] - min) >>> shift) & (MSD_RADIX - 1)) + 1] == hi - lo) {
+            // Все элементы в одной корзине — сразу переходим к следующему разряду
+            if (shift > 0) {
+                msdSort(arr, buffer, counts, lo, hi, level + 1, shift - MSD_DIGIT_BITS, min, cutoff, metrics);
+            } else {
+                metrics.progress(hi);
+            }
+            return;
+        }
+
+        for (int r = 0; r < MSD_RADIX; r++) {
+            count[r + 1] += count[r];
+        }
+        for (int i = lo; i < hi; i++) {
+            int value = arr[i];
+            buffer[lo + count[((value - min) >>> shift) & (MSD_RADIX - 1)]++] = value;
+        }
+        System.arraycopy(buffer, lo, arr, lo, hi - lo);
+        metrics.moves(2L * (hi - lo));
+        metrics.pass();
+
+        if (shift == 0) {
+            metrics.progress(hi);
+            return;
+        }
+
+        // После распределения count[r] — конец корзины r
+        int start = lo;
+        for (int r = 0; r < MSD_RADIX; r++) {
+            int end = lo + count[r];
+            if (end - start > 1) {
+                msdSort(arr, buffer, counts, start, end, level + 1, shift - MSD_DIGIT_BITS, min, cutoff, metrics);
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Сортировка подсчетом с подсчетом операций
+     * @param arr массив для сортировки
+     * @return результат сортировки (перемещения, проходы и вспомогательная память)
+     */
+    public static RadixSortResult countingSort(int[] arr) {
+        CountingMetrics metrics = new CountingMetrics();
+        countingSort(arr, metrics);
+        return metrics.toRadixResult();
+    }
+
+    /**
+     * Сортировка подсчетом: один проход считает количество каждого значения, второй переписывает массив.
+     * Если диапазон значений больше {@value #COUNTING_RANGE_LIMIT} и больше размера массива,
+     * таблица счетчиков не окупается, и выполняется LSD с 16-битными разрядами.
+     * @param arr массив для сортировки
+     * @param metrics приемник статистики ({@link Metrics#NONE} для замера времени)
+     * @throws CancellationException если сортировка была отменена через приемник прогресса
+     */
+    public static void countingSort(int[] arr, Metrics metrics) {
+        int n = arr.length;
+        if (n < 2) {
+            return;
+        }
+        int min = min(arr);
+        long range = (long) max(arr) - min + 1;
+        if (range > Math.max(COUNTING_RANGE_LIMIT, n)) {
+            lsdRadixSort(arr, 16, metrics);
+            return;
+        }
+
+        int[] count = new int[(int) range];
+        metrics.scratch((long) count.length * Integer.BYTES);
+        for (int value : arr) {
+            count[value - min]++;
+        }
+
+        int index = 0;
+        for (int r = 0; r < count.length; r++) {
+            int c = count[r];
+            if (c == 0) {
+                continue;
+            }
+            Arrays.fill(arr, index, index + c, min + r);
+            index += c;
+            metrics.progress(index);
+        }
+        metrics.moves(n);
+        metrics.pass();
+    }
+
+    /**
+     * Поразрядная сортировка LSD массива вне кучи. Буфер выделяется через
+     * {@link IntArrayAccess#allocateScratch(int)}: для файла — временный файл, отображенный в память.
+     * @throws IOException если не удалось создать буфер
+     * @see #lsdRadixSort(int[], int, Metrics)
+     */
+    public static void lsdRadixSort(IntArrayAccess arr, int digitBits, Metrics metrics) throws IOException {
+        if (digitBits < 1 || digitBits > 16) {
+            throw new IllegalArgumentException("Ширина разряда должна быть от 1 до 16 бит: " + digitBits);
+        }
+        int n = arr.length();
+        if (n < 2) {
+            return;
+        }
+        int min = min(arr);
+        int keyBits = keyBits(min, max(arr));
+        if (keyBits == 0) {
+            metrics.progress(n);
+            return;
+        }
+
+        int radix = 1 << digitBits;
+        int mask = radix - 1;
+        int[] count = new int[radix + 1];
+        try (IntArrayAccess buffer = arr.allocateScratch(n)) {
+            metrics.scratch((long) (n + count.length) * Integer.BYTES);
+
+            IntArrayAccess src = arr;
+            IntArrayAccess dst = buffer;
+            int digits = (keyBits + digitBits - 1) / digitBits;
+            for (int d = 0; d < digits; d++) {
+                int shift = d * digitBits;
+                Arrays.fill(count, 0);
+                for (int i = 0; i < n; i++) {
+                    count[(((src.get(i) - min) >>> shift) & mask) + 1]++;
+                }
+
+                if (count[(((src.get(0) - min) >>> shift) & mask) + 1] == n) {
+                    continue;
+                }
+
+                for (int r = 0; r < radix; r++) {
+                    count[r + 1] += count[r];
+                }
+                for (int i = 0; i < n; i++) {
+                    int value = src.get(i);
+                    dst.set(count[((value - min) >>> shift) & mask]++, value);
+                }
+                metrics.moves(n);
+                metrics.pass();
+
+                IntArrayAccess swap = src;
+                src = dst;
+                dst = swap;
+                metrics.progress((int) ((long) n * (d + 1) / digits));
+            }
+
+            if (src != arr) {
+                src.copyTo(0, arr, 0, n);
+                metrics.moves(n);
+            }
+        }
+        metrics.progress(n);
+    }
+
+    /**
+     * Поразрядная сортировка MSD массива вне кучи; буфер выделяется через {@link IntArrayAccess#allocateScratch(int)}
+     * @throws IOException если не удалось создать буфер
+     * @see #msdRadixSort(int[], int, Metrics)
+     */
+    public static void msdRadixSort(IntArrayAccess arr, int cutoff, Metrics metrics) throws IOException {
+        if (cutoff < 0) {
+            throw new IllegalArgumentException("Порог вставок не может быть отрицательным: " + cutoff);
+        }
+        int n = arr.length();
+        if (n < 2) {
+            return;
+        }
+        int min = min(arr);
+        int keyBits = keyBits(min, max(arr));
+        if (keyBits == 0) {
+            metrics.progress(n);
+            return;
+        }
+
+        int levels = (keyBits + MSD_DIGIT_BITS - 1) / MSD_DIGIT_BITS;
+        int[][] counts = new int[levels][MSD_RADIX + 1];
+        try (IntArrayAccess buffer = arr.allocateScratch(n)) {
+            metrics.scratch((long) (n + levels * (MSD_RADIX + 1)) * Integer.BYTES);
+            msdSort(arr, buffer, counts, 0, n, 0, (levels - 1) * MSD_DIGIT_BITS, min, cutoff, metrics);
+        }
+        metrics.progress(n);
+    }
+
+    private static void msdSort(IntArrayAccess arr, IntArrayAccess buffer, int[][] counts, int lo, int hi, int level,
+                                int shift, int min, int cutoff, Metrics metrics) {
+        if (hi - lo <= cutoff) {
+            InsertionSorts.insertionSort(arr, lo, hi, metrics);
+            return;
+        }
+
+        int[] count = counts[level];
+        Arrays.fill(count, 0);
+        for (int i = lo; i < hi; i++) {
+            count[(((arr.get(i) - min) >>> shift) & (MSD_RADIX - 1)) + 1]++;
+        }
+
+        if (count[(((arr.get(lo) - min) >>> shift) & (MSD_RADIX - 1)) + 1] == hi - lo) {
+            if (shift > 0) {
+                msdSort(arr, buffer, counts, lo, hi, level + 1, shift - MSD_DIGIT_BITS, min, cutoff, metrics);
+            } else {
+                metrics.progress(hi);
+            }
+            return;
+        }
+
+        for (int r = 0; r < MSD_RADIX; r++) {
+            count[r + 1] += count[r];
+        }
+        for (int i = lo; i < hi; i++) {
+            int value = arr.get(i);
+            buffer.set(lo + count[((value - min) >>> shift) & (MSD_RADIX - 1)]++, value);
+        }
+        buffer.copyTo(lo, arr, lo, hi - lo);
+        metrics.moves(2L * (hi - lo));
+        metrics.pass();
+
+        if (shift == 0) {
+            metrics.progress(hi);
+            return;
+        }
+
+        int start = lo;
+        for (int r = 0; r < MSD_RADIX; r++) {
+            int end = lo + count[r];
+            if (end - start > 1) {
+                msdSort(arr, buffer, counts, start, end, level + 1, shift - MSD_DIGIT_BITS, min, cutoff, metrics);
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Сортировка подсчетом массива вне кучи. Таблица счетчиков выделяется через
+     * {@link IntArrayAccess#allocateScratch(int)}, поэтому для файла она тоже не занимает кучу.
+     * @throws IOException если не удалось создать таблицу или буфер
+     * @see #countingSort(int[], Metrics)
+     */
+    public static void countingSort(IntArrayAccess arr, Metrics metrics) throws IOException {
+        int n = arr.length();
+        if (n < 2) {
+            return;
+        }
+        int min = min(arr);
+        long range = (long) max(arr) - min + 1;
+        if (range > Math.max(COUNTING_RANGE_LIMIT, n)) {
+            lsdRadixSort(arr, 16, metrics);
+            return;
+        }
+
+        try (IntArrayAccess count = arr.allocateScratch((int) range)) {
+            metrics.scratch(range * Integer.BYTES);
+            for (int i = 0; i < n; i++) {
+                int key = arr.get(i) - min;
+                count.set(key, count.get(key) + 1);
+            }
+
+            int index = 0;
+            for (int r = 0; r < range; r++) {
+                int c = count.get(r);
+                if (c == 0) {
+                    continue;
+                }
+                arr.fill(index, index + c, min + r);
+                index += c;
+                metrics.progress(index);
+            }
+        }
+        metrics.moves(n);
+        metrics.pass();
+    }
+
+    /**
+     * @return количество значащих бит ключа {@code value - min} для диапазона [min, max]
+     */
+    private static int keyBits(int min, int max) {
+        return 32 - Integer.numberOfLeadingZeros(max - min);
+    }
+
+    private static int min(int[] arr) {
+        int min = arr[0];
+        for (int value : arr) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    private static int max(int[] arr) {
+        int max = arr[0];
+        for (int value : arr) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    private static int min(IntArrayAccess arr) {
+        int min = arr.get(0);
+        for (int i = 1; i < arr.length(); i++) {
+            min = Math.min(min, arr.get(i));
+        }
+        return min;
+    }
+
+    private static int max(IntArrayAccess arr) {
+        int max = arr.get(0);
+        for (int i = 1; i < arr.length(); i++) {
+            max = Math.max(max, arr.get(i));
+        }
+        return max;
+    }
+}
@@ -0,0 +1,403 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Проверка производительности перед выпуском: матрица экспериментов {@link BatchRunner} сравнивается
+ * с базовыми результатами из хранилища {@link ResultStore}, и при регрессии процесс завершается с ненулевым кодом.
+ * <p>
+ * Для каждой ячейки (алгоритм × размер × распределение) базой служит последняя запись хранилища с теми же
+ * параметрами, полученная на той же JVM (время на разных версиях JVM несравнимо). Время считается
+ * ухудшившимся, если медиана выросла больше порога и критерий Манна — Уитни по замерам повторов значим
+ * на заданном уровне. Сравнения и вставки при одном и том же зерне генератора обязаны совпадать точно,
+ * иначе рост больше порога тоже считается регрессией. Ячейка без базы не проходит проверку, если не задан
+ * {@code --allow-missing}: иначе опечатка в пути или фильтре базы давала бы «регрессий нет».
+ * <pre>
+ * --baseline PATH        хранилище с базовыми результатами (обязательный, default — хранилище приложения)
+ * --baseline-commit C    брать базу только из запусков этого коммита
+ * --baseline-jvm J       брать базу из запусков на JVM J (по умолчанию — текущая; any — на любой)
+ * --time-threshold P     допустимый рост медианы времени, % (по умолчанию 10)
+ * --count-threshold P    допустимый рост сравнений и вставок без общего зерна, % (по умолчанию 1)
+ * --alpha A              уровень значимости критерия (по умолчанию 0.01); количество повторов должно
+ *                        позволять достичь его: 1 / C(2R, R) &lt; A, иначе ошибка параметров
+ * --allow-missing        не считать ошибкой ячейки без базы (например, после добавления алгоритма)
+ * --save PATH            добавить результаты запуска в хранилище (например, чтобы обновить базу)
+ * остальные параметры — как у BatchRunner (матрица, повторы, зерно)
+ * </pre>
+ * Хранилище с базой должно существовать и содержать записи; первую базу записывает {@code BatchRunner --store}.
+ * Коды завершения: 0 — регрессий нет, 1 — ошибка чтения или записи, 2 — ошибка параметров или нет базы,
+ * 3 — регрессия, 4 — ячейки без базы.
+ */
+public final class RegressionGate {
+    public static final int EXIT_REGRESSION = 3;
+    public static final int EXIT_MISSING_BASELINE = 4;
+
+    /**
+     * Параметры проверки
+     */
+    static class Config {
+        File baseline;
+        String baselineCommit;
+        String baselineJvm = RunEnvironment.jvm();  // null — база с любой JVM
+        double timeThreshold = 0.10;
+        double countThreshold = 0.01;
+        double alpha = 0.01;
+        boolean allowMissing;
+        File save;
+        BatchRunner.Config matrix;
+    }
+
+    /**
+     * Итог сравнения ячейки с базой
+     */
+    public enum Status {
+        OK("ok"),
+        IMPROVEMENT("ускорение"),
+        REGRESSION("РЕГРЕССИЯ"),
+        NO_BASELINE("нет базы");
+
+        private final String displayName;
+
+        Status(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    /**
+     * Сравнение одной ячейки матрицы с базой
+     */
+    public static class Verdict {
+        final SortExperimentResult current;
+        final SortExperimentResult baseline;
+        Status status = Status.OK;
+        double timeRatio = Double.NaN;  // Отношение медиан времени (текущая / базовая)
+        double pSlower = Double.NaN;    // p-значение гипотезы «текущий запуск медленнее» (NaN без замеров)
+        final List<String> problems = new ArrayList<>();
+
+        Verdict(SortExperimentResult current, SortExperimentResult baseline) {
+            this.current = current;
+            this.baseline = baseline;
+        }
+
+        public SortExperimentResult getCurrent() {
+            return current;
+        }
+
+        public SortExperimentResult getBaseline() {
+            return baseline;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public double getTimeRatio() {
+            return timeRatio;
+        }
+
+        public double getPSlower() {
+            return pSlower;
+        }
+
+        /**
+         * @return описания нарушений (пусто, если регрессии нет)
+         */
+        public List<String> getProblems() {
+            return problems;
+        }
+    }
+
+    private RegressionGate() {
+    }
+
+    /**
+     * Сравнение результатов запуска с базой
+     * @param results результаты текущего запуска
+     * @param baseline хранилище с базовыми результатами
+     * @param config пороги и выбор базы
+     * @return вердикты в порядке результатов
+     */
+    static List<Verdict> compare(List<SortExperimentResult> results, ResultStore baseline, Config config) {
+        List<Verdict> verdicts = new ArrayList<>();
+        for (SortExperimentResult result : results) {
+            Map<ResultStore.Key, String> filter = new EnumMap<>(ResultStore.Key.class);
+            filter.put(ResultStore.Key.ALGORITHM, result.algorithm);
+            filter.put(ResultStore.Key.SIZE, Long.toString(result.arraySize));
+            filter.put(ResultStore.Key.DISTRIBUTION, result.distribution);
+            if (config.baselineCommit != null) {
+                filter.put(ResultStore.Key.COMMIT, config.baselineCommit);
+            }
+            if (config.baselineJvm != null) {
+                filter.put(ResultStore.Key.JVM, config.baselineJvm);
+            }
+            List<SortExperimentResult> candidates = baseline.find(filter);
+            if (candidates.isEmpty()) {
+                Verdict verdict = new Verdict(result, null);
+                verdict.status = Status.NO_BASELINE;
+                verdicts.add(verdict);
+                continue;
+            }
+            verdicts.add(compare(result, candidates.get(candidates.size() - 1), config));
+        }
+        return verdicts;
+    }
+
+    /**
+     * Сравнение одной ячейки
+     */
+    static Verdict compare(SortExperimentResult current, SortExperimentResult baseline, Config config) {
+        Verdict verdict = new Verdict(current, baseline);
+
+        // Операции: при одном зерне входной массив тот же, и счетчики детерминированы
+        boolean deterministic = current.seed != 0 && current.seed == baseline.seed;
+        checkCount(verdict, "сравнения", current.comparisons, baseline.comparisons, deterministic, config);
+        checkCount(verdict, "вставки", current.swaps, baseline.swaps, deterministic, config);
+
+        // Время: рост медианы больше порога и значимый сдвиг распределения замеров
+        verdict.timeRatio = current.getTimeNanos() / Math.max(1, baseline.getTimeNanos());
+        boolean hasSamples = current.timing != null && baseline.timing != null;
+        if (hasSamples) {
+            long[] currentSamples = current.timing.getSamples();
+            long[] baselineSamples = baseline.timing.getSamples();
+            verdict.pSlower = MannWhitney.pGreater(currentSamples, baselineSamples);
+            if (verdict.timeRatio > 1 + config.timeThreshold && verdict.pSlower < config.alpha) {
+                verdict.problems.add(String.format(Locale.ROOT, "время +%.1f%% (p=%.4f)",
+                        (verdict.timeRatio - 1) * 100, verdict.pSlower));
+            } else if (verdict.timeRatio < 1 / (1 + config.timeThreshold)
+                    && MannWhitney.pGreater(baselineSamples, currentSamples) < config.alpha
+                    && verdict.problems.isEmpty()) {
+                verdict.status = Status.IMPROVEMENT;
+            }
+        } else if (verdict.timeRatio > 1 + config.timeThreshold) {
+            // Без замеров повторов значимость не проверить, сравниваются только медианы
+            verdict.problems.add(String.format(Locale.ROOT, "время +%.1f%% (без замеров повторов)",
+                    (verdict.timeRatio - 1) * 100));
+        }
+
+        if (!verdict.problems.isEmpty()) {
+            verdict.status = Status.REGRESSION;
+        }
+        return verdict;
+    }
+
+    private static void checkCount(Verdict verdict, String name, long current, long baseline, boolean deterministic,
+                                   Config config) {
+        if (deterministic) {
+            if (current != baseline) {
+                verdict.problems.add(String.format(Locale.ROOT, "%s %d вместо %d при том же зерне",
+                        name, current, baseline));
+            }
+        } else if (current > baseline * (1 + config.countThreshold)) {
+            verdict.problems.add(String.format(Locale.ROOT, "%s +%.1f%%",
+                    name, (current / (double) Math.max(1, baseline) - 1) * 100));
+        }
+    }
+
+    public static void main(String[] args) {
+        Config config;
+        try {
+            config = parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Ошибка: " + e.getMessage());
+            printUsage();
+            System.exit(2);
+            return;
+        }
+
+        // Хранилище создается при открытии, поэтому отсутствие файла проверяется заранее
+        if (!config.baseline.isFile()) {
+            System.err.println("Ошибка: хранилище с базой " + config.baseline
+                    + " не найдено (первую базу записывает BatchRunner --store)");
+            System.exit(2);
+            return;
+        }
+        List<Verdict> verdicts;
+        try (ResultStore baseline = new ResultStore(config.baseline)) {
+            if (baseline.size() == 0) {
+                System.err.println("Ошибка: хранилище с базой " + config.baseline
+                        + " пусто (первую базу записывает BatchRunner --store)");
+                System.exit(2);
+                return;
+            }
+            BatchRunner.printHeader();
+            List<SortExperimentResult> results = BatchRunner.run(config.matrix);
+            verdicts = compare(results, baseline, config);
+
+            if (config.save != null) {
+                if (config.save.getAbsoluteFile().equals(config.baseline.getAbsoluteFile())) {
+                    baseline.append(results);
+                } else {
+                    try (ResultStore store = new ResultStore(config.save)) {
+                        store.append(results);
+                    }
+                }
+                System.out.println("Результаты добавлены в хранилище: " + config.save);
+            }
+        } catch (IOException e) {
+            System.err.println("Ошибка хранилища: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        int regressions = printReport(verdicts, config);
+        if (regressions > 0) {
+            System.exit(EXIT_REGRESSION);
+        }
+        if (!config.allowMissing && verdicts.stream().anyMatch(v -> v.status == Status.NO_BASELINE)) {
+            System.exit(EXIT_MISSING_BASELINE);
+        }
+    }
+
+    /**
+     * Вывод таблицы сравнения и списка регрессий
+     * @return количество ячеек с регрессией
+     */
+    static int printReport(List<Verdict> verdicts, Config config) {
+        System.out.println();
+        System.out.println(String.format(Locale.ROOT,
+                "Сравнение с базой (порог времени %.0f%%, α=%s, порог операций без общего зерна %.1f%%):",
+                config.timeThreshold * 100, config.alpha, config.countThreshold * 100));
+        System.out.println(String.format(Locale.ROOT, "%-24s %-16s %12s %14s %14s %9s %9s  %s",
+                "Распределение", "Алгоритм", "Размер", "База, мс", "Сейчас, мс", "Изм.", "p", "Итог"));
+        int regressions = 0;
+        int missing = 0;
+        for (Verdict verdict : verdicts) {
+            SortExperimentResult current = verdict.current;
+            String baselineTime = verdict.baseline != null
+                    ? String.format(Locale.ROOT, "%.3f", verdict.baseline.getTimeNanos() / 1e6) : "-";
+            String change = Double.isNaN(verdict.timeRatio)
+                    ? "-" : String.format(Locale.ROOT, "%+.1f%%", (verdict.timeRatio - 1) * 100);
+            String p = Double.isNaN(verdict.pSlower) ? "-" : String.format(Locale.ROOT, "%.4f", verdict.pSlower);
+            System.out.println(String.format(Locale.ROOT, "%-24s %-16s %12d %14s %14.3f %9s %9s  %s",
+                    current.distribution, current.algorithm, current.arraySize, baselineTime,
+                    current.getTimeNanos() / 1e6, change, p, verdict.status.getDisplayName()));
+            if (verdict.status == Status.REGRESSION) {
+                regressions++;
+                for (String problem : verdict.problems) {
+                    System.out.println("    - " + problem);
+                }
+            } else if (verdict.status == Status.NO_BASELINE) {
+                missing++;
+            }
+        }
+
+        System.out.println();
+        if (missing > 0) {
+            System.out.println("Ячеек без базы: " + missing + (config.allowMissing
+                    ? " (не проверены)" : " — проверка не пройдена (--allow-missing пропускает их)"));
+            if (config.baselineJvm != null) {
+                System.out.println("База ищется только среди запусков на JVM " + config.baselineJvm
+                        + " (--baseline-jvm any снимает ограничение)");
+            }
+        }
+        if (regressions > 0) {
+            System.out.println("Регрессии: " + regressions + " из " + verdicts.size() + " ячеек");
+        } else if (missing > 0 && !config.allowMissing) {
+            System.out.println("Регрессий среди проверенных ячеек нет");
+        } else {
+            System.out.println("Регрессий нет");
+        }
+        return regressions;
+    }
+
+    static Config parseArgs(String[] args) {
+        Config config = new Config();
+        List<String> matrixArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if ("--help".equals(option) || "-h".equals(option)) {
+                printUsage();
+                System.exit(0);
+            }
+            if ("--allow-missing".equals(option)) {
+                config.allowMissing = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Не указано значение параметра " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--baseline":
+                    config.baseline = "default".equals(value) ? ResultStore.defaultFile() : new File(value);
+                    break;
+                case "--baseline-commit":
+                    config.baselineCommit = value;
+                    break;
+                case "--baseline-jvm":
+                    config.baselineJvm = "any".equals(value) ? null : value;
+                    break;
+                case "--time-threshold":
+                    config.timeThreshold = Double.parseDouble(value) / 100;
+                    if (config.timeThreshold < 0) {
+                        throw new IllegalArgumentException("Порог времени не может быть отрицательным");
+                    }
+                    break;
+                case "--count-threshold":
+                    config.countThreshold = Double.parseDouble(value) / 100;
+                    if (config.countThreshold < 0) {
+                        throw new IllegalArgumentException("Порог операций не может быть отрицательным");
+                    }
+                    break;
+                case "--alpha":
+                    config.alpha = Double.parseDouble(value);
+                    if (config.alpha <= 0 || config.alpha >= 1) {
+                        throw new IllegalArgumentException("Уровень значимости должен быть между 0 и 1");
+                    }
+                    break;
+                case "--save":
+                    config.save = "default".equals(value) ? ResultStore.defaultFile() : new File(value);
+                    break;
+                default:
+                    matrixArgs.add(option);
+                    matrixArgs.add(value);
+            }
+        }
+        if (config.baseline == null) {
+            throw new IllegalArgumentException("Не указано хранилище с базой (--baseline)");
+        }
+        config.matrix = BatchRunner.parseArgs(matrixArgs.toArray(new String[0]));
+
+        // База обычно записана той же командой (--save), поэтому в обеих выборках по R замеров
+        int repetitions = config.matrix.repetitions;
+        double minP = MannWhitney.minPValue(repetitions, repetitions);
+        if (minP >= config.alpha) {
+            int required = repetitions;
+            while (MannWhitney.minPValue(required, required) >= config.alpha) {
+                required++;
+            }
+            throw new IllegalArgumentException(String.format(Locale.ROOT,
+                    "при %d повторах наименьшее достижимое p = %.4f не меньше α = %s, регрессию времени нельзя "
+                            + "обнаружить: нужно не меньше %d повторов (--repetitions) или больший --alpha",
+                    repetitions, minP, config.alpha, required));
+        }
+        return config;
+    }
+
+    private static void printUsage() {
+        System.out.println("Использование: RegressionGate --baseline PATH|default [параметры] [параметры BatchRunner]");
+        System.out.println("  --baseline-commit C    база только из запусков коммита C");
+        System.out.println("  --baseline-jvm J|any   база только из запусков на JVM J (по умолчанию — текущая: "
+                + RunEnvironment.jvm() + ")");
+        System.out.println("  --time-threshold P     допустимый рост медианы времени, % (по умолчанию 10)");
+        System.out.println("  --count-threshold P    допустимый рост операций без общего зерна, % (по умолчанию 1)");
+        System.out.println("  --alpha A              уровень значимости Манна — Уитни (по умолчанию 0.01; "
+                + "требует 1 / C(2R, R) < A при R повторах)");
+        System.out.println("  --allow-missing        не считать ошибкой ячейки без базы");
+        System.out.println("  --save PATH|default    добавить результаты запуска в хранилище");
+        System.out.println("Хранилище с базой должно существовать и быть непустым (первую базу записывает "
+                + "BatchRunner --store)");
+        System.out.println("Коды завершения: 0 — регрессий нет, 1 — ошибка ввода-вывода, 2 — ошибка параметров "
+                + "или нет базы, " + EXIT_REGRESSION + " — регрессия, " + EXIT_MISSING_BASELINE + " — ячейки без базы");
+    }
+}
@@ -0,0 +1,423 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Экспорт результатов экспериментов для внешних инструментов анализа. Формат выбирается по расширению файла:
+ * <ul>
+ *     <li>{@code .csv} (и любое другое) — CSV по RFC 4180: запятая без пробела, кавычки при необходимости, CRLF;</li>
+ *     <li>{@code .jsonl}, {@code .ndjson} — JSON Lines: объект на строку, с временем каждого повтора;</li>
+ *     <li>{@code .srtc} — двоичный поколоночный формат (описан в {@link #writeColumnar(File, List)});</li>
+ *     <li>{@code .txt} — прежний файл результатов {@link ExperimentResultsFile}.</li>
+ * </ul>
+ * Имена столбцов — латиницей в нижнем регистре, единицы измерения указаны в имени. Все числа целые:
+ * время в наносекундах округляется, поэтому значения не зависят от локали.
+ * Запись идет через буфер в {@link java.nio.channels.FileChannel} без форматирования строк.
+ */
+public final class ResultExport {
+    /**
+     * Сигнатура поколоночного файла: байты 'S', 'R', 'T', 'C'
+     */
+    public static final int COLUMNAR_MAGIC = 0x43545253;
+    public static final int COLUMNAR_VERSION = 1;
+    static final byte TYPE_DICTIONARY = 1;
+    static final byte TYPE_STRING = 2;
+    static final byte TYPE_DELTA = 3;
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    /**
+     * Формат файла экспорта
+     */
+    public enum Format {
+        CSV("CSV (RFC 4180)", "csv"),
+        JSON_LINES("JSON Lines", "jsonl", "ndjson"),
+        COLUMNAR("Поколоночный двоичный", "srtc"),
+        LEGACY("Прежний формат результатов", "txt");
+
+        private final String displayName;
+        private final String[] extensions;
+
+        Format(String displayName, String... extensions) {
+            this.displayName = displayName;
+            this.extensions = extensions;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        /**
+         * @return расширения файлов формата без точки, первое — основное
+         */
+        public String[] getExtensions() {
+            return extensions.clone();
+        }
+
+        /**
+         * Формат по расширению файла (CSV, если расширение неизвестно)
+         */
+        public static Format fromFile(File file) {
+            String name = file.getName().toLowerCase(Locale.ROOT);
+            for (Format format : values()) {
+                for (String extension : format.extensions) {
+                    if (name.endsWith("." + extension)) {
+                        return format;
+                    }
+                }
+            }
+            return CSV;
+        }
+    }
+
+    /**
+     * Столбцы экспорта: общие для всех форматов, кроме прежнего
+     */
+    enum Column {
+        ID("id", r -> r.experimentId, false),
+        TIMESTAMP("timestamp_ms", r -> r.timestamp),
+        ALGORITHM("algorithm", r -> r.algorithm, true),
+        DISTRIBUTION("distribution", r -> r.distribution, true),
+        SIZE("size", r -> r.arraySize),
+        SEED("seed", r -> r.seed),
+        COMPARISONS("comparisons", r -> r.comparisons),
+        SWAPS("swaps", r -> r.swaps),
+        TIME("time_ms", r -> r.timeMs),
+        REPETITIONS("repetitions", r -> r.timing != null ? r.timing.getCount() : 1),
+        WARMUPS("warmups", r -> r.warmups),
+        MEDIAN("median_ns", r -> Math.round(r.getTimeNanos())),
+        MEAN("mean_ns", r -> r.timing != null ? Math.round(r.timing.getMean()) : r.timeMs * 1000000),
+        MIN("min_ns", r -> r.timing != null ? r.timing.getMin() : r.timeMs * 1000000),
+        P95("p95_ns", r -> r.timing != null ? r.timing.getP95() : r.timeMs * 1000000),
+        P99("p99_ns", r -> r.timing != null ? r.timing.getP99() : r.timeMs * 1000000),
+        STDDEV("stddev_ns", r -> r.timing != null ? Math.round(r.timing.getStddev()) : 0),
+        PASSES("passes", r -> r.passes),
+        SCRATCH("scratch_bytes", r -> r.scratchBytes),
+        OFF_HEAP("off_heap_bytes", r -> r.offHeapBytes),
+        HEAP("heap_bytes", r -> r.heapBytes),
+        ALLOCATED("allocated_bytes", r -> r.allocatedBytes),
+        GC_COUNT("gc_count", r -> r.gcCount),
+        GC_TIME("gc_time_ms", r -> r.gcTimeMs),
+        PEAK_HEAP("peak_heap_bytes", r -> r.peakHeapBytes),
+        JVM("jvm", r -> r.jvm, true),
+        COMMIT("commit", r -> r.commit, true),
+        STRATEGY("strategy", r -> r.strategy, true),
+        PREPASS("prepass_ns", r -> r.prepassNanos),
+        INVERSIONS("inversions", r -> r.presortedness != null ? r.presortedness.inversions : -1),
+        RUNS("runs", r -> r.presortedness != null ? r.presortedness.runs : -1),
+        LONGEST_RUN("longest_run", r -> r.presortedness != null ? r.presortedness.longestRun : -1),
+        REM("rem", r -> r.presortedness != null ? r.presortedness.rem : -1),
+        OSC("osc", r -> r.presortedness != null ? r.presortedness.osc : -1),
+        EXPECTED_MOVES("expected_moves", r -> r.expectedMoves);
+
+        final String name;
+        final ToLongFunction<SortExperimentResult> number;
+        final Function<SortExperimentResult, String> text;
+        // Строки столбца повторяются и кодируются словарем
+        final boolean dictionary;
+
+        Column(String name, ToLongFunction<SortExperimentResult> number) {
+            this.name = name;
+            this.number = number;
+            this.text = null;
+            this.dictionary = false;
+        }
+
+        Column(String name, Function<SortExperimentResult, String> text, boolean dictionary) {
+            this.name = name;
+            this.number = null;
+            this.text = text;
+            this.dictionary = dictionary;
+        }
+
+        boolean isText() {
+            return text != null;
+        }
+
+        String textOf(SortExperimentResult result) {
+            String value = text.apply(result);
+            return value != null ? value : "";
+        }
+    }
+
+    private static final Column[] COLUMNS = Column.values();
+
+    private ResultExport() {
+    }
+
+    /**
+     * Экспорт в формате, определенном по расширению файла
+     * @param file файл (перезаписывается)
+     * @param results результаты экспериментов
+     * @return использованный формат
+     */
+    public static Format write(File file, List<SortExperimentResult> results) throws IOException {
+        Format format = Format.fromFile(file);
+        switch (format) {
+            case JSON_LINES:
+                writeJsonLines(file, results);
+                break;
+            case COLUMNAR:
+                writeColumnar(file, results);
+                break;
+            case LEGACY:
+                ExperimentResultsFile.write(file, results);
+                break;
+            default:
+                writeCsv(file, results);
+        }
+        return format;
+    }
+
+    /**
+     * CSV по RFC 4180: строка заголовка с именами столбцов, поля через запятую, строки через CRLF.
+     * Поле заключается в кавычки, если содержит запятую, кавычку или перевод строки; кавычки внутри удваиваются.
+     */
+    public static void writeCsv(File file, List<SortExperimentResult> results) throws IOException {
+        Map<String, byte[]> cache = new HashMap<>();
+        try (ChannelOutput out = new ChannelOutput(file)) {
+            for (int c = 0; c < COLUMNS.length; c++) {
+                if (c > 0) {
+                    out.put((byte) ',');
+                }
+                out.putAscii(COLUMNS[c].name);
+            }
+            out.put(CRLF);
+
+            for (SortExperimentResult result : results) {
+                for (int c = 0; c < COLUMNS.length; c++) {
+                    Column column = COLUMNS[c];
+                    if (c > 0) {
+                        out.put((byte) ',');
+                    }
+                    if (column.isText()) {
+                        String value = column.textOf(result);
+                        // Повторяющиеся строки экранируются и кодируются один раз
+                        out.put(column.dictionary ? cache.computeIfAbsent(value, ResultExport::csvField) : csvField(value));
+                    } else {
+                        out.putDecimal(column.number.applyAsLong(result));
+                    }
+                }
+                out.put(CRLF);
+            }
+        }
+    }
+
+    /**
+     * JSON Lines: по объекту на строку с полями столбцов и массивом {@code samples_ns} времени повторов
+     */
+    public static void writeJsonLines(File file, List<SortExperimentResult> results) throws IOException {
+        Map<String, byte[]> cache = new HashMap<>();
+        byte[][] keys = new byte[COLUMNS.length][];
+        for (int c = 0; c < COLUMNS.length; c++) {
+            keys[c] = ((c == 0 ? "{\"" : ",\"") + COLUMNS[c].name + "\":").getBytes(StandardCharsets.US_ASCII);
+        }
+        byte[] samplesKey = ",\"samples_ns\":[".getBytes(StandardCharsets.US_ASCII);
+
+        try (ChannelOutput out = new ChannelOutput(file)) {
+            for (SortExperimentResult result : results) {
+                for (int c = 0; c < COLUMNS.length; c++) {
+                    Column column = COLUMNS[c];
+                    out.put(keys[c]);
+                    if (column.isText()) {
+                        String value = column.textOf(result);
+                        out.put(column.dictionary ? cache.computeIfAbsent(value, ResultExport::jsonString) : jsonString(value));
+                    } else {
+                        out.putDecimal(column.number.applyAsLong(result));
+                    }
+                }
+                out.put(samplesKey);
+                if (result.timing != null) {
+                    long[] samples = result.timing.getSamples();
+                    for (int i = 0; i < samples.length; i++) {
+                        if (i > 0) {
+                            out.put((byte) ',');
+                        }
+                        out.putDecimal(samples[i]);
+                    }
+                }
+                out.put((byte) ']');
+                out.put((byte) '}');
+                out.put((byte) '\n');
+            }
+        }
+    }
+
+    /**
+     * Двоичный поколоночный формат (числа заголовка — little-endian):
+     * <pre>
+     * сигнатура "SRTC" (int32), версия (int32), количество строк (int32), количество столбцов (int32)
+     * для каждого столбца:
+     *   имя (varint длина, ASCII), тип (1 байт), длина данных столбца в байтах (int64), данные
+     * </pre>
+     * Типы данных столбца:
+     * <ul>
+     *     <li>{@link #TYPE_DICTIONARY} — словарь (varint количество, затем строки: varint длина, UTF-8),
+     *     затем varint номер строки словаря на каждую строку файла (алгоритм, распределение, JVM, коммит);</li>
+     *     <li>{@link #TYPE_STRING} — varint длина и UTF-8 на каждую строку файла (идентификатор);</li>
+     *     <li>{@link #TYPE_DELTA} — на каждую строку varint zigzag разности с предыдущей строкой
+     *     (для первой — с нулем): размеры серии и время записи почти не растут от строки к строке.
+     *     Разность вычисляется по модулю 2^64 (переполнение {@code long}), и при чтении сумма тоже берется
+     *     по модулю: у случайных зерен разность часто выходит за пределы long.</li>
+     * </ul>
+     * Varint — LEB128 (7 бит на байт, младшие первыми), zigzag — {@code (v << 1) ^ (v >> 63)}.
+     */
+    public static void writeColumnar(File file, List<SortExperimentResult> results) throws IOException {
+        // Все столбцы заполняются за один проход по результатам: объекты читаются из памяти один раз,
+        // а не по разу на столбец
+        ColumnBuffer[] data = new ColumnBuffer[COLUMNS.length];
+        long[] previous = new long[COLUMNS.length];
+        List<Map<String, Integer>> dictionaries = new ArrayList<>(COLUMNS.length);
+        for (int c = 0; c < COLUMNS.length; c++) {
+            data[c] = new ColumnBuffer();
+            dictionaries.add(COLUMNS[c].dictionary ? new LinkedHashMap<>() : null);
+        }
+        for (SortExperimentResult result : results) {
+            for (int c = 0; c < COLUMNS.length; c++) {
+                Column column = COLUMNS[c];
+                if (column.dictionary) {
+                    Map<String, Integer> codes = dictionaries.get(c);
+                    String value = column.textOf(result);
+                    Integer code = codes.get(value);
+                    if (code == null) {
+                        code = codes.size();
+                        codes.put(value, code);
+                    }
+                    data[c].putVarint(code);
+                } else if (column.isText()) {
+                    data[c].putString(column.textOf(result).getBytes(StandardCharsets.UTF_8));
+                } else {
+                    long value = column.number.applyAsLong(result);
+                    data[c].putZigzag(value - previous[c]);
+                    previous[c] = value;
+                }
+            }
+        }
+
+        try (ChannelOutput out = new ChannelOutput(file)) {
+            out.putInt(COLUMNAR_MAGIC);
+            out.putInt(COLUMNAR_VERSION);
+            out.putInt(results.size());
+            out.putInt(COLUMNS.length);
+            for (int c = 0; c < COLUMNS.length; c++) {
+                Column column = COLUMNS[c];
+                out.putVarint(column.name.length());
+                out.putAscii(column.name);
+                if (column.dictionary) {
+                    // Словарь в порядке появления значений предшествует номерам строк
+                    ColumnBuffer dictionary = new ColumnBuffer();
+                    Map<String, Integer> codes = dictionaries.get(c);
+                    dictionary.putVarint(codes.size());
+                    for (String value : codes.keySet()) {
+                        dictionary.putString(value.getBytes(StandardCharsets.UTF_8));
+                    }
+                    out.put(TYPE_DICTIONARY);
+                    out.putLong(dictionary.size + data[c].size);
+                    out.put(dictionary.bytes, 0, dictionary.size);
+                } else {
+                    out.put(column.isText() ? TYPE_STRING : TYPE_DELTA);
+                    out.putLong(data[c].size);
+                }
+                out.put(data[c].bytes, 0, data[c].size);
+                // Буфер записанного столбца больше не нужен
+                data[c] = null;
+            }
+        }
+    }
+
+    /**
+     * Поле CSV в UTF-8, в кавычках, если оно содержит запятую, кавычку или перевод строки
+     */
+    static byte[] csvField(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == ',' || ch == '"' || ch == '\r' || ch == '\n') {
+                return ("\"" + value.replace("\"", "\"\"") + "\"").getBytes(StandardCharsets.UTF_8);
+            }
+        }
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Строка JSON в кавычках: экранируются кавычка, обратная косая черта и управляющие символы
+     */
+    static byte[] jsonString(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '"' || ch == '\\' || ch < 0x20) {
+                return escapedJsonString(value);
+            }
+        }
+        return quoted(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] escapedJsonString(String value) {
+        StringBuilder builder = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '"' || ch == '\\') {
+                builder.append('\\').append(ch);
+            } else if (ch < 0x20) {
+                builder.append(String.format(Locale.ROOT, "\\u%04x", (int) ch));
+            } else {
+                builder.append(ch);
+            }
+        }
+        return quoted(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] quoted(byte[] utf8) {
+        byte[] field = new byte[utf8.length + 2];
+        field[0] = '"';
+        System.arraycopy(utf8, 0, field, 1, utf8.length);
+        field[field.length - 1] = '"';
+        return field;
+    }
+
+    /**
+     * Растущий буфер данных одного столбца (длина столбца записывается перед данными)
+     */
+    private static final class ColumnBuffer {
+        byte[] bytes = new byte[1 << 12];
+        int size;
+
+        void put(byte value) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            bytes[size++] = value;
+        }
+
+        void putVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            put((byte) value);
+        }
+
+        void putZigzag(long value) {
+            putVarint((value << 1) ^ (value >> 63));
+        }
+
+        void putString(byte[] utf8) {
+            putVarint(utf8.length);
+            if (size + utf8.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + utf8.length));
+            }
+            System.arraycopy(utf8, 0, bytes, size, utf8.length);
+            size += utf8.length;
+        }
+    }
+}
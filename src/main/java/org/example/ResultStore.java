@@ -0,0 +1,726 @@
+package org.example;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+/**
+ * Постоянное хранилище результатов экспериментов между запусками приложения и пакетного режима.
+ * <p>
+ * Файл — журнал, в который записи только добавляются:
+ * <pre>
+ * заголовок: сигнатура "SRTS" (4 байта), версия формата (4 байта)
+ * запись:    длина данных (4 байта), CRC32 данных (4 байта), данные
+ * </pre>
+ * После добавления записи файл сбрасывается на диск. Если запись оборвалась (сбой во время добавления),
+ * при открытии хвост, за которым нет ни одной целой записи, отбрасывается, а предыдущие записи не страдают.
+ * Поврежденная запись в середине файла (неверная длина или контрольная сумма) пропускается без изменения
+ * файла: чтение продолжается со следующей записи с верной контрольной суммой.
+ * Добавление выполняется под блокировкой файла, поэтому приложение и пакетный режим могут писать
+ * в одно хранилище одновременно; записи других процессов подхватываются перед каждым добавлением.
+ * <p>
+ * Все записи держатся в памяти вместе с индексом по {@link Key}: выборка по нескольким полям
+ * пересекает списки индекса, начиная с самого короткого, и не просматривает остальные записи.
+ */
+public final class ResultStore implements Closeable {
+    /**
+     * Сигнатура файла: байты 'S', 'R', 'T', 'S'
+     */
+    static final int MAGIC = 0x53545253;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    // Длина и контрольная сумма перед данными записи
+    private static final int RECORD_HEADER_SIZE = 8;
+    // Защита от чтения мусора как длины записи; ограничивает и работу при поиске следующей целой записи
+    // после поврежденной (обычная запись — сотни байт, 1 МБ вмещает более 100 000 замеров времени)
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+    // Записи читаются блоками, а не по одной
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Поля, по которым строится индекс
+     */
+    public enum Key {
+        ALGORITHM("Алгоритм"),
+        SIZE("Размер массива"),
+        DISTRIBUTION("Распределение"),
+        JVM("JVM"),
+        COMMIT("Коммит");
+
+        private final String displayName;
+
+        Key(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        /**
+         * @return значение поля в результате в виде строки индекса
+         */
+        public String get(SortExperimentResult result) {
+            switch (this) {
+                case ALGORITHM:
+                    return result.algorithm;
+                case SIZE:
+                    return Long.toString(result.arraySize);
+                case DISTRIBUTION:
+                    return result.distribution;
+                case JVM:
+                    return result.jvm;
+                default:
+                    return result.commit;
+            }
+        }
+    }
+
+    /**
+     * Сводка по группе результатов с одинаковыми алгоритмом, размером и распределением
+     */
+    public static class Group {
+        final String algorithm;
+        final long arraySize;
+        final String distribution;
+        final List<SortExperimentResult> results = new ArrayList<>();
+
+        Group(String algorithm, long arraySize, String distribution) {
+            this.algorithm = algorithm;
+            this.arraySize = arraySize;
+            this.distribution = distribution;
+        }
+
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        public long getArraySize() {
+            return arraySize;
+        }
+
+        public String getDistribution() {
+            return distribution;
+        }
+
+        /**
+         * @return результаты группы в порядке записи
+         */
+        public List<SortExperimentResult> getResults() {
+            return results;
+        }
+
+        /**
+         * @return последний записанный результат группы
+         */
+        public SortExperimentResult getLatest() {
+            return results.get(results.size() - 1);
+        }
+
+        /**
+         * @return медиана времени (медиан повторов) по запускам группы, нс
+         */
+        public double getMedianNanos() {
+            long[] times = new long[results.size()];
+            for (int i = 0; i < times.length; i++) {
+                times[i] = Math.round(results.get(i).getTimeNanos());
+            }
+            return TimingStats.of(times).getMedian();
+        }
+
+        /**
+         * @return наименьшее время (медиана повторов) среди запусков группы, нс
+         */
+        public double getMinNanos() {
+            double min = Double.MAX_VALUE;
+            for (SortExperimentResult result : results) {
+                min = Math.min(min, result.getTimeNanos());
+            }
+            return min;
+        }
+
+        /**
+         * @return среднее количество сравнений
+         */
+        public double getMeanComparisons() {
+            double sum = 0;
+            for (SortExperimentResult result : results) {
+                sum += result.comparisons;
+            }
+            return sum / results.size();
+        }
+
+        /**
+         * @return среднее количество вставок
+         */
+        public double getMeanSwaps() {
+            double sum = 0;
+            for (SortExperimentResult result : results) {
+                sum += result.swaps;
+            }
+            return sum / results.size();
+        }
+    }
+
+    private final File file;
+    private final FileChannel channel;
+    private final List<SortExperimentResult> records = new ArrayList<>();
+    private final Set<String> ids = new HashSet<>();
+    private final Map<Key, Map<String, List<Integer>>> index = new EnumMap<>(Key.class);
+    private final Map<String, String> strings = new HashMap<>();
+    // Добавления выполняются по одному; монитор самого хранилища защищает записи в памяти и не держится
+    // во время записи и сброса файла, поэтому выборки не ждут диска
+    private final Object appendLock = new Object();
+    // Конец последней целой записи
+    private long end;
+    // Байты оборванного хвоста, отброшенные при открытии
+    private long discardedBytes;
+    // Пропущенные поврежденные участки в середине файла
+    private int corruptRecords;
+    // Блок файла, прочитанный readTail, и длина данных последней записи, найденной recordAt
+    private ByteBuffer readBuffer;
+    private long readBufferStart;
+    private int recordLength;
+
+    /**
+     * Открытие хранилища (файл создается, если его нет) и чтение всех записей
+     * @param file файл журнала
+     * @throws IOException при ошибке чтения или если файл не является хранилищем результатов
+     */
+    public ResultStore(File file) throws IOException {
+        this.file = file;
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Не удалось создать каталог " + parent);
+        }
+        for (Key key : Key.values()) {
+            index.put(key, new HashMap<>());
+        }
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            FileLock lock = channel.lock();
+            try {
+                if (channel.size() == 0) {
+                    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                    header.putInt(MAGIC).putInt(VERSION).flip();
+                    writeFully(header, 0);
+                    channel.force(true);
+                }
+                readHeader();
+                end = HEADER_SIZE;
+                readTail();
+                // После end нет ни одной целой записи: это оборванный хвост
+                if (end < channel.size()) {
+                    discardedBytes = channel.size() - end;
+                    channel.truncate(end);
+                    channel.force(true);
+                }
+            } finally {
+                lock.release();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Файл хранилища по умолчанию: системное свойство {@code sort.store}
+     * или {@code ~/.sort-visualizer/results.log}
+     */
+    public static File defaultFile() {
+        String path = System.getProperty("sort.store");
+        if (path != null && !path.isBlank()) {
+            return new File(path);
+        }
+        return new File(new File(System.getProperty("user.home"), ".sort-visualizer"), "results.log");
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return количество записей
+     */
+    public synchronized int size() {
+        return records.size();
+    }
+
+    /**
+     * @return байты оборванной записи, отброшенные при открытии (0, если файл был целым)
+     */
+    public long getDiscardedBytes() {
+        return discardedBytes;
+    }
+
+    /**
+     * @return количество поврежденных участков (записей с неверной длиной или контрольной суммой),
+     * пропущенных в середине файла; сами байты остаются в файле
+     */
+    public synchronized int getCorruptRecords() {
+        return corruptRecords;
+    }
+
+    /**
+     * Добавление результатов в конец журнала с последующим сбросом на диск.
+     * Результаты, уже записанные в хранилище (по идентификатору), пропускаются.
+     * @param results результаты экспериментов
+     * @return количество добавленных записей
+     */
+    public int append(List<SortExperimentResult> results) throws IOException {
+        synchronized (appendLock) {
+            FileLock lock = channel.lock();
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                List<SortExperimentResult> added = new ArrayList<>();
+                synchronized (this) {
+                    // Записи, добавленные другими процессами после последнего чтения, и отбрасывание
+                    // хвоста, оборванного сбоем другого процесса (после end нет ни одной целой записи)
+                    readTail();
+                    if (channel.size() > end) {
+                        channel.truncate(end);
+                    }
+
+                    for (SortExperimentResult result : results) {
+                        if (ids.contains(result.experimentId)) {
+                            continue;
+                        }
+                        byte[] data = encode(result);
+                        CRC32 crc = new CRC32();
+                        crc.update(data);
+                        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                        header.putInt(data.length).putInt((int) crc.getValue());
+                        bytes.write(header.array());
+                        bytes.write(data);
+                        added.add(result);
+                    }
+                }
+                if (added.isEmpty()) {
+                    return 0;
+                }
+
+                writeFully(ByteBuffer.wrap(bytes.toByteArray()), end);
+                channel.force(false);
+                synchronized (this) {
+                    end += bytes.size();
+                    for (SortExperimentResult result : added) {
+                        add(result);
+                    }
+                }
+                return added.size();
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    /**
+     * @return все записи в порядке добавления
+     */
+    public synchronized List<SortExperimentResult> getAll() {
+        return new ArrayList<>(records);
+    }
+
+    /**
+     * Различные значения поля индекса (для списков фильтров)
+     * @param key поле
+     * @return значения в порядке возрастания (размеры — по числу)
+     */
+    public synchronized List<String> values(Key key) {
+        Set<String> keys = index.get(key).keySet();
+        if (key == Key.SIZE) {
+            TreeSet<Long> sizes = new TreeSet<>();
+            for (String value : keys) {
+                sizes.add(Long.parseLong(value));
+            }
+            List<String> values = new ArrayList<>();
+            for (long size : sizes) {
+                values.add(Long.toString(size));
+            }
+            return values;
+        }
+        return new ArrayList<>(new TreeSet<>(keys));
+    }
+
+    /**
+     * Выборка записей по индексу
+     * @param filter значения полей (поля, которых нет в фильтре, не ограничивают выборку)
+     * @return подходящие записи в порядке добавления
+     */
+    public synchronized List<SortExperimentResult> find(Map<Key, String> filter) {
+        if (filter.isEmpty()) {
+            return getAll();
+        }
+        // Самый короткий список индекса, остальные условия проверяются по записям из него
+        List<Integer> shortest = null;
+        for (Map.Entry<Key, String> entry : filter.entrySet()) {
+            List<Integer> positions = index.get(entry.getKey()).get(entry.getValue());
+            if (positions == null) {
+                return Collections.emptyList();
+            }
+            if (shortest == null || positions.size() < shortest.size()) {
+                shortest = positions;
+            }
+        }
+
+        List<SortExperimentResult> found = new ArrayList<>();
+        for (int position : shortest) {
+            SortExperimentResult result = records.get(position);
+            boolean matches = true;
+            for (Map.Entry<Key, String> entry : filter.entrySet()) {
+                if (!entry.getValue().equals(entry.getKey().get(result))) {
+                    matches = false;
+                    break;
+                }
+            }
+            if (matches) {
+                found.add(result);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Группировка результатов по алгоритму, размеру и распределению
+     * @param results результаты (например, выборка {@link #find(Map)})
+     * @return группы в порядке первого появления
+     */
+    public static List<Group> aggregate(List<SortExperimentResult> results) {
+        Map<String, Group> groups = new LinkedHashMap<>();
+        for (SortExperimentResult result : results) {
+            String key = result.algorithm + '\u0000' + result.arraySize + '\u0000' + result.distribution;
+            Group group = groups.get(key);
+            if (group == null) {
+                group = new Group(result.algorithm, result.arraySize, result.distribution);
+                groups.put(key, group);
+            }
+            group.results.add(result);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (appendLock) {
+            channel.close();
+        }
+    }
+
+    private void readHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        if (channel.read(header, 0) < HEADER_SIZE || header.getInt(0) != MAGIC) {
+            throw new IOException("Файл " + file + " не является хранилищем результатов");
+        }
+        if (header.getInt(4) != VERSION) {
+            throw new IOException("Неподдерживаемая версия хранилища результатов: " + header.getInt(4));
+        }
+    }
+
+    /**
+     * Чтение записей от конца последней целой записи до конца файла. На месте записи с неверной длиной,
+     * контрольной суммой или содержимым (повреждение в середине файла) чтение продолжается со следующей
+     * целой записи; если целых записей дальше нет, это оборванный хвост, и {@link #end} остается перед ним.
+     */
+    private void readTail() throws IOException {
+        long size = channel.size();
+        readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        readBuffer.limit(0);
+        readBufferStart = end;
+        try {
+            while (end + RECORD_HEADER_SIZE <= size) {
+                SortExperimentResult result = recordAt(end, size);
+                if (result == null) {
+                    long next = end + 1;
+                    while (next + RECORD_HEADER_SIZE <= size && (result = recordAt(next, size)) == null) {
+                        next++;
+                    }
+                    if (result == null) {
+                        return;
+                    }
+                    corruptRecords++;
+                    end = next;
+                }
+                if (!ids.contains(result.experimentId)) {
+                    add(result);
+                }
+                end += RECORD_HEADER_SIZE + recordLength;
+            }
+        } finally {
+            readBuffer = null;
+        }
+    }
+
+    /**
+     * Чтение записи, начинающейся в заданной позиции файла
+     * @param position начало заголовка записи
+     * @param size размер файла
+     * @return запись или null, если в этой позиции нет целой записи; длина данных — в {@link #recordLength}
+     */
+    private SortExperimentResult recordAt(long position, long size) throws IOException {
+        if (position + RECORD_HEADER_SIZE > readBufferStart + readBuffer.limit() || position < readBufferStart) {
+            readBuffer = fill(readBuffer, position, RECORD_HEADER_SIZE);
+            readBufferStart = position;
+        }
+        int offset = (int) (position - readBufferStart);
+        int length = readBuffer.getInt(offset);
+        int checksum = readBuffer.getInt(offset + 4);
+        if (length <= 0 || length > MAX_RECORD_SIZE || position + RECORD_HEADER_SIZE + length > size) {
+            return null;
+        }
+        if (position + RECORD_HEADER_SIZE + length > readBufferStart + readBuffer.limit()) {
+            readBuffer = fill(readBuffer, position, RECORD_HEADER_SIZE + length);
+            readBufferStart = position;
+            offset = 0;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(readBuffer.array(), offset + RECORD_HEADER_SIZE, length);
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+        try {
+            SortExperimentResult result = decode(readBuffer.array(), offset + RECORD_HEADER_SIZE, length);
+            recordLength = length;
+            return result;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Чтение блока файла в буфер
+     * @param buffer буфер (заменяется большим, если в него не помещается запись)
+     * @param position начало блока в файле
+     * @param required сколько байт нужно прочитать как минимум
+     * @return буфер с данными от начала до limit
+     */
+    private ByteBuffer fill(ByteBuffer buffer, long position, int required) throws IOException {
+        if (buffer.capacity() < required) {
+            buffer = ByteBuffer.allocate(required).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        buffer.clear();
+        while (buffer.position() < required) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Неожиданный конец файла " + file);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private void add(SortExperimentResult result) {
+        // Повторяющиеся строки хранятся в одном экземпляре
+        result.algorithm = share(result.algorithm);
+        result.distribution = share(result.distribution);
+        result.jvm = share(result.jvm);
+        result.commit = share(result.commit);
+        int position = records.size();
+        records.add(result);
+        ids.add(result.experimentId);
+        for (Key key : Key.values()) {
+            index.get(key).computeIfAbsent(key.get(result), k -> new ArrayList<>()).add(position);
+        }
+    }
+
+    private String share(String value) {
+        String shared = strings.putIfAbsent(value, value);
+        return shared != null ? shared : value;
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    /**
+     * Сериализация результата. Строки записываются как длина и байты UTF-8, числа — big-endian.
+     * Новые поля добавляются в конец, чтобы старые записи читались и после изменения формата.
+     */
+    static byte[] encode(SortExperimentResult result) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeString(out, result.experimentId);
+            out.writeLong(result.timestamp);
+            writeString(out, result.jvm);
+            writeString(out, result.commit);
+            writeString(out, result.algorithm);
+            out.writeLong(result.arraySize);
+            writeString(out, result.distribution);
+            out.writeLong(result.comparisons);
+            out.writeLong(result.swaps);
+            out.writeLong(result.timeMs);
+            out.writeInt(result.warmups);
+            out.writeLong(result.passes);
+            out.writeLong(result.scratchBytes);
+            out.writeLong(result.offHeapBytes);
+            out.writeLong(result.heapBytes);
+            out.writeLong(result.allocatedBytes);
+            out.writeLong(result.gcCount);
+            out.writeLong(result.gcTimeMs);
+            out.writeLong(result.peakHeapBytes);
+
+            long[] samples = result.timing != null ? result.timing.getSamples() : new long[0];
+            out.writeInt(samples.length);
+            for (long sample : samples) {
+                out.writeLong(sample);
+            }
+
+            ExternalSortStats external = result.external;
+            out.writeBoolean(external != null);
+            if (external != null) {
+                out.writeInt(external.runs);
+                out.writeInt(external.mergePasses);
+                out.writeLong(external.runReadBytes);
+                out.writeLong(external.runWriteBytes);
+                out.writeLong(external.runNanos);
+                out.writeLong(external.mergeReadBytes);
+                out.writeLong(external.mergeWriteBytes);
+                out.writeLong(external.mergeNanos);
+            }
+            out.writeLong(result.seed);
+            writeString(out, result.strategy != null ? result.strategy : "");
+            out.writeLong(result.prepassNanos);
+
+            out.writeLong(result.expectedMoves);
+            Presortedness presortedness = result.presortedness;
+            out.writeBoolean(presortedness != null);
+            if (presortedness != null) {
+                out.writeLong(presortedness.size);
+                out.writeLong(presortedness.inversions);
+                out.writeLong(presortedness.runs);
+                out.writeLong(presortedness.longestRun);
+                out.writeLong(presortedness.rem);
+                out.writeLong(presortedness.osc);
+            }
+        }
+        if (bytes.size() > MAX_RECORD_SIZE) {
+            throw new IOException("Запись хранилища длиннее " + MAX_RECORD_SIZE + " байт: " + bytes.size());
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Чтение результата из данных записи
+     * @throws IOException если данные записи короче ожидаемого
+     */
+    static SortExperimentResult decode(byte[] data, int offset, int length) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(data, offset, length);
+        try {
+            String experimentId = readString(in);
+            long timestamp = in.getLong();
+            String jvm = readString(in);
+            String commit = readString(in);
+            String algorithm = readString(in);
+            long arraySize = in.getLong();
+            String distribution = readString(in);
+            long comparisons = in.getLong();
+            long swaps = in.getLong();
+            long timeMs = in.getLong();
+
+            SortExperimentResult result = new SortExperimentResult(arraySize, algorithm, distribution, comparisons,
+                    swaps, timeMs, null, experimentId);
+            result.timestamp = timestamp;
+            result.jvm = jvm;
+            result.commit = commit;
+            result.warmups = in.getInt();
+            result.passes = in.getLong();
+            result.scratchBytes = in.getLong();
+            result.offHeapBytes = in.getLong();
+            result.heapBytes = in.getLong();
+            result.allocatedBytes = in.getLong();
+            result.gcCount = in.getLong();
+            result.gcTimeMs = in.getLong();
+            result.peakHeapBytes = in.getLong();
+
+            int sampleCount = in.getInt();
+            if (sampleCount > 0) {
+                long[] samples = new long[sampleCount];
+                for (int i = 0; i < sampleCount; i++) {
+                    samples[i] = in.getLong();
+                }
+                result.timing = TimingStats.of(samples);
+            }
+
+            if (in.get() != 0) {
+                ExternalSortStats external = new ExternalSortStats();
+                external.runs = in.getInt();
+                external.mergePasses = in.getInt();
+                external.runReadBytes = in.getLong();
+                external.runWriteBytes = in.getLong();
+                external.runNanos = in.getLong();
+                external.mergeReadBytes = in.getLong();
+                external.mergeWriteBytes = in.getLong();
+                external.mergeNanos = in.getLong();
+                result.external = external;
+            }
+            // Поля, добавленные после первой версии записи
+            if (in.remaining() >= Long.BYTES) {
+                result.seed = in.getLong();
+            }
+            if (in.hasRemaining()) {
+                String strategy = readString(in);
+                result.strategy = strategy.isEmpty() ? null : strategy;
+                result.prepassNanos = in.getLong();
+            }
+            if (in.hasRemaining()) {
+                result.expectedMoves = in.getLong();
+                if (in.get() != 0) {
+                    Presortedness presortedness = new Presortedness();
+                    presortedness.size = in.getLong();
+                    presortedness.inversions = in.getLong();
+                    presortedness.runs = in.getLong();
+                    presortedness.longestRun = in.getLong();
+                    presortedness.rem = in.getLong();
+                    presortedness.osc = in.getLong();
+                    result.presortedness = presortedness;
+                }
+            }
+            return result;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Запись хранилища повреждена: данные короче ожидаемого", e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IOException("Строка длиннее 65535 байт не помещается в запись хранилища: "
+                    + value.substring(0, 32) + "...");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getShort() & 0xFFFF;
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,94 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Окружение, в котором выполняются эксперименты: версия JVM и коммит исходного кода.
+ * Значения определяются один раз и сохраняются вместе с каждым результатом.
+ * <p>
+ * Коммит берется из системного свойства {@code sort.commit}, переменной окружения {@code GIT_COMMIT}
+ * (CI) или из каталога {@code .git} рабочего каталога и его родителей.
+ */
+public final class RunEnvironment {
+    public static final String UNKNOWN = "unknown";
+    // Длина сокращенного хеша коммита
+    private static final int COMMIT_LENGTH = 12;
+
+    private static final String JVM = System.getProperty("java.version") + " " + System.getProperty("java.vm.name");
+    private static final String COMMIT = detectCommit();
+
+    private RunEnvironment() {
+    }
+
+    /**
+     * @return версия и название JVM, например "17.0.10 OpenJDK 64-Bit Server VM"
+     */
+    public static String jvm() {
+        return JVM;
+    }
+
+    /**
+     * @return сокращенный хеш коммита или {@link #UNKNOWN}
+     */
+    public static String commit() {
+        return COMMIT;
+    }
+
+    private static String detectCommit() {
+        String commit = System.getProperty("sort.commit");
+        if (commit == null || commit.isBlank()) {
+            commit = System.getenv("GIT_COMMIT");
+        }
+        if (commit == null || commit.isBlank()) {
+            commit = readGitHead(Paths.get(System.getProperty("user.dir")).toAbsolutePath());
+        }
+        if (commit == null || commit.isBlank()) {
+            return UNKNOWN;
+        }
+        commit = commit.trim();
+        return commit.length() > COMMIT_LENGTH ? commit.substring(0, COMMIT_LENGTH) : commit;
+    }
+
+    /**
+     * Чтение хеша текущего коммита без запуска git: HEAD, ссылка ветки или packed-refs
+     * @param dir каталог, с которого начинается поиск .git
+     * @return хеш или null
+     */
+    private static String readGitHead(Path dir) {
+        for (Path current = dir; current != null; current = current.getParent()) {
+            Path git = current.resolve(".git");
+            if (!Files.isDirectory(git)) {
+                continue;
+            }
+            try {
+                String head = Files.readString(git.resolve("HEAD"), StandardCharsets.US_ASCII).trim();
+                if (!head.startsWith("ref: ")) {
+                    return head;
+                }
+                String ref = head.substring("ref: ".length());
+                Path refFile = git.resolve(ref);
+                if (Files.isRegularFile(refFile)) {
+                    return Files.readString(refFile, StandardCharsets.US_ASCII).trim();
+                }
+                Path packed = git.resolve("packed-refs");
+                if (Files.isRegularFile(packed)) {
+                    List<String> lines = Files.readAllLines(packed, StandardCharsets.US_ASCII);
+                    for (String line : lines) {
+                        if (line.endsWith(" " + ref)) {
+                            return line.substring(0, line.indexOf(' '));
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                // Каталог .git недоступен, коммит неизвестен
+            }
+            return null;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,82 @@
+package org.example;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Алгоритм сортировки массивов int.
+ * Реализации регистрируются через {@link java.util.ServiceLoader}
+ * (файл META-INF/services/org.example.SortAlgorithm) и доступны через {@link SortAlgorithms}.
+ */
+public interface SortAlgorithm {
+
+    /**
+     * @return краткий идентификатор для командной строки (например, {@code insertion})
+     */
+    String getId();
+
+    /**
+     * @return название алгоритма для отображения в интерфейсе и результатах
+     */
+    String getName();
+
+    /**
+     * @return true, если алгоритм сохраняет порядок равных элементов
+     */
+    boolean isStable();
+
+    /**
+     * @return асимптотика количества сравнений (например, {@code O(n log n)})
+     */
+    String getComparisonsComplexity();
+
+    /**
+     * @return асимптотика количества перемещений элементов
+     */
+    String getMovesComplexity();
+
+    /**
+     * Сортировка массива по возрастанию
+     * @param arr массив для сортировки
+     * @param metrics приемник статистики ({@link Metrics#NONE} для замера времени)
+     * @throws CancellationException если сортировка была отменена через приемник прогресса
+     */
+    void sort(int[] arr, Metrics metrics);
+
+    /**
+     * Количество перемещений, которое по теории определяется только упорядоченностью входа
+     * (например, у сортировки вставками оно равно количеству инверсий)
+     * @param presortedness показатели упорядоченности исходного массива
+     * @return ожидаемое количество перемещений или -1, если оно не определяется показателями
+     */
+    default long expectedMoves(Presortedness presortedness) {
+        return -1;
+    }
+
+    /**
+     * @return true, если алгоритм умеет сортировать {@link IntArrayAccess} (массивы вне кучи)
+     */
+    default boolean supportsOffHeap() {
+        return false;
+    }
+
+    /**
+     * @return true, если ядро сообщает индексы каждого сравнения и перемещения
+     * ({@link Metrics#compare(int, int, boolean)}, {@link Metrics#move(int, int)}), и его можно записать в трассу
+     */
+    default boolean supportsTrace() {
+        return false;
+    }
+
+    /**
+     * Сортировка массива, доступного по индексу (в том числе файла, отображенного в память)
+     * @param arr массив для сортировки
+     * @param metrics приемник статистики
+     * @throws IOException если не удалось выделить вспомогательный буфер
+     * @throws UnsupportedOperationException если {@link #supportsOffHeap()} возвращает false
+     * @throws CancellationException если сортировка была отменена через приемник прогресса
+     */
+    default void sort(IntArrayAccess arr, Metrics metrics) throws IOException {
+        throw new UnsupportedOperationException("Алгоритм " + getName() + " не поддерживает сортировку вне кучи");
+    }
+}
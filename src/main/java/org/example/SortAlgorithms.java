@@ -0,0 +1,47 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Реестр алгоритмов сортировки, найденных через {@link ServiceLoader}.
+ * Порядок алгоритмов совпадает с порядком в файле META-INF/services/org.example.SortAlgorithm.
+ */
+public final class SortAlgorithms {
+    private static final List<SortAlgorithm> ALGORITHMS = load();
+
+    private SortAlgorithms() {
+    }
+
+    private static List<SortAlgorithm> load() {
+        List<SortAlgorithm> algorithms = new ArrayList<>();
+        for (SortAlgorithm algorithm : ServiceLoader.load(SortAlgorithm.class)) {
+            algorithms.add(algorithm);
+        }
+        return Collections.unmodifiableList(algorithms);
+    }
+
+    /**
+     * @return все зарегистрированные алгоритмы
+     */
+    public static List<SortAlgorithm> getAll() {
+        return ALGORITHMS;
+    }
+
+    /**
+     * Поиск алгоритма по идентификатору или названию (без учета регистра)
+     * @param idOrName идентификатор или название
+     * @return алгоритм
+     * @throws IllegalArgumentException если алгоритм не зарегистрирован
+     */
+    public static SortAlgorithm get(String idOrName) {
+        for (SortAlgorithm algorithm : ALGORITHMS) {
+            if (algorithm.getId().equalsIgnoreCase(idOrName) || algorithm.getName().equalsIgnoreCase(idOrName)) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестный алгоритм: " + idOrName);
+    }
+}
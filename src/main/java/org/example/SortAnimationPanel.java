@@ -0,0 +1,130 @@
+package org.example;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.text.NumberFormat;
+
+/**
+ * Живое изображение сортируемого массива: точка на каждый столбец пикселей (элемент с соответствующим индексом)
+ * и граница обработанной части по последнему событию из {@link EventRingBuffer}.
+ * <p>
+ * Отрисовка идет по таймеру с частотой обновления экрана и читает массив напрямую без синхронизации:
+ * кадр может показать массив в промежуточном состоянии, но поток сортировки никогда не ждет интерфейс.
+ * Если за кадр пришло несколько событий, показывается только последнее. Кадр перерисовывается,
+ * только если пришли события: пока идут прогоны замера времени (без событий), таймер лишь
+ * проверяет пустой буфер и не отнимает процессор у сортировки.
+ */
+public class SortAnimationPanel extends JPanel {
+    /**
+     * Интервал кадров, мс (около 60 кадров в секунду)
+     */
+    public static final int FRAME_MS = 16;
+
+    private final int[] array;
+    private final EventRingBuffer events;
+    private final int min;
+    private final long range;
+    private final Timer timer;
+    private final long[] last = new long[EventRingBuffer.EVENT_SIZE];
+
+    private long frames;
+    private long eventCount;
+    private int eventsInFrame;
+
+    /**
+     * @param array сортируемый массив (изменяется потоком сортировки)
+     * @param events буфер событий потока сортировки
+     */
+    public SortAnimationPanel(int[] array, EventRingBuffer events) {
+        this.array = array;
+        this.events = events;
+        int lo = Integer.MAX_VALUE;
+        int hi = Integer.MIN_VALUE;
+        for (int value : array) {
+            lo = Math.min(lo, value);
+            hi = Math.max(hi, value);
+        }
+        this.min = array.length > 0 ? lo : 0;
+        this.range = array.length > 0 ? Math.max(1, (long) hi - lo) : 1;
+        setBackground(Color.WHITE);
+
+        timer = new Timer(FRAME_MS, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                nextFrame();
+            }
+        });
+        timer.setCoalesce(true);
+    }
+
+    /**
+     * Запуск отрисовки
+     */
+    public void start() {
+        timer.start();
+    }
+
+    /**
+     * Остановка отрисовки с последним кадром
+     */
+    public void stop() {
+        timer.stop();
+        nextFrame();
+        repaint();
+    }
+
+    private void nextFrame() {
+        eventsInFrame = events.drain(last);
+        if (eventsInFrame == 0) {
+            return;
+        }
+        eventCount += eventsInFrame;
+        frames++;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        int width = getWidth();
+        int height = getHeight() - 20;
+        int n = array.length;
+        if (n == 0 || width <= 0 || height <= 0) {
+            return;
+        }
+
+        // Один элемент на столбец пикселей (или столбец шире пикселя при малом массиве)
+        int columns = Math.min(width, n);
+        g.setColor(new Color(70, 110, 180));
+        for (int x = 0; x < columns; x++) {
+            int index = (int) ((long) x * n / columns);
+            int y = (int) ((array[index] - (long) min) * (height - 1) / range);
+            int left = x * width / columns;
+            int right = (x + 1) * width / columns;
+            if (n <= width / 2) {
+                g.fillRect(left, height - y, Math.max(1, right - left - 1), y + 1);
+            } else {
+                g.fillRect(left, height - 1 - y, Math.max(1, right - left), 2);
+            }
+        }
+
+        // Граница обработанной части
+        long processed = last[0];
+        if (processed > 0 && processed < n) {
+            int x = (int) (processed * width / n);
+            g.setColor(Color.RED);
+            g.drawLine(x, 0, x, height);
+        }
+
+        NumberFormat format = NumberFormat.getNumberInstance();
+        g.setColor(Color.DARK_GRAY);
+        g.drawString("обработано: " + format.format(processed)
+                + " | сравнений: " + format.format(last[1])
+                + " | перемещений: " + format.format(last[2])
+                + " | событий: " + format.format(eventCount) + " (за кадр: " + eventsInFrame
+                + ", отброшено: " + format.format(events.getRejected()) + ")"
+                + " | кадров: " + format.format(frames), 5, getHeight() - 5);
+    }
+}
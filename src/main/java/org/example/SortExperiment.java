@@ -0,0 +1,136 @@
+package org.example;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Проведение экспериментов сортировки, общее для графического интерфейса и пакетного режима.
+ * Время измеряется на ядре без подсчета операций, а сравнения и вставки считаются
+ * отдельным прогоном на новой копии массива, чтобы счетчики не искажали время.
+ * Выделения памяти и сборки мусора ({@link MemoryProbe}) снимаются на прогонах замера времени.
+ */
+public final class SortExperiment {
+
+    private SortExperiment() {
+    }
+
+    /**
+     * Замер одного алгоритма (одиночный запуск)
+     * @see #measure(SortAlgorithm, String, int[], int[], int, SortProgress)
+     */
+    public static SortExperimentResult measure(SortAlgorithm algorithm, String distribution, int[] source, int[] work,
+                                               SortProgress progress) {
+        return measure(algorithm, distribution, source, work, 1, progress);
+    }
+
+    /**
+     * Замер одного алгоритма без прогрева
+     * @see #measure(SortAlgorithm, String, int[], int[], int, int, SortProgress)
+     */
+    public static SortExperimentResult measure(SortAlgorithm algorithm, String distribution, int[] source, int[] work,
+                                               int repetitions, SortProgress progress) {
+        return measure(algorithm, distribution, source, work, 0, repetitions, progress);
+    }
+
+    /**
+     * Замер одного алгоритма без анимации
+     * @see #measure(SortAlgorithm, String, int[], int[], int, int, SortProgress, EventRingBuffer)
+     */
+    public static SortExperimentResult measure(SortAlgorithm algorithm, String distribution, int[] source, int[] work,
+                                               int warmups, int repetitions, SortProgress progress) {
+        return measure(algorithm, distribution, source, work, warmups, repetitions, progress, null);
+    }
+
+    /**
+     * Замер одного алгоритма: прогревочные прогоны (не учитываются), несколько повторов без счетчиков
+     * для времени и один прогон с подсчетом операций.
+     * Каждый прогон выполняется на новой копии исходного массива, время хранится в наносекундах.
+     * @param algorithm алгоритм сортировки
+     * @param distribution распределение исходного массива (для результата)
+     * @param source исходный массив (не изменяется)
+     * @param work рабочий массив того же размера; после выполнения содержит отсортированные данные
+     * @param warmups количество прогревочных прогонов (JIT успевает скомпилировать ядро до замера)
+     * @param repetitions количество повторов замера времени
+     * @param progress приемник прогресса и отмены (может быть null)
+     * @param events буфер событий для анимации прогона с подсчетом операций (может быть null). Анимация
+     *               показывает work во время этого прогона, поэтому не требует отдельной сортировки
+     *               и не влияет на замер времени
+     * @return результат эксперимента; время — медиана повторов
+     * @throws CancellationException если сортировка была отменена
+     */
+    public static SortExperimentResult measure(SortAlgorithm algorithm, String distribution, int[] source, int[] work,
+                                               int warmups, int repetitions, SortProgress progress,
+                                               EventRingBuffer events) {
+        if (warmups < 0) {
+            throw new IllegalArgumentException("Количество прогревочных прогонов не может быть отрицательным: " + warmups);
+        }
+        if (repetitions <= 0) {
+            throw new IllegalArgumentException("Количество повторов должно быть положительным: " + repetitions);
+        }
+
+        // Этап 0: прогрев
+        for (int w = 0; w < warmups; w++) {
+            if (progress != null) {
+                progress.beginPhase(algorithm.getName() + " (прогрев " + (w + 1) + "/" + warmups + ")", source.length);
+            }
+            System.arraycopy(source, 0, work, 0, source.length);
+            algorithm.sort(work, new NoOpMetrics(progress));
+        }
+
+        // Этап 1: замер времени на ядре без счетчиков, вместе с выделениями памяти и сборками мусора
+        long[] nanos = new long[repetitions];
+        MemoryProbe memory = MemoryProbe.start();
+        for (int r = 0; r < repetitions; r++) {
+            if (progress != null) {
+                progress.beginPhase(algorithm.getName() + (repetitions > 1
+                        ? " (замер времени " + (r + 1) + "/" + repetitions + ")"
+                        : " (замер времени)"), source.length);
+            }
+            System.arraycopy(source, 0, work, 0, source.length);
+            long startTime = System.nanoTime();
+            algorithm.sort(work, new NoOpMetrics(progress));
+            nanos[r] = System.nanoTime() - startTime;
+        }
+        memory.stop(repetitions);
+        TimingStats timing = TimingStats.of(nanos);
+
+        // Этап 2: подсчет сравнений и вставок
+        if (progress != null) {
+            progress.beginPhase(algorithm.getName() + " (подсчет операций)", source.length);
+        }
+        System.arraycopy(source, 0, work, 0, source.length);
+        CountingMetrics metrics = new CountingMetrics(progress, events);
+        algorithm.sort(work, metrics);
+
+        SortExperimentResult result = new SortExperimentResult(
+                source.length,
+                algorithm.getName(),
+                distribution,
+                metrics.getComparisons(),
+                metrics.getMoves(),
+                (long) timing.getMedian() / 1000000,
+                timing
+        );
+        result.warmups = warmups;
+        result.passes = metrics.getPasses();
+        result.scratchBytes = metrics.getScratchBytes();
+        result.strategy = metrics.getStrategy();
+        result.prepassNanos = metrics.getPrepassNanos();
+        memory.applyTo(result);
+        return result;
+    }
+
+    /**
+     * Привязка упорядоченности исходного массива к результату и ожидаемого по теории количества перемещений
+     * @param result результат эксперимента
+     * @param algorithm алгоритм, которым получен результат
+     * @param presortedness упорядоченность исходного массива (может быть null — тогда результат не меняется)
+     */
+    public static void applyPresortedness(SortExperimentResult result, SortAlgorithm algorithm,
+                                          Presortedness presortedness) {
+        if (presortedness == null || presortedness.getSize() != result.arraySize) {
+            return;
+        }
+        result.presortedness = presortedness;
+        result.expectedMoves = algorithm.expectedMoves(presortedness);
+    }
+}
@@ -0,0 +1,219 @@
+package org.example;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Класс для хранения результатов эксперимента сортировки
+ */
+public class SortExperimentResult {
+    // Случайная часть идентификаторов, общая для процесса, и счетчик экспериментов процесса
+    private static final String PROCESS_ID = String.format("%016x", new SecureRandom().nextLong());
+    private static final AtomicLong COUNTER = new AtomicLong();
+
+    long arraySize;
+    String algorithm;
+    long comparisons;
+    long swaps;
+    long timeMs;
+    String distribution;  // Распределение исходного массива
+    TimingStats timing;   // Статистика времени по повторам (null для одиночного запуска)
+    int warmups;          // Количество прогревочных прогонов перед замером
+    long passes;          // Проходы распределения по разрядам (0 для сортировок сравнением)
+    long scratchBytes;    // Вспомогательная память сортировки, байт
+    long offHeapBytes;    // Данные и буферы вне кучи (файлы, отображенные в память), байт; 0 для сортировки в куче
+    long heapBytes;       // Занято в куче после сортировки вне кучи, байт
+    ExternalSortStats external; // Статистика этапов внешней сортировки (null для сортировки в памяти)
+    long allocatedBytes;  // Выделено потоком сортировки за один прогон, байт (-1, если JVM не поддерживает учет)
+    long gcCount;         // Сборки мусора за время замера
+    long gcTimeMs;        // Время сборок мусора за время замера, мс
+    long peakHeapBytes;   // Пиковое заполнение кучи за время замера, байт
+    String experimentId; // Уникальный идентификатор эксперимента
+    long timestamp;       // Время завершения эксперимента, мс от начала эпохи
+    String jvm;           // Версия JVM, на которой выполнен эксперимент
+    String commit;        // Коммит исходного кода
+    long seed;            // Зерно генератора исходного массива (0, если массив не сгенерирован или зерно неизвестно)
+    String strategy;      // Ядро, выбранное автоматически по предварительному проходу (null для обычных алгоритмов)
+    long prepassNanos;    // Время предварительного прохода автоматического выбора, нс
+    Presortedness presortedness; // Упорядоченность исходного массива (null, если анализ не выполнялся)
+    long expectedMoves = -1; // Перемещения по теории для этой упорядоченности (-1, если неизвестно)
+
+    public SortExperimentResult(long arraySize, String algorithm, long comparisons, long swaps, long timeMs) {
+        this(arraySize, algorithm, ArrayShape.UNKNOWN.getDisplayName(), comparisons, swaps, timeMs, null);
+    }
+
+    /**
+     * @param arraySize размер массива
+     * @param algorithm название алгоритма
+     * @param distribution распределение исходного массива
+     * @param comparisons количество сравнений
+     * @param swaps количество вставок
+     * @param timeMs время выполнения (медиана, если повторов несколько)
+     * @param timing статистика времени по повторам (может быть null)
+     */
+    public SortExperimentResult(long arraySize, String algorithm, String distribution, long comparisons, long swaps,
+                                long timeMs, TimingStats timing) {
+        this(arraySize, algorithm, distribution, comparisons, swaps, timeMs, timing, nextId());
+    }
+
+    /**
+     * Результат с известным идентификатором (прочитанный из {@link ResultStore})
+     */
+    SortExperimentResult(long arraySize, String algorithm, String distribution, long comparisons, long swaps,
+                         long timeMs, TimingStats timing, String experimentId) {
+        this.arraySize = arraySize;
+        this.algorithm = algorithm;
+        this.distribution = distribution;
+        this.comparisons = comparisons;
+        this.swaps = swaps;
+        this.timeMs = timeMs;
+        this.timing = timing;
+        // Глобально уникальный идентификатор и окружение эксперимента
+        this.experimentId = experimentId;
+        this.timestamp = System.currentTimeMillis();
+        this.jvm = RunEnvironment.jvm();
+        this.commit = RunEnvironment.commit();
+    }
+
+    /**
+     * Идентификатор вида "время-процесс-номер": время в мс (шестнадцатеричное) упорядочивает идентификаторы,
+     * 64 случайных бита процесса (16 шестнадцатеричных цифр) исключают совпадения между процессами и машинами,
+     * номер — между экспериментами одного процесса
+     */
+    private static String nextId() {
+        return Long.toHexString(System.currentTimeMillis()) + "-" + PROCESS_ID + "-" + COUNTER.incrementAndGet();
+    }
+
+    public long getArraySize() {
+        return arraySize;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getDistribution() {
+        return distribution;
+    }
+
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    public long getSwaps() {
+        return swaps;
+    }
+
+    public long getTimeMs() {
+        return timeMs;
+    }
+
+    public TimingStats getTiming() {
+        return timing;
+    }
+
+    public int getWarmups() {
+        return warmups;
+    }
+
+    /**
+     * @return время выполнения в наносекундах (медиана повторов)
+     */
+    public double getTimeNanos() {
+        return timing != null ? timing.getMedian() : timeMs * 1e6;
+    }
+
+    public long getPasses() {
+        return passes;
+    }
+
+    public long getScratchBytes() {
+        return scratchBytes;
+    }
+
+    public long getOffHeapBytes() {
+        return offHeapBytes;
+    }
+
+    public long getHeapBytes() {
+        return heapBytes;
+    }
+
+    public ExternalSortStats getExternal() {
+        return external;
+    }
+
+    /**
+     * @return байты, выделенные потоком сортировки за один прогон, или -1, если учет не поддерживается
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    public long getGcTimeMs() {
+        return gcTimeMs;
+    }
+
+    public long getPeakHeapBytes() {
+        return peakHeapBytes;
+    }
+
+    public String getExperimentId() {
+        return experimentId;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getJvm() {
+        return jvm;
+    }
+
+    public String getCommit() {
+        return commit;
+    }
+
+    /**
+     * @return зерно генератора исходного массива или 0, если оно неизвестно
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return ядро, выбранное автоматически по предварительному проходу, или null
+     */
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public long getPrepassNanos() {
+        return prepassNanos;
+    }
+
+    /**
+     * @return упорядоченность исходного массива или null, если анализ не выполнялся
+     */
+    public Presortedness getPresortedness() {
+        return presortedness;
+    }
+
+    /**
+     * @return ожидаемое по теории количество перемещений или -1, если оно неизвестно
+     */
+    public long getExpectedMoves() {
+        return expectedMoves;
+    }
+
+    /**
+     * @return true, если количество перемещений совпадает с теорией или теория неприменима
+     */
+    public boolean isMovesAsExpected() {
+        return expectedMoves < 0 || swaps == expectedMoves;
+    }
+}
@@ -0,0 +1,108 @@
+package org.example;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Состояние выполняющейся фоновой задачи сортировки, разделяемое между потоком сортировки и интерфейсом.
+ * Задача может состоять из нескольких этапов (например, замер времени и подсчет операций).
+ * Поток сортировки публикует прогресс один раз за итерацию внешнего цикла,
+ * интерфейс считывает значения по таймеру.
+ */
+public class SortProgress {
+    private volatile String name = "";
+    private volatile int total;
+    private volatile int processed;
+    private volatile long comparisons;
+    private volatile long swaps;
+    private volatile boolean cancelled;
+
+    /**
+     * Начало нового этапа задачи: сброс прогресса и счетчиков
+     * @param name название этапа (для отображения в интерфейсе)
+     * @param total количество элементов, которое нужно обработать
+     * @throws CancellationException если задача была отменена
+     */
+    public void beginPhase(String name, int total) {
+        checkCancelled();
+        this.name = name;
+        this.total = total;
+        this.processed = 0;
+        this.comparisons = 0;
+        this.swaps = 0;
+    }
+
+    /**
+     * Публикация прогресса из потока сортировки без счетчиков
+     * @param processed количество обработанных элементов (индекс внешнего цикла)
+     * @throws CancellationException если задача была отменена
+     */
+    public void update(int processed) {
+        this.processed = processed;
+        checkCancelled();
+    }
+
+    /**
+     * Публикация прогресса из потока сортировки
+     * @param processed количество обработанных элементов (индекс внешнего цикла)
+     * @param comparisons текущее количество сравнений
+     * @param swaps текущее количество перестановок
+     * @throws CancellationException если задача была отменена
+     */
+    public void update(int processed, long comparisons, long swaps) {
+        this.processed = processed;
+        this.comparisons = comparisons;
+        this.swaps = swaps;
+        checkCancelled();
+    }
+
+    /**
+     * @throws CancellationException если задача была отменена
+     */
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Сортировка отменена");
+        }
+    }
+
+    /**
+     * Запрос отмены задачи. Поток сортировки прервется на ближайшей контрольной точке.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getProcessed() {
+        return processed;
+    }
+
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    public long getSwaps() {
+        return swaps;
+    }
+
+    /**
+     * @return доля выполненной работы текущего этапа в процентах
+     */
+    public int getPercent() {
+        int total = this.total;
+        if (total <= 1) {
+            return 0;
+        }
+        return (int) (100L * processed / total);
+    }
+}
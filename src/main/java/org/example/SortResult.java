@@ -0,0 +1,22 @@
+package org.example;
+
+/**
+ * Класс для хранения результатов сортировки
+ */
+public class SortResult {
+    long comparisons; // количество сравнений
+    long swaps;       // количество перестановок/вставок
+
+    public SortResult(long comparisons, long swaps) {
+        this.comparisons = comparisons;
+        this.swaps = swaps;
+    }
+
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    public long getSwaps() {
+        return swaps;
+    }
+}
@@ -0,0 +1,202 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Запись, просмотр и сравнение трасс сортировки из командной строки.
+ * <pre>
+ * SortTrace record --algorithm binary --size 100000 --output binary.trc
+ * SortTrace show --trace binary.trc --from 1000000 --count 20
+ * SortTrace diff insertion.trc binary.trc
+ * </pre>
+ */
+public final class SortTrace {
+
+    private SortTrace() {
+    }
+
+    /**
+     * Запись трассы сортировки массива
+     * @param algorithm алгоритм с {@link SortAlgorithm#supportsTrace()}
+     * @param array массив (сортируется на месте)
+     * @param file файл трассы
+     * @param progress приемник прогресса и отмены (может быть null)
+     * @return записавший трассу приемник (количество событий, сравнений и перемещений)
+     * @throws IllegalArgumentException если алгоритм не поддерживает трассировку (файл не создается)
+     */
+    public static TraceWriter record(SortAlgorithm algorithm, int[] array, File file, SortProgress progress)
+            throws IOException {
+        try (TraceWriter writer = new TraceWriter(file, array, algorithm, progress)) {
+            algorithm.sort(array, writer);
+            return writer;
+        }
+    }
+
+    public static void main(String[] args) {
+        try {
+            if (args.length == 0 || "--help".equals(args[0]) || "-h".equals(args[0])) {
+                printUsage();
+                return;
+            }
+            switch (args[0]) {
+                case "record":
+                    record(args);
+                    break;
+                case "show":
+                    show(args);
+                    break;
+                case "diff":
+                    if (args.length != 3) {
+                        throw new IllegalArgumentException("Для diff нужны два файла трассы");
+                    }
+                    diff(new File(args[1]), new File(args[2]));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Неизвестная команда: " + args[0]);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Ошибка: " + e.getMessage());
+            printUsage();
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("Ошибка трассы: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void record(String[] args) throws IOException {
+        SortAlgorithm algorithm = SortAlgorithms.get("insertion");
+        File input = null;
+        File output = null;
+        int size = 10000;
+        ArrayShape shape = ArrayShape.fromOptionName("uniform");
+        int maxValue = Integer.MAX_VALUE;
+        long seed = 42;
+        for (int i = 1; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Не указано значение параметра " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--algorithm":
+                    algorithm = SortAlgorithms.get(value);
+                    break;
+                case "--input":
+                    input = new File(value);
+                    break;
+                case "--output":
+                    output = new File(value);
+                    break;
+                case "--size":
+                    size = Integer.parseInt(value);
+                    break;
+                case "--distribution":
+                    shape = ArrayShape.fromOptionName(value);
+                    break;
+                case "--max":
+                    maxValue = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Неизвестный параметр: " + option);
+            }
+        }
+        if (output == null) {
+            throw new IllegalArgumentException("Не указан файл трассы (--output)");
+        }
+
+        int[] array = input != null ? ArrayFileReader.readArray(input)
+                : new ArrayGenerator(shape, maxValue, seed).generate(size);
+        long startTime = System.nanoTime();
+        TraceWriter writer = record(algorithm, array, output, null);
+        long nanos = System.nanoTime() - startTime;
+        System.out.println(String.format(Locale.ROOT,
+                "Трасса %s: %d элементов, %d событий (сравнений %d, перемещений %d), %d байт (%.2f байт на событие), %.1f с",
+                output, array.length, writer.getEvents(), writer.getComparisons(), writer.getMoves(),
+                output.length(), (double) (output.length() - TraceWriter.HEADER_SIZE - 4L * array.length)
+                        / Math.max(1, writer.getEvents()), nanos / 1e9));
+    }
+
+    private static void show(String[] args) throws IOException {
+        File trace = null;
+        long from = 0;
+        long count = 20;
+        for (int i = 1; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Не указано значение параметра " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--trace":
+                    trace = new File(value);
+                    break;
+                case "--from":
+                    from = Long.parseLong(value);
+                    break;
+                case "--count":
+                    count = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Неизвестный параметр: " + option);
+            }
+        }
+        if (trace == null) {
+            throw new IllegalArgumentException("Не указан файл трассы (--trace)");
+        }
+
+        try (TraceReplay replay = new TraceReplay(trace)) {
+            System.out.println("Алгоритм: " + replay.getAlgorithmId() + ", элементов: " + replay.getArray().length
+                    + ", событий: " + replay.getEventCount() + " (сравнений " + replay.getComparisons()
+                    + ", перемещений " + replay.getMoves() + ")");
+            replay.seek(from);
+            for (long k = 0; k < count && replay.stepForward(); k++) {
+                System.out.println(replay.getPosition() + ": " + replay.describeEvent());
+            }
+        }
+    }
+
+    /**
+     * Сравнение двух трасс: исходные массивы и события до первого расхождения
+     */
+    private static void diff(File firstFile, File secondFile) throws IOException {
+        try (TraceReplay first = new TraceReplay(firstFile); TraceReplay second = new TraceReplay(secondFile)) {
+            if (!java.util.Arrays.equals(first.getArray(), second.getArray())) {
+                System.out.println("Исходные массивы различаются");
+                return;
+            }
+            while (true) {
+                boolean hasFirst = first.stepForward();
+                boolean hasSecond = second.stepForward();
+                if (!hasFirst || !hasSecond) {
+                    if (hasFirst == hasSecond) {
+                        System.out.println("Трассы совпадают: " + first.getPosition() + " событий");
+                    } else {
+                        System.out.println("Одна трасса закончилась раньше: " + first.getPosition()
+                                + " и " + second.getPosition() + " событий");
+                    }
+                    return;
+                }
+                if (!first.describeEvent().equals(second.describeEvent())) {
+                    System.out.println("Первое расхождение на событии " + first.getPosition() + ":");
+                    System.out.println("  " + first.getAlgorithmId() + ": " + first.describeEvent());
+                    System.out.println("  " + second.getAlgorithmId() + ": " + second.describeEvent());
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void printUsage() {
+        System.out.println("Использование: SortTrace команда [параметры]");
+        System.out.println("  record --output PATH [--algorithm insertion|binary] [--input PATH]");
+        System.out.println("         [--size N] [--distribution D] [--max M] [--seed S]   запись трассы");
+        System.out.println("  show --trace PATH [--from K] [--count C]                     события начиная с K");
+        System.out.println("  diff PATH1 PATH2                                             первое расхождение трасс");
+    }
+}
@@ -4,39 +4,116 @@ import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.axis.CategoryAxis;
+import org.jfree.chart.axis.LogAxis;
 import org.jfree.chart.axis.NumberAxis;
 import org.jfree.chart.plot.CategoryPlot;
 import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.category.BarRenderer;
+import org.jfree.chart.renderer.category.StatisticalBarRenderer;
+import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
+import org.jfree.data.category.CategoryDataset;
 import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.statistics.DefaultStatisticalCategoryDataset;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
 
 import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.*;
 import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Приложение для визуализации и сравнения алгоритмов сортировки вставками
  * Сравнивает эффективность алгоритмов сортировки простыми вставками и бинарными вставками
  */
 public class SortVisualizerApp extends JFrame {
+    // Количество повторов для каждого количества потоков при замере масштабируемости
+    private static final int SCALING_REPETITIONS = 3;
+    // Параметры замера времени по умолчанию
+    private static final int DEFAULT_WARMUP_RUNS = 1;
+    private static final int DEFAULT_MEASURED_RUNS = 5;
+    // Интервал объединения обновлений графиков, мс
+    private static final int CHART_REFRESH_MS = 200;
+    // Емкость буфера событий анимации
+    private static final int ANIMATION_EVENTS = 1 << 14;
+    private static final String[] SWEEP_TAB_TITLES = {"Сравнения от n", "Вставки от n", "Время от n"};
+    private static final String[] SWEEP_AXIS_LABELS = {"Количество сравнений", "Количество вставок", "Время (нс)"};
+
     // Графические компоненты
     private JPanel contentPanel;
     private JTextArea resultTextArea;
     private JPanel chartPanel;
+    private JProgressBar progressBar;
+    private JLabel progressLabel;
+    private JButton cancelButton;
+    private final List<JButton> actionButtons = new ArrayList<>();
+
+    // Фоновая сортировка
+    private SwingWorker<?, ?> currentWorker;
+    private volatile SortProgress currentProgress;
+    private Timer progressTimer;
 
     // Данные
     private int[] currentArray;
-    private JComboBox<String> sortTypeComboBox;
+    private ArrayShape currentShape = ArrayShape.UNKNOWN;
+    private long currentSeed;
+    private Presortedness currentPresortedness; // Упорядоченность текущего массива (null, пока анализ не завершен)
+    private JComboBox<SortAlgorithm> sortTypeComboBox;
+    private JCheckBox animationCheckBox;
+    private int warmupRuns = DEFAULT_WARMUP_RUNS;
+    private int measuredRuns = DEFAULT_MEASURED_RUNS;
 
     // История результатов сортировки для построения графиков
     private List<SortExperimentResult> experimentResults = new ArrayList<>();
+    // Последний замер масштабируемости параллельной сортировки
+    private List<ParallelScaling.Point> scalingResults = new ArrayList<>();
+    // Последняя серия экспериментов по размерам массива
+    private List<ComplexitySweep.Curve> sweepResults = new ArrayList<>();
+    // Постоянное хранилище результатов всех сеансов (null, если недоступно)
+    private ResultStore resultStore;
+    // Запись в хранилище со сбросом на диск выполняется по очереди в отдельном потоке, а не в потоке интерфейса
+    private final ExecutorService storeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "result-store");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Графики: создаются один раз, наборы данных пополняются по мере поступления результатов
+    private JTabbedPane chartTabs;
+    private BatchCategoryDataset comparisonDataset;
+    private BatchCategoryDataset swapsDataset;
+    private BatchCategoryDataset memoryDataset;
+    private BatchStatisticalCategoryDataset timeDataset;
+    private ChartPanel comparisonChartPanel;
+    private ChartPanel swapsChartPanel;
+    private ChartPanel memoryChartPanel;
+    private ChartPanel timeChartPanel;
+    private XYSeries speedupSeries;
+    private XYSeries efficiencySeries;
+    private XYSeries idealSeries;
+    private ChartPanel scalingChartPanel;
+    private final ChartPanel[] sweepCharts = new ChartPanel[SWEEP_TAB_TITLES.length];
+    private Timer chartRefreshTimer;
 
     /**
      * Конструктор приложения
@@ -47,9 +124,16 @@ public class SortVisualizerApp extends JFrame {
         setSize(1000, 700);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                finishStoreWrites();
+            }
+        });
 
         // Создание компонентов GUI
         initComponents();
+        openResultStore();
 
         // Отображение окна
         setVisible(true);
@@ -69,26 +153,54 @@ public class SortVisualizerApp extends JFrame {
 
         // Кнопки
         JButton loadButton = new JButton("Загрузить из файла");
+        JButton saveArrayButton = new JButton("Сохранить массив");
         JButton saveButton = new JButton("Сохранить файл");
+        JButton exportSamplesButton = new JButton("Экспорт замеров");
         JButton generateButton = new JButton("Сгенерировать массив");
+        JButton timingButton = new JButton("Параметры замера");
         JButton sortButton = new JButton("Сортировать");
-        JButton compareButton = new JButton("Сравнить оба алгоритма");
+        animationCheckBox = new JCheckBox("Анимация");
+        animationCheckBox.setToolTipText("Показывать массив во время сортировки (прогон с подсчетом операций, замер времени не затрагивает)");
+        JButton compareButton = new JButton("Сравнить все алгоритмы");
+        JButton scalingButton = new JButton("Масштабирование");
+        JButton sweepButton = new JButton("Серия размеров");
+        JButton offHeapButton = new JButton("Сортировать файл вне кучи");
+        JButton externalButton = new JButton("Внешняя сортировка файла");
+        JButton historyButton = new JButton("История");
+        historyButton.setToolTipText("Результаты прошлых запусков из хранилища");
         JButton clearButton = new JButton("Очистить всё");
 
         // Выпадающий список типов сортировки
-        sortTypeComboBox = new JComboBox<>(new String[]{"Простые вставки", "Бинарные вставки"});
+        sortTypeComboBox = new JComboBox<>(SortAlgorithms.getAll().toArray(new SortAlgorithm[0]));
+        sortTypeComboBox.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                Object text = value instanceof SortAlgorithm ? ((SortAlgorithm) value).getName() : value;
+                return super.getListCellRendererComponent(list, text, index, isSelected, cellHasFocus);
+            }
+        });
 
         // Создаем панель инструментов
         JToolBar toolBar = new JToolBar();
         toolBar.setFloatable(false);
         toolBar.add(loadButton);
+        toolBar.add(saveArrayButton);
         toolBar.add(saveButton);
+        toolBar.add(exportSamplesButton);
+        toolBar.add(historyButton);
         toolBar.add(new JToolBar.Separator());
         toolBar.add(generateButton);
         toolBar.add(new JToolBar.Separator());
         toolBar.add(sortTypeComboBox);
+        toolBar.add(timingButton);
         toolBar.add(sortButton);
+        toolBar.add(animationCheckBox);
         toolBar.add(compareButton);
+        toolBar.add(scalingButton);
+        toolBar.add(sweepButton);
+        toolBar.add(offHeapButton);
+        toolBar.add(externalButton);
 
         // Добавляем пружину для отделения кнопки очистки от других элементов
         toolBar.add(Box.createHorizontalGlue());
@@ -116,6 +228,41 @@ public class SortVisualizerApp extends JFrame {
         // Добавляем панель инструментов в верхнюю часть
         controlPanel.add(toolBar);
 
+        // Кнопки, недоступные во время фоновой сортировки
+        actionButtons.add(loadButton);
+        actionButtons.add(saveArrayButton);
+        actionButtons.add(generateButton);
+        actionButtons.add(historyButton);
+        actionButtons.add(timingButton);
+        actionButtons.add(sortButton);
+        actionButtons.add(compareButton);
+        actionButtons.add(scalingButton);
+        actionButtons.add(sweepButton);
+        actionButtons.add(offHeapButton);
+        actionButtons.add(externalButton);
+        actionButtons.add(clearButton);
+
+        // Нижняя панель с индикатором выполнения сортировки
+        JPanel statusPanel = new JPanel(new BorderLayout(10, 0));
+        statusPanel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        progressLabel = new JLabel(" ");
+        cancelButton = new JButton("Отмена");
+        cancelButton.setEnabled(false);
+        statusPanel.add(progressLabel, BorderLayout.WEST);
+        statusPanel.add(progressBar, BorderLayout.CENTER);
+        statusPanel.add(cancelButton, BorderLayout.EAST);
+        contentPanel.add(statusPanel, BorderLayout.SOUTH);
+
+        // Таймер обновления прогресса (ограничивает частоту перерисовки)
+        progressTimer = new Timer(100, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                refreshProgress();
+            }
+        });
+
         // Панель с результатами
         JPanel resultPanel = new JPanel(new BorderLayout());
         resultTextArea = new JTextArea();
@@ -129,6 +276,7 @@ public class SortVisualizerApp extends JFrame {
         // Панель с графиком
         chartPanel = new JPanel(new BorderLayout());
         chartPanel.setBorder(BorderFactory.createTitledBorder("График сравнения алгоритмов"));
+        createCharts();
 
         // Разделение центральной части на результаты и график
         JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT, resultPanel, chartPanel);
@@ -143,6 +291,13 @@ public class SortVisualizerApp extends JFrame {
             }
         });
 
+        saveArrayButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                saveArrayToFile();
+            }
+        });
+
         saveButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
@@ -150,6 +305,27 @@ public class SortVisualizerApp extends JFrame {
             }
         });
 
+        exportSamplesButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                exportTimingSamples();
+            }
+        });
+
+        historyButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                showHistoryDialog();
+            }
+        });
+
+        timingButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                showTimingDialog();
+            }
+        });
+
         generateButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
@@ -167,7 +343,35 @@ public class SortVisualizerApp extends JFrame {
         compareButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                compareBothAlgorithms();
+                compareAllAlgorithms();
+            }
+        });
+
+        scalingButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                measureParallelScaling();
+            }
+        });
+
+        sweepButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                showSweepDialog();
+            }
+        });
+
+        offHeapButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                sortFileOffHeap();
+            }
+        });
+
+        externalButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                sortFileExternal();
             }
         });
 
@@ -177,66 +381,143 @@ public class SortVisualizerApp extends JFrame {
                 clearResults();
             }
         });
+
+        cancelButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                cancelSorting();
+            }
+        });
     }
 
     /**
-     * Загрузка массива из файла
+     * Загрузка массива из файла (двоичный формат определяется по сигнатуре, иначе файл читается как текст).
+     * Файл читается в фоновом потоке: разбор файла в сотни мегабайт занимает секунды, и интерфейс не должен
+     * их ждать. Текущий массив заменяется только после успешного чтения.
      */
     private void loadArrayFromFile() {
         JFileChooser fileChooser = new JFileChooser();
         int result = fileChooser.showOpenDialog(this);
-        if (result == JFileChooser.APPROVE_OPTION) {
-            try {
-                File selectedFile = fileChooser.getSelectedFile();
-                BufferedReader reader = new BufferedReader(new FileReader(selectedFile));
-                String line = reader.readLine();
-                reader.close();
-
-                String[] numbers = line.split("\\s+"); // Разделение по пробельным символам
-                currentArray = new int[numbers.length];
-                for (int i = 0; i < numbers.length; i++) {
-                    if (!numbers[i].isEmpty()) {
-                        currentArray[i] = Integer.parseInt(numbers[i].trim());
-                    }
+        if (result != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        final File selectedFile = fileChooser.getSelectedFile();
+        SwingWorker<LoadedArray, Void> worker = new SwingWorker<LoadedArray, Void>() {
+            @Override
+            protected LoadedArray doInBackground() {
+                LoadedArray loaded = new LoadedArray();
+                long startTime = System.nanoTime();
+                try {
+                    loaded.header = ArrayFileReader.readHeader(selectedFile);
+                    loaded.array = loaded.header != null
+                            ? ArrayFileReader.readBinaryArray(selectedFile)
+                            : ArrayFileReader.readTextArray(selectedFile);
+                } catch (IOException ex) {
+                    loaded.error = ex;
                 }
+                loaded.loadTime = (System.nanoTime() - startTime) / 1000000;
+                return loaded;
+            }
 
-                // Очистка предыдущих результатов при загрузке нового массива
-                experimentResults.clear();
+            @Override
+            protected void done() {
+                LoadedArray loaded = finishBackgroundTask(this);
+                if (loaded == null) {
+                    return;
+                }
+                if (loaded.error != null) {
+                    JOptionPane.showMessageDialog(SortVisualizerApp.this,
+                            "Ошибка при чтении файла: " + loaded.error.getMessage(),
+                            "Ошибка", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                showLoadedArray(selectedFile, loaded);
+            }
+        };
+        startBackgroundTask(worker);
+        progressLabel.setText("Загрузка файла " + selectedFile.getName() + "...");
+    }
 
-                resultTextArea.setText("Массив загружен из файла: " + selectedFile.getName() + "\n");
-                resultTextArea.append("Количество элементов: " + currentArray.length + "\n");
+    /**
+     * Замена текущего массива прочитанным из файла и вывод сведений о нем (в потоке обработки событий)
+     */
+    private void showLoadedArray(File selectedFile, LoadedArray loaded) {
+        BinaryArrayHeader header = loaded.header;
+        currentArray = loaded.array;
+        if (header != null) {
+            currentShape = header.getShape();
+            currentSeed = header.getSeed();
+        } else {
+            currentShape = ArrayShape.UNKNOWN;
+            currentSeed = 0;
+        }
 
-                // Ограничиваем вывод массива, если он слишком большой
-                if (currentArray.length <= 100) {
-                    resultTextArea.append("Массив: " + Arrays.toString(currentArray) + "\n");
-                } else {
-                    // Показываем только первые и последние 10 элементов
-                    StringBuilder sb = new StringBuilder("Массив: [");
-                    for (int i = 0; i < 10; i++) {
-                        sb.append(currentArray[i]).append(", ");
-                    }
-                    sb.append("... , ");
-                    for (int i = currentArray.length - 10; i < currentArray.length; i++) {
-                        sb.append(currentArray[i]);
-                        if (i < currentArray.length - 1) {
-                            sb.append(", ");
-                        }
-                    }
-                    sb.append("]\n");
-                    resultTextArea.append(sb.toString());
+        // Очистка предыдущих результатов при загрузке нового массива
+        experimentResults.clear();
+        clearChartResults();
+
+        resultTextArea.setText("Массив загружен из файла: " + selectedFile.getName() + "\n");
+        resultTextArea.append("Количество элементов: " + currentArray.length + "\n");
+        if (header != null) {
+            resultTextArea.append("Формат: двоичный, форма: " + header.getShape().getDisplayName()
+                    + ", зерно: " + header.getSeed() + "\n");
+        } else {
+            resultTextArea.append("Формат: текстовый\n");
+        }
+        resultTextArea.append("Время загрузки: " + NumberFormat.getNumberInstance().format(loaded.loadTime)
+                + " мс\n");
+
+        // Ограничиваем вывод массива, если он слишком большой
+        if (currentArray.length <= 100) {
+            resultTextArea.append("Массив: " + Arrays.toString(currentArray) + "\n");
+        } else {
+            // Показываем только первые и последние 10 элементов
+            StringBuilder sb = new StringBuilder("Массив: [");
+            for (int i = 0; i < 10; i++) {
+                sb.append(currentArray[i]).append(", ");
+            }
+            sb.append("... , ");
+            for (int i = currentArray.length - 10; i < currentArray.length; i++) {
+                sb.append(currentArray[i]);
+                if (i < currentArray.length - 1) {
+                    sb.append(", ");
                 }
+            }
+            sb.append("]\n");
+            resultTextArea.append(sb.toString());
+        }
+        analyzePresortedness();
+    }
+
+    /**
+     * Сохранение текущего массива в файл.
+     * Файлы с расширением .txt записываются как текст, остальные — в двоичном формате.
+     */
+    private void saveArrayToFile() {
+        if (currentArray == null) {
+            JOptionPane.showMessageDialog(this, "Нет массива для сохранения",
+                    "Предупреждение", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
 
-                // Обновление графика (очистка старого)
-                updateChart();
+        JFileChooser fileChooser = new JFileChooser();
+        int result = fileChooser.showSaveDialog(this);
+        if (result == JFileChooser.APPROVE_OPTION) {
+            try {
+                File selectedFile = fileChooser.getSelectedFile();
+                ArrayFileWriter.writeArray(selectedFile, currentArray, currentShape, currentSeed);
+                JOptionPane.showMessageDialog(this, "Массив сохранен в файл: " + selectedFile.getName()
+                                + (ArrayFileWriter.isTextFile(selectedFile) ? " (текст)" : " (двоичный формат)"),
+                        "Информация", JOptionPane.INFORMATION_MESSAGE);
             } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, "Ошибка при чтении файла: " + ex.getMessage(),
+                JOptionPane.showMessageDialog(this, "Ошибка при сохранении файла: " + ex.getMessage(),
                         "Ошибка", JOptionPane.ERROR_MESSAGE);
             }
         }
     }
 
     /**
-     * Сохранение результатов в файл
+     * Сохранение результатов в файл в формате, определенном по расширению ({@link ResultExport})
      */
     private void saveResultsToFile() {
         if (experimentResults.isEmpty()) {
@@ -246,26 +527,23 @@ public class SortVisualizerApp extends JFrame {
         }
 
         JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setAcceptAllFileFilterUsed(false);
+        for (ResultExport.Format format : ResultExport.Format.values()) {
+            String[] extensions = format.getExtensions();
+            fileChooser.addChoosableFileFilter(new FileNameExtensionFilter(
+                    format.getDisplayName() + " (*." + String.join(", *.", extensions) + ")", extensions));
+        }
+        fileChooser.setFileFilter(fileChooser.getChoosableFileFilters()[0]);
         int result = fileChooser.showSaveDialog(this);
         if (result == JFileChooser.APPROVE_OPTION) {
             try {
                 File selectedFile = fileChooser.getSelectedFile();
-                PrintWriter writer = new PrintWriter(selectedFile);
-
-                // Записываем заголовок
-                writer.println("Размер массива, Алгоритм, Сравнения, Вставки, Время (мс)");
-
-                // Записываем результаты экспериментов
-                for (SortExperimentResult experiment : experimentResults) {
-                    writer.println(String.format("%d, %s, %d, %d, %d",
-                            experiment.arraySize,
-                            experiment.algorithm,
-                            experiment.comparisons,
-                            experiment.swaps,
-                            experiment.timeMs));
+                // Без расширения формат определяется выбранным фильтром
+                FileNameExtensionFilter filter = (FileNameExtensionFilter) fileChooser.getFileFilter();
+                if (!selectedFile.getName().contains(".")) {
+                    selectedFile = new File(selectedFile.getPath() + "." + filter.getExtensions()[0]);
                 }
-
-                writer.close();
+                ResultExport.write(selectedFile, experimentResults);
                 JOptionPane.showMessageDialog(this, "Результаты сохранены в файл: " + selectedFile.getName(),
                         "Информация", JOptionPane.INFORMATION_MESSAGE);
             } catch (Exception ex) {
@@ -275,11 +553,56 @@ public class SortVisualizerApp extends JFrame {
         }
     }
 
+    /**
+     * Экспорт полного распределения времени: время каждого повтора каждого эксперимента
+     */
+    private void exportTimingSamples() {
+        if (experimentResults.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Нет данных для сохранения",
+                    "Предупреждение", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        JFileChooser fileChooser = new JFileChooser();
+        int result = fileChooser.showSaveDialog(this);
+        if (result == JFileChooser.APPROVE_OPTION) {
+            try {
+                File selectedFile = fileChooser.getSelectedFile();
+                ExperimentResultsFile.writeSamples(selectedFile, experimentResults);
+                JOptionPane.showMessageDialog(this, "Замеры сохранены в файл: " + selectedFile.getName(),
+                        "Информация", JOptionPane.INFORMATION_MESSAGE);
+            } catch (Exception ex) {
+                JOptionPane.showMessageDialog(this, "Ошибка при сохранении файла: " + ex.getMessage(),
+                        "Ошибка", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
+    /**
+     * Диалог параметров замера времени: количество прогревочных и измеряемых прогонов
+     */
+    private void showTimingDialog() {
+        JPanel panel = new JPanel(new GridLayout(2, 2));
+        panel.add(new JLabel("Прогревочные прогоны:"));
+        JSpinner warmupSpinner = new JSpinner(new SpinnerNumberModel(warmupRuns, 0, 1000, 1));
+        panel.add(warmupSpinner);
+        panel.add(new JLabel("Измеряемые прогоны:"));
+        JSpinner measuredSpinner = new JSpinner(new SpinnerNumberModel(measuredRuns, 1, 10000, 1));
+        panel.add(measuredSpinner);
+
+        int result = JOptionPane.showConfirmDialog(this, panel, "Параметры замера",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (result == JOptionPane.OK_OPTION) {
+            warmupRuns = (Integer) warmupSpinner.getValue();
+            measuredRuns = (Integer) measuredSpinner.getValue();
+        }
+    }
+
     /**
      * Показ диалогового окна для генерации случайного массива
      */
     private void showGenerateDialog() {
-        JPanel panel = new JPanel(new GridLayout(2, 2));
+        JPanel panel = new JPanel(new GridLayout(3, 2));
         panel.add(new JLabel("Размер массива:"));
         JTextField sizeField = new JTextField("1000");
         panel.add(sizeField);
@@ -288,6 +611,10 @@ public class SortVisualizerApp extends JFrame {
         JTextField maxValueField = new JTextField("10000");
         panel.add(maxValueField);
 
+        panel.add(new JLabel("Распределение:"));
+        JComboBox<ArrayShape> shapeComboBox = createShapeComboBox();
+        panel.add(shapeComboBox);
+
         int result = JOptionPane.showConfirmDialog(this, panel,
                 "Генерация массива", JOptionPane.OK_CANCEL_OPTION);
 
@@ -302,7 +629,7 @@ public class SortVisualizerApp extends JFrame {
                     return;
                 }
 
-                generateRandomArray(size, maxValue);
+                generateArray(size, maxValue, (ArrayShape) shapeComboBox.getSelectedItem());
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(this, "Введите корректные числа",
                         "Ошибка", JOptionPane.ERROR_MESSAGE);
@@ -311,21 +638,43 @@ public class SortVisualizerApp extends JFrame {
     }
 
     /**
-     * Генерация случайного массива заданного размера
+     * @return выпадающий список распределений массива (без неизвестного)
+     */
+    private JComboBox<ArrayShape> createShapeComboBox() {
+        JComboBox<ArrayShape> shapeComboBox = new JComboBox<>();
+        for (ArrayShape shape : ArrayShape.values()) {
+            if (shape != ArrayShape.UNKNOWN) {
+                shapeComboBox.addItem(shape);
+            }
+        }
+        shapeComboBox.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                Object text = value instanceof ArrayShape ? ((ArrayShape) value).getDisplayName() : value;
+                return super.getListCellRendererComponent(list, text, index, isSelected, cellHasFocus);
+            }
+        });
+        return shapeComboBox;
+    }
+
+    /**
+     * Генерация массива заданного размера и распределения
      * @param size размер массива
      * @param maxValue максимальное значение элементов
+     * @param shape распределение элементов
      */
-    private void generateRandomArray(int size, int maxValue) {
-        Random rand = new Random();
-        currentArray = new int[size];
-        for (int i = 0; i < size; i++) {
-            currentArray[i] = rand.nextInt(maxValue);
-        }
+    private void generateArray(int size, int maxValue, ArrayShape shape) {
+        long seed = new Random().nextLong();
+        currentArray = new ArrayGenerator(shape, maxValue, seed).generate(size);
+        currentShape = shape;
+        currentSeed = seed;
 
         // Очистка предыдущих результатов при генерации нового массива
         experimentResults.clear();
+        clearChartResults();
 
-        resultTextArea.setText("Сгенерирован случайный массив\n");
+        resultTextArea.setText("Сгенерирован массив: " + shape.getDisplayName() + " (зерно " + seed + ")\n");
         resultTextArea.append("Количество элементов: " + NumberFormat.getNumberInstance().format(size) + "\n");
         resultTextArea.append("Максимальное значение: " + NumberFormat.getNumberInstance().format(maxValue) + "\n");
 
@@ -348,13 +697,39 @@ public class SortVisualizerApp extends JFrame {
             sb.append("]\n");
             resultTextArea.append(sb.toString());
         }
+        analyzePresortedness();
+    }
+
+    /**
+     * Анализ упорядоченности текущего массива в фоновом потоке (инверсии, серии, Rem, Osc)
+     */
+    private void analyzePresortedness() {
+        final int[] sourceArray = currentArray;
+        currentPresortedness = null;
+        SwingWorker<Presortedness, Void> worker = new SwingWorker<Presortedness, Void>() {
+            @Override
+            protected Presortedness doInBackground() {
+                return Presortedness.analyze(sourceArray);
+            }
 
-        // Обновление графика (очистка старого)
-        updateChart();
+            @Override
+            protected void done() {
+                Presortedness presortedness = finishBackgroundTask(this);
+                // Массив мог быть заменен или очищен, пока шел анализ
+                if (presortedness == null || sourceArray != currentArray) {
+                    return;
+                }
+                currentPresortedness = presortedness;
+                appendPresortedness(presortedness);
+            }
+        };
+        startBackgroundTask(worker);
+        progressLabel.setText("Анализ упорядоченности...");
     }
 
     /**
-     * Сортировка текущего массива выбранным алгоритмом
+     * Сортировка текущего массива выбранным алгоритмом.
+     * Сортировка выполняется в фоновом потоке, интерфейс остается доступным.
      */
     private void sortArray() {
         if (currentArray == null || currentArray.length == 0) {
@@ -364,53 +739,87 @@ public class SortVisualizerApp extends JFrame {
             return;
         }
 
-        int[] arrayCopy = Arrays.copyOf(currentArray, currentArray.length);
-        SortResult result;
-        String sortType = (String) sortTypeComboBox.getSelectedItem();
-
-        long startTime = System.nanoTime();
-        if ("Простые вставки".equals(sortType)) {
-            result = insertionSort(arrayCopy);
-        } else {
-            result = binaryInsertionSort(arrayCopy);
+        final int[] sourceArray = currentArray;
+        final String distribution = currentShape.getDisplayName();
+        final long seed = currentSeed;
+        final Presortedness presortedness = currentPresortedness;
+        final SortAlgorithm sortType = (SortAlgorithm) sortTypeComboBox.getSelectedItem();
+        final int warmups = warmupRuns;
+        final int repetitions = measuredRuns;
+
+        // Исходный массив копируется в рабочий перед каждым прогоном. Анимация показывает рабочий массив
+        // во время прогона с подсчетом операций, отдельной сортировки для нее нет
+        final boolean animated = animationCheckBox.isSelected();
+        final int[] arrayCopy = animated ? sourceArray.clone() : new int[sourceArray.length];
+        final EventRingBuffer events = animated ? new EventRingBuffer(ANIMATION_EVENTS) : null;
+        final SortAnimationPanel animation = animated ? new SortAnimationPanel(arrayCopy, events) : null;
+        if (animation != null) {
+            hideChartTab("Анимация");
+            showChartTab("Анимация", animation);
+            chartTabs.setSelectedComponent(animation);
+            animation.start();
         }
-        long endTime = System.nanoTime();
-        long duration = (endTime - startTime) / 1000000;
 
-        resultTextArea.append("\n===== Результаты сортировки =====\n");
-        resultTextArea.append("Метод сортировки: " + sortType + "\n");
-        resultTextArea.append("Размер массива: " + NumberFormat.getNumberInstance().format(currentArray.length) + "\n");
-        resultTextArea.append("Время выполнения: " + NumberFormat.getNumberInstance().format(duration) + " мс\n");
-        resultTextArea.append("Количество сравнений: " + NumberFormat.getNumberInstance().format(result.comparisons) + "\n");
-        resultTextArea.append("Количество вставок: " + NumberFormat.getNumberInstance().format(result.swaps) + "\n");
+        SwingWorker<SortExperimentResult, Void> worker = new SwingWorker<SortExperimentResult, Void>() {
+            private boolean isSorted;
 
-        // Проверяем, отсортирован ли массив
-        boolean isSorted = true;
-        for (int i = 1; i < arrayCopy.length; i++) {
-            if (arrayCopy[i - 1] > arrayCopy[i]) {
-                isSorted = false;
-                break;
+            @Override
+            protected SortExperimentResult doInBackground() {
+                SortProgress progress = new SortProgress();
+                currentProgress = progress;
+
+                SortExperimentResult result = SortExperiment.measure(sortType, distribution, sourceArray, arrayCopy,
+                        warmups, repetitions, progress, events);
+                result.seed = seed;
+                SortExperiment.applyPresortedness(result, sortType, presortedness);
+
+                // Проверяем, отсортирован ли массив
+                isSorted = true;
+                for (int i = 1; i < arrayCopy.length; i++) {
+                    if (arrayCopy[i - 1] > arrayCopy[i]) {
+                        isSorted = false;
+                        break;
+                    }
+                }
+                return result;
             }
-        }
-        resultTextArea.append("Массив отсортирован: " + (isSorted ? "Да" : "Нет") + "\n");
 
-        // Сохраняем результаты эксперимента для графика
-        experimentResults.add(new SortExperimentResult(
-                currentArray.length,
-                sortType,
-                result.comparisons,
-                result.swaps,
-                duration
-        ));
+            @Override
+            protected void done() {
+                if (animation != null) {
+                    animation.stop();
+                }
+                SortExperimentResult result = finishBackgroundTask(this);
+                if (result == null) {
+                    return;
+                }
 
-        // Обновляем график
-        updateChart();
+                resultTextArea.append("\n===== Результаты сортировки =====\n");
+                resultTextArea.append("Метод сортировки: " + sortType.getName() + "\n");
+                resultTextArea.append("Устойчивость: " + (sortType.isStable() ? "Да" : "Нет")
+                        + ", сравнения: " + sortType.getComparisonsComplexity()
+                        + ", вставки: " + sortType.getMovesComplexity() + "\n");
+                resultTextArea.append("Размер массива: " + NumberFormat.getNumberInstance().format(result.arraySize) + "\n");
+                appendStrategy(result, "");
+                appendTiming(result, "");
+                resultTextArea.append("Количество сравнений: " + NumberFormat.getNumberInstance().format(result.comparisons) + "\n");
+                resultTextArea.append("Количество вставок: " + NumberFormat.getNumberInstance().format(result.swaps) + "\n");
+                appendTheoryCheck(result, "");
+                appendPassesAndMemory(result, "");
+                resultTextArea.append("Массив отсортирован: " + (isSorted ? "Да" : "Нет") + "\n");
+
+                // Сохраняем результаты эксперимента для графика и в хранилище
+                recordResults(Collections.singletonList(result));
+            }
+        };
+        startBackgroundTask(worker);
     }
 
     /**
-     * Сравнение обоих алгоритмов сортировки на текущем массиве
+     * Сравнение всех зарегистрированных алгоритмов сортировки на текущем массиве.
+     * Алгоритмы выполняются последовательно в фоновом потоке.
      */
-    private void compareBothAlgorithms() {
+    private void compareAllAlgorithms() {
         if (currentArray == null || currentArray.length == 0) {
             JOptionPane.showMessageDialog(this,
                     "Нет данных для сортировки. Сначала загрузите или сгенерируйте массив.",
@@ -418,164 +827,1109 @@ public class SortVisualizerApp extends JFrame {
             return;
         }
 
-        resultTextArea.append("\n===== Сравнение алгоритмов сортировки =====\n");
-        resultTextArea.append("Размер массива: " + NumberFormat.getNumberInstance().format(currentArray.length) + "\n\n");
-
-        // Сортировка простыми вставками
-        int[] arrayCopy1 = Arrays.copyOf(currentArray, currentArray.length);
-        long startTime1 = System.nanoTime();
-        SortResult result1 = insertionSort(arrayCopy1);
-        long endTime1 = System.nanoTime();
-        long duration1 = (endTime1 - startTime1) / 1000000;
-
-        // Сортировка бинарными вставками
-        int[] arrayCopy2 = Arrays.copyOf(currentArray, currentArray.length);
-        long startTime2 = System.nanoTime();
-        SortResult result2 = binaryInsertionSort(arrayCopy2);
-        long endTime2 = System.nanoTime();
-        long duration2 = (endTime2 - startTime2) / 1000000; // в миллисекундах
-
-        // Вывод результатов
-        resultTextArea.append("Простые вставки:\n");
-        resultTextArea.append("  Время выполнения: " + NumberFormat.getNumberInstance().format(duration1) + " мс\n");
-        resultTextArea.append("  Количество сравнений: " + NumberFormat.getNumberInstance().format(result1.comparisons) + "\n");
-        resultTextArea.append("  Количество вставок: " + NumberFormat.getNumberInstance().format(result1.swaps) + "\n\n");
+        final int[] sourceArray = currentArray;
+        final String distribution = currentShape.getDisplayName();
+        final long seed = currentSeed;
+        final Presortedness presortedness = currentPresortedness;
+        final List<SortAlgorithm> algorithms = SortAlgorithms.getAll();
+        final int warmups = warmupRuns;
+        final int repetitions = measuredRuns;
 
-        resultTextArea.append("Бинарные вставки:\n");
-        resultTextArea.append("  Время выполнения: " + NumberFormat.getNumberInstance().format(duration2) + " мс\n");
-        resultTextArea.append("  Количество сравнений: " + NumberFormat.getNumberInstance().format(result2.comparisons) + "\n");
-        resultTextArea.append("  Количество вставок: " + NumberFormat.getNumberInstance().format(result2.swaps) + "\n\n");
+        SwingWorker<List<SortExperimentResult>, Void> worker = new SwingWorker<List<SortExperimentResult>, Void>() {
+            @Override
+            protected List<SortExperimentResult> doInBackground() {
+                SortProgress progress = new SortProgress();
+                currentProgress = progress;
+
+                int[] arrayCopy = new int[sourceArray.length];
+                List<SortExperimentResult> results = new ArrayList<>();
+                for (SortAlgorithm algorithm : algorithms) {
+                    SortExperimentResult result = SortExperiment.measure(algorithm, distribution, sourceArray,
+                            arrayCopy, warmups, repetitions, progress);
+                    result.seed = seed;
+                    SortExperiment.applyPresortedness(result, algorithm, presortedness);
+                    results.add(result);
+                }
+                return results;
+            }
 
-        // Добавляем выделенную секцию выводов с Unicode-символами
-        resultTextArea.append("\n■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■\n");
-        resultTextArea.append("                     ВЫВОДЫ                     \n");
-        resultTextArea.append("■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■\n");
+            @Override
+            protected void done() {
+                List<SortExperimentResult> results = finishBackgroundTask(this);
+                if (results == null) {
+                    return;
+                }
+                showComparison(results);
+            }
+        };
+        startBackgroundTask(worker);
+    }
 
-        if (result1.comparisons > result2.comparisons) {
-            resultTextArea.append("✓ Бинарные вставки требуют меньше сравнений (на " +
-                    NumberFormat.getNumberInstance().format(result1.comparisons - result2.comparisons) + ")\n");
-        } else if (result1.comparisons < result2.comparisons) {
-            resultTextArea.append("✓ Простые вставки требуют меньше сравнений (на " +
-                    NumberFormat.getNumberInstance().format(result2.comparisons - result1.comparisons) + ")\n");
-        } else {
-            resultTextArea.append("✓ Оба алгоритма выполнили одинаковое количество сравнений\n");
+    /**
+     * Сортировка двоичного файла массива вне кучи выбранным алгоритмом.
+     * Результат записывается в новый файл, который отображается в память и сортируется на месте,
+     * поэтому массив не загружается в кучу и может быть больше нее.
+     */
+    private void sortFileOffHeap() {
+        final SortAlgorithm sortType = (SortAlgorithm) sortTypeComboBox.getSelectedItem();
+        if (!sortType.supportsOffHeap()) {
+            StringBuilder supported = new StringBuilder();
+            for (SortAlgorithm algorithm : SortAlgorithms.getAll()) {
+                if (algorithm.supportsOffHeap()) {
+                    supported.append("\n  ").append(algorithm.getName());
+                }
+            }
+            JOptionPane.showMessageDialog(this,
+                    "Алгоритм " + sortType.getName() + " не поддерживает сортировку вне кучи. Поддерживают:" + supported,
+                    "Предупреждение", JOptionPane.WARNING_MESSAGE);
+            return;
         }
 
-        if (result1.swaps > result2.swaps) {
-            resultTextArea.append("✓ Бинарные вставки требуют меньше перестановок (на " +
-                    NumberFormat.getNumberInstance().format(result1.swaps - result2.swaps) + ")\n");
-        } else if (result1.swaps < result2.swaps) {
-            resultTextArea.append("✓ Простые вставки требуют меньше перестановок (на " +
-                    NumberFormat.getNumberInstance().format(result2.swaps - result1.swaps) + ")\n");
-        } else {
-            resultTextArea.append("✓ Оба алгоритма выполнили одинаковое количество перестановок\n");
+        File[] files = chooseSortFiles();
+        if (files == null) {
+            return;
         }
+        final File input = files[0];
+        final File output = files[1];
+        final int warmups = warmupRuns;
+        final int repetitions = measuredRuns;
 
-        if (duration1 > duration2) {
-            resultTextArea.append("✓ Бинарные вставки быстрее (на " +
-                    NumberFormat.getNumberInstance().format(duration1 - duration2) + " мс)\n");
-        } else if (duration1 < duration2) {
-            resultTextArea.append("✓ Простые вставки быстрее (на " +
-                    NumberFormat.getNumberInstance().format(duration2 - duration1) + " мс)\n");
-        } else {
-            resultTextArea.append("✓ Оба алгоритма выполнились за одинаковое время\n");
-        }
+        SwingWorker<SortExperimentResult, Void> worker = new SwingWorker<SortExperimentResult, Void>() {
+            @Override
+            protected SortExperimentResult doInBackground() throws IOException {
+                SortProgress progress = new SortProgress();
+                currentProgress = progress;
+                return OffHeapExperiment.sortFile(sortType, input, output, warmups, repetitions, progress);
+            }
 
-        // Сохраняем результаты экспериментов для графика
-        experimentResults.add(new SortExperimentResult(
-                currentArray.length,
-                "Простые вставки",
-                result1.comparisons,
-                result1.swaps,
-                duration1
-        ));
+            @Override
+            protected void done() {
+                SortExperimentResult result = finishBackgroundTask(this);
+                if (result == null) {
+                    return;
+                }
 
-        experimentResults.add(new SortExperimentResult(
-                currentArray.length,
-                "Бинарные вставки",
-                result2.comparisons,
-                result2.swaps,
-                duration2
-        ));
+                resultTextArea.append("\n===== Сортировка вне кучи =====\n");
+                resultTextArea.append("Метод сортировки: " + sortType.getName() + "\n");
+                resultTextArea.append("Исходный файл: " + input.getName() + ", результат: " + output.getName() + "\n");
+                resultTextArea.append("Размер массива: " + NumberFormat.getNumberInstance().format(result.arraySize) + "\n");
+                appendTiming(result, "");
+                resultTextArea.append("Количество сравнений: " + NumberFormat.getNumberInstance().format(result.comparisons) + "\n");
+                resultTextArea.append("Количество вставок: " + NumberFormat.getNumberInstance().format(result.swaps) + "\n");
+                appendPassesAndMemory(result, "");
 
-        // Обновляем график
-        updateChart();
+                recordResults(Collections.singletonList(result));
+            }
+        };
+        startBackgroundTask(worker);
     }
 
     /**
-     * Очистка всех данных приложения и графика
+     * Внешняя сортировка двоичного файла массива: фрагменты сортируются в памяти выбранным алгоритмом,
+     * записываются во временные серии и сливаются k-путевым слиянием
      */
-    private void clearResults() {
-        // Очищаем текущий массив
-        currentArray = null;
+    private void sortFileExternal() {
+        final SortAlgorithm sortType = (SortAlgorithm) sortTypeComboBox.getSelectedItem();
+        File[] files = chooseSortFiles();
+        if (files == null) {
+            return;
+        }
+        final File input = files[0];
+        final File output = files[1];
 
-        // Очищаем текстовую область результатов
-        resultTextArea.setText("Все данные очищены. Вы можете сгенерировать или загрузить новый массив.");
+        String chunkText = JOptionPane.showInputDialog(this, "Размер фрагмента (элементов):",
+                ExternalMergeSort.defaultChunkElements());
+        if (chunkText == null) {
+            return;
+        }
+        final ExternalMergeSort externalSort;
+        try {
+            externalSort = new ExternalMergeSort(sortType, Integer.parseInt(chunkText.trim()), null);
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, "Некорректный размер фрагмента: " + chunkText,
+                    "Ошибка", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
 
-        // Очищаем историю экспериментов
-        experimentResults.clear();
+        SwingWorker<SortExperimentResult, Void> worker = new SwingWorker<SortExperimentResult, Void>() {
+            @Override
+            protected SortExperimentResult doInBackground() throws IOException {
+                SortProgress progress = new SortProgress();
+                currentProgress = progress;
+                return externalSort.sortFile(input, output, progress);
+            }
+
+            @Override
+            protected void done() {
+                SortExperimentResult result = finishBackgroundTask(this);
+                if (result == null) {
+                    return;
+                }
 
-        // Очищаем график
-        chartPanel.removeAll();
-        chartPanel.revalidate();
-        chartPanel.repaint();
+                ExternalSortStats stats = result.external;
+                NumberFormat format = NumberFormat.getNumberInstance();
+                resultTextArea.append("\n===== Внешняя сортировка =====\n");
+                resultTextArea.append("Сортировка фрагментов: " + sortType.getName() + ", фрагмент: "
+                        + format.format(externalSort.getChunkElements()) + " элементов\n");
+                resultTextArea.append("Исходный файл: " + input.getName() + ", результат: " + output.getName() + "\n");
+                resultTextArea.append("Размер массива: " + format.format(result.arraySize) + "\n");
+                appendTiming(result, "");
+                resultTextArea.append("Серий: " + stats.runs + ", проходов слияния: " + stats.mergePasses + "\n");
+                resultTextArea.append("Разбиение: " + format.format(stats.runNanos / 1000000) + " мс, прочитано "
+                        + format.format(stats.runReadBytes) + " байт, записано " + format.format(stats.runWriteBytes) + " байт\n");
+                resultTextArea.append("Слияние: " + format.format(stats.mergeNanos / 1000000) + " мс, прочитано "
+                        + format.format(stats.mergeReadBytes) + " байт, записано " + format.format(stats.mergeWriteBytes) + " байт\n");
+                resultTextArea.append("Количество сравнений: " + format.format(result.comparisons) + "\n");
+                resultTextArea.append("Количество вставок: " + format.format(result.swaps) + "\n");
+                resultTextArea.append("Вспомогательная память: " + format.format(result.scratchBytes) + " байт\n");
+
+                recordResults(Collections.singletonList(result));
+            }
+        };
+        startBackgroundTask(worker);
     }
 
     /**
-     * Обновление графика сравнения алгоритмов
+     * Выбор исходного двоичного файла массива и файла результата (по умолчанию — имя исходного с суффиксом -sorted)
+     * @return исходный файл и файл результата или null, если выбор отменен
      */
-    private void updateChart() {
-        // Очищаем панель графика если нет данных
-        if (experimentResults.isEmpty()) {
-            chartPanel.removeAll();
-            chartPanel.revalidate();
-            chartPanel.repaint();
-            return;
+    private File[] chooseSortFiles() {
+        JFileChooser inputChooser = new JFileChooser();
+        inputChooser.setDialogTitle("Двоичный файл массива");
+        if (inputChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return null;
         }
-
-        // Создаем три набора данных для разных характеристик
-        DefaultCategoryDataset comparisonDataset = new DefaultCategoryDataset();
-        DefaultCategoryDataset swapsDataset = new DefaultCategoryDataset();
-        DefaultCategoryDataset timeDataset = new DefaultCategoryDataset();
-
-        // Заполняем наборы данных
-        for (SortExperimentResult result : experimentResults) {
-            String label = result.algorithm + " (n=" + NumberFormat.getNumberInstance().format(result.arraySize) + ")";
-            comparisonDataset.addValue(result.comparisons, "Сравнения", label);
-            swapsDataset.addValue(result.swaps, "Вставки", label);
-            timeDataset.addValue(result.timeMs, "Время (мс)", label);
+        File input = inputChooser.getSelectedFile();
+
+        JFileChooser outputChooser = new JFileChooser(input.getParentFile());
+        outputChooser.setDialogTitle("Файл для отсортированного массива");
+        String name = input.getName();
+        int dot = name.lastIndexOf('.');
+        outputChooser.setSelectedFile(new File(input.getParentFile(),
+                (dot > 0 ? name.substring(0, dot) : name) + "-sorted" + (dot > 0 ? name.substring(dot) : ".bin")));
+        if (outputChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return null;
         }
+        return new File[]{input, outputChooser.getSelectedFile()};
+    }
 
-        // Создаем три графика
-        JFreeChart comparisonChart = createBarChart(comparisonDataset, "Количество сравнений");
-        JFreeChart swapsChart = createBarChart(swapsDataset, "Количество вставок");
-        JFreeChart timeChart = createBarChart(timeDataset, "Время выполнения (мс)");
+    /**
+     * Замер ускорения и эффективности параллельной сортировки на текущем массиве
+     * при количестве потоков 1, 2, 4, ... до количества процессоров.
+     */
+    private void measureParallelScaling() {
+        if (currentArray == null || currentArray.length == 0) {
+            JOptionPane.showMessageDialog(this,
+                    "Нет данных для сортировки. Сначала загрузите или сгенерируйте массив.",
+                    "Предупреждение", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
 
-        // Создаем панели для графиков
-        ChartPanel comparisonChartPanel = new ChartPanel(comparisonChart);
-        ChartPanel swapsChartPanel = new ChartPanel(swapsChart);
-        ChartPanel timeChartPanel = new ChartPanel(timeChart);
+        final int[] sourceArray = currentArray;
+        final int[] threadCounts = ParallelScaling.defaultThreadCounts();
 
-        // Создаем панель с табами для графиков
-        JTabbedPane tabbedPane = new JTabbedPane();
-        tabbedPane.addTab("Сравнения", comparisonChartPanel);
-        tabbedPane.addTab("Вставки", swapsChartPanel);
-        tabbedPane.addTab("Время", timeChartPanel);
+        SwingWorker<List<ParallelScaling.Point>, Void> worker = new SwingWorker<List<ParallelScaling.Point>, Void>() {
+            @Override
+            protected List<ParallelScaling.Point> doInBackground() {
+                SortProgress progress = new SortProgress();
+                currentProgress = progress;
+                return ParallelScaling.measure(sourceArray, threadCounts, ParallelSort.DEFAULT_THRESHOLD,
+                        SCALING_REPETITIONS, progress);
+            }
 
-        // Обновляем панель с графиком
-        chartPanel.removeAll();
-        chartPanel.add(tabbedPane, BorderLayout.CENTER);
-        chartPanel.revalidate();
-        chartPanel.repaint();
+            @Override
+            protected void done() {
+                List<ParallelScaling.Point> points = finishBackgroundTask(this);
+                if (points == null) {
+                    return;
+                }
+                showScaling(sourceArray.length, points);
+            }
+        };
+        startBackgroundTask(worker);
     }
 
     /**
-     * Создание столбчатой диаграммы
+     * Диалог серии экспериментов: диапазон размеров, знаменатель прогрессии и распределение
+     */
+    private void showSweepDialog() {
+        JPanel panel = new JPanel(new GridLayout(5, 2));
+        panel.add(new JLabel("Наименьший размер:"));
+        JTextField minField = new JTextField("1000");
+        panel.add(minField);
+        panel.add(new JLabel("Наибольший размер:"));
+        JTextField maxField = new JTextField("1000000");
+        panel.add(maxField);
+        panel.add(new JLabel("Знаменатель прогрессии:"));
+        JTextField factorField = new JTextField("2");
+        panel.add(factorField);
+        panel.add(new JLabel("Максимальное значение:"));
+        JTextField maxValueField = new JTextField("1000000");
+        panel.add(maxValueField);
+        panel.add(new JLabel("Распределение:"));
+        JComboBox<ArrayShape> shapeComboBox = createShapeComboBox();
+        panel.add(shapeComboBox);
+
+        int result = JOptionPane.showConfirmDialog(this, panel, "Серия размеров", JOptionPane.OK_CANCEL_OPTION);
+        if (result != JOptionPane.OK_OPTION) {
+            return;
+        }
+        try {
+            int[] sizes = ComplexitySweep.geometricSizes(Integer.parseInt(minField.getText().trim()),
+                    Integer.parseInt(maxField.getText().trim()), Double.parseDouble(factorField.getText().trim()));
+            ArrayGenerator generator = new ArrayGenerator((ArrayShape) shapeComboBox.getSelectedItem(),
+                    Integer.parseInt(maxValueField.getText().trim()), new Random().nextLong());
+            runSweep(sizes, generator);
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Введите корректные числа",
+                    "Ошибка", JOptionPane.ERROR_MESSAGE);
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Ошибка", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * Серия экспериментов всех алгоритмов по размерам массива в фоновом потоке
+     * @param sizes возрастающие размеры
+     * @param generator генератор массивов
+     */
+    private void runSweep(final int[] sizes, final ArrayGenerator generator) {
+        final List<SortAlgorithm> algorithms = SortAlgorithms.getAll();
+        final int warmups = warmupRuns;
+        final int repetitions = measuredRuns;
+
+        SwingWorker<List<ComplexitySweep.Curve>, Void> worker = new SwingWorker<List<ComplexitySweep.Curve>, Void>() {
+            @Override
+            protected List<ComplexitySweep.Curve> doInBackground() {
+                SortProgress progress = new SortProgress();
+                currentProgress = progress;
+                return ComplexitySweep.run(algorithms, sizes, generator, warmups, repetitions, progress);
+            }
+
+            @Override
+            protected void done() {
+                List<ComplexitySweep.Curve> curves = finishBackgroundTask(this);
+                if (curves == null) {
+                    return;
+                }
+                showSweep(sizes, generator, curves);
+            }
+        };
+        startBackgroundTask(worker);
+    }
+
+    /**
+     * Вывод серии по размерам: точки каждого алгоритма, подобранная асимптотика
+     * и ожидаемое время на размерах больше измеренных
+     * @param sizes размеры серии
+     * @param generator генератор массивов серии
+     * @param curves кривые алгоритмов
+     */
+    private void showSweep(int[] sizes, ArrayGenerator generator, List<ComplexitySweep.Curve> curves) {
+        NumberFormat format = NumberFormat.getNumberInstance();
+        int maxSize = sizes[sizes.length - 1];
+        resultTextArea.append("\n===== Серия размеров =====\n");
+        resultTextArea.append("Распределение: " + generator.getShape().getDisplayName()
+                + " (зерно " + generator.getSeed() + ")\n");
+        resultTextArea.append("Размеры: " + format.format(sizes[0]) + " … " + format.format(maxSize)
+                + " (" + sizes.length + " точек)\n");
+
+        for (ComplexitySweep.Curve curve : curves) {
+            resultTextArea.append("\n" + curve.algorithm.getName() + ":\n");
+            resultTextArea.append(String.format("  %12s %14s %16s %16s%n", "n", "Медиана (мс)", "Сравнения", "Вставки"));
+            for (SortExperimentResult point : curve.points) {
+                resultTextArea.append(String.format("  %12s %14.3f %16s %16s%n", format.format(point.arraySize),
+                        point.getTimeNanos() / 1e6, format.format(point.comparisons), format.format(point.swaps)));
+            }
+            if (curve.points.isEmpty() || curve.points.get(curve.points.size() - 1).arraySize < maxSize) {
+                resultTextArea.append("  Большие размеры пропущены: ожидаемое время прогона больше лимита\n");
+            }
+            appendFit("сравнения", curve.comparisons);
+            appendFit("вставки", curve.moves);
+            appendFit("время (нс)", curve.time);
+            if (curve.time != null) {
+                for (long n = (long) maxSize * 10; n <= (long) maxSize * 100; n *= 10) {
+                    resultTextArea.append(String.format("  Ожидаемое время при n=%s: %.3f мс%n",
+                            format.format(n), curve.time.predict(n) / 1e6));
+                }
+            }
+        }
+
+        List<SortExperimentResult> points = new ArrayList<>();
+        for (ComplexitySweep.Curve curve : curves) {
+            points.addAll(curve.points);
+        }
+        storeResults(points);
+
+        sweepResults = curves;
+        updateSweepCharts();
+    }
+
+    /**
+     * Вывод подобранной асимптотики одной величины
+     * @param name название величины
+     * @param fit результат подбора (null, если точек недостаточно)
+     */
+    private void appendFit(String name, ComplexityFit fit) {
+        if (fit == null) {
+            resultTextArea.append("  " + name + ": недостаточно ненулевых точек для подбора\n");
+        } else {
+            resultTextArea.append(String.format("  %s %s, ошибка %.1f%%%n", name, fit.describe(), fit.getError() * 100));
+        }
+    }
+
+    /**
+     * Вывод таблицы масштабируемости параллельной сортировки
+     * @param size размер массива
+     * @param points результаты по количеству потоков
+     */
+    private void showScaling(int size, List<ParallelScaling.Point> points) {
+        resultTextArea.append("\n===== Масштабирование параллельной сортировки =====\n");
+        resultTextArea.append("Размер массива: " + NumberFormat.getNumberInstance().format(size) + "\n");
+        resultTextArea.append("Процессоров: " + Runtime.getRuntime().availableProcessors() + "\n\n");
+        resultTextArea.append(String.format("%-8s %14s %12s %14s%n", "Потоки", "Медиана (мс)", "Ускорение", "Эффективность"));
+        for (ParallelScaling.Point point : points) {
+            resultTextArea.append(String.format("%-8d %14.3f %12.2f %13.0f%%%n", point.threads,
+                    point.timing.getMedian() / 1e6, point.speedup, point.efficiency * 100));
+        }
+
+        scalingResults = points;
+        updateScalingChart();
+    }
+
+    /**
+     * Вывод результатов сравнения алгоритмов
+     * @param results результаты алгоритмов на одном массиве
+     */
+    private void showComparison(List<SortExperimentResult> results) {
+        resultTextArea.append("\n===== Сравнение алгоритмов сортировки =====\n");
+        resultTextArea.append("Размер массива: " + NumberFormat.getNumberInstance().format(results.get(0).arraySize) + "\n\n");
+
+        // Вывод результатов
+        for (SortExperimentResult result : results) {
+            resultTextArea.append(result.algorithm + ":\n");
+            appendStrategy(result, "  ");
+            appendTiming(result, "  ");
+            resultTextArea.append("  Количество сравнений: " + NumberFormat.getNumberInstance().format(result.comparisons) + "\n");
+            resultTextArea.append("  Количество вставок: " + NumberFormat.getNumberInstance().format(result.swaps) + "\n");
+            appendTheoryCheck(result, "  ");
+            appendPassesAndMemory(result, "  ");
+            resultTextArea.append("\n");
+        }
+
+        // Добавляем выделенную секцию выводов с Unicode-символами
+        resultTextArea.append("\n■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■\n");
+        resultTextArea.append("                     ВЫВОДЫ                     \n");
+        resultTextArea.append("■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■■\n");
+
+        long[] comparisons = new long[results.size()];
+        long[] swaps = new long[results.size()];
+        long[] durations = new long[results.size()];
+        for (int i = 0; i < results.size(); i++) {
+            comparisons[i] = results.get(i).comparisons;
+            swaps[i] = results.get(i).swaps;
+            durations[i] = Math.round(results.get(i).getTimeNanos());
+        }
+        appendConclusion(results, comparisons, "требует меньше всего сравнений",
+                "Все алгоритмы выполнили одинаковое количество сравнений", "");
+        appendConclusion(results, swaps, "требует меньше всего перестановок",
+                "Все алгоритмы выполнили одинаковое количество перестановок", "");
+        appendConclusion(results, durations, "быстрее всех",
+                "Все алгоритмы выполнились за одинаковое время", " нс");
+
+        // Сохраняем результаты экспериментов для графика и в хранилище
+        recordResults(results);
+    }
+
+    /**
+     * Добавление новых результатов в историю текущего массива, на графики и в хранилище
+     * @param results результаты экспериментов
+     */
+    private void recordResults(List<SortExperimentResult> results) {
+        experimentResults.addAll(results);
+        addChartResults(results);
+        storeResults(results);
+    }
+
+    /**
+     * Запись результатов в постоянное хранилище в фоновом потоке: добавление сбрасывает файл на диск
+     * (десятки миллисекунд на медленном диске), и интерфейс не должен его ждать. Записи выполняются по очереди
+     * в порядке вызовов.
+     * @param results результаты экспериментов
+     */
+    private void storeResults(List<SortExperimentResult> results) {
+        if (resultStore == null) {
+            return;
+        }
+        final ResultStore store = resultStore;
+        final List<SortExperimentResult> batch = new ArrayList<>(results);
+        storeExecutor.execute(() -> {
+            try {
+                store.append(batch);
+            } catch (IOException ex) {
+                SwingUtilities.invokeLater(() -> resultTextArea.append(
+                        "Не удалось записать результаты в хранилище: " + ex.getMessage() + "\n"));
+            }
+        });
+    }
+
+    /**
+     * Ожидание записей в хранилище, поставленных в очередь до закрытия окна
+     */
+    private void finishStoreWrites() {
+        storeExecutor.shutdown();
+        try {
+            storeExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Открытие хранилища результатов прошлых запусков ({@link ResultStore#defaultFile()})
+     */
+    private void openResultStore() {
+        File file = ResultStore.defaultFile();
+        try {
+            resultStore = new ResultStore(file);
+            resultTextArea.setText("Хранилище результатов: " + file + " (записей: "
+                    + NumberFormat.getNumberInstance().format(resultStore.size()) + ")\n");
+            if (resultStore.getDiscardedBytes() > 0) {
+                resultTextArea.append("Отброшена оборванная запись в конце хранилища ("
+                        + resultStore.getDiscardedBytes() + " байт)\n");
+            }
+            if (resultStore.getCorruptRecords() > 0) {
+                resultTextArea.append("Пропущено поврежденных записей (неверная контрольная сумма): "
+                        + resultStore.getCorruptRecords() + "\n");
+            }
+        } catch (IOException ex) {
+            resultTextArea.setText("Хранилище результатов недоступно (" + file + "): " + ex.getMessage()
+                    + "\nРезультаты этого сеанса не будут сохранены между запусками.\n");
+        }
+    }
+
+    /**
+     * Диалог выборки из хранилища: фильтры по полям индекса, сводка по группам
+     * и загрузка найденных результатов в текущие (для графиков и сохранения в файл)
+     */
+    private void showHistoryDialog() {
+        if (resultStore == null) {
+            JOptionPane.showMessageDialog(this, "Хранилище результатов недоступно",
+                    "Предупреждение", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        ResultStore.Key[] keys = ResultStore.Key.values();
+        JPanel panel = new JPanel(new GridLayout(keys.length + 1, 2));
+        List<JComboBox<String>> filters = new ArrayList<>();
+        for (ResultStore.Key key : keys) {
+            panel.add(new JLabel(key.getDisplayName() + ":"));
+            JComboBox<String> comboBox = new JComboBox<>();
+            comboBox.addItem("любое");
+            for (String value : resultStore.values(key)) {
+                comboBox.addItem(value);
+            }
+            panel.add(comboBox);
+            filters.add(comboBox);
+        }
+        JCheckBox loadCheckBox = new JCheckBox("Загрузить в текущие результаты");
+        loadCheckBox.setToolTipText("Добавить найденные результаты к сохраняемым в файл и показать на графиках "
+                + "последний запуск каждой группы");
+        panel.add(loadCheckBox);
+
+        int result = JOptionPane.showConfirmDialog(this, panel, "История результатов", JOptionPane.OK_CANCEL_OPTION);
+        if (result != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        Map<ResultStore.Key, String> filter = new EnumMap<>(ResultStore.Key.class);
+        for (int i = 0; i < keys.length; i++) {
+            if (filters.get(i).getSelectedIndex() > 0) {
+                filter.put(keys[i], (String) filters.get(i).getSelectedItem());
+            }
+        }
+        long startTime = System.nanoTime();
+        List<SortExperimentResult> found = resultStore.find(filter);
+        List<ResultStore.Group> groups = ResultStore.aggregate(found);
+        long queryMicros = (System.nanoTime() - startTime) / 1000;
+        showHistory(filter, found, groups, queryMicros);
+
+        if (loadCheckBox.isSelected() && !found.isEmpty()) {
+            experimentResults.addAll(found);
+            List<SortExperimentResult> latest = new ArrayList<>();
+            for (ResultStore.Group group : groups) {
+                latest.add(group.getLatest());
+            }
+            addChartResults(latest);
+        }
+    }
+
+    /**
+     * Вывод сводки выборки из хранилища
+     * @param filter условия выборки
+     * @param found найденные результаты
+     * @param groups группы по алгоритму, размеру и распределению
+     * @param queryMicros время выборки и группировки, мкс
+     */
+    private void showHistory(Map<ResultStore.Key, String> filter, List<SortExperimentResult> found,
+                             List<ResultStore.Group> groups, long queryMicros) {
+        NumberFormat format = NumberFormat.getNumberInstance();
+        resultTextArea.append("\n===== История результатов =====\n");
+        StringBuilder conditions = new StringBuilder();
+        for (Map.Entry<ResultStore.Key, String> entry : filter.entrySet()) {
+            conditions.append(conditions.length() > 0 ? ", " : "")
+                    .append(entry.getKey().getDisplayName()).append(" = ").append(entry.getValue());
+        }
+        resultTextArea.append("Условия: " + (conditions.length() > 0 ? conditions : "все записи") + "\n");
+        resultTextArea.append("Найдено: " + format.format(found.size()) + " из " + format.format(resultStore.size())
+                + " записей, групп: " + groups.size() + " (" + format.format(queryMicros) + " мкс)\n");
+        if (groups.isEmpty()) {
+            return;
+        }
+
+        resultTextArea.append(String.format("%n%-24s %-24s %12s %8s %14s %14s %16s %16s%n", "Алгоритм",
+                "Распределение", "n", "Запусков", "Медиана (мс)", "Лучшее (мс)", "Сравнения", "Вставки"));
+        for (ResultStore.Group group : groups) {
+            resultTextArea.append(String.format("%-24s %-24s %12s %8d %14.3f %14.3f %16s %16s%n",
+                    group.getAlgorithm(), group.getDistribution(), format.format(group.getArraySize()),
+                    group.getResults().size(), group.getMedianNanos() / 1e6, group.getMinNanos() / 1e6,
+                    format.format(Math.round(group.getMeanComparisons())),
+                    format.format(Math.round(group.getMeanSwaps()))));
+        }
+    }
+
+    /**
+     * Вывод времени выполнения с точностью до наносекунд: медиана и статистика повторов
+     * @param result результат эксперимента
+     * @param indent отступ строк
+     */
+    private void appendTiming(SortExperimentResult result, String indent) {
+        TimingStats timing = result.timing;
+        if (timing == null) {
+            resultTextArea.append(indent + "Время выполнения: " + NumberFormat.getNumberInstance().format(result.timeMs) + " мс\n");
+            return;
+        }
+        resultTextArea.append(indent + String.format("Время выполнения (медиана): %.3f мс%n", timing.getMedian() / 1e6));
+        if (timing.getCount() > 1) {
+            resultTextArea.append(indent + String.format(
+                    "  мин %.3f, среднее %.3f, p95 %.3f, p99 %.3f, ст. откл. %.3f мс (повторов: %d, прогрев: %d)%n",
+                    timing.getMin() / 1e6, timing.getMean() / 1e6, timing.getP95() / 1e6, timing.getP99() / 1e6,
+                    timing.getStddev() / 1e6, timing.getCount(), result.warmups));
+        }
+    }
+
+    /**
+     * Вывод проходов распределения и использованной памяти, если алгоритм их использует
+     * @param result результат эксперимента
+     * @param indent отступ строк
+     */
+    private void appendPassesAndMemory(SortExperimentResult result, String indent) {
+        if (result.passes > 0) {
+            resultTextArea.append(indent + "Проходов распределения: " + NumberFormat.getNumberInstance().format(result.passes) + "\n");
+        }
+        if (result.scratchBytes > 0) {
+            resultTextArea.append(indent + "Вспомогательная память: " + NumberFormat.getNumberInstance().format(result.scratchBytes) + " байт\n");
+        }
+        if (result.offHeapBytes == 0) {
+            resultTextArea.append(indent + "Массивы в куче (исходный и рабочий): " + NumberFormat.getNumberInstance().format(2L * result.arraySize * Integer.BYTES) + " байт\n");
+        } else {
+            resultTextArea.append(indent + "Память вне кучи (отображенные файлы): " + NumberFormat.getNumberInstance().format(result.offHeapBytes) + " байт\n");
+            resultTextArea.append(indent + "Занято в куче: " + NumberFormat.getNumberInstance().format(result.heapBytes) + " байт\n");
+        }
+        appendAllocations(result, indent);
+    }
+
+    /**
+     * Вывод ядра, выбранного автоматически, и доли предварительного прохода во времени сортировки
+     * @param result результат эксперимента
+     * @param indent отступ строк
+     */
+    private void appendStrategy(SortExperimentResult result, String indent) {
+        if (result.strategy == null) {
+            return;
+        }
+        double share = result.getTimeNanos() > 0 ? 100 * result.prepassNanos / result.getTimeNanos() : 0;
+        resultTextArea.append(indent + "Выбранное ядро: " + result.strategy + "\n");
+        resultTextArea.append(indent + String.format("Предварительный проход: %.3f мс (%.1f%% времени)",
+                result.prepassNanos / 1e6, Math.min(share, 100)) + "\n");
+    }
+
+    /**
+     * Вывод показателей упорядоченности массива
+     * @param presortedness показатели упорядоченности
+     */
+    private void appendPresortedness(Presortedness presortedness) {
+        NumberFormat format = NumberFormat.getNumberInstance();
+        long maxInversions = presortedness.getMaxInversions();
+        resultTextArea.append(String.format("\nАнализ упорядоченности (%.1f мс):%n", presortedness.getNanos() / 1e6));
+        resultTextArea.append("  Инверсии: " + format.format(presortedness.getInversions())
+                + String.format(" (%.2f%% от наибольшего)",
+                maxInversions > 0 ? 100.0 * presortedness.getInversions() / maxInversions : 0) + "\n");
+        resultTextArea.append("  Серии неубывания: " + format.format(presortedness.getRuns())
+                + ", наибольшая: " + format.format(presortedness.getLongestRun()) + "\n");
+        resultTextArea.append("  Rem (лишние элементы): " + format.format(presortedness.getRem())
+                + ", Osc (колебания): " + format.format(presortedness.getOsc()) + "\n");
+        resultTextArea.append("  У сортировки вставками вставок будет столько же, сколько инверсий\n");
+    }
+
+    /**
+     * Сверка количества вставок с теорией для упорядоченности исходного массива
+     * @param result результат эксперимента
+     * @param indent отступ строк
+     */
+    private void appendTheoryCheck(SortExperimentResult result, String indent) {
+        if (result.expectedMoves < 0) {
+            return;
+        }
+        NumberFormat format = NumberFormat.getNumberInstance();
+        if (result.isMovesAsExpected()) {
+            resultTextArea.append(indent + "Вставки совпадают с теорией (инверсии исходного массива)\n");
+        } else {
+            resultTextArea.append(indent + "ВНИМАНИЕ: вставок " + format.format(result.swaps)
+                    + ", а по теории должно быть " + format.format(result.expectedMoves) + "\n");
+        }
+    }
+
+    /**
+     * Вывод выделений памяти потоком сортировки, сборок мусора и пикового заполнения кучи
+     * @param result результат эксперимента
+     * @param indent отступ строк
+     */
+    private void appendAllocations(SortExperimentResult result, String indent) {
+        NumberFormat format = NumberFormat.getNumberInstance();
+        resultTextArea.append(indent + "Выделено за прогон: " + (result.allocatedBytes < 0
+                ? "нет данных" : format.format(result.allocatedBytes) + " байт") + "\n");
+        resultTextArea.append(indent + "Сборок мусора: " + format.format(result.gcCount)
+                + " (" + format.format(result.gcTimeMs) + " мс), пиковая куча: "
+                + format.format(result.peakHeapBytes) + " байт\n");
+    }
+
+    /**
+     * Вывод одного вывода сравнения: лучший алгоритм по показателю и отрыв от следующего
+     * @param results результаты алгоритмов
+     * @param values значения показателя (меньше — лучше)
+     * @param bestText текст для лучшего алгоритма
+     * @param equalText текст, если у всех алгоритмов одинаковое значение
+     * @param unit единица измерения отрыва
+     */
+    private void appendConclusion(List<SortExperimentResult> results, long[] values,
+                                  String bestText, String equalText, String unit) {
+        int best = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] < values[best]) {
+                best = i;
+            }
+        }
+        int second = -1;
+        for (int i = 0; i < values.length; i++) {
+            if (i != best && (second < 0 || values[i] < values[second])) {
+                second = i;
+            }
+        }
+
+        boolean allEqual = true;
+        for (long value : values) {
+            allEqual &= value == values[best];
+        }
+
+        if (allEqual) {
+            resultTextArea.append("✓ " + equalText + "\n");
+        } else if (values[second] == values[best]) {
+            resultTextArea.append("✓ " + results.get(best).algorithm + " " + bestText +
+                    " (наравне с " + results.get(second).algorithm + ")\n");
+        } else {
+            resultTextArea.append("✓ " + results.get(best).algorithm + " " + bestText + " (на " +
+                    NumberFormat.getNumberInstance().format(values[second] - values[best]) + unit +
+                    " меньше, чем " + results.get(second).algorithm + ")\n");
+        }
+    }
+
+    /**
+     * Запуск фоновой задачи сортировки: блокировка кнопок и запуск таймера прогресса
+     * @param worker фоновая задача
+     */
+    private void startBackgroundTask(SwingWorker<?, ?> worker) {
+        for (JButton button : actionButtons) {
+            button.setEnabled(false);
+        }
+        cancelButton.setEnabled(true);
+        progressBar.setValue(0);
+        progressLabel.setText("Сортировка...");
+        currentWorker = worker;
+        progressTimer.start();
+        worker.execute();
+    }
+
+    /**
+     * Завершение фоновой задачи сортировки (вызывается в потоке обработки событий)
+     * @param worker завершившаяся задача
+     * @return результат задачи или null, если задача отменена или завершилась с ошибкой
+     */
+    private <T> T finishBackgroundTask(SwingWorker<T, ?> worker) {
+        progressTimer.stop();
+        refreshProgress();
+        currentWorker = null;
+        currentProgress = null;
+        for (JButton button : actionButtons) {
+            button.setEnabled(true);
+        }
+        cancelButton.setEnabled(false);
+
+        if (worker.isCancelled()) {
+            progressLabel.setText("Отменено");
+            resultTextArea.append("\nСортировка отменена пользователем\n");
+            return null;
+        }
+
+        try {
+            T result = worker.get();
+            progressBar.setValue(100);
+            progressLabel.setText("Готово");
+            return result;
+        } catch (InterruptedException | ExecutionException | CancellationException ex) {
+            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof CancellationException) {
+                progressLabel.setText("Отменено");
+                resultTextArea.append("\nСортировка отменена пользователем\n");
+            } else {
+                progressLabel.setText("Ошибка");
+                JOptionPane.showMessageDialog(this, "Ошибка при сортировке: " + cause,
+                        "Ошибка", JOptionPane.ERROR_MESSAGE);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Отмена выполняющейся сортировки
+     */
+    private void cancelSorting() {
+        SortProgress progress = currentProgress;
+        if (progress != null) {
+            progress.cancel();
+        }
+        if (currentWorker != null) {
+            currentWorker.cancel(false);
+        }
+    }
+
+    /**
+     * Обновление индикатора выполнения и текущих счетчиков (вызывается по таймеру)
+     */
+    private void refreshProgress() {
+        SortProgress progress = currentProgress;
+        if (progress == null) {
+            return;
+        }
+        progressBar.setValue(progress.getPercent());
+        progressLabel.setText(progress.getName()
+                + " | сравнений: " + NumberFormat.getNumberInstance().format(progress.getComparisons())
+                + " | вставок: " + NumberFormat.getNumberInstance().format(progress.getSwaps()));
+    }
+
+    /**
+     * Очистка всех данных приложения и графика
+     */
+    private void clearResults() {
+        // Очищаем текущий массив
+        currentArray = null;
+        currentShape = ArrayShape.UNKNOWN;
+        currentSeed = 0;
+        currentPresortedness = null;
+
+        // Очищаем текстовую область результатов
+        resultTextArea.setText("Все данные очищены. Вы можете сгенерировать или загрузить новый массив.");
+
+        // Очищаем историю экспериментов
+        experimentResults.clear();
+        scalingResults = new ArrayList<>();
+        sweepResults = new ArrayList<>();
+
+        // Очищаем графики
+        clearChartResults();
+        updateScalingChart();
+        updateSweepCharts();
+    }
+
+    /**
+     * Создание вкладок графиков. Графики и наборы данных создаются один раз; новые результаты
+     * добавляются в наборы данных, а вкладка появляется, когда для нее есть данные.
+     */
+    private void createCharts() {
+        chartTabs = new JTabbedPane();
+        chartPanel.add(chartTabs, BorderLayout.CENTER);
+
+        comparisonDataset = new BatchCategoryDataset();
+        swapsDataset = new BatchCategoryDataset();
+        memoryDataset = new BatchCategoryDataset();
+        timeDataset = new BatchStatisticalCategoryDataset();
+        comparisonChartPanel = new ChartPanel(createBarChart(comparisonDataset, "Количество сравнений"));
+        swapsChartPanel = new ChartPanel(createBarChart(swapsDataset, "Количество вставок"));
+        memoryChartPanel = new ChartPanel(createBarChart(memoryDataset, "Память (байт)"));
+        timeChartPanel = new ChartPanel(createTimeChart(timeDataset));
+
+        speedupSeries = new XYSeries("Ускорение");
+        efficiencySeries = new XYSeries("Эффективность");
+        idealSeries = new XYSeries("Идеальное ускорение");
+        scalingChartPanel = new ChartPanel(createScalingChart());
+
+        for (int i = 0; i < sweepCharts.length; i++) {
+            sweepCharts[i] = createSweepChart(SWEEP_AXIS_LABELS[i]);
+        }
+
+        chartRefreshTimer = new Timer(CHART_REFRESH_MS, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                refreshCharts();
+            }
+        });
+        chartRefreshTimer.setRepeats(false);
+    }
+
+    /**
+     * Добавление результатов на графики сравнения. Наборы данных не уведомляют графики о каждом
+     * значении, перерисовка выполняется одна на все изменения за {@value #CHART_REFRESH_MS} мс.
+     * @param results новые результаты
+     */
+    private void addChartResults(List<SortExperimentResult> results) {
+        for (SortExperimentResult result : results) {
+            String label = result.algorithm + " (n=" + NumberFormat.getNumberInstance().format(result.arraySize) + ")";
+            comparisonDataset.addValue(result.comparisons, "Сравнения", label);
+            swapsDataset.addValue(result.swaps, "Вставки", label);
+            memoryDataset.addValue(Math.max(0, result.allocatedBytes), "Выделено за прогон", label);
+            memoryDataset.addValue(result.peakHeapBytes, "Пиковая куча", label);
+            // Среднее и стандартное отклонение повторов в миллисекундах с дробной частью
+            TimingStats timing = result.timing;
+            timeDataset.add(timing != null ? timing.getMean() / 1e6 : result.timeMs,
+                    timing != null ? timing.getStddev() / 1e6 : 0.0, "Время (мс)", label);
+        }
+        if (!results.isEmpty()) {
+            showChartTab("Сравнения", comparisonChartPanel);
+            showChartTab("Вставки", swapsChartPanel);
+            showChartTab("Память", memoryChartPanel);
+            showChartTab("Время", timeChartPanel);
+        }
+        scheduleChartRefresh();
+    }
+
+    /**
+     * Очистка графиков сравнения (при новом массиве)
+     */
+    private void clearChartResults() {
+        comparisonDataset.clear();
+        swapsDataset.clear();
+        memoryDataset.clear();
+        timeDataset.clear();
+        hideChartTab("Сравнения");
+        hideChartTab("Вставки");
+        hideChartTab("Память");
+        hideChartTab("Время");
+        hideChartTab("Анимация");
+        scheduleChartRefresh();
+    }
+
+    /**
+     * Замена данных графика масштабируемости
+     */
+    private void updateScalingChart() {
+        XYSeries[] series = {speedupSeries, efficiencySeries, idealSeries};
+        for (XYSeries s : series) {
+            s.setNotify(false);
+            s.clear();
+        }
+        for (ParallelScaling.Point point : scalingResults) {
+            speedupSeries.add(point.threads, point.speedup, false);
+            efficiencySeries.add(point.threads, point.efficiency, false);
+            idealSeries.add(point.threads, point.threads, false);
+        }
+        for (XYSeries s : series) {
+            s.setNotify(true);
+        }
+        if (scalingResults.isEmpty()) {
+            hideChartTab("Масштабирование");
+        } else {
+            showChartTab("Масштабирование", scalingChartPanel);
+        }
+    }
+
+    /**
+     * Замена данных графиков серии размеров. Серии строятся до подключения к графику,
+     * а график не перерисовывается, пока не подключены все серии.
+     */
+    private void updateSweepCharts() {
+        List<ToDoubleFunction<SortExperimentResult>> metrics = Arrays.asList(
+                SortExperimentResult::getComparisons, SortExperimentResult::getSwaps, SortExperimentResult::getTimeNanos);
+        List<Function<ComplexitySweep.Curve, ComplexityFit>> fits = Arrays.asList(
+                ComplexitySweep.Curve::getComparisons, ComplexitySweep.Curve::getMoves, ComplexitySweep.Curve::getTime);
+        for (int i = 0; i < sweepCharts.length; i++) {
+            JFreeChart chart = sweepCharts[i].getChart();
+            chart.setNotify(false);
+            fillSweepChart(chart.getXYPlot(), metrics.get(i), fits.get(i));
+            chart.setNotify(true);
+            if (sweepResults.isEmpty()) {
+                hideChartTab(SWEEP_TAB_TITLES[i]);
+            } else {
+                showChartTab(SWEEP_TAB_TITLES[i], sweepCharts[i]);
+            }
+        }
+    }
+
+    /**
+     * Отложенная перерисовка графиков: повторные вызовы до срабатывания таймера объединяются
+     */
+    private void scheduleChartRefresh() {
+        if (!chartRefreshTimer.isRunning()) {
+            chartRefreshTimer.start();
+        }
+    }
+
+    /**
+     * Отправка накопленных изменений наборов данных графикам (по одному событию на набор)
+     */
+    private void refreshCharts() {
+        comparisonDataset.flush();
+        swapsDataset.flush();
+        memoryDataset.flush();
+        timeDataset.flush();
+    }
+
+    /**
+     * Добавление вкладки графика, если ее еще нет
+     */
+    private void showChartTab(String title, Component component) {
+        if (chartTabs.indexOfTab(title) < 0) {
+            chartTabs.addTab(title, component);
+        }
+    }
+
+    private void hideChartTab(String title) {
+        int index = chartTabs.indexOfTab(title);
+        if (index >= 0) {
+            chartTabs.removeTabAt(index);
+        }
+    }
+
+    /**
+     * Создание графика ускорения параллельной сортировки в сравнении с идеальным линейным
+     * @return объект диаграммы
+     */
+    private JFreeChart createScalingChart() {
+        XYSeriesCollection dataset = new XYSeriesCollection();
+        dataset.addSeries(speedupSeries);
+        dataset.addSeries(efficiencySeries);
+        dataset.addSeries(idealSeries);
+
+        JFreeChart chart = ChartFactory.createXYLineChart(
+                "Масштабирование параллельной сортировки",
+                "Количество потоков",
+                "Ускорение / эффективность",
+                dataset,
+                PlotOrientation.VERTICAL,
+                true,
+                true,
+                false
+        );
+        NumberAxis domainAxis = (NumberAxis) chart.getXYPlot().getDomainAxis();
+        domainAxis.setStandardTickUnits(NumberAxis.createIntegerTickUnits());
+        return chart;
+    }
+
+    /**
+     * Создание графика величины в зависимости от размера массива в логарифмическом масштабе по обеим осям
+     * @param yAxisLabel подпись оси Y
+     * @return панель диаграммы
+     */
+    private ChartPanel createSweepChart(String yAxisLabel) {
+        JFreeChart chart = ChartFactory.createXYLineChart(
+                "Зависимость от размера массива",
+                "Размер массива",
+                yAxisLabel,
+                new XYSeriesCollection(),
+                PlotOrientation.VERTICAL,
+                true,
+                true,
+                false
+        );
+        XYPlot plot = chart.getXYPlot();
+        plot.setDomainAxis(new LogAxis("Размер массива (логарифмическая шкала)"));
+        plot.setRangeAxis(new LogAxis(yAxisLabel + " (логарифмическая шкала)"));
+        return new ChartPanel(chart);
+    }
+
+    /**
+     * Заполнение графика серии размеров: для каждого алгоритма измеренные точки и пунктиром —
+     * подобранная модель, продолженная на размеры до 10 раз больше измеренных
+     * @param plot область графика
+     * @param metric величина результата
+     * @param fit подобранная асимптотика величины
+     */
+    private void fillSweepChart(XYPlot plot, ToDoubleFunction<SortExperimentResult> metric,
+                                Function<ComplexitySweep.Curve, ComplexityFit> fit) {
+        XYSeriesCollection dataset = new XYSeriesCollection();
+        XYLineAndShapeRenderer renderer = new XYLineAndShapeRenderer();
+        for (ComplexitySweep.Curve curve : sweepResults) {
+            XYSeries measured = new XYSeries(curve.algorithm.getName());
+            for (SortExperimentResult point : curve.points) {
+                // Нулевые значения на логарифмической оси не отображаются
+                if (metric.applyAsDouble(point) > 0) {
+                    measured.add(point.arraySize, metric.applyAsDouble(point));
+                }
+            }
+            if (measured.getItemCount() == 0) {
+                continue;
+            }
+            int series = dataset.getSeriesCount();
+            dataset.addSeries(measured);
+            renderer.setSeriesShapesVisible(series, true);
+
+            ComplexityFit curveFit = fit.apply(curve);
+            if (curveFit != null) {
+                XYSeries model = new XYSeries(curve.algorithm.getName() + " ≈ " + curveFit.getModel().getFormula());
+                long first = curve.points.get(0).arraySize;
+                long last = curve.points.get(curve.points.size() - 1).arraySize * 10;
+                for (double n = first; n < last * 1.01; n *= Math.sqrt(2)) {
+                    model.add(n, curveFit.predict((long) n));
+                }
+                dataset.addSeries(model);
+                renderer.setSeriesShapesVisible(series + 1, false);
+                renderer.setSeriesStroke(series + 1, new BasicStroke(1.0f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER,
+                        1.0f, new float[]{6.0f, 4.0f}, 0.0f));
+            }
+        }
+        plot.setRenderer(renderer);
+        plot.setDataset(dataset);
+    }
+
+    /**
+     * Создание диаграммы времени: столбец — среднее время повторов, отрезок ошибки — ± стандартное отклонение
+     * @param dataset среднее и стандартное отклонение времени в миллисекундах
+     * @return объект диаграммы
+     */
+    private JFreeChart createTimeChart(DefaultStatisticalCategoryDataset dataset) {
+        JFreeChart chart = createBarChart(dataset, "Время выполнения (мс), среднее ± ст. откл.");
+
+        CategoryPlot plot = chart.getCategoryPlot();
+        StatisticalBarRenderer renderer = new StatisticalBarRenderer();
+        renderer.setDrawBarOutline(true);
+        renderer.setMaximumBarWidth(0.1);
+        renderer.setErrorIndicatorPaint(Color.BLACK);
+        plot.setRenderer(renderer);
+
+        // Время бывает меньше миллисекунды, поэтому оставляем дробные деления шкалы
+        NumberAxis rangeAxis = (NumberAxis) plot.getRangeAxis();
+        rangeAxis.setStandardTickUnits(NumberAxis.createStandardTickUnits());
+        rangeAxis.setNumberFormatOverride(null);
+
+        return chart;
+    }
+
+    /**
+     * Создание столбчатой диаграммы
      * @param dataset набор данных
      * @param yAxisLabel подпись оси Y
      * @return объект диаграммы
      */
-    private JFreeChart createBarChart(DefaultCategoryDataset dataset, String yAxisLabel) {
+    private JFreeChart createBarChart(CategoryDataset dataset, String yAxisLabel) {
         JFreeChart chart = ChartFactory.createBarChart(
                 "Сравнение алгоритмов сортировки",
                 "Алгоритм",
@@ -606,120 +1960,51 @@ public class SortVisualizerApp extends JFrame {
     }
 
     /**
-     * Класс для хранения результатов эксперимента сортировки
+     * Набор данных столбчатой диаграммы с отложенными уведомлениями: изменения накапливаются,
+     * а график получает одно событие при {@link #flush()}
      */
-    static class SortExperimentResult {
-        int arraySize;
-        String algorithm;
-        long comparisons;
-        long swaps;
-        long timeMs;
-        String experimentId; // Уникальный идентификатор эксперимента
-
-        public SortExperimentResult(int arraySize, String algorithm, long comparisons, long swaps, long timeMs) {
-            this.arraySize = arraySize;
-            this.algorithm = algorithm;
-            this.comparisons = comparisons;
-            this.swaps = swaps;
-            this.timeMs = timeMs;
-            // Создаем идентификатор для эксперимента
-            this.experimentId = "Exp_" + System.currentTimeMillis() % 10000;
-        }
-    }
-
-    // Методы сортировки (на основе кода из InsertionSortComparison.java)
-
     /**
-     * Сортировка простыми вставками
-     * @param arr массив для сортировки
-     * @return результат сортировки (количество сравнений и перестановок)
+     * Массив, прочитанный из файла в фоновом потоке
      */
-    public static SortResult insertionSort(int[] arr) {
-        long comparisons = 0;
-        long swaps = 0;
-
-        for (int i = 1; i < arr.length; i++) {
-            int current = arr[i];
-            int j = i - 1;
-
-            // Сдвигаем все элементы вправо которые больше current
-            while (j >= 0 && arr[j] > current) {
-                comparisons++;
-                arr[j + 1] = arr[j];
-                swaps++;
-                j--;
-            }
-
-            if (j >= 0) {
-                comparisons++;
-            }
-
-            arr[j + 1] = current;
-        }
-
-        return new SortResult(comparisons, swaps);
+    private static class LoadedArray {
+        int[] array;
+        BinaryArrayHeader header;  // null для текстового файла
+        long loadTime;             // мс
+        IOException error;         // ошибка чтения (массив не прочитан)
     }
 
-    /**
-     * Сортировка бинарными вставками
-     * @param arr массив для сортировки
-     * @return результат сортировки (количество сравнений и перестановок)
-     */
-    public static SortResult binaryInsertionSort(int[] arr) {
-        SortResult result = new SortResult(0, 0);
-        for (int i = 1; i < arr.length; i++) {
-            int current = arr[i];
+    private static class BatchCategoryDataset extends DefaultCategoryDataset {
+        private boolean changed;
 
-            // Определяем позицию для вставки в подмассиве [0..i-1] используя метод бинарного поиска
-            int position = binarySearchPosition(arr, current, 0, i-1, result);
+        @Override
+        protected void fireDatasetChanged() {
+            changed = true;
+        }
 
-            int j = i - 1;
-            while (j >= position) {
-                arr[j + 1] = arr[j];
-                result.swaps++;
-                j--;
+        void flush() {
+            if (changed) {
+                changed = false;
+                super.fireDatasetChanged();
             }
-
-            arr[position] = current;
         }
-
-        return result;
     }
 
     /**
-     * Бинарный поиск позиции для вставки элемента
-     * @param arr массив
-     * @param value значение для вставки
-     * @param left левая граница поиска
-     * @param right правая граница поиска
-     * @param result объект для хранения статистики
-     * @return позиция для вставки
+     * Набор данных среднего и отклонения с отложенными уведомлениями (см. {@link BatchCategoryDataset})
      */
-    private static int binarySearchPosition(int[] arr, int value, int left, int right, SortResult result) {
-        while (left <= right) {
-            int mid = (left + right) / 2;
-            result.comparisons++;
+    private static class BatchStatisticalCategoryDataset extends DefaultStatisticalCategoryDataset {
+        private boolean changed;
 
-            if (value < arr[mid]) {
-                right = mid - 1;
-            } else {
-                left = mid + 1;
-            }
+        @Override
+        protected void fireDatasetChanged() {
+            changed = true;
         }
 
-        return left;
-    }
-
-    /**
-     * Класс для хранения результатов сортировки
-     */
-    static class SortResult {
-        long comparisons; // количество сравнений
-        long swaps;       // количество перестановок/вставок
-
-        public SortResult(long comparisons, long swaps) {
-            this.comparisons = comparisons;
-            this.swaps = swaps;
+        void flush() {
+            if (changed) {
+                changed = false;
+                super.fireDatasetChanged();
+            }
         }
     }
 
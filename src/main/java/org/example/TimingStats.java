@@ -0,0 +1,111 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Статистика времени по нескольким повторам одного эксперимента (значения в наносекундах)
+ */
+public class TimingStats {
+    private final int count;
+    private final long min;
+    private final long max;
+    private final double mean;
+    private final double median;
+    private final long p95;
+    private final long p99;
+    private final double stddev;
+    private final long[] samples;
+
+    private TimingStats(int count, long min, long max, double mean, double median, long p95, long p99, double stddev,
+                        long[] samples) {
+        this.count = count;
+        this.min = min;
+        this.max = max;
+        this.mean = mean;
+        this.median = median;
+        this.p95 = p95;
+        this.p99 = p99;
+        this.stddev = stddev;
+        this.samples = samples;
+    }
+
+    /**
+     * Расчет статистики по замерам
+     * @param nanos время каждого повтора в наносекундах (не изменяется)
+     * @return статистика
+     */
+    public static TimingStats of(long[] nanos) {
+        if (nanos.length == 0) {
+            throw new IllegalArgumentException("Нет замеров времени");
+        }
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        int n = sorted.length;
+
+        double sum = 0;
+        for (long value : sorted) {
+            sum += value;
+        }
+        double mean = sum / n;
+
+        double squares = 0;
+        for (long value : sorted) {
+            squares += (value - mean) * (value - mean);
+        }
+        double stddev = n > 1 ? Math.sqrt(squares / (n - 1)) : 0;
+
+        double median = n % 2 == 1 ? sorted[n / 2] : (sorted[n / 2 - 1] + sorted[n / 2]) / 2.0;
+
+        return new TimingStats(n, sorted[0], sorted[n - 1], mean, median, percentile(sorted, 95), percentile(sorted, 99),
+                stddev, nanos.clone());
+    }
+
+    /**
+     * Перцентиль по методу ближайшего ранга
+     * @param sorted отсортированные замеры
+     * @param percent перцентиль (0..100)
+     */
+    static long percentile(long[] sorted, double percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getMin() {
+        return min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getMedian() {
+        return median;
+    }
+
+    public long getP95() {
+        return p95;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public double getStddev() {
+        return stddev;
+    }
+
+    /**
+     * @return время каждого повтора в наносекундах в порядке выполнения (копия)
+     */
+    public long[] getSamples() {
+        return samples.clone();
+    }
+}
@@ -0,0 +1,545 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Воспроизведение трассы, записанной {@link TraceWriter}: состояние массива восстанавливается
+ * применением событий по одному вперед и назад, с переходом к произвольному событию.
+ * <p>
+ * Файл читается потоком через буфер. Для каждого примененного события в кольцевой журнал отмены
+ * записываются значение, которое перемещение затерло, смещение события в файле и предыдущее событие,
+ * поэтому шаг назад в пределах последних {@link #getUndoCapacity()} событий выполняется за O(1).
+ * <p>
+ * Для длинных переходов при движении вперед через каждые {@link #getCheckpointInterval()}
+ * событий запоминается контрольная точка: копия массива, временной ячейки и смещение в файле.
+ * Переход назад дальше журнала отмены восстанавливает ближайшую предшествующую точку и доходит до цели вперед.
+ * Если точек становится больше {@code maxCheckpoints}, остается каждая вторая, а интервал удваивается,
+ * поэтому память ограничена {@code maxCheckpoints} копиями массива при любой длине трассы.
+ */
+public final class TraceReplay implements Closeable {
+    /**
+     * Интервал контрольных точек по умолчанию, событий
+     */
+    public static final long DEFAULT_CHECKPOINT_INTERVAL = 1 << 20;
+    /**
+     * Наибольшее количество контрольных точек по умолчанию
+     */
+    public static final int DEFAULT_MAX_CHECKPOINTS = 64;
+    /**
+     * Емкость журнала отмены по умолчанию, событий (около 25 байт на событие)
+     */
+    public static final int DEFAULT_UNDO_CAPACITY = 1 << 16;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Состояние воспроизведения после события с номером position
+     */
+    private static final class Checkpoint {
+        final long position;
+        final long offset;
+        final int[] array;
+        final int temp;
+        final int last;
+        final int type;
+        final int first;
+        final int second;
+        final boolean result;
+
+        Checkpoint(TraceReplay replay) {
+            this.position = replay.position;
+            this.offset = replay.offset();
+            this.array = replay.array.clone();
+            this.temp = replay.temp;
+            this.last = replay.last;
+            this.type = replay.type;
+            this.first = replay.first;
+            this.second = replay.second;
+            this.result = replay.result;
+        }
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long bufferStart;
+
+    private final String algorithmId;
+    private final long eventCount;
+    private final long comparisons;
+    private final long moves;
+    private final int[] array;
+    private final int maxCheckpoints;
+    private final List<Checkpoint> checkpoints = new ArrayList<>();
+    private long checkpointInterval;
+
+    // Кольцевой журнал отмены: запись i описывает событие, примененное в позиции, и состояние до него
+    private final long[] undoOffset;
+    private final int[] undoValue;
+    private final int[] undoLast;
+    private final int[] undoFirst;
+    private final int[] undoSecond;
+    private final byte[] undoType;
+    private int undoHead;
+    private int undoSize;
+
+    private long position;
+    private int temp;
+    private int last;
+    private boolean finished;
+    // Последнее примененное событие
+    private int type = -1;
+    private int first = Metrics.TEMP;
+    private int second = Metrics.TEMP;
+    private boolean result;
+
+    /**
+     * Открытие трассы с параметрами контрольных точек по умолчанию
+     */
+    public TraceReplay(File file) throws IOException {
+        this(file, DEFAULT_CHECKPOINT_INTERVAL, DEFAULT_MAX_CHECKPOINTS, DEFAULT_UNDO_CAPACITY);
+    }
+
+    /**
+     * Открытие трассы с журналом отмены по умолчанию
+     */
+    public TraceReplay(File file, long checkpointInterval, int maxCheckpoints) throws IOException {
+        this(file, checkpointInterval, maxCheckpoints, DEFAULT_UNDO_CAPACITY);
+    }
+
+    /**
+     * Открытие трассы
+     * @param file файл трассы
+     * @param checkpointInterval начальный интервал контрольных точек, событий
+     * @param maxCheckpoints наибольшее количество контрольных точек (не меньше 2)
+     * @param undoCapacity емкость журнала отмены, событий (0 — шаг назад только через контрольные точки)
+     * @throws IOException если файл не является трассой или поврежден
+     */
+    public TraceReplay(File file, long checkpointInterval, int maxCheckpoints, int undoCapacity) throws IOException {
+        if (undoCapacity < 0) {
+            throw new IllegalArgumentException("Емкость журнала отмены не может быть отрицательной: " + undoCapacity);
+        }
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("Интервал контрольных точек должен быть положительным: " + checkpointInterval);
+        }
+        if (maxCheckpoints < 2) {
+            throw new IllegalArgumentException("Контрольных точек должно быть не меньше 2: " + maxCheckpoints);
+        }
+        this.checkpointInterval = checkpointInterval;
+        this.maxCheckpoints = maxCheckpoints;
+        this.undoOffset = new long[undoCapacity];
+        this.undoValue = new int[undoCapacity];
+        this.undoLast = new int[undoCapacity];
+        this.undoFirst = new int[undoCapacity];
+        this.undoSecond = new int[undoCapacity];
+        this.undoType = new byte[undoCapacity];
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(TraceWriter.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // читаем заголовок целиком
+            }
+            header.flip();
+            if (header.remaining() < TraceWriter.HEADER_SIZE || header.getInt() != TraceWriter.MAGIC) {
+                throw new IOException("Файл не является трассой сортировки");
+            }
+            short version = header.getShort();
+            if (version != TraceWriter.VERSION) {
+                throw new IOException("Неподдерживаемая версия трассы: " + version);
+            }
+            header.getShort();
+            long n = header.getLong();
+            if (n < 0 || n > Integer.MAX_VALUE - 8) {
+                throw new IOException("Некорректное количество элементов в трассе: " + n);
+            }
+            this.eventCount = header.getLong();
+            this.comparisons = header.getLong();
+            this.moves = header.getLong();
+            byte[] id = new byte[TraceWriter.ALGORITHM_BYTES];
+            header.get(id);
+            int length = 0;
+            while (length < id.length && id[length] != 0) {
+                length++;
+            }
+            this.algorithmId = new String(id, 0, length, StandardCharsets.US_ASCII);
+
+            this.array = new int[(int) n];
+            seekFile(TraceWriter.HEADER_SIZE);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < array.length; i++) {
+                if (buffer.remaining() < Integer.BYTES) {
+                    refill();
+                    if (buffer.remaining() < Integer.BYTES) {
+                        throw new IOException("Трасса обрывается в исходном массиве");
+                    }
+                }
+                array[i] = buffer.getInt();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        checkpoints.add(new Checkpoint(this));
+    }
+
+    public String getAlgorithmId() {
+        return algorithmId;
+    }
+
+    /**
+     * @return количество событий из заголовка (-1, если запись не была завершена)
+     */
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    public long getMoves() {
+        return moves;
+    }
+
+    /**
+     * @return состояние массива после {@link #getPosition()} событий (не изменять)
+     */
+    public int[] getArray() {
+        return array;
+    }
+
+    /**
+     * @return значение временной ячейки
+     */
+    public int getTemp() {
+        return temp;
+    }
+
+    /**
+     * @return количество примененных событий
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * @return true, если достигнут конец трассы
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public long getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    public int getCheckpointCount() {
+        return checkpoints.size();
+    }
+
+    public int getUndoCapacity() {
+        return undoOffset.length;
+    }
+
+    /**
+     * @return true, если последнее примененное событие — сравнение
+     */
+    public boolean isCompare() {
+        return type == TraceWriter.COMPARE;
+    }
+
+    /**
+     * @return true, если последнее примененное событие — перемещение
+     */
+    public boolean isMove() {
+        return type == TraceWriter.MOVE;
+    }
+
+    /**
+     * @return первый операнд последнего события (индекс или {@link Metrics#TEMP})
+     */
+    public int getFirst() {
+        return first;
+    }
+
+    /**
+     * @return второй операнд последнего события (индекс или {@link Metrics#TEMP})
+     */
+    public int getSecond() {
+        return second;
+    }
+
+    /**
+     * @return результат последнего сравнения
+     */
+    public boolean getResult() {
+        return result;
+    }
+
+    /**
+     * @return описание последнего события, например {@code compare(5, tmp) = true} или {@code move(4 -> 5)}
+     */
+    public String describeEvent() {
+        if (type == TraceWriter.COMPARE) {
+            return "compare(" + operand(first) + ", " + operand(second) + ") = " + result;
+        } else if (type == TraceWriter.MOVE) {
+            return "move(" + operand(first) + " -> " + operand(second) + ")";
+        }
+        return "начало";
+    }
+
+    private static String operand(int index) {
+        return index == Metrics.TEMP ? "tmp" : Integer.toString(index);
+    }
+
+    /**
+     * Применение следующего события
+     * @return false, если трасса закончилась
+     */
+    public boolean stepForward() throws IOException {
+        if (finished) {
+            return false;
+        }
+        long eventOffset = offset();
+        int previousLast = last;
+        int tag = nextByte();
+        if (tag < 0 || (tag & TraceWriter.TYPE_MASK) == TraceWriter.END) {
+            finished = true;
+            return false;
+        }
+
+        int eventType = tag & TraceWriter.TYPE_MASK;
+        boolean flag = (tag & TraceWriter.FLAG) != 0;
+        boolean firstTemp = (tag & TraceWriter.FIRST_TEMP) != 0;
+        boolean secondTemp = (tag & TraceWriter.SECOND_TEMP) != 0;
+        int inline = tag >>> TraceWriter.INLINE_SHIFT;
+        boolean implicitSecond = eventType == TraceWriter.MOVE && flag;
+
+        int a = Metrics.TEMP;
+        int b = Metrics.TEMP;
+        if (!firstTemp) {
+            a = last + (inline != 0 ? inline - 4 : readVarint());
+            last = a;
+        }
+        if (implicitSecond) {
+            b = a + 1;
+            last = b;
+        } else if (!secondTemp) {
+            b = last + (inline != 0 && firstTemp ? inline - 4 : readVarint());
+            last = b;
+        }
+
+        if (eventType != TraceWriter.MOVE && eventType != TraceWriter.COMPARE) {
+            throw new IOException("Неизвестный тип события " + eventType + " после события " + position);
+        }
+        int overwritten = 0;
+        if (eventType == TraceWriter.MOVE) {
+            int value = a == Metrics.TEMP ? temp : array[a];
+            if (b == Metrics.TEMP) {
+                overwritten = temp;
+                temp = value;
+            } else {
+                overwritten = array[b];
+                array[b] = value;
+            }
+        }
+        pushUndo(eventOffset, previousLast, overwritten);
+        type = eventType;
+        first = a;
+        second = b;
+        result = eventType == TraceWriter.COMPARE && flag;
+        position++;
+
+        if (position % checkpointInterval == 0 && checkpoints.get(checkpoints.size() - 1).position < position) {
+            addCheckpoint();
+        }
+        return true;
+    }
+
+    /**
+     * Отмена последнего события
+     * @return false, если воспроизведение в начале трассы
+     */
+    public boolean stepBack() throws IOException {
+        if (position == 0) {
+            return false;
+        }
+        if (undoSize > 0) {
+            undo();
+        } else {
+            seek(position - 1);
+        }
+        return true;
+    }
+
+    /**
+     * Запись в журнал отмены состояния до применяемого события (вызывается до изменения type, first, second)
+     */
+    private void pushUndo(long eventOffset, int previousLast, int overwritten) {
+        int capacity = undoOffset.length;
+        if (capacity == 0) {
+            return;
+        }
+        undoOffset[undoHead] = eventOffset;
+        undoValue[undoHead] = overwritten;
+        undoLast[undoHead] = previousLast;
+        undoFirst[undoHead] = first;
+        undoSecond[undoHead] = second;
+        // Тип предыдущего события и результат его сравнения в одном байте (тип -1 — начало трассы)
+        undoType[undoHead] = (byte) (type < 0 ? -1 : type << 1 | (result ? 1 : 0));
+        undoHead = undoHead + 1 == capacity ? 0 : undoHead + 1;
+        if (undoSize < capacity) {
+            undoSize++;
+        }
+    }
+
+    /**
+     * Отмена последнего события по журналу: возвращается затертое значение и предыдущее событие
+     */
+    private void undo() throws IOException {
+        undoHead = (undoHead == 0 ? undoOffset.length : undoHead) - 1;
+        undoSize--;
+        if (type == TraceWriter.MOVE) {
+            if (second == Metrics.TEMP) {
+                temp = undoValue[undoHead];
+            } else {
+                array[second] = undoValue[undoHead];
+            }
+        }
+        last = undoLast[undoHead];
+        first = undoFirst[undoHead];
+        second = undoSecond[undoHead];
+        int previous = undoType[undoHead];
+        type = previous < 0 ? -1 : previous >>> 1;
+        result = previous >= 0 && (previous & 1) != 0;
+        position--;
+        finished = false;
+
+        // Событие обычно еще в буфере чтения; иначе буфер перечитывается со смещения события
+        long eventOffset = undoOffset[undoHead];
+        if (eventOffset >= bufferStart && eventOffset <= bufferStart + buffer.limit()) {
+            buffer.position((int) (eventOffset - bufferStart));
+        } else {
+            seekFile(eventOffset);
+        }
+    }
+
+    /**
+     * Переход к состоянию после заданного количества событий
+     * @param target номер события (0 — исходный массив)
+     * @return фактическая позиция (меньше target, если трасса короче)
+     */
+    public long seek(long target) throws IOException {
+        if (target < 0) {
+            throw new IllegalArgumentException("Номер события не может быть отрицательным: " + target);
+        }
+        // Недалеко назад — по журналу отмены
+        while (target < position && position - target <= undoSize) {
+            undo();
+        }
+        if (target < position) {
+            Checkpoint checkpoint = checkpoints.get(0);
+            for (Checkpoint candidate : checkpoints) {
+                if (candidate.position <= target) {
+                    checkpoint = candidate;
+                }
+            }
+            restore(checkpoint);
+        }
+        while (position < target && stepForward()) {
+            // применяем события до цели
+        }
+        return position;
+    }
+
+    private void addCheckpoint() {
+        checkpoints.add(new Checkpoint(this));
+        if (checkpoints.size() > maxCheckpoints) {
+            // Оставляем начальную точку и точки, кратные удвоенному интервалу
+            checkpointInterval *= 2;
+            List<Checkpoint> kept = new ArrayList<>();
+            for (Checkpoint checkpoint : checkpoints) {
+                if (checkpoint.position % checkpointInterval == 0) {
+                    kept.add(checkpoint);
+                }
+            }
+            checkpoints.clear();
+            checkpoints.addAll(kept);
+        }
+    }
+
+    private void restore(Checkpoint checkpoint) throws IOException {
+        System.arraycopy(checkpoint.array, 0, array, 0, array.length);
+        position = checkpoint.position;
+        temp = checkpoint.temp;
+        last = checkpoint.last;
+        type = checkpoint.type;
+        first = checkpoint.first;
+        second = checkpoint.second;
+        result = checkpoint.result;
+        finished = false;
+        seekFile(checkpoint.offset);
+        // Журнал описывает события после прежней позиции
+        undoSize = 0;
+    }
+
+    /**
+     * @return смещение в файле следующего непрочитанного байта
+     */
+    private long offset() {
+        return bufferStart + buffer.position();
+    }
+
+    private void seekFile(long offset) throws IOException {
+        channel.position(offset);
+        bufferStart = offset;
+        buffer.clear().limit(0);
+    }
+
+    private void refill() throws IOException {
+        bufferStart += buffer.position();
+        buffer.compact();
+        while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+            // дочитываем буфер
+        }
+        buffer.flip();
+    }
+
+    private int nextByte() throws IOException {
+        if (!buffer.hasRemaining()) {
+            refill();
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    private int readVarint() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = nextByte();
+            if (b < 0) {
+                throw new IOException("Трасса обрывается внутри события " + (position + 1));
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (value >>> 1) ^ -(value & 1);
+            }
+        }
+        throw new IOException("Некорректное число в событии " + (position + 1));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,275 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Запись трассы сортировки: каждое сравнение и перемещение с индексами операндов
+ * ({@link Metrics#compare(int, int, boolean)}, {@link Metrics#move(int, int)}) кодируется в поток байт,
+ * который через буфер пишется в {@link FileChannel}. Трасса не держится в памяти, поэтому
+ * миллиарды событий ограничены только местом на диске.
+ * <pre>
+ * смещение  размер  поле
+ *  0        4       сигнатура "SRTT"
+ *  4        2       версия формата
+ *  6        2       зарезервировано (нули)
+ *  8        8       количество элементов n
+ * 16        8       количество событий (заполняется при закрытии)
+ * 24        8       сравнения
+ * 32        8       перемещения
+ * 40        24      идентификатор алгоритма (ASCII, дополняется нулями)
+ * 64        4·n     исходный массив int32
+ * далее             события, в конце — байт {@link #END}
+ * </pre>
+ * Событие — байт-тег и от нуля до двух чисел varint (LEB128, zigzag). Биты тега: 0–1 — тип
+ * ({@link #COMPARE}, {@link #MOVE}), 2 — результат сравнения или признак перемещения в соседнюю ячейку
+ * {@code to = from + 1}, 3 и 4 — первый и второй операнд равны {@link Metrics#TEMP}. Индекс операнда
+ * записывается как разность с предыдущим записанным индексом; если у первого записываемого индекса
+ * разность в пределах ±3, она помещается в биты 5–7 тега и отдельного числа нет.
+ * Поэтому типичные события сортировки вставками занимают один байт.
+ * Числа заголовка — little-endian.
+ * <p>
+ * Запись идет через те же ядра, что и замеры времени, и делает вызовы {@link Metrics} в них мегаморфными
+ * (см. {@link CountingMetrics}). Поэтому класс используется только из отдельного процесса {@link SortTrace}
+ * и не должен подключаться к приложению или пакетному режиму.
+ */
+public final class TraceWriter implements Metrics, Closeable {
+    /**
+     * Сигнатура файла: байты 'S', 'R', 'T', 'T'
+     */
+    public static final int MAGIC = 0x54545253;
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 64;
+    static final int ALGORITHM_BYTES = 24;
+
+    static final int COMPARE = 0;
+    static final int MOVE = 1;
+    static final int END = 3;
+    static final int TYPE_MASK = 3;
+    static final int FLAG = 1 << 2;
+    static final int FIRST_TEMP = 1 << 3;
+    static final int SECOND_TEMP = 1 << 4;
+    static final int INLINE_SHIFT = 5;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    // Тег и два числа varint по 5 байт
+    private static final int MAX_EVENT_BYTES = 11;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final SortProgress progress;
+    private final String algorithmId;
+
+    private int last;
+    private long events;
+    private long comparisons;
+    private long moves;
+    private boolean closed;
+
+    /**
+     * Создание файла трассы и запись заголовка с исходным массивом.
+     * Алгоритм проверяется до создания файла: ядро без индексов операций не смогло бы записать трассу
+     * и прервалось бы только посреди сортировки.
+     * @param file файл трассы (перезаписывается)
+     * @param initial массив до сортировки
+     * @param algorithm алгоритм, который будет сортировать с этим приемником
+     * @param progress приемник прогресса и отмены (может быть null)
+     * @throws IllegalArgumentException если алгоритм не поддерживает трассировку ({@link SortAlgorithm#supportsTrace()})
+     */
+    public TraceWriter(File file, int[] initial, SortAlgorithm algorithm, SortProgress progress) throws IOException {
+        if (!algorithm.supportsTrace()) {
+            throw new IllegalArgumentException("Алгоритм " + algorithm.getName() + " не поддерживает трассировку: "
+                    + "его ядро не сообщает индексы сравнений и перемещений");
+        }
+        this.progress = progress;
+        this.algorithmId = algorithm.getId();
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            byte[] id = algorithmId.getBytes(StandardCharsets.US_ASCII);
+            buffer.putInt(MAGIC);
+            buffer.putShort(VERSION);
+            buffer.putShort((short) 0);
+            buffer.putLong(initial.length);
+            buffer.putLong(-1);
+            buffer.putLong(0);
+            buffer.putLong(0);
+            buffer.put(id, 0, Math.min(id.length, ALGORITHM_BYTES));
+            buffer.position(HEADER_SIZE);
+            for (int value : initial) {
+                if (buffer.remaining() < Integer.BYTES) {
+                    flush();
+                }
+                buffer.putInt(value);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void compare(int i, int j, boolean result) {
+        comparisons++;
+        event(COMPARE | (result ? FLAG : 0), i, j, false);
+    }
+
+    @Override
+    public void move(int from, int to) {
+        if (from != TEMP && to != TEMP) {
+            moves++;
+        }
+        boolean adjacent = from != TEMP && to == from + 1;
+        event(MOVE | (adjacent ? FLAG : 0), from, to, adjacent);
+    }
+
+    /**
+     * Запись события
+     * @param implicitSecond второй операнд следует из первого и не записывается
+     */
+    private void event(int tag, int first, int second, boolean implicitSecond) {
+        if (buffer.remaining() < MAX_EVENT_BYTES) {
+            flushUnchecked();
+        }
+        if (first == TEMP) {
+            tag |= FIRST_TEMP;
+        }
+        if (second == TEMP) {
+            tag |= SECOND_TEMP;
+        }
+
+        // Первый записываемый индекс может уместиться в тег
+        boolean writeFirst = first != TEMP;
+        boolean writeSecond = second != TEMP && !implicitSecond;
+        int inlineOperand = writeFirst ? first : writeSecond ? second : TEMP;
+        boolean inline = false;
+        if (inlineOperand != TEMP) {
+            int delta = inlineOperand - last;
+            if (delta >= -3 && delta <= 3) {
+                tag |= (delta + 4) << INLINE_SHIFT;
+                inline = true;
+            }
+        }
+        buffer.put((byte) tag);
+
+        if (writeFirst) {
+            if (!inline) {
+                putVarint(first - last);
+            }
+            last = first;
+        }
+        if (writeSecond) {
+            if (!(inline && !writeFirst)) {
+                putVarint(second - last);
+            }
+            last = second;
+        } else if (implicitSecond) {
+            last = second;
+        }
+        events++;
+    }
+
+    private void putVarint(int delta) {
+        int value = (delta << 1) ^ (delta >> 31);
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Алгоритмы без трассировки отклоняются конструктором; вызов без индексов означает, что алгоритм
+     * объявил {@link SortAlgorithm#supportsTrace()}, но его ядро нарушает этот контракт
+     */
+    @Override
+    public void compare() {
+        throw new IllegalStateException("Алгоритм " + algorithmId
+                + " объявляет поддержку трассировки, но ядро сообщило сравнение без индексов");
+    }
+
+    @Override
+    public void move() {
+        throw new IllegalStateException("Алгоритм " + algorithmId
+                + " объявляет поддержку трассировки, но ядро сообщило перемещение без индексов");
+    }
+
+    @Override
+    public void moves(long count) {
+        throw new IllegalStateException("Алгоритм " + algorithmId
+                + " объявляет поддержку трассировки, но ядро сообщило перемещения без индексов");
+    }
+
+    /**
+     * @throws CancellationException если запись была отменена через приемник прогресса
+     */
+    @Override
+    public void progress(int processed) {
+        if (progress != null) {
+            progress.update(processed, comparisons, moves);
+        }
+    }
+
+    public long getEvents() {
+        return events;
+    }
+
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    public long getMoves() {
+        return moves;
+    }
+
+    /**
+     * @return количество байт трассы, включая заголовок и еще не записанный буфер
+     */
+    public long getBytes() throws IOException {
+        return channel.position() + buffer.position();
+    }
+
+    private void flushUnchecked() {
+        try {
+            flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка записи трассы", e);
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Запись признака конца, счетчиков в заголовок и закрытие файла
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            buffer.put((byte) END);
+            flush();
+            ByteBuffer counters = ByteBuffer.allocate(3 * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            counters.putLong(events).putLong(comparisons).putLong(moves).flip();
+            channel.write(counters, 16);
+        } finally {
+            channel.close();
+        }
+    }
+}